@@ -0,0 +1,193 @@
+-- Before/after benchmark for V62 (monthly partitions on attendance).
+--
+-- Run against a scratch database, never production:
+--   createdb attendance_bench && psql -d attendance_bench -f attendance_partitioning_benchmark.sql
+--
+-- Generates four academic years (2021-09 .. 2025-06) of roll calls for 2,400 students in 80
+-- classes, one row per student per school day (about 1.8M rows), and loads the same rows
+-- into two layouts in schema attendance_bench:
+--   attendance_heap  - single table with the indexes of V19, V50 and V58 (before)
+--   attendance_part  - monthly partitions with the indexes of V62 (after)
+-- Each query is then run against both with EXPLAIN (ANALYZE, BUFFERS). Compare "Execution
+-- Time" and shared buffers hit/read; run the script twice and read the second run for warm
+-- cache numbers. The last section times removing the oldest academic year (DELETE versus
+-- DETACH) inside transactions that are rolled back, so the data survives for reruns.
+
+\timing on
+\set ON_ERROR_STOP on
+
+DROP SCHEMA IF EXISTS attendance_bench CASCADE;
+CREATE SCHEMA attendance_bench;
+SET search_path = attendance_bench;
+
+/* ----------------------------------------------------------------------
+   Dataset
+------------------------------------------------------------------------ */
+CREATE TABLE source AS
+SELECT row_number() OVER (ORDER BY d.day, s.student_id) AS id,
+       s.student_id                                     AS user_id,
+       (s.class_id * 10 + (d.day_of_week - 1) % 5)      AS course_id,
+       s.class_id,
+       s.class_id * 100 + extract(isodow FROM d.day)::int AS timetable_slot_id,
+       d.day                                            AS date,
+       CASE
+           WHEN r.roll < 0.88 THEN 'PRESENT'
+           WHEN r.roll < 0.95 THEN 'ABSENT'
+           WHEN r.roll < 0.98 THEN 'LATE'
+           ELSE 'EXCUSED'
+       END                                              AS status,
+       'STUDENT'                                        AS user_type,
+       NULL::text                                       AS remarks,
+       1000 + s.class_id                                AS recorded_by_id,
+       d.day + TIME '08:05'                             AS created_at,
+       d.day + TIME '08:05'                             AS updated_at
+FROM (SELECT g::date AS day, extract(isodow FROM g)::int AS day_of_week
+      FROM generate_series(DATE '2021-09-01', DATE '2025-06-30', INTERVAL '1 day') g
+      WHERE extract(isodow FROM g) < 6
+        AND extract(month FROM g) NOT IN (7, 8)) d
+CROSS JOIN (SELECT n AS student_id, (n - 1) / 30 + 1 AS class_id
+            FROM generate_series(1, 2400) n) s
+CROSS JOIN LATERAL (SELECT random() AS roll) r;
+
+SELECT COUNT(*) AS generated_rows, MIN(date), MAX(date) FROM source;
+
+/* ----------------------------------------------------------------------
+   Before: one heap, indexes as of V58
+------------------------------------------------------------------------ */
+CREATE TABLE attendance_heap (
+    id                BIGINT PRIMARY KEY,
+    user_id           BIGINT NOT NULL,
+    course_id         BIGINT,
+    class_id          BIGINT,
+    timetable_slot_id BIGINT,
+    date              DATE NOT NULL,
+    status            VARCHAR(20) NOT NULL,
+    user_type         VARCHAR(10),
+    remarks           TEXT,
+    recorded_by_id    BIGINT,
+    created_at        TIMESTAMP,
+    updated_at        TIMESTAMP
+);
+INSERT INTO attendance_heap SELECT * FROM source;
+
+CREATE INDEX heap_user_date ON attendance_heap(user_id, date);
+CREATE INDEX heap_class_date ON attendance_heap(class_id, date);
+CREATE INDEX heap_course_date ON attendance_heap(course_id, date);
+CREATE INDEX heap_user_type_date ON attendance_heap(user_type, date);
+CREATE INDEX heap_status ON attendance_heap(status);
+CREATE INDEX heap_timetable_slot_date ON attendance_heap(timetable_slot_id, date);
+CREATE INDEX heap_teacher_date ON attendance_heap(recorded_by_id, date) WHERE user_type = 'STUDENT';
+CREATE INDEX heap_slot_teacher_date ON attendance_heap(timetable_slot_id, date) WHERE user_type = 'STUDENT';
+CREATE INDEX heap_teacher_slot_date_status ON attendance_heap(timetable_slot_id, date, status) WHERE user_type = 'STUDENT';
+CREATE UNIQUE INDEX heap_user_class_date ON attendance_heap(user_id, class_id, date);
+
+/* ----------------------------------------------------------------------
+   After: monthly partitions, indexes as of V62
+------------------------------------------------------------------------ */
+CREATE TABLE attendance_part (LIKE attendance_heap) PARTITION BY RANGE (date);
+
+DO $$
+DECLARE
+    month_start DATE := DATE '2021-09-01';
+BEGIN
+    WHILE month_start < DATE '2025-07-01' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF attendance_part FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_part_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END$$;
+
+INSERT INTO attendance_part SELECT * FROM source;
+
+ALTER TABLE attendance_part ADD PRIMARY KEY (id, date);
+CREATE UNIQUE INDEX part_user_class_date ON attendance_part(user_id, class_id, date);
+CREATE INDEX part_date ON attendance_part(date);
+CREATE INDEX part_user_date ON attendance_part(user_id, date);
+CREATE INDEX part_class_date ON attendance_part(class_id, date);
+CREATE INDEX part_course_date ON attendance_part(course_id, date);
+CREATE INDEX part_timetable_slot_date ON attendance_part(timetable_slot_id, date);
+CREATE INDEX part_teacher_date ON attendance_part(recorded_by_id, date) WHERE user_type = 'STUDENT';
+CREATE INDEX part_teacher_slot_date_status ON attendance_part(timetable_slot_id, date, status) WHERE user_type = 'STUDENT';
+
+VACUUM ANALYZE attendance_heap;
+VACUUM ANALYZE attendance_part;
+
+SELECT 'heap' AS layout, pg_size_pretty(pg_total_relation_size('attendance_heap')) AS total_size
+UNION ALL
+SELECT 'partitioned', pg_size_pretty(SUM(pg_total_relation_size(inhrelid)))
+FROM pg_inherits WHERE inhparent = 'attendance_part'::regclass;
+
+/* ----------------------------------------------------------------------
+   Queries (shapes from AttendanceRepository), "today" = 2025-06-16
+------------------------------------------------------------------------ */
+\echo '== 1. General statistics for the current month (findByDateBetween / rollup backfill)'
+EXPLAIN (ANALYZE, BUFFERS) SELECT status, COUNT(*) FROM attendance_heap
+WHERE date BETWEEN DATE '2025-06-01' AND DATE '2025-06-16' GROUP BY status;
+EXPLAIN (ANALYZE, BUFFERS) SELECT status, COUNT(*) FROM attendance_part
+WHERE date BETWEEN DATE '2025-06-01' AND DATE '2025-06-16' GROUP BY status;
+
+\echo '== 2. Class roll call for today (findByClassIdAndDateWithAssociations)'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_heap WHERE class_id = 42 AND date = DATE '2025-06-16';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_part WHERE class_id = 42 AND date = DATE '2025-06-16';
+
+\echo '== 3. Teacher day schedule, attendance of five slots (findStudentAttendanceBySlotIdsAndDate)'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_heap
+WHERE timetable_slot_id IN (1001, 2001, 3001, 4001, 5001) AND date = DATE '2025-06-16' AND user_type = 'STUDENT';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_part
+WHERE timetable_slot_id IN (1001, 2001, 3001, 4001, 5001) AND date = DATE '2025-06-16' AND user_type = 'STUDENT';
+
+\echo '== 4. One student, academic year to date (findByUserIdAndDateBetween)'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_heap
+WHERE user_id = 1234 AND date BETWEEN DATE '2024-09-01' AND DATE '2025-06-16' ORDER BY date DESC;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM attendance_part
+WHERE user_id = 1234 AND date BETWEEN DATE '2024-09-01' AND DATE '2025-06-16' ORDER BY date DESC;
+
+\echo '== 5. Bitmap index load, whole academic year (streamDayStatuses)'
+EXPLAIN (ANALYZE, BUFFERS) SELECT user_id, date, status FROM attendance_heap
+WHERE date BETWEEN DATE '2024-09-01' AND DATE '2025-08-31';
+EXPLAIN (ANALYZE, BUFFERS) SELECT user_id, date, status FROM attendance_part
+WHERE date BETWEEN DATE '2024-09-01' AND DATE '2025-08-31';
+
+\echo '== 6. Roll-call upsert of one class (30 rows, ON CONFLICT on user/class/date), rolled back'
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+INSERT INTO attendance_heap
+SELECT id + 10000000, user_id, course_id, class_id, timetable_slot_id, date, 'ABSENT', user_type, remarks,
+       recorded_by_id, created_at, updated_at
+FROM source WHERE class_id = 42 AND date = DATE '2025-06-16'
+ON CONFLICT (user_id, class_id, date) DO UPDATE SET status = EXCLUDED.status;
+ROLLBACK;
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+INSERT INTO attendance_part
+SELECT id + 10000000, user_id, course_id, class_id, timetable_slot_id, date, 'ABSENT', user_type, remarks,
+       recorded_by_id, created_at, updated_at
+FROM source WHERE class_id = 42 AND date = DATE '2025-06-16'
+ON CONFLICT (user_id, class_id, date) DO UPDATE SET status = EXCLUDED.status;
+ROLLBACK;
+
+/* ----------------------------------------------------------------------
+   Removing the oldest academic year (2021-09 .. 2022-08), rolled back
+------------------------------------------------------------------------ */
+\echo '== 7a. Heap: DELETE of one academic year (plus the VACUUM it leaves behind)'
+BEGIN;
+DELETE FROM attendance_heap WHERE date < DATE '2022-09-01';
+ROLLBACK;
+
+\echo '== 7b. Partitions: DETACH of twelve months (what /attendance/partitions/archive does)'
+BEGIN;
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'attendance_part'::regclass AND c.relname < 'attendance_part_p2022_09'
+    LOOP
+        EXECUTE format('ALTER TABLE attendance_part DETACH PARTITION %I', part.relname);
+    END LOOP;
+END$$;
+ROLLBACK;
+
+-- DROP SCHEMA attendance_bench CASCADE;
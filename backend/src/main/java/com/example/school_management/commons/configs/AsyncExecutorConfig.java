@@ -0,0 +1,82 @@
+package com.example.school_management.commons.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated worker pools for background jobs and request fan-out, kept apart from the default
+ * {@code @Async} executor so a backlog in one cannot starve the other.
+ */
+@Configuration
+public class AsyncExecutorConfig {
+
+    /**
+     * Delivers absence alerts from the notification outbox. The queue is bounded and
+     * the poller runs overflow itself, which throttles claiming instead of dropping work.
+     */
+    @Bean(name = "absenceNotificationExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor absenceNotificationExecutor(
+            @Value("${app.attendance.absence-outbox.workers:4}") int workers,
+            @Value("${app.attendance.absence-outbox.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("absence-outbox-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs dashboard sections side by side. Every section holds a database connection while it
+     * runs, so concurrency stays below the connection pool either way: virtual threads behind a
+     * concurrency limit on Java 21+, otherwise a fixed pool whose overflow runs on the caller.
+     */
+    @Bean(name = "dashboardExecutor")
+    public AsyncTaskExecutor dashboardExecutor(
+            @Value("${app.dashboard.workers:8}") int workers,
+            @Value("${app.dashboard.virtual-threads:true}") boolean virtualThreads) {
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(workers);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 16);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Rebuilds stale dashboard snapshots in the background. A rebuild waits on its own sections,
+     * so it must not take a dashboard worker. Overflow is rejected rather than run on the caller:
+     * the request that noticed the stale snapshot never waits for the rebuild.
+     */
+    @Bean(name = "dashboardRefreshExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardRefreshExecutor(
+            @Value("${app.dashboard.snapshot.refresh-workers:2}") int workers,
+            @Value("${app.dashboard.snapshot.refresh-queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
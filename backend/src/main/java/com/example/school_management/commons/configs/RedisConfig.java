@@ -1,6 +1,8 @@
 package com.example.school_management.commons.configs;
 
+import com.example.school_management.feature.operational.dto.AttendanceDto;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
@@ -17,11 +19,13 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 
 /**
  * Redis configuration for caching and rate limiting
@@ -91,6 +95,16 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Subscriptions to Redis pub/sub channels
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     /**
      * Cache manager with TTL configurations
      */
@@ -117,6 +131,17 @@ public class RedisConfig {
         RedisCacheConfiguration userCacheConfig = defaultCacheConfig.entryTtl(Duration.ofMinutes(60)); // User data: 1 hour
         RedisCacheConfiguration listingCacheConfig = defaultCacheConfig.entryTtl(Duration.ofMinutes(10)); // Listings: 10 minutes
         RedisCacheConfiguration timetableCacheConfig = defaultCacheConfig.entryTtl(Duration.ofMinutes(5)); // Timetables: 5 minutes
+        RedisCacheConfiguration rankingCacheConfig = defaultCacheConfig.entryTtl(Duration.ofHours(1)); // Rankings and teacher attendance statistics: 1 hour, evicted on writes
+
+        // Teacher day schedules: 1 minute, evicted on attendance writes. AttendanceDto marks its display
+        // fields READ_ONLY for the API, so this cache reads them back through a mixin
+        ObjectMapper scheduleObjectMapper = cacheObjectMapper.copy()
+                .addMixIn(AttendanceDto.class, CachedAttendanceDtoMixin.class);
+        RedisCacheConfiguration teacherScheduleCacheConfig = defaultCacheConfig
+                .entryTtl(Duration.ofMinutes(1))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(scheduleObjectMapper, Object.class)));
+        RedisCacheConfiguration dashboardCacheConfig = defaultCacheConfig.entryTtl(Duration.ofHours(2)); // Dashboard snapshots: 2 hours, invalidated by domain events
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultCacheConfig)
@@ -132,6 +157,36 @@ public class RedisConfig {
                 .withCacheConfiguration("announcements", listingCacheConfig)
                 .withCacheConfiguration("resources", listingCacheConfig)
                 .withCacheConfiguration("grades", listingCacheConfig)
+                .withCacheConfiguration("classRankings", rankingCacheConfig)
+                .withCacheConfiguration("teacherAttendanceStats", rankingCacheConfig)
+                .withCacheConfiguration("teacherDaySchedule", teacherScheduleCacheConfig)
+                .withCacheConfiguration("dashboardSnapshots", dashboardCacheConfig)
                 .build();
     }
+
+    /**
+     * Writable copies of the display fields AttendanceDto marks READ_ONLY, so a cached schedule
+     * comes back with its names and timestamps; every other annotation on the DTO still applies
+     */
+    @SuppressWarnings("unused")
+    private abstract static class CachedAttendanceDtoMixin {
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private Long id;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private String userName;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private String courseName;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private String className;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private String recordedByName;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private Long teacherId;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private String teacherName;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private LocalDateTime createdAt;
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private LocalDateTime updatedAt;
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.school_management.commons.dtos;
+
+import java.util.List;
+
+/**
+ * Keyset page: no total count, just an opaque cursor for the next page (null on the last page).
+ */
+public record CursorPageDto<T>(List<T> content,
+                               int size,
+                               String nextCursor,
+                               boolean hasNext) {
+}
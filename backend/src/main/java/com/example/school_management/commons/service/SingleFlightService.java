@@ -0,0 +1,130 @@
+package com.example.school_management.commons.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into one computation. The first caller for an operation
+ * and its arguments computes the result on its own thread; callers arriving while it runs wait
+ * for that result instead of computing it again, and get its exception if it fails. Nothing is
+ * kept once the computation ends, so this is not a cache: a later call computes afresh.
+ * <p>
+ * Waiting callers share the very same result object, so callers must treat it as read-only, and
+ * it must not hold managed entities: they belong to the first caller's persistence context, so
+ * map to DTOs inside the loader. A caller that joins a computation gets what was read when it
+ * started, which may predate the caller's own write a moment earlier; code that reads back its
+ * own write must not go through here.
+ * Keys must cover everything the result depends on, the current user included. When the number
+ * of computations in flight reaches the limit, new keys are computed without coalescing, and a
+ * waiting caller whose wait times out computes the result itself.
+ * Metrics: {@code singleflight.calls} (operation, outcome leader/collapsed/bypassed) and
+ * {@code singleflight.inflight}.
+ */
+@Slf4j
+@Service
+public class SingleFlightService {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long waitTimeoutMillis;
+
+    public SingleFlightService(MeterRegistry meterRegistry,
+                               @Value("${app.single-flight.enabled:true}") boolean enabled,
+                               @Value("${app.single-flight.max-in-flight:1000}") int maxInFlight,
+                               @Value("${app.single-flight.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .description("Coalesced computations currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The result of {@code loader}, shared with every identical call running at the same time.
+     * {@code operation} names the method, {@code args} are its arguments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> loader, Object... args) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(operation, Arrays.asList(args));
+        CompletableFuture<Object> running = inFlight.get(key);
+        if (running == null) {
+            if (inFlight.size() >= maxInFlight) {
+                record(operation, "bypassed");
+                return loader.get();
+            }
+            CompletableFuture<Object> own = new CompletableFuture<>();
+            running = inFlight.putIfAbsent(key, own);
+            if (running == null) {
+                record(operation, "leader");
+                return (T) lead(key, own, loader);
+            }
+        }
+        record(operation, "collapsed");
+        return (T) await(operation, running, loader);
+    }
+
+    private Object lead(Key key, CompletableFuture<Object> own, Supplier<?> loader) {
+        try {
+            Object result = loader.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private Object await(String operation, CompletableFuture<Object> running, Supplier<?> loader) {
+        try {
+            return running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.debug("Gave up waiting for {} after {} ms, computing it again", operation, waitTimeoutMillis);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation, e);
+        }
+    }
+
+    private void record(String operation, String outcome) {
+        Counter.builder("singleflight.calls")
+                .description("Calls by whether they computed the result or joined one in flight")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Key(String operation, List<Object> args) {}
+}
@@ -8,12 +8,21 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ClassRepository extends JpaRepository<ClassEntity, Long> , JpaSpecificationExecutor<ClassEntity> {
     boolean existsByNameIgnoreCase(String name);
     boolean existsByName(String name);
     
+    List<ClassEntity> findByYearOfStudyOrderByNameAsc(Integer yearOfStudy);
+    
+    // Class membership rows of several classes: [classId, studentId, firstName, lastName]
+    @Query("SELECT c.id, s.id, s.firstName, s.lastName FROM ClassEntity c JOIN c.students s " +
+           "WHERE c.id IN :classIds")
+    List<Object[]> findRosters(@Param("classIds") Collection<Long> classIds);
+    
     // Count classes by teacher ID (through multiple relationships)
     @Query("""
         SELECT COUNT(DISTINCT c) FROM ClassEntity c 
@@ -41,4 +50,55 @@ public interface ClassRepository extends JpaRepository<ClassEntity, Long> , JpaS
         ORDER BY c.name
         """)
     List<ClassEntity> findByTeacherId(@Param("teacherId") Long teacherId);
+
+    // Dashboard figures for every class of a teacher (same relationships as findByTeacherId), one row per class:
+    // [classId, name, activeEnrollments, ungradedEnrollments, teachingAssignments, attendanceRecordedOn,
+    //  averageGrade, lastGradedAt]. Ungraded means active enrollments without any grade from this teacher;
+    // averageGrade is null until the class has grades.
+    @Query(value = """
+        WITH teacher_classes AS (
+            SELECT class_id FROM teaching_assignments WHERE teacher_id = :teacherId
+            UNION
+            SELECT for_class_id FROM timetable_slots WHERE teacher_id = :teacherId AND for_class_id IS NOT NULL
+            UNION
+            SELECT class_id FROM class_teachers WHERE teacher_id = :teacherId
+        )
+        SELECT c.id, c.name,
+               COALESCE(en.active, 0), COALESCE(en.ungraded, 0), COALESCE(ta.assignments, 0),
+               COALESCE(att.recorded, 0),
+               ga.score_sum / NULLIF(ga.grade_count, 0), ga.updated_at
+        FROM classes c
+        JOIN teacher_classes tc ON tc.class_id = c.id
+        LEFT JOIN (
+            SELECT e.class_id, COUNT(*) AS active,
+                   COUNT(*) FILTER (WHERE NOT EXISTS (
+                       SELECT 1 FROM grades g WHERE g.enrollment_id = e.id AND g.assigned_by_id = :teacherId)) AS ungraded
+            FROM enrollments e JOIN teacher_classes t ON t.class_id = e.class_id
+            WHERE e.status = 'ACTIVE'
+            GROUP BY e.class_id
+        ) en ON en.class_id = c.id
+        LEFT JOIN (
+            SELECT class_id, COUNT(*) AS assignments FROM teaching_assignments
+            WHERE teacher_id = :teacherId GROUP BY class_id
+        ) ta ON ta.class_id = c.id
+        LEFT JOIN (
+            SELECT a.class_id, COUNT(DISTINCT a.user_id) AS recorded
+            FROM attendance a JOIN teacher_classes t ON t.class_id = a.class_id
+            WHERE a.date = :date AND a.user_type = 'STUDENT'
+            GROUP BY a.class_id
+        ) att ON att.class_id = c.id
+        LEFT JOIN grade_aggregates ga ON ga.class_id = c.id AND ga.student_id IS NULL
+        ORDER BY c.name
+        """, nativeQuery = true)
+    List<Object[]> findTeacherClassSummaries(@Param("teacherId") Long teacherId, @Param("date") LocalDate date);
+
+    // Teachers linked to any of the classes, through the same relationships as findByTeacherId
+    @Query(value = """
+        SELECT teacher_id FROM teaching_assignments WHERE class_id IN (:classIds) AND teacher_id IS NOT NULL
+        UNION
+        SELECT teacher_id FROM timetable_slots WHERE for_class_id IN (:classIds) AND teacher_id IS NOT NULL
+        UNION
+        SELECT teacher_id FROM class_teachers WHERE class_id IN (:classIds)
+        """, nativeQuery = true)
+    List<Long> findTeacherIdsByClassIds(@Param("classIds") Collection<Long> classIds);
 }
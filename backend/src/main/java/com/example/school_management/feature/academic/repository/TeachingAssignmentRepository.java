@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TeachingAssignmentRepository
         extends JpaRepository<TeachingAssignment, Long>, JpaSpecificationExecutor<TeachingAssignment> {
@@ -55,6 +56,20 @@ public interface TeachingAssignmentRepository
     """)
     List<TeachingAssignment> findByTeacherId(@Param("teacherId") Long teacherId);
     
+    /* Single assignment of a teacher for a class and course ----------- */
+    @Query("""
+        SELECT ta
+        FROM TeachingAssignment ta
+        JOIN FETCH ta.clazz c
+        JOIN FETCH ta.course co
+        WHERE ta.teacher.id = :teacherId
+          AND c.id = :classId
+          AND co.id = :courseId
+    """)
+    Optional<TeachingAssignment> findByTeacherIdAndClassIdAndCourseId(@Param("teacherId") Long teacherId,
+                                                                      @Param("classId") Long classId,
+                                                                      @Param("courseId") Long courseId);
+    
     // Additional query methods for teacher-course linking
     List<TeachingAssignment> findByCourseId(Long courseId);
     List<TeachingAssignment> findByClazzId(Long classId);
@@ -16,9 +16,13 @@ import com.example.school_management.feature.auth.repository.StudentRepository;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.commons.exceptions.ResourceNotFoundException;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+import com.example.school_management.feature.operational.event.ClassRosterChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -50,6 +54,8 @@ public class ClassServiceImpl implements ClassService {
     private final TeachingAssignmentRepository  assignmentRepo;
     private final AuditService auditService;
     private final BaseUserRepository<BaseUser> userRepo;
+    private final SystemCounterService systemCounterService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /* ─────────────────── CRUD ─────────────────── */
 
@@ -65,6 +71,7 @@ public class ClassServiceImpl implements ClassService {
         entity.setName(r.name());
 
         ClassEntity savedEntity = classRepo.save(entity);
+        systemCounterService.add(SystemCounter.CLASSES, 1);
         ClassDto dto = mapper.toClassDto(savedEntity);
         log.info("Class created id={}", dto.id());
         
@@ -128,6 +135,7 @@ public class ClassServiceImpl implements ClassService {
         String className = entity.getName();
         
         classRepo.deleteById(id);
+        systemCounterService.add(SystemCounter.CLASSES, -1);
         
         // Create audit event
         try {
@@ -179,6 +187,7 @@ public class ClassServiceImpl implements ClassService {
         ClassEntity entity = fetch(classRepo, classId, "Class");
         applyBatch(entity.getStudents(), req,
                 id -> fetch(studentRepo, id, "Student"));
+        eventPublisher.publishEvent(new ClassRosterChangedEvent(Set.of(classId), req.ids()));
         return mapper.toClassDto(entity);
     }
 
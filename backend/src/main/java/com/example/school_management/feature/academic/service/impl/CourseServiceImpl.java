@@ -13,7 +13,9 @@ import com.example.school_management.feature.auth.entity.BaseUser;
 import com.example.school_management.feature.auth.repository.BaseUserRepository;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
@@ -35,6 +37,7 @@ public class CourseServiceImpl implements CourseService {
     private final AcademicMapper    mapper;
     private final AuditService auditService;
     private final BaseUserRepository<BaseUser> userRepo;
+    private final SystemCounterService systemCounterService;
 
     /* ─────────────────── CRUD ─────────────────── */
 
@@ -52,6 +55,7 @@ public class CourseServiceImpl implements CourseService {
         fill(entity, r);
 
         Course savedEntity = courseRepo.save(entity);
+        systemCounterService.add(SystemCounter.COURSES, 1);
         CourseDto dto = mapper.toCourseDto(savedEntity);
         log.info("Course created id={}", dto.id());
         
@@ -125,6 +129,7 @@ public class CourseServiceImpl implements CourseService {
         String teacherEmail = entity.getTeacher() != null ? entity.getTeacher().getEmail() : "None";
         
         courseRepo.deleteById(id);
+        systemCounterService.add(SystemCounter.COURSES, -1);
         
         // Create audit event
         try {
@@ -0,0 +1,8 @@
+package com.example.school_management.feature.auth.dto;
+
+/**
+ * Published when a user's profile is patched or the user is soft-deleted.
+ */
+public record UserProfileChangedEvent(
+        Long userId
+) {}
@@ -4,6 +4,7 @@ import com.example.school_management.feature.auth.entity.Parent;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ParentRepository extends BaseUserRepository<Parent>  {
@@ -14,4 +15,12 @@ public interface ParentRepository extends BaseUserRepository<Parent>  {
         WHERE s.id = :studentId
     """)
     List<Parent> findByStudentId(@Param("studentId") Long studentId);
+
+    // One row per (parent, child) link: [Parent, Long studentId]
+    @Query("""
+        SELECT p, s.id FROM Parent p
+        JOIN p.children s
+        WHERE s.id IN :studentIds
+    """)
+    List<Object[]> findParentLinksByStudentIds(@Param("studentIds") Collection<Long> studentIds);
 }
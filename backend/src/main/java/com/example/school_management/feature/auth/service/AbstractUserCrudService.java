@@ -2,6 +2,7 @@ package com.example.school_management.feature.auth.service;
 
 import com.example.school_management.feature.auth.dto.BaseUserDtoMarker; // marker interface "Dto"
 import com.example.school_management.feature.auth.dto.UserCreatedEvent;
+import com.example.school_management.feature.auth.dto.UserProfileChangedEvent;
 import com.example.school_management.feature.auth.entity.BaseUser;
 import com.example.school_management.feature.auth.entity.Status;
 import com.example.school_management.feature.auth.mapper.BaseUserMapper;
@@ -9,6 +10,7 @@ import com.example.school_management.feature.auth.repository.BaseUserRepository;
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +42,7 @@ public abstract class AbstractUserCrudService<
     private final PasswordUtil passwordUtil;
     private final ApplicationEventPublisher events;
     private final AuditService auditService;
+    private final SystemCounterService systemCounterService;
     private final UserRepository userRepository;
 
     protected AbstractUserCrudService(BaseUserRepository<E> repo,
@@ -48,6 +51,7 @@ public abstract class AbstractUserCrudService<
                                       PasswordUtil passwordUtil,
                                       ApplicationEventPublisher events,
                                       AuditService auditService,
+                                      SystemCounterService systemCounterService,
                                       UserRepository userRepository) {
         this.repo             = repo;
         this.mapper           = mapper;
@@ -55,6 +59,7 @@ public abstract class AbstractUserCrudService<
         this.passwordUtil     = passwordUtil;
         this.events           = events;
         this.auditService     = auditService;
+        this.systemCounterService = systemCounterService;
         this.userRepository   = userRepository;
     }
 
@@ -71,6 +76,7 @@ public abstract class AbstractUserCrudService<
         entity.setPasswordChangeRequired(true);
         entity.setStatus(Status.ACTIVE);
         entity = repo.save(entity);
+        systemCounterService.addUsers(entity.getRole(), 1);
         log.info("Created {} id={} email={}", entity.getRole(), entity.getId(), entity.getEmail());
 
         // Create audit event for user creation
@@ -170,7 +176,9 @@ public abstract class AbstractUserCrudService<
         } catch (Exception e) {
             log.warn("Failed to create audit event for user update: {}", e.getMessage());
         }
-        
+
+        // name, e-mail and role are shown on the user's dashboard
+        events.publishEvent(new UserProfileChangedEvent(entity.getId()));
         return entity;
     }
 
@@ -182,6 +190,7 @@ public abstract class AbstractUserCrudService<
         String userDetails = String.format("%s %s (%s)", entity.getFirstName(), entity.getLastName(), entity.getEmail());
         
         entity.setStatus(Status.DELETED);   // hidden by @SQLRestriction
+        systemCounterService.addUsers(entity.getRole(), -1);
         log.info("Soft-deleted user id={}", id);
         
         // Create audit event for user deletion
@@ -201,6 +210,8 @@ public abstract class AbstractUserCrudService<
         } catch (Exception e) {
             log.warn("Failed to create audit event for user deletion: {}", e.getMessage());
         }
+
+        events.publishEvent(new UserProfileChangedEvent(entity.getId()));
     }
     
     /**
@@ -9,6 +9,7 @@ import com.example.school_management.feature.auth.entity.*;
 import com.example.school_management.feature.auth.entity.enums.ContactMethod;
 import com.example.school_management.feature.auth.repository.ParentRepository;
 import com.example.school_management.feature.auth.repository.StudentRepository;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -26,6 +27,7 @@ public class AdminService {
     private final ParentRepository  parentRepo;
     private final PasswordEncoder   passwordEncoder;
     private final EmailService      emailService;
+    private final SystemCounterService systemCounterService;
     private final SecureRandom      secureRandom = new SecureRandom();
 
     @Transactional
@@ -47,6 +49,7 @@ public class AdminService {
         String studentPw = generateAndSetPassword(student);
         student.setStatus(Status.ACTIVE);
         studentRepo.save(student);
+        systemCounterService.addUsers(UserRole.STUDENT, 1);
         log.info("Created STUDENT {} (id={})", student.getEmail(), student.getId());
         emailService.sendWelcomeEmail(
                 student.getId(),
@@ -86,6 +89,7 @@ public class AdminService {
             parent.getChildren().add(student);
 
             parentRepo.save(parent);
+            systemCounterService.addUsers(UserRole.PARENT, 1);
             log.info("Created PARENT {} (id={}) and linked to STUDENT {}",
                     parent.getEmail(), parent.getId(), student.getEmail());
             emailService.sendWelcomeEmail(
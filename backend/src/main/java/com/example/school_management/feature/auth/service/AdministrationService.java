@@ -10,6 +10,7 @@ import com.example.school_management.feature.auth.repository.AdministrationRepos
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -31,8 +32,9 @@ public class AdministrationService extends AbstractUserCrudService<
                                  PasswordUtil pw,
                                  ApplicationEventPublisher events,
                                  AuditService auditService,
+                                 SystemCounterService systemCounterService,
                                  UserRepository userRepository) {
-        super(repo, mapper, enc, pw, events, auditService, userRepository);
+        super(repo, mapper, enc, pw, events, auditService, systemCounterService, userRepository);
         this.mapper = mapper;
         this.passwordEncoder = enc;
         this.administrationRepo = repo;
@@ -8,6 +8,7 @@ import com.example.school_management.feature.auth.entity.*;
 import com.example.school_management.feature.auth.mapper.AuthMapper;
 import com.example.school_management.feature.auth.mapper.UserMapper;
 import com.example.school_management.feature.auth.repository.*;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,7 @@ public class AuthService {
     private final AdministrationRepository administrationRepository;
     private final StaffRepository staffRepository;
     private final PermissionService permissionService;
+    private final SystemCounterService systemCounterService;
 
     /**
      * Authenticate a user and return JWT tokens plus user profile data.
@@ -114,6 +116,7 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setPasswordChangeRequired(true);
         repo.save(user);
+        systemCounterService.addUsers(user.getRole(), 1);
         log.info("Registered {} with forced password change: {}", user.getRole(), user.getEmail());
     }
 
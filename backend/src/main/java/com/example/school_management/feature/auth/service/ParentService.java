@@ -14,6 +14,7 @@ import com.example.school_management.feature.auth.repository.StudentRepository;
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
@@ -43,9 +44,10 @@ public class ParentService extends AbstractUserCrudService<
                         PasswordUtil pw,
                         ApplicationEventPublisher ev,
                         AuditService auditService,
+                        SystemCounterService systemCounterService,
                         StudentRepository studentRepository,
                         UserRepository userRepository) {
-        super(repo, mapper, enc, pw, ev, auditService, userRepository);
+        super(repo, mapper, enc, pw, ev, auditService, systemCounterService, userRepository);
         this.studentRepository = studentRepository;
         this.parentRepository = repo;
     }
@@ -13,6 +13,7 @@ import com.example.school_management.feature.auth.repository.StaffRepository;
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
@@ -40,8 +41,9 @@ public class StaffService extends AbstractUserCrudService<
                         PasswordUtil pw,
                         ApplicationEventPublisher ev,
                         AuditService auditService,
+                        SystemCounterService systemCounterService,
                         UserRepository userRepository) {
-        super(repo, mapper, enc, pw, ev, auditService, userRepository);
+        super(repo, mapper, enc, pw, ev, auditService, systemCounterService, userRepository);
         this.staffRepo = repo;
     }
 
@@ -7,11 +7,13 @@ import com.example.school_management.feature.auth.dto.StudentUpdateDto;
 import com.example.school_management.feature.auth.entity.Student;
 import com.example.school_management.feature.auth.entity.enums.GradeLevel;
 import com.example.school_management.feature.auth.entity.Status;
+import com.example.school_management.feature.auth.entity.UserRole;
 import com.example.school_management.feature.auth.mapper.StudentMapper;
 import com.example.school_management.feature.auth.repository.StudentRepository;
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import com.example.school_management.commons.dto.FilterCriteria;
 import com.example.school_management.commons.utils.DynamicSpecificationBuilder;
 import com.example.school_management.commons.utils.FilterCriteriaParser;
@@ -38,6 +40,7 @@ public class StudentService extends AbstractUserCrudService<
         Student, StudentCreateDto, StudentUpdateDto, StudentDto> {
 
     private final StudentRepository studentRepo;
+    private final SystemCounterService systemCounterService;
 
     public StudentService(StudentRepository repo,
                          StudentMapper mapper,
@@ -45,9 +48,11 @@ public class StudentService extends AbstractUserCrudService<
                          PasswordUtil pw,
                          ApplicationEventPublisher ev,
                          AuditService auditService,
+                         SystemCounterService systemCounterService,
                          UserRepository userRepository) {
-        super(repo, mapper, enc, pw, ev, auditService, userRepository);
+        super(repo, mapper, enc, pw, ev, auditService, systemCounterService, userRepository);
         this.studentRepo = repo;
+        this.systemCounterService = systemCounterService;
     }
 
     /* ---------- Enhanced filtering methods ---------- */
@@ -155,6 +160,7 @@ public class StudentService extends AbstractUserCrudService<
         }
         
         studentRepo.saveAll(students);
+        systemCounterService.addUsers(UserRole.STUDENT, -students.size());
         log.info("Bulk deleted {} students", students.size());
     }
     
@@ -162,10 +168,15 @@ public class StudentService extends AbstractUserCrudService<
     public void bulkUpdateStatus(List<Long> ids, String status) {
         log.debug("Bulk updating status for {} students to {}", ids.size(), status);
         List<Student> students = studentRepo.findAllById(ids);
+        Status newStatus = Status.valueOf(status.toUpperCase());
         for (Student student : students) {
-            student.setStatus(Status.valueOf(status.toUpperCase()));
+            student.setStatus(newStatus);
         }
         studentRepo.saveAll(students);
+        // Loaded students are never DELETED already (@SQLRestriction)
+        if (newStatus == Status.DELETED) {
+            systemCounterService.addUsers(UserRole.STUDENT, -students.size());
+        }
         log.info("Bulk updated status for {} students", students.size());
     }
     
@@ -7,11 +7,13 @@ import com.example.school_management.feature.auth.dto.TeacherCreateDto;
 import com.example.school_management.feature.auth.dto.TeacherDto;
 import com.example.school_management.feature.auth.dto.TeacherUpdateDto;
 import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.entity.UserRole;
 import com.example.school_management.feature.auth.mapper.TeacherMapper;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.auth.util.PasswordUtil;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
@@ -32,6 +34,7 @@ public class TeacherService extends AbstractUserCrudService<
         Teacher, TeacherCreateDto, TeacherUpdateDto, TeacherDto> {
 
     private final TeacherRepository teacherRepo;
+    private final SystemCounterService systemCounterService;
 
     public TeacherService(TeacherRepository repo,
                           TeacherMapper mapper,
@@ -39,9 +42,11 @@ public class TeacherService extends AbstractUserCrudService<
                           PasswordUtil pw,
                           ApplicationEventPublisher ev,
                           AuditService auditService,
+                          SystemCounterService systemCounterService,
                           UserRepository userRepository) {
-        super(repo, mapper, enc, pw, ev, auditService, userRepository);
+        super(repo, mapper, enc, pw, ev, auditService, systemCounterService, userRepository);
         this.teacherRepo = repo;
+        this.systemCounterService = systemCounterService;
     }
 
     /* ---------- Enhanced filtering methods ---------- */
@@ -142,10 +147,16 @@ public class TeacherService extends AbstractUserCrudService<
     public void bulkUpdateStatus(List<Long> ids, String status) {
         log.debug("Bulk updating status for {} teachers to {}", ids.size(), status);
         List<Teacher> teachers = teacherRepo.findAllById(ids);
+        com.example.school_management.feature.auth.entity.Status newStatus =
+            com.example.school_management.feature.auth.entity.Status.valueOf(status.toUpperCase());
         for (Teacher teacher : teachers) {
-            teacher.setStatus(com.example.school_management.feature.auth.entity.Status.valueOf(status.toUpperCase()));
+            teacher.setStatus(newStatus);
         }
         teacherRepo.saveAll(teachers);
+        // Loaded teachers are never DELETED already (@SQLRestriction)
+        if (newStatus == com.example.school_management.feature.auth.entity.Status.DELETED) {
+            systemCounterService.addUsers(UserRole.TEACHER, -teachers.size());
+        }
         log.info("Bulk updated status for {} teachers", teachers.size());
     }
     
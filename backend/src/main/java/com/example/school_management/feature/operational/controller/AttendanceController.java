@@ -2,10 +2,21 @@ package com.example.school_management.feature.operational.controller;
 
 import com.example.school_management.commons.dtos.ApiSuccessResponse;
 import com.example.school_management.commons.dtos.PageDto;
+import com.example.school_management.feature.operational.dto.AttendanceArchiveResult;
 import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.dto.AttendanceIndexInfo;
+import com.example.school_management.feature.operational.dto.AttendanceMarkResult;
+import com.example.school_management.feature.operational.dto.AttendancePartitionInfo;
+import com.example.school_management.feature.operational.dto.AttendanceRecentSummary;
+import com.example.school_management.feature.operational.dto.AttendanceRollupDriftReport;
 import com.example.school_management.feature.operational.dto.AttendanceStatisticsDto;
+import com.example.school_management.feature.operational.dto.AttendanceStatusMatrix;
 import com.example.school_management.feature.operational.dto.TeacherAttendanceClassView;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
 import com.example.school_management.feature.operational.entity.enums.UserType;
+import com.example.school_management.feature.operational.service.AttendanceIndexService;
+import com.example.school_management.feature.operational.service.AttendancePartitionService;
+import com.example.school_management.feature.operational.service.AttendanceRollupService;
 import com.example.school_management.feature.operational.service.AttendanceService;
 import com.example.school_management.feature.academic.entity.TeachingAssignment;
 import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
@@ -39,6 +50,9 @@ import java.util.stream.Collectors;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceIndexService attendanceIndexService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final AttendancePartitionService attendancePartitionService;
     private final TeachingAssignmentRepository teachingAssignmentRepository;
     private final TimetableSlotRepository timetableSlotRepository;
 
@@ -141,6 +155,82 @@ public class AttendanceController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("success", statistics));
     }
 
+    @GetMapping("/statistics/class/{classId}/summary")
+    @Operation(summary = "Get class-wide attendance record counts for a period")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceStatisticsDto>> getClassAttendanceSummary(
+            @PathVariable Long classId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AttendanceStatisticsDto summary = attendanceService.getClassAttendanceSummary(classId, startDate, endDate);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("success", summary));
+    }
+
+    @GetMapping("/statistics/user/{userId}/recent")
+    @Operation(summary = "Count a status over the last N school days and the current streak")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF', 'STUDENT')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceRecentSummary>> getRecentAttendanceSummary(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "ABSENT") AttendanceStatus status,
+            @RequestParam(defaultValue = "10") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        AttendanceRecentSummary summary = attendanceService.getRecentAttendanceSummary(userId, status, days, asOf);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("success", summary));
+    }
+
+    @GetMapping("/index")
+    @Operation(summary = "Get the state and memory use of the in-memory attendance index")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceIndexInfo>> getAttendanceIndexInfo() {
+        return ResponseEntity.ok(new ApiSuccessResponse<>("success", attendanceIndexService.getInfo()));
+    }
+
+    @PostMapping("/index/rebuild")
+    @Operation(summary = "Rebuild the in-memory attendance index from the database")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceIndexInfo>> rebuildAttendanceIndex() {
+        AttendanceIndexInfo info = attendanceIndexService.rebuild();
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Attendance index rebuilt successfully", info));
+    }
+
+    @PostMapping("/rollup/backfill")
+    @Operation(summary = "Recompute the daily attendance rollup from attendance records (whole history when no dates are given)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<Integer>> backfillAttendanceRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = attendanceRollupService.backfill(startDate, endDate);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Attendance rollup backfilled successfully", rows));
+    }
+
+    @GetMapping("/rollup/verify")
+    @Operation(summary = "Compare the daily attendance rollup with attendance records")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceRollupDriftReport>> verifyAttendanceRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        AttendanceRollupDriftReport report = attendanceRollupService.verify(startDate, endDate, repair);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Attendance rollup verified", report));
+    }
+
+    @GetMapping("/partitions")
+    @Operation(summary = "List the monthly partitions of the attendance table")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<List<AttendancePartitionInfo>>> getAttendancePartitions() {
+        return ResponseEntity.ok(new ApiSuccessResponse<>("success", attendancePartitionService.getPartitions()));
+    }
+
+    @PostMapping("/partitions/archive")
+    @Operation(summary = "Detach attendance partitions older than the last N academic years (dry run by default)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceArchiveResult>> archiveAttendancePartitions(
+            @RequestParam int academicYears,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        AttendanceArchiveResult result = attendancePartitionService.archive(academicYears, dryRun);
+        return ResponseEntity.ok(new ApiSuccessResponse<>(dryRun ? "Attendance archive planned" : "Attendance partitions archived", result));
+    }
+
     @PutMapping("/{attendanceId}")
     @Operation(summary = "Update attendance record")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
@@ -291,6 +381,17 @@ public class AttendanceController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("success", summary));
     }
 
+    @GetMapping("/teacher/{teacherId}/summary")
+    @Operation(summary = "Get day x status attendance counts for a teacher's slots over a week or term")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<AttendanceStatusMatrix>> getTeacherAttendanceMatrix(
+            @PathVariable Long teacherId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AttendanceStatusMatrix matrix = attendanceService.getTeacherAttendanceMatrix(teacherId, startDate, endDate);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("success", matrix));
+    }
+
     @GetMapping("/slot/{slotId}/students")
     @Operation(summary = "Get students for a timetable slot with attendance status")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
@@ -307,14 +408,14 @@ public class AttendanceController {
     @PostMapping("/slot/{slotId}/mark")
     @Operation(summary = "Mark attendance for all students in a timetable slot")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
-    public ResponseEntity<ApiSuccessResponse<List<AttendanceDto>>> markAttendanceForSlot(
+    public ResponseEntity<ApiSuccessResponse<AttendanceMarkResult>> markAttendanceForSlot(
             @PathVariable Long slotId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @Valid @RequestBody List<AttendanceDto> attendanceList) {
         LocalDate targetDate = date != null ? date : LocalDate.now();
         log.debug("Marking attendance for slot {} on date {} for {} students", slotId, targetDate, attendanceList.size());
         
-        List<AttendanceDto> markedAttendance = attendanceService.markAttendanceForTimetableSlot(slotId, targetDate, attendanceList);
+        AttendanceMarkResult markedAttendance = attendanceService.markAttendanceForTimetableSlot(slotId, targetDate, attendanceList);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiSuccessResponse<>("success", markedAttendance));
     }
@@ -378,14 +479,14 @@ public class AttendanceController {
     @PostMapping("/class/{classId}/mark")
     @Operation(summary = "Mark attendance for all students in a class")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
-    public ResponseEntity<ApiSuccessResponse<List<AttendanceDto>>> markAttendanceForClass(
+    public ResponseEntity<ApiSuccessResponse<AttendanceMarkResult>> markAttendanceForClass(
             @PathVariable Long classId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @Valid @RequestBody List<AttendanceDto> attendanceList) {
         LocalDate targetDate = date != null ? date : LocalDate.now();
         log.debug("Marking attendance for class {} on date {} for {} students", classId, targetDate, attendanceList.size());
         
-        List<AttendanceDto> markedAttendance = attendanceService.markAttendanceForClass(classId, targetDate, attendanceList);
+        AttendanceMarkResult markedAttendance = attendanceService.markAttendanceForClass(classId, targetDate, attendanceList);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiSuccessResponse<>("success", markedAttendance));
     }
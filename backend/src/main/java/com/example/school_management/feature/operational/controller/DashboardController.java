@@ -2,7 +2,9 @@ package com.example.school_management.feature.operational.controller;
 
 import com.example.school_management.commons.dtos.ApiSuccessResponse;
 import com.example.school_management.feature.operational.dto.DashboardDto;
+import com.example.school_management.feature.operational.dto.SystemCounterDriftReport;
 import com.example.school_management.feature.operational.service.DashboardService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final SystemCounterService systemCounterService;
 
     @GetMapping("/current-user")
     @PreAuthorize("hasAnyAuthority('ADMIN_READ_WRITE', 'TEACHER_READ_WRITE', 'PARENT_READ', 'STUDENT_READ') or hasRole('ADMIN')")
@@ -131,4 +134,15 @@ public class DashboardController {
         Object health = dashboardService.getAdminDashboard(null);
         return ResponseEntity.ok(new ApiSuccessResponse<>("System health retrieved successfully", health));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/system-counters/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Compare the school-wide counters with the tables, optionally repairing drift")
+    public ResponseEntity<ApiSuccessResponse<SystemCounterDriftReport>> verifySystemCounters(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        log.debug("Verifying system counters, repair={}", repair);
+
+        SystemCounterDriftReport report = systemCounterService.verify(repair);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("System counters verified", report));
+    }
+}
@@ -2,10 +2,14 @@ package com.example.school_management.feature.operational.controller;
 
 import com.example.school_management.feature.operational.dto.*;
 import com.example.school_management.feature.operational.entity.AuditEvent;
+import com.example.school_management.feature.operational.service.GradeAggregateService;
 import com.example.school_management.feature.operational.service.GradeService;
 import com.example.school_management.commons.dtos.ApiSuccessResponse;
 import com.example.school_management.commons.dtos.PageDto;
+import com.example.school_management.commons.dtos.CursorPageDto;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -15,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import jakarta.validation.Valid;
@@ -28,6 +33,11 @@ import java.util.List;
 @Validated
 public class GradeController {
     private final GradeService gradeService;
+    private final GradeAggregateService gradeAggregateService;
+
+    // Level-wide workbooks take minutes; other async requests keep the default timeout
+    @Value("${app.grades.export.timeout-ms:600000}")
+    private long exportTimeoutMillis;
 
     // ===== GENERAL GRADE LISTING =====
     
@@ -46,9 +56,12 @@ public class GradeController {
     
     @PostMapping("/bulk")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<ApiSuccessResponse<String>> enterBulkGrades(@Valid @RequestBody BulkGradeEntryRequest request) {
-        gradeService.enterBulkGrades(request);
-        return ResponseEntity.ok(new ApiSuccessResponse<>("Bulk grades entered successfully", null));
+    public ResponseEntity<ApiSuccessResponse<BulkGradeEntryResult>> enterBulkGrades(@Valid @RequestBody BulkGradeEntryRequest request) {
+        BulkGradeEntryResult result = gradeService.enterBulkGrades(request);
+        String message = result.getRejected() == 0
+                ? "Bulk grades entered successfully"
+                : "Bulk grades entered with " + result.getRejected() + " rejected row(s)";
+        return ResponseEntity.ok(new ApiSuccessResponse<>(message, result));
     }
 
     @PatchMapping("/{gradeId}")
@@ -134,6 +147,54 @@ public class GradeController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("Enrollment grades retrieved successfully", dto));
     }
 
+    // ===== CURSOR (KEYSET) RETRIEVAL =====
+    // Newest first on (gradedAt, id); pass nextCursor back as ?cursor=. No count query is run.
+    
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<CursorPageDto<GradeResponse>>> getAllGradesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long courseId) {
+        GradeListFilter filter = GradeListFilter.builder().search(search).courseId(courseId).build();
+        CursorPageDto<GradeResponse> grades = gradeService.getGradesByCursor(filter, cursor, size);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Grades retrieved successfully", grades));
+    }
+    
+    @GetMapping("/student/{studentId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'STUDENT', 'PARENT', 'ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<CursorPageDto<GradeResponse>>> getGradesByStudentIdCursor(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        GradeListFilter filter = GradeListFilter.builder().studentId(studentId).build();
+        CursorPageDto<GradeResponse> grades = gradeService.getGradesByCursor(filter, cursor, size);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Student grades retrieved successfully", grades));
+    }
+    
+    @GetMapping("/class/{classId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<CursorPageDto<GradeResponse>>> getGradesByClassIdCursor(
+            @PathVariable Long classId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        GradeListFilter filter = GradeListFilter.builder().classId(classId).build();
+        CursorPageDto<GradeResponse> grades = gradeService.getGradesByCursor(filter, cursor, size);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Class grades retrieved successfully", grades));
+    }
+    
+    @GetMapping("/enrollment/{enrollmentId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'STUDENT', 'PARENT', 'ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<CursorPageDto<GradeResponse>>> getGradesByEnrollmentIdCursor(
+            @PathVariable Long enrollmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        GradeListFilter filter = GradeListFilter.builder().enrollmentId(enrollmentId).build();
+        CursorPageDto<GradeResponse> grades = gradeService.getGradesByCursor(filter, cursor, size);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Enrollment grades retrieved successfully", grades));
+    }
+
     // ===== GRADE STATISTICS =====
     
     @GetMapping("/statistics/student/{studentId}")
@@ -169,6 +230,44 @@ public class GradeController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("Date range grade statistics retrieved successfully", statistics));
     }
 
+    @GetMapping("/statistics/range")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<GradeStatistics>> getGradeRangeStatistics(
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "WEEK") GradeRangeStatisticsRequest.Bucket bucket) {
+        GradeRangeStatisticsRequest request = GradeRangeStatisticsRequest.builder()
+                .studentId(studentId)
+                .classId(classId)
+                .courseId(courseId)
+                .teacherId(teacherId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .bucket(bucket)
+                .build();
+        GradeStatistics statistics = gradeService.getGradeRangeStatistics(request);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Range grade statistics retrieved successfully", statistics));
+    }
+
+    @PostMapping("/aggregates/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<String>> rebuildGradeAggregates() {
+        gradeAggregateService.rebuild();
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Grade aggregates rebuilt successfully", null));
+    }
+
+    @GetMapping("/aggregates/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiSuccessResponse<GradeAggregateDriftReport>> verifyGradeAggregates(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        GradeAggregateDriftReport report = gradeAggregateService.verify(repair);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Grade aggregates verified", report));
+    }
+
     // ===== AUDIT AND HISTORY =====
     
     @GetMapping("/{gradeId}/audit-history")
@@ -261,9 +360,9 @@ public class GradeController {
     
     @PostMapping("/approve")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    public ResponseEntity<ApiSuccessResponse<String>> approveGrades(@Valid @RequestBody ApproveGradesRequest request) {
-        gradeService.approveGrades(request);
-        return ResponseEntity.ok(new ApiSuccessResponse<>("Grades approved successfully", null));
+    public ResponseEntity<ApiSuccessResponse<GradeApprovalResult>> approveGrades(@Valid @RequestBody ApproveGradesRequest request) {
+        GradeApprovalResult result = gradeService.approveGrades(request);
+        return ResponseEntity.ok(new ApiSuccessResponse<>(result.getApprovedGrades() + " grade(s) approved successfully", result));
     }
     
     // Student Grade Sheet
@@ -276,6 +375,15 @@ public class GradeController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("Student grade sheet retrieved successfully", gradeSheet));
     }
     
+    @GetMapping("/class/{classId}/sheets")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<List<StudentGradeSheet>>> getClassGradeSheets(
+            @PathVariable Long classId, 
+            @RequestParam CreateEnhancedGradeRequest.Semester semester) {
+        List<StudentGradeSheet> gradeSheets = gradeService.getClassGradeSheets(classId, semester);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Class grade sheets retrieved successfully", gradeSheets));
+    }
+    
     @GetMapping("/student/{studentId}/export")
     @PreAuthorize("hasAnyRole('TEACHER', 'STUDENT', 'PARENT', 'ADMIN', 'STAFF')")
     public ResponseEntity<byte[]> exportStudentGradeSheet(
@@ -287,4 +395,37 @@ public class GradeController {
                 .contentType(MediaType.APPLICATION_PDF)
                 .body(pdfBytes);
     }
-} 
\ No newline at end of file
+    
+    @GetMapping("/class/{classId}/sheets/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public WebAsyncTask<Void> exportClassGradeSheets(
+            @PathVariable Long classId, 
+            @RequestParam CreateEnhancedGradeRequest.Semester semester,
+            HttpServletResponse response) {
+        return gradeSheetWorkbook(List.of(classId), "grade-sheets-class-" + classId + "-" + semester, semester, response);
+    }
+    
+    @GetMapping("/level/{yearOfStudy}/sheets/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public WebAsyncTask<Void> exportLevelGradeSheets(
+            @PathVariable Integer yearOfStudy, 
+            @RequestParam CreateEnhancedGradeRequest.Semester semester,
+            HttpServletResponse response) {
+        List<Long> classIds = gradeService.getLevelClassIds(yearOfStudy);
+        return gradeSheetWorkbook(classIds, "grade-sheets-level-" + yearOfStudy + "-" + semester, semester, response);
+    }
+    
+    // The workbook is written on the async request thread, straight into the response, under the
+    // export timeout instead of spring.mvc.async.request-timeout
+    private WebAsyncTask<Void> gradeSheetWorkbook(List<Long> classIds, String filename,
+                                                  CreateEnhancedGradeRequest.Semester semester,
+                                                  HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + ".xlsx\"");
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            gradeService.exportClassGradeSheets(classIds, semester, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
@@ -65,14 +65,28 @@ public class TeacherAttendanceController {
         return ResponseEntity.ok(new ApiSuccessResponse<>("Teacher attendance records for date retrieved successfully", attendanceRecords));
     }
     
+    @GetMapping("/statistics")
+    @Operation(summary = "Get attendance statistics of all teachers", description = "Defaults to the last twelve months")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiSuccessResponse<List<TeacherAttendanceStatistics>>> getAllTeacherAttendanceStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        log.debug("Getting attendance statistics for all teachers between {} and {}", startDate, endDate);
+        
+        List<TeacherAttendanceStatistics> statistics = teacherAttendanceService.getAllTeacherAttendanceStatistics(startDate, endDate);
+        return ResponseEntity.ok(new ApiSuccessResponse<>("Teacher attendance statistics retrieved successfully", statistics));
+    }
+    
     @GetMapping("/statistics/{teacherId}")
-    @Operation(summary = "Get teacher attendance statistics")
+    @Operation(summary = "Get teacher attendance statistics", description = "Defaults to the last twelve months")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'TEACHER')")
     public ResponseEntity<ApiSuccessResponse<TeacherAttendanceStatistics>> getTeacherAttendanceStatistics(
-            @PathVariable Long teacherId) {
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         log.debug("Getting teacher attendance statistics for teacher: {}", teacherId);
         
-        TeacherAttendanceStatistics statistics = teacherAttendanceService.getTeacherAttendanceStatistics(teacherId);
+        TeacherAttendanceStatistics statistics = teacherAttendanceService.getTeacherAttendanceStatistics(teacherId, startDate, endDate);
         return ResponseEntity.ok(new ApiSuccessResponse<>("Teacher attendance statistics retrieved successfully", statistics));
     }
     
@@ -170,17 +170,17 @@ public class TimetableController {
         log.debug("Getting class timetable: {}", classId);
         
         // Get slots directly by class ID instead of through Timetable entity
-        List<TimetableSlot> slots = timetableService.getSlotsByClassId(classId);
-        log.info("Found {} slots for class {}", slots.size(), classId);
+        List<TimetableSlotResponseDto> slotDtos = timetableService.getSlotDtosByClassId(classId);
+        log.info("Found {} slots for class {}", slotDtos.size(), classId);
         
         // Log slot details for debugging
-        for (TimetableSlot slot : slots) {
+        for (TimetableSlotResponseDto slot : slotDtos) {
             log.debug("Slot: {} - {} - {} - {} - {}", 
                 slot.getDayOfWeek(),
-                slot.getPeriod() != null ? slot.getPeriod().getIndex() : "N/A",
-                slot.getForCourse() != null ? slot.getForCourse().getName() : "N/A",
-                slot.getTeacher() != null ? slot.getTeacher().getFirstName() + " " + slot.getTeacher().getLastName() : "N/A",
-                slot.getRoom() != null ? slot.getRoom().getName() : "N/A"
+                slot.getPeriodIndex() != null ? slot.getPeriodIndex() : "N/A",
+                slot.getForCourseName() != null ? slot.getForCourseName() : "N/A",
+                slot.getTeacherId() != null ? slot.getTeacherFirstName() + " " + slot.getTeacherLastName() : "N/A",
+                slot.getRoomName() != null ? slot.getRoomName() : "N/A"
             );
         }
         
@@ -192,10 +192,6 @@ public class TimetableController {
         dto.setAcademicYear("2024-2025");
         dto.setSemester("Fall");
         
-        // Convert slots to DTOs using the mapper
-        List<TimetableSlotResponseDto> slotDtos = slots.stream()
-                .map(timetableResponseMapper::toSlotDto)
-                .collect(Collectors.toList());
         dto.setSlots(slotDtos);
         
         log.info("Returning timetable DTO with {} slots", dto.getSlots() != null ? dto.getSlots().size() : 0);
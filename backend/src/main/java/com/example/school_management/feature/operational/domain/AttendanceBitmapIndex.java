@@ -0,0 +1,344 @@
+package com.example.school_management.feature.operational.domain;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Day-level attendance bitmaps for one academic year. Bit {@code d} of a plane is the
+ * {@code d}-th calendar day from {@link #firstDay()}; each user has one plane per
+ * {@link AttendanceStatus}, and a day sits in exactly one of them. When a user has several
+ * records on a day (one per course or slot) the day takes the most severe status, in
+ * {@link #SEVERITY} order. A shared plane marks school days, i.e. days on which anyone has
+ * a record, so weekends and holidays drop out of streaks and "last M days" windows.
+ * <p>
+ * Planes are allocated on first use and only as long as the last day set, so a student who
+ * has never been late carries no LATE plane. For a 366-day year a plane is at most 6 longs
+ * (64 bytes with its header); with the row, plane table and map entry a student costs about
+ * 300 bytes when present/absent/late are in use and at most 560 bytes with all seven planes,
+ * i.e. under 6 MB for 10,000 users. Rows are locked individually, so readers never see a
+ * day in two planes.
+ */
+public final class AttendanceBitmapIndex {
+
+    /** Most severe first: a day with one absence and five presences counts as absent. */
+    public static final AttendanceStatus[] SEVERITY = {
+            AttendanceStatus.ABSENT,
+            AttendanceStatus.MEDICAL_LEAVE,
+            AttendanceStatus.SICK_LEAVE,
+            AttendanceStatus.EXCUSED,
+            AttendanceStatus.LATE,
+            AttendanceStatus.OTHER,
+            AttendanceStatus.PRESENT
+    };
+
+    private static final int STATUS_COUNT = AttendanceStatus.values().length;
+    private static final int[] RANK = new int[STATUS_COUNT];
+
+    static {
+        for (int i = 0; i < SEVERITY.length; i++) {
+            RANK[SEVERITY[i].ordinal()] = i;
+        }
+    }
+
+    private final LocalDate firstDay;
+    private final int dayCount;
+    private final long[] schoolDays;
+    private final ConcurrentHashMap<Long, Row> rows = new ConcurrentHashMap<>();
+
+    private static final class Row {
+        private final long[][] planes = new long[STATUS_COUNT][];
+    }
+
+    public AttendanceBitmapIndex(LocalDate firstDay, LocalDate lastDay) {
+        if (lastDay.isBefore(firstDay)) {
+            throw new IllegalArgumentException("Index range ends before it starts");
+        }
+        this.firstDay = firstDay;
+        this.dayCount = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+        this.schoolDays = new long[wordCount(dayCount)];
+    }
+
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    public LocalDate lastDay() {
+        return firstDay.plusDays(dayCount - 1L);
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !from.isBefore(firstDay) && !to.isAfter(lastDay()) && !to.isBefore(from);
+    }
+
+    public int userCount() {
+        return rows.size();
+    }
+
+    // ---------------------------------------------------------------- writes
+
+    /**
+     * Sets the user's status for a day, replacing any previous one; null clears the day.
+     * School-day marks are never cleared here, only by rebuilding the index.
+     */
+    public void setDay(long userId, LocalDate date, AttendanceStatus status) {
+        int day = dayOf(date);
+        if (day < 0) return;
+        if (status == null) {
+            Row row = rows.get(userId);
+            if (row == null) return;
+            synchronized (row) {
+                clearDay(row, day);
+            }
+            return;
+        }
+        Row row = rows.computeIfAbsent(userId, id -> new Row());
+        synchronized (row) {
+            clearDay(row, day);
+            setBit(row, status.ordinal(), day);
+        }
+        markSchoolDay(day);
+    }
+
+    /** Adds one record's status to the day, keeping the more severe of it and the current one. */
+    public void mergeDay(long userId, LocalDate date, AttendanceStatus status) {
+        int day = dayOf(date);
+        if (day < 0 || status == null) return;
+        Row row = rows.computeIfAbsent(userId, id -> new Row());
+        synchronized (row) {
+            int current = statusOf(row, day);
+            if (current >= 0 && RANK[current] <= RANK[status.ordinal()]) return;
+            if (current >= 0) clearBit(row, current, day);
+            setBit(row, status.ordinal(), day);
+        }
+        markSchoolDay(day);
+    }
+
+    /** The day status for several records of one user on one day, or null when there are none. */
+    public static AttendanceStatus resolve(Iterable<AttendanceStatus> statuses) {
+        AttendanceStatus resolved = null;
+        for (AttendanceStatus status : statuses) {
+            if (status != null && (resolved == null || RANK[status.ordinal()] < RANK[resolved.ordinal()])) {
+                resolved = status;
+            }
+        }
+        return resolved;
+    }
+
+    // ---------------------------------------------------------------- reads
+
+    /** Days per status (indexed by ordinal) for the user within [from, to]. */
+    public long[] counts(long userId, LocalDate from, LocalDate to) {
+        long[] counts = new long[STATUS_COUNT];
+        addCounts(userId, from, to, counts);
+        return counts;
+    }
+
+    /** Days per status summed over the users, e.g. a class roster. */
+    public long[] aggregate(Iterable<Long> userIds, LocalDate from, LocalDate to) {
+        long[] counts = new long[STATUS_COUNT];
+        for (Long userId : userIds) {
+            addCounts(userId, from, to, counts);
+        }
+        return counts;
+    }
+
+    /** Days per status summed over every indexed user. */
+    public long[] aggregateAll(LocalDate from, LocalDate to) {
+        return aggregate(rows.keySet(), from, to);
+    }
+
+    public int schoolDaysBetween(LocalDate from, LocalDate to) {
+        int fromDay = clampFrom(from);
+        int toDay = clampTo(to);
+        return fromDay > toDay ? 0 : (int) countRange(schoolDays, fromDay, toDay);
+    }
+
+    /**
+     * Consecutive school days up to and including {@code asOf} on which the user had the
+     * status. A school day without a record for the user ends the streak.
+     */
+    public int streak(long userId, AttendanceStatus status, LocalDate asOf) {
+        Row row = rows.get(userId);
+        int last = clampTo(asOf);
+        if (row == null || last < 0) return 0;
+        synchronized (row) {
+            long[] plane = row.planes[status.ordinal()];
+            int streak = 0;
+            for (int word = last >>> 6; word >= 0; word--) {
+                long mask = schoolDays[word] & upTo(word, last);
+                long hits = mask & wordAt(plane, word);
+                long misses = mask & ~hits;
+                if (misses == 0) {
+                    streak += Long.bitCount(mask);
+                    continue;
+                }
+                // School days above the latest miss belong to the streak
+                int lastMiss = 63 - Long.numberOfLeadingZeros(misses);
+                streak += Long.bitCount(mask & (-2L << lastMiss));
+                break;
+            }
+            return streak;
+        }
+    }
+
+    /** How many of the last {@code schoolDayWindow} school days up to {@code asOf} had the status. */
+    public int countInLastSchoolDays(long userId, AttendanceStatus status, int schoolDayWindow, LocalDate asOf) {
+        int last = clampTo(asOf);
+        if (last < 0 || schoolDayWindow <= 0) return 0;
+        int first = nthSchoolDayBack(last, schoolDayWindow);
+        Row row = rows.get(userId);
+        if (row == null) return 0;
+        synchronized (row) {
+            return (int) countRange(row.planes[status.ordinal()], first, last);
+        }
+    }
+
+    /** The latest day on which the user has any record, or null. */
+    public LocalDate lastRecordedDay(long userId) {
+        Row row = rows.get(userId);
+        if (row == null) return null;
+        int latest = -1;
+        synchronized (row) {
+            for (long[] plane : row.planes) {
+                if (plane == null) continue;
+                for (int word = plane.length - 1; word >= 0; word--) {
+                    if (plane[word] != 0) {
+                        latest = Math.max(latest, (word << 6) + 63 - Long.numberOfLeadingZeros(plane[word]));
+                        break;
+                    }
+                }
+            }
+        }
+        return latest < 0 ? null : firstDay.plusDays(latest);
+    }
+
+    /** Approximate heap footprint, using the per-object sizes in the class comment. */
+    public long estimatedBytes() {
+        long bytes = 16 + 16 + 8L * schoolDays.length;
+        for (Row row : rows.values()) {
+            bytes += 48 + 16 + 48; // map node + boxed key, row, plane table
+            synchronized (row) {
+                for (long[] plane : row.planes) {
+                    if (plane != null) bytes += 16 + 8L * plane.length;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    // ---------------------------------------------------------------- internals
+
+    private void addCounts(long userId, LocalDate from, LocalDate to, long[] counts) {
+        Row row = rows.get(userId);
+        int fromDay = clampFrom(from);
+        int toDay = clampTo(to);
+        if (row == null || fromDay > toDay) return;
+        synchronized (row) {
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                counts[status] += countRange(row.planes[status], fromDay, toDay);
+            }
+        }
+    }
+
+    private int nthSchoolDayBack(int last, int n) {
+        int remaining = n;
+        for (int word = last >>> 6; word >= 0; word--) {
+            long mask = schoolDays[word] & upTo(word, last);
+            int bits = Long.bitCount(mask);
+            if (bits < remaining) {
+                remaining -= bits;
+                continue;
+            }
+            // Drop the highest (remaining - 1) school days of this word; the next one is the start
+            for (int i = 1; i < remaining; i++) {
+                mask &= ~Long.highestOneBit(mask);
+            }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(mask);
+        }
+        return 0;
+    }
+
+    private int statusOf(Row row, int day) {
+        for (int status = 0; status < STATUS_COUNT; status++) {
+            if ((wordAt(row.planes[status], day >>> 6) & (1L << day)) != 0) return status;
+        }
+        return -1;
+    }
+
+    private void clearDay(Row row, int day) {
+        int current = statusOf(row, day);
+        if (current >= 0) clearBit(row, current, day);
+    }
+
+    private static void setBit(Row row, int status, int day) {
+        int word = day >>> 6;
+        long[] plane = row.planes[status];
+        if (plane == null || plane.length <= word) {
+            plane = plane == null ? new long[word + 1] : Arrays.copyOf(plane, word + 1);
+            row.planes[status] = plane;
+        }
+        plane[word] |= 1L << day;
+    }
+
+    private static void clearBit(Row row, int status, int day) {
+        long[] plane = row.planes[status];
+        if (plane != null && (day >>> 6) < plane.length) {
+            plane[day >>> 6] &= ~(1L << day);
+        }
+    }
+
+    private void markSchoolDay(int day) {
+        long bit = 1L << day;
+        if ((schoolDays[day >>> 6] & bit) != 0) return;
+        synchronized (schoolDays) {
+            schoolDays[day >>> 6] |= bit;
+        }
+    }
+
+    private int dayOf(LocalDate date) {
+        long day = ChronoUnit.DAYS.between(firstDay, date);
+        return day < 0 || day >= dayCount ? -1 : (int) day;
+    }
+
+    // Range bounds are trimmed to the indexed year: a start before it reads from day 0,
+    // an end before it yields -1 (empty) and an end after it reads to the last day
+    private int clampFrom(LocalDate date) {
+        long day = ChronoUnit.DAYS.between(firstDay, date);
+        return (int) Math.max(0, Math.min(day, dayCount));
+    }
+
+    private int clampTo(LocalDate date) {
+        long day = ChronoUnit.DAYS.between(firstDay, date);
+        return (int) Math.max(-1, Math.min(day, dayCount - 1L));
+    }
+
+    private static long upTo(int word, int last) {
+        return word == last >>> 6 ? -1L >>> (63 - (last & 63)) : -1L;
+    }
+
+    private static long wordAt(long[] plane, int word) {
+        return plane == null || word >= plane.length ? 0L : plane[word];
+    }
+
+    private static long countRange(long[] plane, int from, int to) {
+        if (plane == null || from > to || from < 0) return 0;
+        int fromWord = from >>> 6;
+        int toWord = Math.min(to >>> 6, plane.length - 1);
+        long count = 0;
+        for (int word = fromWord; word <= toWord; word++) {
+            long bits = plane[word];
+            if (word == fromWord) bits &= -1L << from;
+            if (word == to >>> 6) bits &= -1L >>> (63 - (to & 63));
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    private static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.school_management.feature.operational.domain;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+
+/**
+ * Recorded days by status, as read from {@link AttendanceBitmapIndex}, or record counts by
+ * status when summed from the daily rollup. Leave, sick and "other" count towards
+ * {@code recordedDays} only, as they did in the record-based statistics.
+ */
+public record AttendanceDayCounts(
+        long recordedDays,
+        long presentDays,
+        long absentDays,
+        long lateDays,
+        long excusedDays
+) {
+
+    public static AttendanceDayCounts of(long[] daysByStatus) {
+        long recorded = 0;
+        for (long days : daysByStatus) {
+            recorded += days;
+        }
+        return new AttendanceDayCounts(
+                recorded,
+                daysByStatus[AttendanceStatus.PRESENT.ordinal()],
+                daysByStatus[AttendanceStatus.ABSENT.ordinal()],
+                daysByStatus[AttendanceStatus.LATE.ordinal()],
+                daysByStatus[AttendanceStatus.EXCUSED.ordinal()]);
+    }
+
+    public double attendancePercentage() {
+        return recordedDays > 0 ? (double) presentDays / recordedDays * 100 : 0;
+    }
+
+    public double absencePercentage() {
+        return recordedDays > 0 ? (double) absentDays / recordedDays * 100 : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.school_management.feature.operational.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable snapshot of the students of one class: ids sorted ascending in a primitive array
+ * (membership and position by binary search) with first and last names in parallel arrays,
+ * plus the display order (last name, first name, id). {@code version} is the class's roster
+ * version when the snapshot was read; a snapshot older than the current version is discarded.
+ */
+public final class ClassRoster {
+
+    private final Long classId;
+    private final long version;
+    private final long loadedAtMillis;
+    private final long[] studentIds;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final int[] displayOrder;
+
+    private ClassRoster(Long classId, long version, long loadedAtMillis,
+                        long[] studentIds, String[] firstNames, String[] lastNames) {
+        this.classId = classId;
+        this.version = version;
+        this.loadedAtMillis = loadedAtMillis;
+        this.studentIds = studentIds;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.displayOrder = IntStream.range(0, studentIds.length).boxed()
+                .sorted(Comparator.<Integer, String>comparing(i -> nullToEmpty(lastNames[i]))
+                        .thenComparing(i -> nullToEmpty(firstNames[i]))
+                        .thenComparingLong(i -> studentIds[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public static Builder builder(Long classId) {
+        return new Builder(classId);
+    }
+
+    public Long classId() {
+        return classId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long loadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    public int size() {
+        return studentIds.length;
+    }
+
+    public boolean isEmpty() {
+        return studentIds.length == 0;
+    }
+
+    public long studentId(int index) {
+        return studentIds[index];
+    }
+
+    public String firstName(int index) {
+        return firstNames[index];
+    }
+
+    public String lastName(int index) {
+        return lastNames[index];
+    }
+
+    public String fullName(int index) {
+        return firstNames[index] + " " + lastNames[index];
+    }
+
+    /** Position of the student in id order, or a negative value when not on the roster. */
+    public int indexOf(long studentId) {
+        return Arrays.binarySearch(studentIds, studentId);
+    }
+
+    public boolean contains(long studentId) {
+        return indexOf(studentId) >= 0;
+    }
+
+    /** Indexes in display order; callers must not modify the returned array. */
+    public int[] displayOrder() {
+        return displayOrder;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    public static final class Builder {
+
+        private final Long classId;
+        // Students may appear through both the class membership and an enrollment
+        private final Map<Long, String[]> names = new LinkedHashMap<>();
+
+        private Builder(Long classId) {
+            this.classId = classId;
+        }
+
+        public Builder add(Long studentId, String firstName, String lastName) {
+            names.putIfAbsent(studentId, new String[]{firstName, lastName});
+            return this;
+        }
+
+        public ClassRoster build(long version, long loadedAtMillis) {
+            long[] ids = names.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            String[] firstNames = new String[ids.length];
+            String[] lastNames = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                String[] name = names.get(ids[i]);
+                firstNames[i] = name[0];
+                lastNames[i] = name[1];
+            }
+            return new ClassRoster(classId, version, loadedAtMillis, ids, firstNames, lastNames);
+        }
+    }
+}
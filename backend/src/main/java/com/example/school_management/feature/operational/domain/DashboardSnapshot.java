@@ -0,0 +1,21 @@
+package com.example.school_management.feature.operational.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A dashboard as cached in Redis: the JSON the API returned for it, so a snapshot is served
+ * byte for byte as it was built, plus the invalidation tokens that were current when the build
+ * started. A snapshot whose tokens no longer match is stale.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSnapshot {
+
+    private String payload;
+    private long builtAtMillis;
+    private String userToken;
+    private String schoolToken;
+}
@@ -0,0 +1,263 @@
+package com.example.school_management.feature.operational.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Single-pass accumulator for grade statistics over primitive arrays.
+ * Sums, min/max, distribution buckets, variance (Welford) and the least-squares
+ * slope of score over time are maintained as grades are added. Median and
+ * percentiles use quickselect over the retained scores, and the most recent
+ * grades are tracked in a bounded min-heap, so nothing is fully sorted.
+ */
+public final class GradeStatisticsAccumulator {
+
+    private static final double SECONDS_PER_DAY = 86_400d;
+
+    private float[] scores;
+    private float[] selection; // scratch copy for quickselect, invalidated on add
+    private int count;
+
+    private double sum;
+    private double weightedSum;
+    private double weightTotal;
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+
+    private long excellentCount;         // 18-20
+    private long goodCount;              // 14-17.99
+    private long satisfactoryCount;      // 10-13.99
+    private long needsImprovementCount;  // 0-9.99
+
+    // Welford running mean / sum of squared deviations
+    private double runningMean;
+    private double m2;
+
+    // Regression sums, time measured in days since the first dated grade
+    private long timeOrigin;
+    private int datedCount;
+    private double sumT;
+    private double sumTT;
+    private double sumTY;
+    private double sumY;
+
+    // Min-heap on graded-at of the most recent grades; values are insertion positions
+    private final int recentLimit;
+    private final long[] heapTimes;
+    private final int[] heapPositions;
+    private int heapSize;
+
+    public GradeStatisticsAccumulator(int expectedSize, int recentLimit) {
+        this.scores = new float[Math.max(expectedSize, 8)];
+        this.recentLimit = recentLimit;
+        this.heapTimes = new long[recentLimit];
+        this.heapPositions = new int[recentLimit];
+    }
+
+    /**
+     * Adds one grade. A null weight counts as 1; a null date excludes the grade
+     * from the trend and ranks it oldest for recency.
+     */
+    public void add(float score, Float weight, LocalDateTime gradedAt) {
+        int position = count;
+        if (count == scores.length) {
+            scores = Arrays.copyOf(scores, count * 2);
+        }
+        scores[count++] = score;
+        selection = null;
+
+        float w = weight != null ? weight : 1.0f;
+        sum += score;
+        weightedSum += (double) score * w;
+        weightTotal += w;
+        if (score < min) min = score;
+        if (score > max) max = score;
+
+        if (score >= 18) excellentCount++;
+        else if (score >= 14) goodCount++;
+        else if (score >= 10) satisfactoryCount++;
+        else needsImprovementCount++;
+
+        double delta = score - runningMean;
+        runningMean += delta / count;
+        m2 += delta * (score - runningMean);
+
+        long epochSecond = Long.MIN_VALUE;
+        if (gradedAt != null) {
+            epochSecond = gradedAt.toEpochSecond(ZoneOffset.UTC);
+            if (datedCount == 0) timeOrigin = epochSecond;
+            double t = (epochSecond - timeOrigin) / SECONDS_PER_DAY;
+            datedCount++;
+            sumT += t;
+            sumTT += t * t;
+            sumTY += t * score;
+            sumY += score;
+        }
+        offerRecent(epochSecond, position);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double weightedMean() {
+        return weightTotal > 0 ? weightedSum / weightTotal : mean();
+    }
+
+    public float min() {
+        return count == 0 ? 0.0f : min;
+    }
+
+    public float max() {
+        return count == 0 ? 0.0f : max;
+    }
+
+    public long excellentCount() {
+        return excellentCount;
+    }
+
+    public long goodCount() {
+        return goodCount;
+    }
+
+    public long satisfactoryCount() {
+        return satisfactoryCount;
+    }
+
+    public long needsImprovementCount() {
+        return needsImprovementCount;
+    }
+
+    /** Population variance of the scores. */
+    public double variance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double median() {
+        return percentile(0.5);
+    }
+
+    /** Percentile in [0, 1] with linear interpolation between closest ranks. */
+    public double percentile(double p) {
+        if (count == 0) return 0.0;
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+        if (selection == null) {
+            selection = Arrays.copyOf(scores, count);
+        }
+        double rank = p * (count - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        float lowerValue = select(selection, lower);
+        if (upper == lower) return lowerValue;
+        float upperValue = select(selection, upper);
+        return lowerValue + (rank - lower) * (upperValue - lowerValue);
+    }
+
+    /** Least-squares slope of score over time, in points per day; 0 when undetermined. */
+    public double slopePerDay() {
+        if (datedCount < 2) return 0.0;
+        double denominator = datedCount * sumTT - sumT * sumT;
+        if (denominator <= 1e-9) return 0.0; // every grade at the same instant
+        return (datedCount * sumTY - sumT * sumY) / denominator;
+    }
+
+    /** Insertion positions of the most recent grades, newest first. */
+    public int[] recentPositions() {
+        long[] times = Arrays.copyOf(heapTimes, heapSize);
+        int[] positions = Arrays.copyOf(heapPositions, heapSize);
+        // At most recentLimit entries: insertion sort, newest (then latest added) first
+        for (int i = 1; i < heapSize; i++) {
+            long time = times[i];
+            int position = positions[i];
+            int j = i - 1;
+            while (j >= 0 && (times[j] < time || (times[j] == time && positions[j] < position))) {
+                times[j + 1] = times[j];
+                positions[j + 1] = positions[j];
+                j--;
+            }
+            times[j + 1] = time;
+            positions[j + 1] = position;
+        }
+        return positions;
+    }
+
+    // Heap order is (graded-at, position): on equal dates the grade added first is the oldest
+    private void offerRecent(long time, int position) {
+        if (recentLimit == 0) return;
+        if (heapSize < recentLimit) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!older(time, position, heapTimes[parent], heapPositions[parent])) break;
+                heapTimes[i] = heapTimes[parent];
+                heapPositions[i] = heapPositions[parent];
+                i = parent;
+            }
+            heapTimes[i] = time;
+            heapPositions[i] = position;
+        } else if (older(heapTimes[0], heapPositions[0], time, position)) {
+            // Replace the oldest retained grade and sift down
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize
+                        && older(heapTimes[child + 1], heapPositions[child + 1], heapTimes[child], heapPositions[child])) {
+                    child++;
+                }
+                if (!older(heapTimes[child], heapPositions[child], time, position)) break;
+                heapTimes[i] = heapTimes[child];
+                heapPositions[i] = heapPositions[child];
+                i = child;
+            }
+            heapTimes[i] = time;
+            heapPositions[i] = position;
+        }
+    }
+
+    private static boolean older(long time, int position, long otherTime, int otherPosition) {
+        return time < otherTime || (time == otherTime && position < otherPosition);
+    }
+
+    // Hoare-partition quickselect; leaves a partially ordered array that later calls reuse
+    private static float select(float[] values, int k) {
+        int from = 0;
+        int to = values.length - 1;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            float pivot = medianOfThree(values[from], values[mid], values[to]);
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    float tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) to = j;
+            else if (k >= i) from = i;
+            else return values[k];
+        }
+        return values[k];
+    }
+
+    private static float medianOfThree(float a, float b, float c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.school_management.feature.operational.dto;
 
 import lombok.Data;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.NotEmpty;
 import java.util.List;
 
 @Data
 public class ApproveGradesRequest {
     
-    @NotEmpty(message = "Student IDs list cannot be empty")
+    // Approve for these students; when empty, classId must be set and the whole class is approved
     private List<Long> studentIds;
     
+    private Long classId;
+    
     @NotNull(message = "Semester is required")
     private CreateEnhancedGradeRequest.Semester semester;
     
     @NotNull(message = "Approved by is required")
     private String approvedBy;
+    
+    @AssertTrue(message = "Either student IDs or a class ID is required")
+    public boolean isScoped() {
+        return classId != null || (studentIds != null && !studentIds.isEmpty());
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceArchiveResult {
+
+    private int keptAcademicYears;
+    private LocalDate cutoff; // partitions for months before this date are detached
+    private boolean dryRun;
+    private long approximateRows;
+
+    @Builder.Default
+    private List<String> partitions = new ArrayList<>();
+
+    // Names of the detached tables; empty on a dry run
+    @Builder.Default
+    private List<String> archivedTables = new ArrayList<>();
+}
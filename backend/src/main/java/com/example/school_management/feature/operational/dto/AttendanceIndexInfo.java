@@ -0,0 +1,27 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceIndexInfo {
+
+    private boolean loaded;
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+    private int users;
+    private int schoolDays;
+    private long estimatedBytes;
+    private long bytesPerUser;
+    private LocalDateTime loadedAt;
+    private long loadMillis;
+    private long recordsLoaded;
+}
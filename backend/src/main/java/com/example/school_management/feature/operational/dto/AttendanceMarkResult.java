@@ -0,0 +1,29 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceMarkResult {
+
+    private Long classId;
+    private Long timetableSlotId;
+    private LocalDate date;
+
+    // Submitted students, split by what the upsert did to their record
+    private int created;
+    private int updated;
+    private int unchanged;
+
+    @Builder.Default
+    private List<AttendanceDto> records = new ArrayList<>();
+}
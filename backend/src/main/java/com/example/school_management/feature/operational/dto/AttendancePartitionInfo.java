@@ -0,0 +1,20 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendancePartitionInfo {
+
+    private String name;
+    private LocalDate monthStart;
+    private long approximateRows; // planner estimate, refreshed by ANALYZE
+    private long totalBytes;
+}
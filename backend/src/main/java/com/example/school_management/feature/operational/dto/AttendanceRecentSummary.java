@@ -0,0 +1,28 @@
+package com.example.school_management.feature.operational.dto;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * "{@code matchingDays} of the last {@code windowSchoolDays} school days" for one status,
+ * plus the current run of that status ending on {@code asOf}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceRecentSummary {
+
+    private Long userId;
+    private AttendanceStatus status;
+    private LocalDate asOf;
+    private int windowSchoolDays;
+    private int matchingDays;
+    private int currentStreak;
+    private LocalDate lastRecordedDate;
+}
@@ -0,0 +1,39 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceRollupDriftReport {
+
+    private LocalDateTime checkedAt;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int driftedKeys;
+    private boolean repaired;
+
+    @Builder.Default
+    private List<DriftEntry> entries = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DriftEntry {
+        private LocalDate date;
+        private Long classId; // null for records without a class
+        private String userType;
+        private String status;
+        private long storedCount;
+        private long actualCount;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.school_management.feature.operational.dto;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record counts of a date range as a day x status matrix: {@code counts[i][j]} is the number
+ * of records on {@code days[i]} with {@code statuses[j]}. Only days with records are listed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceStatusMatrix {
+
+    private Long teacherId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<AttendanceStatus> statuses;
+
+    @Builder.Default
+    private List<LocalDate> days = new ArrayList<>();
+
+    @Builder.Default
+    private List<long[]> counts = new ArrayList<>();
+
+    private long[] totals; // per status, over the whole range
+    private long totalRecords;
+}
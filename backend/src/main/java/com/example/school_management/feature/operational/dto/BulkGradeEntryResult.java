@@ -0,0 +1,33 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkGradeEntryResult {
+
+    private Long classId;
+    private int submitted;
+    private int accepted;
+    private int rejected;
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private int rowIndex; // position of the entry in the submitted list
+        private Long studentId;
+        private String message;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClassRanking {
+
+    private Long classId;
+    private CreateEnhancedGradeRequest.Semester semester;
+    private int totalStudents;
+
+    // Ordered by rank; tied averages share a rank
+    @Builder.Default
+    private List<Entry> entries = new ArrayList<>();
+
+    public Integer rankOf(Long studentId) {
+        for (Entry entry : entries) {
+            if (entry.getStudentId().equals(studentId)) return entry.getRank();
+        }
+        return null;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Entry {
+        private Long studentId;
+        private Double weightedAverage;
+        private Integer rank;
+    }
+}
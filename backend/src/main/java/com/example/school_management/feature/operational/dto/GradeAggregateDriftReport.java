@@ -0,0 +1,35 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeAggregateDriftReport {
+
+    private LocalDateTime checkedAt;
+    private int studentClassDrift;
+    private int classDrift;
+    private boolean repaired;
+
+    @Builder.Default
+    private List<DriftEntry> entries = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DriftEntry {
+        private Long studentId; // null for class-level aggregates
+        private Long classId;
+        private long storedCount;
+        private long actualCount;
+    }
+}
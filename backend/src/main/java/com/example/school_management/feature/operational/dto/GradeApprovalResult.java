@@ -0,0 +1,21 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeApprovalResult {
+    private Long classId;
+    private CreateEnhancedGradeRequest.Semester semester;
+    private int requestedStudents; // 0 when a whole class was approved
+    private int approvedGrades;    // grades switched to approved by this request
+    private String approvedBy;
+    private LocalDateTime approvedAt;
+}
@@ -0,0 +1,39 @@
+package com.example.school_management.feature.operational.dto;
+
+import com.example.school_management.feature.operational.entity.Grade;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the (gradedAt DESC, id DESC) grade listing: the last row of the previous page.
+ * Serialized as an opaque URL-safe token so clients don't depend on its shape.
+ */
+public record GradeCursor(LocalDateTime gradedAt, Long id) {
+
+    // Sorts after every stored grade (PostgreSQL timestamps stop well before LocalDateTime.MAX)
+    public static final GradeCursor FIRST = new GradeCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static GradeCursor of(Grade grade) {
+        return new GradeCursor(grade.getGradedAt(), grade.getId());
+    }
+
+    public String encode() {
+        String raw = gradedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A token the client altered or truncated is a bad request, not a server error
+    public static GradeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new GradeCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeListFilter {
+
+    // Every filter is optional; null means "all"
+    private Long studentId;
+    private Long classId;
+    private Long enrollmentId;
+    private Long courseId;
+    private String search;
+}
@@ -0,0 +1,41 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeRangeStatisticsRequest {
+
+    // Every filter is optional; null means "all"
+    private Long studentId;
+    private Long classId;
+    private Long courseId;
+    private Long teacherId;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    @Builder.Default
+    private Bucket bucket = Bucket.WEEK;
+
+    public enum Bucket {
+        WEEK("week"),
+        MONTH("month");
+
+        private final String truncUnit; // PostgreSQL date_trunc field
+
+        Bucket(String truncUnit) {
+            this.truncUnit = truncUnit;
+        }
+
+        public String getTruncUnit() {
+            return truncUnit;
+        }
+    }
+}
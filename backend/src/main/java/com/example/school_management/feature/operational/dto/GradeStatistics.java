@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class GradeStatistics {
@@ -26,6 +26,13 @@ public class GradeStatistics {
     private Long satisfactoryCount; // 10-13.99
     private Long needsImprovementCount; // 0-9.99
     
+    // Spread (only when computed from individual grades)
+    private Double variance;
+    private Double standardDeviation;
+    private Double median;
+    private Double percentile25;
+    private Double percentile75;
+    
     // Context information
     private Long studentId;
     private String studentName;
@@ -33,17 +40,23 @@ public class GradeStatistics {
     private String className;
     private Long courseId;
     private String courseName;
+    private Long teacherId;
     
     // Time range
     private LocalDateTime fromDate;
     private LocalDateTime toDate;
     
+    // Time-bucketed series for range statistics
+    private GradeRangeStatisticsRequest.Bucket bucket;
+    private List<GradeTrendPoint> series;
+    
     // Recent grades for context
     private List<GradeResponse> recentGrades;
     
     // Trends
     private Double previousPeriodAverage;
     private String trend; // "IMPROVING", "DECLINING", "STABLE"
+    private Double trendSlope; // least-squares change in score per 30 days
     
     // Additional metrics
     private Double weightedAverage;
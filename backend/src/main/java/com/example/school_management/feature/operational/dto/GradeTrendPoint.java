@@ -0,0 +1,21 @@
+package com.example.school_management.feature.operational.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeTrendPoint {
+    private LocalDateTime periodStart; // start of the week/month bucket
+    private Long gradeCount;
+    private Double averageGrade;
+    private Double weightedAverage;
+    private Float minimumGrade;
+    private Float maximumGrade;
+}
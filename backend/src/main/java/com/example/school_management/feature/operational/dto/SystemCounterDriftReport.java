@@ -0,0 +1,33 @@
+package com.example.school_management.feature.operational.dto;
+
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SystemCounterDriftReport {
+
+    private LocalDateTime checkedAt;
+    private boolean repaired;
+
+    @Builder.Default
+    private List<DriftEntry> entries = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DriftEntry {
+        private SystemCounter counter;
+        private long storedCount;
+        private long actualCount;
+    }
+}
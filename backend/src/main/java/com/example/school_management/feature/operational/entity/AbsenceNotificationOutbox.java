@@ -0,0 +1,52 @@
+package com.example.school_management.feature.operational.entity;
+
+import com.example.school_management.feature.operational.entity.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pending absence alert, written alongside the attendance record and delivered
+ * to the student and their parents by the outbox dispatcher.
+ */
+@Data
+@Entity
+@Table(name = "absence_notification_outbox")
+public class AbsenceNotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "absence_outbox_seq")
+    @SequenceGenerator(name = "absence_outbox_seq", sequenceName = "absence_notification_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "attendance_id", nullable = false)
+    private Long attendanceId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    private String studentName;
+    private String className;
+    private String courseName;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,40 @@
+package com.example.school_management.feature.operational.entity;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Number of attendance records for one (date, class, user type, status) key. Rows are
+ * maintained by database triggers on {@code attendance} and re-derived by
+ * {@link com.example.school_management.feature.operational.service.AttendanceRollupService};
+ * the application only reads them.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "attendance_daily_rollup")
+public class AttendanceDailyRollup {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "class_id")
+    private Long classId;
+
+    // Kept as text: the database user_type also allows PARENT and ADMIN
+    @Column(name = "user_type")
+    private String userType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceStatus status;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Table(name = "grades")
 public class Grade {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grades_seq")
+    @SequenceGenerator(name = "grades_seq", sequenceName = "grades_id_seq", allocationSize = 50)
     private Long id;
 
     private String content;
@@ -19,6 +20,10 @@ public class Grade {
     private Float weight = 1.0f;
     private LocalDateTime gradedAt = LocalDateTime.now();
 
+    // Lower-cased content and student name, maintained by a database trigger (V57)
+    @Column(name = "search_text", insertable = false, updatable = false)
+    private String searchText;
+
     @ManyToOne
     @JoinColumn(name = "enrollment_id", nullable = false)
     private Enrollment enrollment;
@@ -0,0 +1,40 @@
+package com.example.school_management.feature.operational.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running grade statistics for one (student, class) pair, or for a whole class when
+ * {@code studentId} is null. Rows are written with set-based SQL by
+ * {@link com.example.school_management.feature.operational.service.GradeAggregateService}.
+ */
+@Data
+@Entity
+@Table(name = "grade_aggregates")
+public class GradeAggregate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    private long gradeCount;
+    private double scoreSum;
+    private double weightedSum;
+    private double weightTotal;
+    private Double minScore;
+    private Double maxScore;
+
+    private long excellentCount; // 18-20
+    private long goodCount; // 14-17.99
+    private long satisfactoryCount; // 10-13.99
+    private long needsImprovementCount; // 0-9.99
+
+    private LocalDateTime updatedAt;
+}
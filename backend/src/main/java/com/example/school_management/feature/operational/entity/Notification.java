@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @Data
 @Entity(name = "UserNotification")
 @Table(name = "user_notifications")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, NotificationChangeListener.class})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,30 @@
+package com.example.school_management.feature.operational.entity;
+
+import com.example.school_management.feature.operational.event.NotificationsChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link NotificationsChangedEvent} for every notification written or removed.
+ * Notifications are saved from many services (announcements, absence alerts, e-mail, SMS, push),
+ * so the entity is the one place that sees them all.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Notification notification) {
+        if (notification.getUser() != null) {
+            eventPublisher.publishEvent(new NotificationsChangedEvent(notification.getUser().getId()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.school_management.feature.operational.entity;
+
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row of school-wide totals (id 1). Written with set-based SQL by
+ * {@link com.example.school_management.feature.operational.service.SystemCounterService}, with
+ * recent changes kept in {@code system_counter_deltas} until folded in; instances handed out by
+ * the service include those changes, are shared and must not be modified.
+ */
+@Data
+@Entity
+@Table(name = "system_counters")
+public class SystemCounters {
+    @Id
+    private Short id;
+
+    private long students;
+    private long teachers;
+    private long parents;
+    private long classes;
+    private long courses;
+    private long enrollments;
+
+    private LocalDateTime updatedAt;
+
+    public long get(SystemCounter counter) {
+        return switch (counter) {
+            case STUDENTS -> students;
+            case TEACHERS -> teachers;
+            case PARENTS -> parents;
+            case CLASSES -> classes;
+            case COURSES -> courses;
+            case ENROLLMENTS -> enrollments;
+        };
+    }
+}
@@ -5,7 +5,7 @@ public enum AuditEventType {
     COURSE_CREATED, COURSE_UPDATED, COURSE_DELETED,
     CLASS_CREATED, CLASS_UPDATED, CLASS_DELETED,
     ENROLLMENT_CREATED, ENROLLMENT_UPDATED, ENROLLMENT_DELETED,
-    GRADE_RECORDED, GRADE_UPDATED, GRADE_DELETED,
+    GRADE_RECORDED, GRADE_UPDATED, GRADE_DELETED, GRADE_APPROVED,
     RESOURCE_UPLOADED, RESOURCE_UPDATED, RESOURCE_DELETED,
     RESOURCE_COMMENT_ADDED, RESOURCE_COMMENT_DELETED,
     TIMETABLE_UPDATED, ROOM_ASSIGNED, ROOM_CHANGED,
@@ -0,0 +1,8 @@
+package com.example.school_management.feature.operational.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
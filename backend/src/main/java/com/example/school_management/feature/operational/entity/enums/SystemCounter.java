@@ -0,0 +1,21 @@
+package com.example.school_management.feature.operational.entity.enums;
+
+import com.example.school_management.feature.auth.entity.UserRole;
+
+/** The totals kept in {@code system_counters}. */
+public enum SystemCounter {
+    STUDENTS, TEACHERS, PARENTS, CLASSES, COURSES, ENROLLMENTS;
+
+    /** The counter of users with the role, or null for roles that are not counted. */
+    public static SystemCounter forRole(UserRole role) {
+        if (role == null) {
+            return null;
+        }
+        return switch (role) {
+            case STUDENT -> STUDENTS;
+            case TEACHER -> TEACHERS;
+            case PARENT -> PARENTS;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.school_management.feature.operational.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published when attendance records are written or deleted. Listeners re-read every
+ * (user, date) pair of the cross product, so it may over-cover but never under-cover.
+ * {@code teacherIds} are the teachers of the timetable slots the records belong to and
+ * {@code classIds} the classes they were taken in.
+ */
+public record AttendanceChangedEvent(
+        Set<Long> userIds,
+        Set<LocalDate> dates,
+        Set<Long> teacherIds,
+        Set<Long> classIds
+) {
+
+    public AttendanceChangedEvent(Set<Long> userIds, Set<LocalDate> dates) {
+        this(userIds, dates, Set.of(), Set.of());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.school_management.feature.operational.event;
+
+import java.util.Set;
+
+/**
+ * Published when students join or leave classes (class membership or enrollment changes).
+ * A null classIds means the change may span any number of classes; {@code studentIds} are the
+ * students who joined or left, null when unknown.
+ */
+public record ClassRosterChangedEvent(
+        Set<Long> classIds,
+        Set<Long> studentIds
+) {}
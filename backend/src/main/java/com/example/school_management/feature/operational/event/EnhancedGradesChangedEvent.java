@@ -0,0 +1,12 @@
+package com.example.school_management.feature.operational.event;
+
+import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
+
+/**
+ * Published when enhanced grades are created, updated or approved.
+ * A null classId or semester means the change may span several classes/semesters.
+ */
+public record EnhancedGradesChangedEvent(
+        Long classId,
+        CreateEnhancedGradeRequest.Semester semester
+) {}
@@ -0,0 +1,12 @@
+package com.example.school_management.feature.operational.event;
+
+import java.util.Set;
+
+/**
+ * Published when grades are entered, updated or deleted, with the students whose grades changed
+ * and the classes they were entered in.
+ */
+public record GradesChangedEvent(
+        Set<Long> studentIds,
+        Set<Long> classIds
+) {}
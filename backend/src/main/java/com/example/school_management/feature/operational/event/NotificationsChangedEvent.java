@@ -0,0 +1,8 @@
+package com.example.school_management.feature.operational.event;
+
+/**
+ * Published when a notification of the user is created, updated (read status) or deleted.
+ */
+public record NotificationsChangedEvent(
+        Long userId
+) {}
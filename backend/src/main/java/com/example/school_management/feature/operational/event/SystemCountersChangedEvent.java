@@ -0,0 +1,13 @@
+package com.example.school_management.feature.operational.event;
+
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+
+/**
+ * Published when a school-wide counter is adjusted or reconciled. A null counter means any
+ * number of counters may have changed. {@code remote} is true when the change was made on
+ * another instance and this one has just reloaded its copy of the counters.
+ */
+public record SystemCountersChangedEvent(
+        SystemCounter counter,
+        boolean remote
+) {}
@@ -0,0 +1,11 @@
+package com.example.school_management.feature.operational.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a teacher attendance record is created, updated or deleted.
+ */
+public record TeacherAttendanceChangedEvent(
+        Long teacherId,
+        LocalDate date
+) {}
@@ -0,0 +1,58 @@
+package com.example.school_management.feature.operational.repository;
+
+import com.example.school_management.feature.operational.entity.AbsenceNotificationOutbox;
+import com.example.school_management.feature.operational.entity.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AbsenceNotificationOutboxRepository extends JpaRepository<AbsenceNotificationOutbox, Long> {
+
+    // Row-locks due rows; rows already locked by another instance are skipped, not waited on
+    @Query(value = "SELECT id FROM absence_notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE AbsenceNotificationOutbox o " +
+            "SET o.status = com.example.school_management.feature.operational.entity.enums.OutboxStatus.PROCESSING, o.claimedAt = :now " +
+            "WHERE o.id IN :ids")
+    int markProcessing(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AbsenceNotificationOutbox o " +
+            "SET o.status = com.example.school_management.feature.operational.entity.enums.OutboxStatus.SENT, o.processedAt = :now, o.lastError = NULL " +
+            "WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Claims left behind by a worker that died mid-batch go back to the queue
+    @Modifying
+    @Query("UPDATE AbsenceNotificationOutbox o " +
+            "SET o.status = com.example.school_management.feature.operational.entity.enums.OutboxStatus.PENDING, o.claimedAt = NULL " +
+            "WHERE o.status = com.example.school_management.feature.operational.entity.enums.OutboxStatus.PROCESSING AND o.claimedAt < :before")
+    int releaseStaleClaims(@Param("before") LocalDateTime before);
+
+    // Recipients already notified of the given alerts: [outbox_id, recipient_id]
+    @Query(value = "SELECT outbox_id, recipient_id FROM absence_notification_deliveries WHERE outbox_id IN (:ids)",
+            nativeQuery = true)
+    List<Object[]> findDeliveries(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO absence_notification_deliveries (outbox_id, recipient_id, delivered_at) " +
+            "SELECT o.id, :recipientId, now() FROM absence_notification_outbox o WHERE o.id IN (:ids) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int recordDeliveries(@Param("ids") Collection<Long> ids, @Param("recipientId") Long recipientId);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(o.createdAt) FROM AbsenceNotificationOutbox o WHERE o.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxStatus status);
+}
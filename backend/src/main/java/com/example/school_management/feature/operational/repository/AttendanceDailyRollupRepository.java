@@ -0,0 +1,63 @@
+package com.example.school_management.feature.operational.repository;
+
+import com.example.school_management.feature.operational.entity.AttendanceDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceDailyRollupRepository extends JpaRepository<AttendanceDailyRollup, Long> {
+
+    String ACTUAL = "SELECT a.date, a.class_id, a.user_type::text AS user_type, a.status::text AS status, COUNT(*) AS record_count " +
+            "FROM attendance a WHERE a.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.date, a.class_id, a.user_type::text, a.status::text";
+
+    // Reads: index-only scans of the covering indexes
+    @Query("SELECT r.status, SUM(r.recordCount) FROM AttendanceDailyRollup r " +
+            "WHERE r.date BETWEEN :startDate AND :endDate GROUP BY r.status")
+    List<Object[]> sumByStatus(@Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.status, SUM(r.recordCount) FROM AttendanceDailyRollup r " +
+            "WHERE r.classId = :classId AND r.date BETWEEN :startDate AND :endDate GROUP BY r.status")
+    List<Object[]> sumByStatusForClass(@Param("classId") Long classId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // Backfill: callers lock attendance against writes so the triggers cannot interleave
+    @Modifying
+    @Query(value = "LOCK TABLE attendance IN SHARE MODE", nativeQuery = true)
+    void lockAttendanceAgainstWrites();
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_rollup WHERE date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup (date, class_id, user_type, status, record_count) " +
+            "SELECT x.date, x.class_id, x.user_type, x.status, x.record_count FROM (" + ACTUAL + ") x", nativeQuery = true)
+    int insertRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Drift: [date, classId, userType, status, expected, stored] for keys whose stored count is wrong
+    @Query(value = "WITH actual AS (" + ACTUAL + "), " +
+            "stored AS (SELECT r.date, r.class_id, r.user_type, r.status, r.record_count FROM attendance_daily_rollup r " +
+            "           WHERE r.date BETWEEN :startDate AND :endDate AND r.record_count <> 0) " +
+            "SELECT COALESCE(x.date, y.date), COALESCE(x.class_id, y.class_id), COALESCE(x.user_type, y.user_type), " +
+            "       COALESCE(x.status, y.status), COALESCE(x.record_count, 0), COALESCE(y.record_count, 0) " +
+            "FROM actual x FULL JOIN stored y ON x.date = y.date " +
+            "  AND COALESCE(x.class_id, -1) = COALESCE(y.class_id, -1) " +
+            "  AND COALESCE(x.user_type, '') = COALESCE(y.user_type, '') " +
+            "  AND x.status = y.status " +
+            "WHERE COALESCE(x.record_count, 0) <> COALESCE(y.record_count, 0) " +
+            "ORDER BY 1, 2", nativeQuery = true)
+    List<Object[]> findDrift(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Held until the surrounding transaction ends; false when another session holds it
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
@@ -3,17 +3,24 @@ package com.example.school_management.feature.operational.repository;
 import com.example.school_management.feature.operational.entity.Attendance;
 import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
 import com.example.school_management.feature.operational.entity.enums.UserType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long>, JpaSpecificationExecutor<Attendance> {
@@ -23,6 +30,13 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long>, J
     List<Attendance> findByDateBetween(@Param("startDate") LocalDate startDate, 
                                       @Param("endDate") LocalDate endDate);
 
+    // Bounds of the recorded range, for full rollup backfills
+    @Query("SELECT MIN(a.date) FROM Attendance a")
+    Optional<LocalDate> findEarliestDate();
+
+    @Query("SELECT MAX(a.date) FROM Attendance a")
+    Optional<LocalDate> findLatestDate();
+
     // Find attendance by user and date range
     @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date DESC")
     List<Attendance> findByUserIdAndDateBetween(@Param("userId") Long userId, 
@@ -33,6 +47,37 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long>, J
     @Query("SELECT a FROM Attendance a WHERE a.classId = :classId AND a.date = :date ORDER BY a.user.firstName")
     List<Attendance> findByClassIdAndDate(@Param("classId") Long classId, @Param("date") LocalDate date);
 
+    // Roll-call view of a class day with the associations AttendanceDto needs
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user LEFT JOIN FETCH a.course LEFT JOIN FETCH a.classEntity " +
+           "LEFT JOIN FETCH a.timetableSlot LEFT JOIN FETCH a.recordedBy WHERE a.classId = :classId AND a.date = :date")
+    List<Attendance> findByClassIdAndDateWithAssociations(@Param("classId") Long classId, @Param("date") LocalDate date);
+
+    // Bulk roll-call write: one row per array index, keyed on uq_attendance_user_class_date.
+    // Recorder, slot and course are kept from the first write; status and notes are replaced
+    // (a NULL medical note keeps the stored one).
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO attendance (user_id, class_id, course_id, timetable_slot_id, date, status, user_type, " +
+            "remarks, excuse, medical_note, recorded_at, recorded_by_id, created_at, updated_at) " +
+            "SELECT r.user_id, :classId, CAST(:courseId AS BIGINT), CAST(:slotId AS BIGINT), :date, " +
+            "CAST(r.status AS attendance_status), CAST('STUDENT' AS user_type), r.remarks, r.excuse, r.medical_note, " +
+            ":now, :recordedById, :now, :now " +
+            "FROM unnest(CAST(:userIds AS BIGINT[]), CAST(:statuses AS TEXT[]), CAST(:remarks AS TEXT[]), " +
+            "CAST(:excuses AS TEXT[]), CAST(:medicalNotes AS TEXT[])) AS r(user_id, status, remarks, excuse, medical_note) " +
+            "ON CONFLICT (user_id, class_id, date) DO UPDATE SET status = EXCLUDED.status, remarks = EXCLUDED.remarks, " +
+            "excuse = EXCLUDED.excuse, medical_note = COALESCE(EXCLUDED.medical_note, attendance.medical_note), updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int upsertStudentAttendance(@Param("classId") Long classId,
+                                @Param("courseId") Long courseId,
+                                @Param("slotId") Long slotId,
+                                @Param("date") LocalDate date,
+                                @Param("recordedById") Long recordedById,
+                                @Param("now") LocalDateTime now,
+                                @Param("userIds") Long[] userIds,
+                                @Param("statuses") String[] statuses,
+                                @Param("remarks") String[] remarks,
+                                @Param("excuses") String[] excuses,
+                                @Param("medicalNotes") String[] medicalNotes);
+
     // Find attendance by course and date
     @Query("SELECT a FROM Attendance a WHERE a.course.id = :courseId AND a.date = :date ORDER BY a.user.firstName")
     List<Attendance> findByCourseIdAndDate(@Param("courseId") Long courseId, @Param("date") LocalDate date);
@@ -41,6 +86,25 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long>, J
     @Query("SELECT a FROM Attendance a WHERE a.userType = :userType AND a.date = :date ORDER BY a.user.firstName")
     List<Attendance> findByUserTypeAndDate(@Param("userType") UserType userType, @Param("date") LocalDate date);
 
+    // Existing records for a set of users and days (recordBatchAttendance duplicate check)
+    @Query("SELECT a FROM Attendance a WHERE a.user.id IN :userIds AND a.date IN :dates")
+    List<Attendance> findByUserIdInAndDateIn(@Param("userIds") Collection<Long> userIds,
+                                             @Param("dates") Collection<LocalDate> dates);
+
+    // (userId, date, status) of every record in a range, for loading the attendance bitmap index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.user.id, a.date, a.status FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate")
+    Stream<Object[]> streamDayStatuses(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // (userId, date, status) for a set of users and days, for refreshing the bitmap index
+    @Query("SELECT a.user.id, a.date, a.status FROM Attendance a WHERE a.user.id IN :userIds AND a.date IN :dates")
+    List<Object[]> findDayStatuses(@Param("userIds") Collection<Long> userIds,
+                                   @Param("dates") Collection<LocalDate> dates);
+
     // Find attendance by user, course, and date
     @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND a.course.id = :courseId AND a.date = :date")
     Optional<Attendance> findByUserIdAndCourseIdAndDate(@Param("userId") Long userId, 
@@ -83,10 +147,33 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long>, J
     @Query("SELECT a FROM Attendance a WHERE a.timetableSlot.teacher.id = :teacherId AND a.date = :date AND a.userType = 'STUDENT' ORDER BY a.timetableSlot.period.index, a.user.firstName")
     List<Attendance> findStudentAttendanceByTeacherAndDate(@Param("teacherId") Long teacherId, @Param("date") LocalDate date);
     
+    // Same over a date range, with the associations AttendanceDto needs
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user u JOIN FETCH a.timetableSlot ts LEFT JOIN FETCH a.course " +
+           "LEFT JOIN FETCH a.classEntity LEFT JOIN FETCH a.recordedBy " +
+           "WHERE ts.teacher.id = :teacherId AND a.date BETWEEN :startDate AND :endDate AND a.userType = 'STUDENT' " +
+           "ORDER BY a.date, ts.period.index, u.firstName")
+    List<Attendance> findStudentAttendanceByTeacherAndDateBetween(@Param("teacherId") Long teacherId,
+                                                                 @Param("startDate") LocalDate startDate,
+                                                                 @Param("endDate") LocalDate endDate);
+    
+    // [date, status, count] of a teacher's slot attendance, one row per day and status present
+    @Query("SELECT a.date, a.status, COUNT(a) FROM Attendance a " +
+           "WHERE a.timetableSlot.teacher.id = :teacherId AND a.date BETWEEN :startDate AND :endDate AND a.userType = 'STUDENT' " +
+           "GROUP BY a.date, a.status ORDER BY a.date")
+    List<Object[]> countStudentAttendanceByTeacherPerDay(@Param("teacherId") Long teacherId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+    
     // Find attendance for students in a specific timetable slot
     @Query("SELECT a FROM Attendance a WHERE a.timetableSlot.id = :slotId AND a.date = :date AND a.userType = 'STUDENT' ORDER BY a.user.firstName")
     List<Attendance> findStudentAttendanceBySlotAndDate(@Param("slotId") Long slotId, @Param("date") LocalDate date);
     
+    // Student attendance of several slots on a date. Slots, classes and courses are expected to be
+    // loaded already (see TimetableSlotRepository.findTeacherDaySlots), so only users are joined
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user LEFT JOIN FETCH a.recordedBy " +
+           "WHERE a.timetableSlot.id IN :slotIds AND a.date = :date AND a.userType = 'STUDENT'")
+    List<Attendance> findStudentAttendanceBySlotIdsAndDate(@Param("slotIds") Collection<Long> slotIds, @Param("date") LocalDate date);
+    
     // Check if attendance exists for a timetable slot on a date
     @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE a.timetableSlot.id = :slotId AND a.date = :date")
     boolean existsByTimetableSlotAndDate(@Param("slotId") Long slotId, @Param("date") LocalDate date);
@@ -100,4 +187,21 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long>, J
     List<Object[]> getAttendanceStatisticsByTeacher(@Param("teacherId") Long teacherId, 
                                                    @Param("startDate") LocalDate startDate, 
                                                    @Param("endDate") LocalDate endDate);
-} 
\ No newline at end of file
+
+    // Partition maintenance (V62); callers must run inside a read-write transaction
+    // Waits for another session holding the key and is held until the surrounding transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int advisoryXactLock(@Param("key") long key);
+
+    @Query(value = "SELECT create_attendance_partitions(:fromMonth, :toMonth)", nativeQuery = true)
+    int createMonthlyPartitions(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+    @Query(value = "SELECT detach_attendance_partition(:partitionName)", nativeQuery = true)
+    String detachPartition(@Param("partitionName") String partitionName);
+
+    // [name, approximate rows, total bytes] of the attached monthly partitions
+    @Query(value = "SELECT c.relname, GREATEST(c.reltuples, 0)::bigint, pg_total_relation_size(c.oid) " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'attendance'::regclass ORDER BY c.relname", nativeQuery = true)
+    List<Object[]> findPartitions();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +17,21 @@ import java.util.List;
 @Repository
 public interface AuditEventRepository extends JpaRepository<AuditEvent, Long>, JpaSpecificationExecutor<AuditEvent> {
 
+    // One GRADE_APPROVED row per enhanced grade stamped by a single approval, written in one statement
+    @Modifying
+    @Query(value = "INSERT INTO audit_events (event_type, summary, details, entity_type, entity_id, acted_by_id, created_at) " +
+            "SELECT CAST('GRADE_APPROVED' AS audit_event_type), 'Grade approved', " +
+            "CONCAT('Approved by ', eg.approved_by, ' for semester ', eg.semester, ': student ', eg.student_id, " +
+            "', class ', eg.class_id, ', course ', eg.course_code, ', ', eg.exam_type), " +
+            "'EnhancedGrade', eg.id, :actedById, :approvedAt " +
+            "FROM enhanced_grades eg " +
+            "WHERE eg.approved_at = :approvedAt AND eg.approved_by = :approvedBy AND eg.semester = :semester",
+            nativeQuery = true)
+    int insertGradeApprovalEvents(@Param("semester") String semester,
+                                  @Param("approvedBy") String approvedBy,
+                                  @Param("approvedAt") LocalDateTime approvedAt,
+                                  @Param("actedById") Long actedById);
+
     @Query("SELECT ae FROM AuditEvent ae WHERE ae.actedBy.id = :userId ORDER BY ae.createdAt DESC")
     Page<AuditEvent> findByActedByUserId(@Param("userId") Long userId, Pageable pageable);
 
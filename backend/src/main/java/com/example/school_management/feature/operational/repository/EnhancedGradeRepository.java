@@ -2,13 +2,20 @@ package com.example.school_management.feature.operational.repository;
 
 import com.example.school_management.feature.operational.entity.EnhancedGrade;
 import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnhancedGradeRepository extends JpaRepository<EnhancedGrade, Long> {
@@ -28,6 +35,9 @@ public interface EnhancedGradeRepository extends JpaRepository<EnhancedGrade, Lo
     // Find grades by course
     List<EnhancedGrade> findByCourseId(Long courseId);
     
+    // Class-wide grades for one course (teacher grade view)
+    List<EnhancedGrade> findByClassIdAndCourseId(Long classId, Long courseId);
+    
     // Find grades by student and course
     List<EnhancedGrade> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
@@ -57,6 +67,68 @@ public interface EnhancedGradeRepository extends JpaRepository<EnhancedGrade, Lo
     List<EnhancedGrade> findByStudentIdAndSemesterAndIsApproved(Long studentId, CreateEnhancedGradeRequest.Semester semester, Boolean isApproved);
     List<EnhancedGrade> findByClassIdAndSemesterAndIsApproved(Long classId, CreateEnhancedGradeRequest.Semester semester, Boolean isApproved);
     
+    // Set-based approval; grades that are already approved keep their original approver
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EnhancedGrade eg SET eg.isApproved = true, eg.approvedBy = :approvedBy, eg.approvedAt = :approvedAt " +
+           "WHERE eg.semester = :semester AND eg.classId = :classId AND (eg.isApproved = false OR eg.isApproved IS NULL)")
+    int approveByClassIdAndSemester(@Param("classId") Long classId,
+                                    @Param("semester") CreateEnhancedGradeRequest.Semester semester,
+                                    @Param("approvedBy") String approvedBy,
+                                    @Param("approvedAt") LocalDateTime approvedAt);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EnhancedGrade eg SET eg.isApproved = true, eg.approvedBy = :approvedBy, eg.approvedAt = :approvedAt " +
+           "WHERE eg.semester = :semester AND eg.studentId IN :studentIds " +
+           "AND (:classId IS NULL OR eg.classId = :classId) AND (eg.isApproved = false OR eg.isApproved IS NULL)")
+    int approveByStudentIdsAndSemester(@Param("studentIds") Collection<Long> studentIds,
+                                       @Param("classId") Long classId,
+                                       @Param("semester") CreateEnhancedGradeRequest.Semester semester,
+                                       @Param("approvedBy") String approvedBy,
+                                       @Param("approvedAt") LocalDateTime approvedAt);
+    
     @Query("SELECT COUNT(DISTINCT eg.studentId) FROM EnhancedGrade eg WHERE eg.classId = :classId AND eg.semester = :semester")
     Long countDistinctStudentsByClassIdAndSemester(@Param("classId") Long classId, @Param("semester") CreateEnhancedGradeRequest.Semester semester);
+    
+    // Class ranking in one pass: [student_id, weighted_average, rank] ordered by rank.
+    // Course average weights each exam type like GradeServiceImpl.getExamTypeWeight; the
+    // student average weights courses by coefficient, as on the grade sheet.
+    @Query(value = """
+        WITH course_avg AS (
+            SELECT student_id, course_id,
+                   SUM(COALESCE(percentage, 0) * w) / NULLIF(SUM(w), 0) AS average,
+                   MAX(COALESCE(course_coefficient, 1)) AS coefficient
+            FROM (SELECT eg.*, CASE eg.exam_type
+                                   WHEN 'FINAL_EXAM' THEN 0.4
+                                   WHEN 'FIRST_EXAM' THEN 0.25
+                                   WHEN 'SECOND_EXAM' THEN 0.25
+                                   WHEN 'QUIZ' THEN 0.05
+                                   WHEN 'ASSIGNMENT' THEN 0.1
+                                   WHEN 'PROJECT' THEN 0.15
+                                   WHEN 'PARTICIPATION' THEN 0.05
+                                   ELSE 0.1 END AS w
+                  FROM enhanced_grades eg
+                  WHERE eg.class_id = :classId AND eg.semester = :semester) weighted
+            GROUP BY student_id, course_id
+        ), student_avg AS (
+            SELECT student_id, SUM(average * coefficient) / NULLIF(SUM(coefficient), 0) AS weighted_average
+            FROM course_avg
+            GROUP BY student_id
+        )
+        SELECT student_id, weighted_average,
+               RANK() OVER (ORDER BY weighted_average DESC NULLS LAST) AS position
+        FROM student_avg
+        ORDER BY position, student_id
+        """, nativeQuery = true)
+    List<Object[]> findClassRanking(@Param("classId") Long classId, @Param("semester") String semester);
+    
+    // Cursor over a class's grades for streaming exports, grouped student by student and course by course.
+    // The caller must consume it inside a transaction and close it.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT eg FROM EnhancedGrade eg WHERE eg.classId = :classId AND eg.semester = :semester " +
+           "ORDER BY eg.studentId, eg.courseId, eg.gradedAt")
+    Stream<EnhancedGrade> streamByClassIdAndSemester(@Param("classId") Long classId,
+                                                     @Param("semester") CreateEnhancedGradeRequest.Semester semester);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,12 +30,25 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, J
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.classEntity.id = :classId")
     Optional<Enrollment> findByStudentIdAndClassId(@Param("studentId") Long studentId, @Param("classId") Long classId);
 
+    // Resolve the enrollments of a class for a set of students (bulk grade entry passes at most 10,000 ids)
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student s WHERE e.classEntity.id = :classId AND s.id IN :studentIds")
+    List<Enrollment> findByClassIdAndStudentIdIn(@Param("classId") Long classId, @Param("studentIds") Collection<Long> studentIds);
+
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.status = :status ORDER BY e.enrolledAt DESC")
     List<Enrollment> findByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") EnrollmentStatus status);
 
     @Query("SELECT e FROM Enrollment e WHERE e.classEntity.id = :classId AND e.status = :status ORDER BY e.enrolledAt DESC")
     List<Enrollment> findByClassIdAndStatus(@Param("classId") Long classId, @Param("status") EnrollmentStatus status);
 
+    // Roster rows [classId, studentId, firstName, lastName] of the active enrollments of the classes
+    @Query("SELECT e.classEntity.id, s.id, s.firstName, s.lastName FROM Enrollment e JOIN e.student s " +
+           "WHERE e.classEntity.id IN :classIds AND e.status = :status")
+    List<Object[]> findRosters(@Param("classIds") Collection<Long> classIds, @Param("status") EnrollmentStatus status);
+
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.classEntity " +
+           "WHERE e.classEntity.id = :classId AND e.status = :status ORDER BY e.enrolledAt DESC")
+    List<Enrollment> findByClassIdAndStatusWithStudent(@Param("classId") Long classId, @Param("status") EnrollmentStatus status);
+
     @Query("SELECT e FROM Enrollment e WHERE e.enrolledAt BETWEEN :startDate AND :endDate ORDER BY e.enrolledAt DESC")
     Page<Enrollment> findByEnrolledAtBetween(@Param("startDate") LocalDateTime startDate, 
                                             @Param("endDate") LocalDateTime endDate, 
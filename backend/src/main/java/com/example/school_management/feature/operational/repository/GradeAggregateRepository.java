@@ -0,0 +1,146 @@
+package com.example.school_management.feature.operational.repository;
+
+import com.example.school_management.feature.operational.entity.GradeAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GradeAggregateRepository extends JpaRepository<GradeAggregate, Long> {
+
+    String COLUMNS = "(student_id, class_id, grade_count, score_sum, weighted_sum, weight_total, min_score, max_score, " +
+            "excellent_count, good_count, satisfactory_count, needs_improvement_count, updated_at) ";
+
+    String AGGREGATES = "COUNT(g.id), COALESCE(SUM(g.score), 0), COALESCE(SUM(g.score * COALESCE(g.weight, 1)), 0), " +
+            "COALESCE(SUM(CASE WHEN g.id IS NULL THEN 0 ELSE COALESCE(g.weight, 1) END), 0), MIN(g.score), MAX(g.score), " +
+            "COUNT(g.id) FILTER (WHERE g.score >= 18), " +
+            "COUNT(g.id) FILTER (WHERE g.score >= 14 AND g.score < 18), " +
+            "COUNT(g.id) FILTER (WHERE g.score >= 10 AND g.score < 14), " +
+            "COUNT(g.id) FILTER (WHERE g.score < 10), now() ";
+
+    // Adds the given rows on top of the stored values (insert path)
+    String ADD_EXCLUDED = "DO UPDATE SET " +
+            "grade_count = grade_aggregates.grade_count + EXCLUDED.grade_count, " +
+            "score_sum = grade_aggregates.score_sum + EXCLUDED.score_sum, " +
+            "weighted_sum = grade_aggregates.weighted_sum + EXCLUDED.weighted_sum, " +
+            "weight_total = grade_aggregates.weight_total + EXCLUDED.weight_total, " +
+            "min_score = LEAST(grade_aggregates.min_score, EXCLUDED.min_score), " +
+            "max_score = GREATEST(grade_aggregates.max_score, EXCLUDED.max_score), " +
+            "excellent_count = grade_aggregates.excellent_count + EXCLUDED.excellent_count, " +
+            "good_count = grade_aggregates.good_count + EXCLUDED.good_count, " +
+            "satisfactory_count = grade_aggregates.satisfactory_count + EXCLUDED.satisfactory_count, " +
+            "needs_improvement_count = grade_aggregates.needs_improvement_count + EXCLUDED.needs_improvement_count, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    // Replaces the stored values (update/delete path, where min/max cannot be maintained incrementally)
+    String REPLACE_EXCLUDED = "DO UPDATE SET " +
+            "grade_count = EXCLUDED.grade_count, score_sum = EXCLUDED.score_sum, " +
+            "weighted_sum = EXCLUDED.weighted_sum, weight_total = EXCLUDED.weight_total, " +
+            "min_score = EXCLUDED.min_score, max_score = EXCLUDED.max_score, " +
+            "excellent_count = EXCLUDED.excellent_count, good_count = EXCLUDED.good_count, " +
+            "satisfactory_count = EXCLUDED.satisfactory_count, needs_improvement_count = EXCLUDED.needs_improvement_count, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    String ON_STUDENT_CLASS = "ON CONFLICT (student_id, class_id) WHERE student_id IS NOT NULL ";
+    String ON_CLASS = "ON CONFLICT (class_id) WHERE student_id IS NULL ";
+
+    // Reads
+    Optional<GradeAggregate> findByStudentIdAndClassId(Long studentId, Long classId);
+
+    List<GradeAggregate> findByStudentId(Long studentId);
+
+    @Query("SELECT ga FROM GradeAggregate ga WHERE ga.classId = :classId AND ga.studentId IS NULL")
+    Optional<GradeAggregate> findClassAggregate(@Param("classId") Long classId);
+
+    // Incremental maintenance for newly inserted grades
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT e.student_id, e.class_id, " + AGGREGATES +
+            "FROM grades g JOIN enrollments e ON e.id = g.enrollment_id WHERE g.id IN (:gradeIds) " +
+            "GROUP BY e.student_id, e.class_id " + ON_STUDENT_CLASS + ADD_EXCLUDED, nativeQuery = true)
+    int addStudentClassGrades(@Param("gradeIds") Collection<Long> gradeIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT CAST(NULL AS BIGINT), e.class_id, " + AGGREGATES +
+            "FROM grades g JOIN enrollments e ON e.id = g.enrollment_id WHERE g.id IN (:gradeIds) " +
+            "GROUP BY e.class_id " + ON_CLASS + ADD_EXCLUDED, nativeQuery = true)
+    int addClassGrades(@Param("gradeIds") Collection<Long> gradeIds);
+
+    // Recompute a single key from the grades table
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT CAST(:studentId AS BIGINT), CAST(:classId AS BIGINT), " + AGGREGATES +
+            "FROM enrollments e LEFT JOIN grades g ON g.enrollment_id = e.id " +
+            "WHERE e.student_id = :studentId AND e.class_id = :classId " +
+            ON_STUDENT_CLASS + REPLACE_EXCLUDED, nativeQuery = true)
+    int recomputeStudentClass(@Param("studentId") Long studentId, @Param("classId") Long classId);
+
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT CAST(NULL AS BIGINT), CAST(:classId AS BIGINT), " + AGGREGATES +
+            "FROM enrollments e LEFT JOIN grades g ON g.enrollment_id = e.id WHERE e.class_id = :classId " +
+            ON_CLASS + REPLACE_EXCLUDED, nativeQuery = true)
+    int recomputeClass(@Param("classId") Long classId);
+
+    // Full rebuild
+    @Modifying
+    @Query(value = "DELETE FROM grade_aggregates", nativeQuery = true)
+    int deleteAllAggregates();
+
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT e.student_id, e.class_id, " + AGGREGATES +
+            "FROM grades g JOIN enrollments e ON e.id = g.enrollment_id GROUP BY e.student_id, e.class_id", nativeQuery = true)
+    int rebuildStudentClassAggregates();
+
+    @Modifying
+    @Query(value = "INSERT INTO grade_aggregates " + COLUMNS +
+            "SELECT CAST(NULL AS BIGINT), e.class_id, " + AGGREGATES +
+            "FROM grades g JOIN enrollments e ON e.id = g.enrollment_id GROUP BY e.class_id", nativeQuery = true)
+    int rebuildClassAggregates();
+
+    // Every stored column recomputed from the grades table, for drift detection
+    String ACTUAL = "COUNT(*) AS cnt, SUM(g.score) AS total, SUM(g.score * COALESCE(g.weight, 1)) AS weighted, " +
+            "SUM(COALESCE(g.weight, 1)) AS weights, MIN(g.score) AS low, MAX(g.score) AS high, " +
+            "COUNT(*) FILTER (WHERE g.score >= 18) AS excellent, " +
+            "COUNT(*) FILTER (WHERE g.score >= 14 AND g.score < 18) AS good, " +
+            "COUNT(*) FILTER (WHERE g.score >= 10 AND g.score < 14) AS satisfactory, " +
+            "COUNT(*) FILTER (WHERE g.score < 10) AS needs_improvement ";
+
+    // Stored row a differs from actual row r in any column; COALESCE turns a one-sided NULL min/max into drift
+    String DRIFTED = "a.grade_count <> r.cnt OR ABS(a.score_sum - r.total) > 0.001 " +
+            "OR ABS(a.weighted_sum - r.weighted) > 0.001 OR ABS(a.weight_total - r.weights) > 0.001 " +
+            "OR COALESCE(ABS(a.min_score - r.low), 1) > 0.001 OR COALESCE(ABS(a.max_score - r.high), 1) > 0.001 " +
+            "OR a.excellent_count <> r.excellent OR a.good_count <> r.good " +
+            "OR a.satisfactory_count <> r.satisfactory OR a.needs_improvement_count <> r.needs_improvement";
+
+    // Drift detection: [student_id, class_id, stored_count, actual_count] for keys whose stored values differ from grades
+    @Query(value = "SELECT COALESCE(a.student_id, r.student_id), COALESCE(a.class_id, r.class_id), " +
+            "COALESCE(a.grade_count, 0), COALESCE(r.cnt, 0) " +
+            "FROM (SELECT * FROM grade_aggregates WHERE student_id IS NOT NULL AND grade_count > 0) a " +
+            "FULL OUTER JOIN (SELECT e.student_id, e.class_id, " + ACTUAL +
+            "  FROM grades g JOIN enrollments e ON e.id = g.enrollment_id GROUP BY e.student_id, e.class_id) r " +
+            "ON a.student_id = r.student_id AND a.class_id = r.class_id " +
+            "WHERE a.id IS NULL OR r.student_id IS NULL OR " + DRIFTED, nativeQuery = true)
+    List<Object[]> findStudentClassDrift();
+
+    @Query(value = "SELECT CAST(NULL AS BIGINT), COALESCE(a.class_id, r.class_id), " +
+            "COALESCE(a.grade_count, 0), COALESCE(r.cnt, 0) " +
+            "FROM (SELECT * FROM grade_aggregates WHERE student_id IS NULL AND grade_count > 0) a " +
+            "FULL OUTER JOIN (SELECT e.class_id, " + ACTUAL +
+            "  FROM grades g JOIN enrollments e ON e.id = g.enrollment_id GROUP BY e.class_id) r " +
+            "ON a.class_id = r.class_id " +
+            "WHERE a.id IS NULL OR r.class_id IS NULL OR " + DRIFTED, nativeQuery = true)
+    List<Object[]> findClassDrift();
+
+    // Held until the surrounding transaction ends; false when another session holds it
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
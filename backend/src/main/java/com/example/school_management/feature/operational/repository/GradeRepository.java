@@ -3,6 +3,9 @@ package com.example.school_management.feature.operational.repository;
 import com.example.school_management.feature.operational.entity.Grade;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -10,28 +13,53 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GradeRepository extends JpaRepository<Grade, Long>, JpaSpecificationExecutor<Grade> {
+
+    // Shared FROM/WHERE for range statistics; every id filter is optional (NULL = all)
+    String RANGE_FILTER = "FROM grades g JOIN enrollments e ON e.id = g.enrollment_id " +
+            "WHERE g.graded_at BETWEEN :startDate AND :endDate " +
+            "AND (CAST(:studentId AS BIGINT) IS NULL OR e.student_id = CAST(:studentId AS BIGINT)) " +
+            "AND (CAST(:classId AS BIGINT) IS NULL OR e.class_id = CAST(:classId AS BIGINT)) " +
+            "AND (CAST(:teacherId AS BIGINT) IS NULL OR g.assigned_by_id = CAST(:teacherId AS BIGINT)) " +
+            "AND (CAST(:courseId AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM class_courses cc " +
+            "     WHERE cc.class_id = e.class_id AND cc.course_id = CAST(:courseId AS BIGINT))) ";
+
+    // Listing queries fetch the associations GradeResponse needs in the same statement. profileSettings, the
+    // inverse one-to-one of users, cannot be proxied and would otherwise cost one select per user
+    @Override
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    Page<Grade> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    Page<Grade> findAll(Specification<Grade> spec, Pageable pageable);
     
     // Find grades by enrollment
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     List<Grade> findByEnrollmentId(Long enrollmentId);
     
     // Find grades by student (through enrollment)
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.student.id = :studentId")
     List<Grade> findByStudentId(@Param("studentId") Long studentId);
     
     // Find grades by class (through enrollment)
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.classEntity.id = :classId")
     List<Grade> findByClassId(@Param("classId") Long classId);
     
     // Find grades by teacher
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.assignedBy.id = :teacherId")
     List<Grade> findByTeacherId(@Param("teacherId") Long teacherId);
     
     // Find grades by student and class
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.student.id = :studentId AND g.enrollment.classEntity.id = :classId")
     List<Grade> findByStudentIdAndClassId(@Param("studentId") Long studentId, @Param("classId") Long classId);
     
@@ -40,9 +68,55 @@ public interface GradeRepository extends JpaRepository<Grade, Long>, JpaSpecific
     List<Grade> findByClassIdAndTeacherId(@Param("classId") Long classId, @Param("teacherId") Long teacherId);
     
     // Find grades by date range
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.gradedAt BETWEEN :startDate AND :endDate")
     List<Grade> findByGradedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    // Range statistics computed in the database:
+    // [count, score_sum, weighted_sum, weight_total, min, max, excellent, good, satisfactory, needs_improvement]
+    @Query(value = "SELECT COUNT(*), COALESCE(SUM(g.score), 0), COALESCE(SUM(g.score * COALESCE(g.weight, 1)), 0), " +
+            "COALESCE(SUM(COALESCE(g.weight, 1)), 0), MIN(g.score), MAX(g.score), " +
+            "COUNT(*) FILTER (WHERE g.score >= 18), " +
+            "COUNT(*) FILTER (WHERE g.score >= 14 AND g.score < 18), " +
+            "COUNT(*) FILTER (WHERE g.score >= 10 AND g.score < 14), " +
+            "COUNT(*) FILTER (WHERE g.score < 10) " + RANGE_FILTER, nativeQuery = true)
+    List<Object[]> findRangeStatistics(@Param("studentId") Long studentId, @Param("classId") Long classId,
+                                       @Param("courseId") Long courseId, @Param("teacherId") Long teacherId,
+                                       @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Time-bucketed series: [period_start, count, average, weighted_average, min, max]; bucket is a date_trunc field
+    @Query(value = "SELECT date_trunc(CAST(:bucket AS TEXT), g.graded_at) AS period_start, COUNT(*), AVG(g.score), " +
+            "SUM(g.score * COALESCE(g.weight, 1)) / NULLIF(SUM(COALESCE(g.weight, 1)), 0), MIN(g.score), MAX(g.score) " +
+            RANGE_FILTER + "GROUP BY period_start ORDER BY period_start", nativeQuery = true)
+    List<Object[]> findRangeSeries(@Param("bucket") String bucket,
+                                   @Param("studentId") Long studentId, @Param("classId") Long classId,
+                                   @Param("courseId") Long courseId, @Param("teacherId") Long teacherId,
+                                   @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Individual scores in a range, for spread and trend: [score, weight, graded_at, id]
+    @Query(value = "SELECT g.score, g.weight, g.graded_at, g.id " + RANGE_FILTER, nativeQuery = true)
+    List<Object[]> findRangeScores(@Param("studentId") Long studentId, @Param("classId") Long classId,
+                                   @Param("courseId") Long courseId, @Param("teacherId") Long teacherId,
+                                   @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE g.id IN :ids")
+    List<Grade> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Most recent grades in a range (no count query)
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE g.gradedAt BETWEEN :startDate AND :endDate " +
+           "AND (:studentId IS NULL OR g.enrollment.student.id = :studentId) " +
+           "AND (:classId IS NULL OR g.enrollment.classEntity.id = :classId) " +
+           "AND (:teacherId IS NULL OR g.assignedBy.id = :teacherId) " +
+           "AND (:courseId IS NULL OR g.enrollment.classEntity.id IN " +
+           "(SELECT c.id FROM ClassEntity c JOIN c.courses course WHERE course.id = :courseId)) " +
+           "ORDER BY g.gradedAt DESC")
+    List<Grade> findRecentInRange(@Param("studentId") Long studentId, @Param("classId") Long classId,
+                                  @Param("courseId") Long courseId, @Param("teacherId") Long teacherId,
+                                  @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                  Pageable pageable);
+    
     // Check if grade exists for enrollment and content to prevent duplicates
     @Query("SELECT g FROM Grade g WHERE g.enrollment.id = :enrollmentId AND g.content = :content")
     Optional<Grade> findByEnrollmentIdAndContent(@Param("enrollmentId") Long enrollmentId, @Param("content") String content);
@@ -61,32 +135,57 @@ public interface GradeRepository extends JpaRepository<Grade, Long>, JpaSpecific
     Object[] findGradeStatsByStudentIdAndClassId(@Param("studentId") Long studentId, @Param("classId") Long classId);
     
     // Paginated queries
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     Page<Grade> findByEnrollmentIdOrderByGradedAtDesc(Long enrollmentId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.student.id = :studentId ORDER BY g.gradedAt DESC")
     Page<Grade> findByStudentIdOrderByGradedAtDesc(@Param("studentId") Long studentId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.classEntity.id = :classId ORDER BY g.gradedAt DESC")
     Page<Grade> findByClassIdOrderByGradedAtDesc(@Param("classId") Long classId, Pageable pageable);
     
-    // Search grades by content or student name
-    @Query("SELECT g FROM Grade g WHERE " +
-           "LOWER(g.content) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(g.enrollment.student.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(g.enrollment.student.lastName) LIKE LOWER(CONCAT('%', :search, '%'))")
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE g.enrollment.student.id = :studentId AND g.enrollment.classEntity.id = :classId ORDER BY g.gradedAt DESC")
+    Page<Grade> findByStudentIdAndClassIdOrderByGradedAtDesc(@Param("studentId") Long studentId, @Param("classId") Long classId, Pageable pageable);
+    
+    // Search grades by content or student name (trigram-indexed search_text)
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE g.searchText LIKE CONCAT('%', LOWER(:search), '%')")
     Page<Grade> findBySearch(@Param("search") String search, Pageable pageable);
     
     // Find grades by course ID (simplified - we'll filter in service if needed)
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
     @Query("SELECT g FROM Grade g WHERE g.enrollment.classEntity.id IN " +
            "(SELECT DISTINCT c.id FROM ClassEntity c JOIN c.courses course WHERE course.id = :courseId)")
     Page<Grade> findByCourseId(@Param("courseId") Long courseId, Pageable pageable);
     
     // Find grades by search and course ID
-    @Query("SELECT g FROM Grade g WHERE " +
-           "(LOWER(g.content) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(g.enrollment.student.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(g.enrollment.student.lastName) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE g.searchText LIKE CONCAT('%', LOWER(:search), '%') AND " +
            "g.enrollment.classEntity.id IN " +
            "(SELECT DISTINCT c.id FROM ClassEntity c JOIN c.courses course WHERE course.id = :courseId)")
     Page<Grade> findBySearchAndCourseId(@Param("search") String search, @Param("courseId") Long courseId, Pageable pageable);
+    
+    // Keyset listing on (gradedAt, id) newest first; every filter is optional (NULL = all).
+    // Returns a Slice, so no count query is issued.
+    @EntityGraph(attributePaths = {"enrollment.student", "enrollment.student.profileSettings", "enrollment.classEntity", "assignedBy", "assignedBy.profileSettings"})
+    @Query("SELECT g FROM Grade g WHERE " +
+           "g.gradedAt <= :afterGradedAt AND (g.gradedAt < :afterGradedAt OR g.id < :afterId) " +
+           "AND (:studentId IS NULL OR g.enrollment.student.id = :studentId) " +
+           "AND (:classId IS NULL OR g.enrollment.classEntity.id = :classId) " +
+           "AND (:enrollmentId IS NULL OR g.enrollment.id = :enrollmentId) " +
+           "AND (:search IS NULL OR g.searchText LIKE CONCAT('%', LOWER(:search), '%')) " +
+           "AND (:courseId IS NULL OR g.enrollment.classEntity.id IN " +
+           "     (SELECT c.id FROM ClassEntity c JOIN c.courses course WHERE course.id = :courseId)) " +
+           "ORDER BY g.gradedAt DESC, g.id DESC")
+    Slice<Grade> findKeysetPage(@Param("afterGradedAt") LocalDateTime afterGradedAt,
+                                @Param("afterId") Long afterId,
+                                @Param("studentId") Long studentId,
+                                @Param("classId") Long classId,
+                                @Param("enrollmentId") Long enrollmentId,
+                                @Param("courseId") Long courseId,
+                                @Param("search") String search,
+                                Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.school_management.feature.operational.repository;
+
+import com.example.school_management.feature.operational.entity.SystemCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SystemCounterRepository extends JpaRepository<SystemCounters, Short> {
+
+    short ROW_ID = 1;
+
+    // Actual totals, in the order students, teachers, parents, classes, courses, enrollments
+    String ACTUAL_STUDENTS = "(SELECT COUNT(*) FROM student s JOIN users u ON u.id = s.id WHERE u.status <> 'DELETED')";
+    String ACTUAL_TEACHERS = "(SELECT COUNT(*) FROM teacher t JOIN users u ON u.id = t.id WHERE u.status <> 'DELETED')";
+    String ACTUAL_PARENTS = "(SELECT COUNT(*) FROM parent p JOIN users u ON u.id = p.id WHERE u.status <> 'DELETED')";
+    String ACTUAL_CLASSES = "(SELECT COUNT(*) FROM classes)";
+    String ACTUAL_COURSES = "(SELECT COUNT(*) FROM courses)";
+    String ACTUAL_ENROLLMENTS = "(SELECT COUNT(*) FROM enrollments)";
+
+    // Appends a delta row, so concurrent writers never wait on each other's counter changes
+    @Modifying
+    @Query(value = "INSERT INTO system_counter_deltas (students, teachers, parents, classes, courses, enrollments) " +
+            "VALUES (:students, :teachers, :parents, :classes, :courses, :enrollments)", nativeQuery = true)
+    int add(@Param("students") long students, @Param("teachers") long teachers, @Param("parents") long parents,
+            @Param("classes") long classes, @Param("courses") long courses, @Param("enrollments") long enrollments);
+
+    // [id, students, teachers, parents, classes, courses, enrollments, updated_at]: the row plus the
+    // pending deltas; id is null while the row does not exist yet
+    @Query(value = "SELECT c.id, COALESCE(c.students, 0) + d.students, COALESCE(c.teachers, 0) + d.teachers, " +
+            "COALESCE(c.parents, 0) + d.parents, COALESCE(c.classes, 0) + d.classes, " +
+            "COALESCE(c.courses, 0) + d.courses, COALESCE(c.enrollments, 0) + d.enrollments, c.updated_at " +
+            "FROM (SELECT COALESCE(SUM(students), 0) AS students, COALESCE(SUM(teachers), 0) AS teachers, " +
+            "COALESCE(SUM(parents), 0) AS parents, COALESCE(SUM(classes), 0) AS classes, " +
+            "COALESCE(SUM(courses), 0) AS courses, COALESCE(SUM(enrollments), 0) AS enrollments " +
+            "FROM system_counter_deltas) d LEFT JOIN system_counters c ON c.id = 1", nativeQuery = true)
+    List<Object[]> findTotals();
+
+    // Moves the pending deltas into the row in one statement; a no-op until the row exists.
+    // Concurrent folds are safe: a delta row is deleted, and so added, only once
+    @Modifying
+    @Query(value = "WITH folded AS (" +
+            "DELETE FROM system_counter_deltas WHERE EXISTS (SELECT 1 FROM system_counters WHERE id = 1) " +
+            "RETURNING students, teachers, parents, classes, courses, enrollments) " +
+            "UPDATE system_counters SET " +
+            "students = students + (SELECT COALESCE(SUM(students), 0) FROM folded), " +
+            "teachers = teachers + (SELECT COALESCE(SUM(teachers), 0) FROM folded), " +
+            "parents = parents + (SELECT COALESCE(SUM(parents), 0) FROM folded), " +
+            "classes = classes + (SELECT COALESCE(SUM(classes), 0) FROM folded), " +
+            "courses = courses + (SELECT COALESCE(SUM(courses), 0) FROM folded), " +
+            "enrollments = enrollments + (SELECT COALESCE(SUM(enrollments), 0) FROM folded), " +
+            "updated_at = now() WHERE id = 1 AND EXISTS (SELECT 1 FROM folded)", nativeQuery = true)
+    int foldDeltas();
+
+    @Query(value = "SELECT " + ACTUAL_STUDENTS + ", " + ACTUAL_TEACHERS + ", " + ACTUAL_PARENTS + ", " +
+            ACTUAL_CLASSES + ", " + ACTUAL_COURSES + ", " + ACTUAL_ENROLLMENTS, nativeQuery = true)
+    List<Object[]> countActual();
+
+    // Inserts the row if it is missing, otherwise overwrites it with the actual totals, and drops the
+    // pending deltas those totals already include (same statement, so the same snapshot)
+    @Modifying
+    @Query(value = "WITH cleared AS (DELETE FROM system_counter_deltas RETURNING id) " +
+            "INSERT INTO system_counters (id, students, teachers, parents, classes, courses, enrollments, updated_at) " +
+            "SELECT 1, " + ACTUAL_STUDENTS + ", " + ACTUAL_TEACHERS + ", " + ACTUAL_PARENTS + ", " +
+            ACTUAL_CLASSES + ", " + ACTUAL_COURSES + ", " + ACTUAL_ENROLLMENTS + ", now() " +
+            "ON CONFLICT (id) DO UPDATE SET students = EXCLUDED.students, teachers = EXCLUDED.teachers, " +
+            "parents = EXCLUDED.parents, classes = EXCLUDED.classes, courses = EXCLUDED.courses, " +
+            "enrollments = EXCLUDED.enrollments, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int recompute();
+
+    // Held until the surrounding transaction ends; false when another session holds it
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
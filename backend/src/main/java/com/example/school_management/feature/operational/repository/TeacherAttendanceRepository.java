@@ -45,12 +45,33 @@ public interface TeacherAttendanceRepository extends JpaRepository<TeacherAttend
     @Query("SELECT COUNT(ta) FROM TeacherAttendance ta WHERE ta.teacherId = :teacherId AND ta.status = :status AND ta.date BETWEEN :startDate AND :endDate")
     Long countByTeacherIdAndStatusAndDateBetween(@Param("teacherId") Long teacherId, @Param("status") TeacherAttendanceRequest.TeacherAttendanceStatus status, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    // All status counts of one teacher in a single pass: [teacherId, firstName, lastName, total,
+    // present, absent, late, sickLeave, personalLeave]. Empty when the teacher has no records
+    String STATUS_COUNTS = "SELECT ta.teacherId, MAX(ta.teacherFirstName), MAX(ta.teacherLastName), COUNT(ta), " +
+           "COUNT(CASE WHEN ta.status = 'PRESENT' THEN 1 END), " +
+           "COUNT(CASE WHEN ta.status = 'ABSENT' THEN 1 END), " +
+           "COUNT(CASE WHEN ta.status = 'LATE' THEN 1 END), " +
+           "COUNT(CASE WHEN ta.status = 'SICK_LEAVE' THEN 1 END), " +
+           "COUNT(CASE WHEN ta.status = 'PERSONAL_LEAVE' THEN 1 END) " +
+           "FROM TeacherAttendance ta ";
+
+    @Query(STATUS_COUNTS +
+           "WHERE ta.teacherId = :teacherId AND ta.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY ta.teacherId")
+    List<Object[]> countStatusesByTeacher(@Param("teacherId") Long teacherId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Same row for every teacher with records in the range, in one statement
+    @Query(STATUS_COUNTS +
+           "WHERE ta.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY ta.teacherId ORDER BY ta.teacherId")
+    List<Object[]> countStatusesForAllTeachers(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
     // Monthly statistics query
     @Query("SELECT EXTRACT(MONTH FROM ta.date) as month, EXTRACT(YEAR FROM ta.date) as year, " +
            "COUNT(CASE WHEN ta.status = 'PRESENT' THEN 1 END) as present, " +
            "COUNT(CASE WHEN ta.status != 'PRESENT' THEN 1 END) as absent " +
-           "FROM TeacherAttendance ta WHERE ta.teacherId = :teacherId " +
+           "FROM TeacherAttendance ta WHERE ta.teacherId = :teacherId AND ta.date BETWEEN :startDate AND :endDate " +
            "GROUP BY EXTRACT(MONTH FROM ta.date), EXTRACT(YEAR FROM ta.date) " +
            "ORDER BY year DESC, month DESC")
-    List<Object[]> getMonthlyStatistics(@Param("teacherId") Long teacherId);
+    List<Object[]> getMonthlyStatistics(@Param("teacherId") Long teacherId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
@@ -26,6 +26,13 @@ public interface TimetableSlotRepository extends JpaRepository<TimetableSlot, Lo
     @Query("SELECT ts FROM TimetableSlot ts WHERE ts.period.id = :periodId ORDER BY ts.dayOfWeek")
     List<TimetableSlot> findByPeriodId(@Param("periodId") Long periodId);
 
+    // A teacher's day, with the eager associations fetched in the same query
+    @Query("SELECT ts FROM TimetableSlot ts JOIN FETCH ts.period p LEFT JOIN FETCH ts.forClass c LEFT JOIN FETCH c.assignedRoom " +
+           "LEFT JOIN FETCH c.schedule LEFT JOIN FETCH ts.forCourse co LEFT JOIN FETCH co.teacher LEFT JOIN FETCH ts.teacher " +
+           "LEFT JOIN FETCH ts.room LEFT JOIN FETCH ts.timetable " +
+           "WHERE ts.teacher.id = :teacherId AND ts.dayOfWeek = :dayOfWeek ORDER BY p.index")
+    List<TimetableSlot> findTeacherDaySlots(@Param("teacherId") Long teacherId, @Param("dayOfWeek") DayOfWeek dayOfWeek);
+
     @Query("SELECT ts FROM TimetableSlot ts WHERE ts.forClass.id = :classId AND ts.dayOfWeek = :dayOfWeek ORDER BY ts.period.index")
     List<TimetableSlot> findByClassIdAndDayOfWeek(@Param("classId") Long classId, @Param("dayOfWeek") DayOfWeek dayOfWeek);
 
@@ -0,0 +1,20 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.entity.Attendance;
+
+import java.util.Collection;
+
+public interface AbsenceNotificationService {
+
+    /**
+     * Queue absence alerts for the given student attendance records. Must run inside the
+     * transaction that writes the records, so an alert exists exactly when its record does.
+     */
+    void enqueue(Collection<Attendance> absences);
+
+    /**
+     * Claim due outbox rows and deliver them on the worker pool, one notification per
+     * recipient per batch. Returns the number of outbox rows delivered.
+     */
+    int dispatchDue();
+}
@@ -0,0 +1,36 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.dto.AttendanceIndexInfo;
+import com.example.school_management.feature.operational.dto.AttendanceRecentSummary;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * In-memory day-level attendance index over the current academic year. Range reads return
+ * empty when the range is not inside the indexed year; callers fall back to the database.
+ */
+public interface AttendanceIndexService {
+
+    /** Whether range reads for [startDate, endDate] are answered from the index. */
+    boolean covers(LocalDate startDate, LocalDate endDate);
+
+    Optional<AttendanceDayCounts> getUserDayCounts(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /** Academic-year-to-date counts for the user. */
+    AttendanceDayCounts getYearToDateCounts(Long userId);
+
+    /** Academic-year-to-date counts over every indexed user. */
+    AttendanceDayCounts getSchoolYearToDateCounts();
+
+    AttendanceRecentSummary getRecentSummary(Long userId, AttendanceStatus status, int schoolDays, LocalDate asOf);
+
+    Optional<LocalDate> getLastRecordedDay(Long userId);
+
+    AttendanceIndexInfo getInfo();
+
+    /** Discards the index and reloads it from the attendance table. */
+    AttendanceIndexInfo rebuild();
+}
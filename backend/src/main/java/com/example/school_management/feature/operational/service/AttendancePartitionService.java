@@ -0,0 +1,23 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.dto.AttendanceArchiveResult;
+import com.example.school_management.feature.operational.dto.AttendancePartitionInfo;
+
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the attendance table (V62).
+ */
+public interface AttendancePartitionService {
+
+    /** Creates any missing partitions from the current month through the configured months ahead. */
+    int createUpcomingPartitions();
+
+    List<AttendancePartitionInfo> getPartitions();
+
+    /**
+     * Detaches the partitions of months before the last {@code academicYears} academic years
+     * (the current one included) and renames them attendance_archived_pYYYY_MM.
+     */
+    AttendanceArchiveResult archive(int academicYears, boolean dryRun);
+}
@@ -0,0 +1,26 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.dto.AttendanceRollupDriftReport;
+
+import java.time.LocalDate;
+
+/**
+ * Reads and re-derives the attendance_daily_rollup table. Counts are attendance records,
+ * not distinct days, matching the record-based statistics they replace.
+ */
+public interface AttendanceRollupService {
+
+    // Reads: one index-only scan regardless of range length
+    AttendanceDayCounts getCounts(LocalDate startDate, LocalDate endDate);
+    AttendanceDayCounts getClassCounts(Long classId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recomputes the rollup for [startDate, endDate] from the attendance table, one month
+     * per transaction. Null bounds default to the earliest and latest attendance dates.
+     * Returns the number of rollup rows written.
+     */
+    int backfill(LocalDate startDate, LocalDate endDate);
+
+    AttendanceRollupDriftReport verify(LocalDate startDate, LocalDate endDate, boolean repair);
+}
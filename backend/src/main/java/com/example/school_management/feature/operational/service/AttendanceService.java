@@ -1,8 +1,12 @@
 package com.example.school_management.feature.operational.service;
 
 import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.dto.AttendanceMarkResult;
+import com.example.school_management.feature.operational.dto.AttendanceRecentSummary;
 import com.example.school_management.feature.operational.dto.AttendanceStatisticsDto;
+import com.example.school_management.feature.operational.dto.AttendanceStatusMatrix;
 import com.example.school_management.feature.operational.dto.TeacherAttendanceClassView;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
 import com.example.school_management.feature.operational.entity.enums.UserType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -36,6 +40,12 @@ public interface AttendanceService {
     // Get attendance statistics for a class
     List<AttendanceStatisticsDto> getClassAttendanceStatistics(Long classId, LocalDate startDate, LocalDate endDate);
     
+    // Class-wide day counts over the roster, from the attendance index
+    AttendanceStatisticsDto getClassAttendanceSummary(Long classId, LocalDate startDate, LocalDate endDate);
+    
+    // "N of the last M school days" and the current streak for one status
+    AttendanceRecentSummary getRecentAttendanceSummary(Long userId, AttendanceStatus status, int schoolDays, LocalDate asOf);
+    
     // Update attendance record
     AttendanceDto updateAttendance(Long attendanceId, AttendanceDto attendanceDto);
     
@@ -63,7 +73,7 @@ public interface AttendanceService {
     List<AttendanceDto> getStudentsForTimetableSlot(Long timetableSlotId, LocalDate date);
     
     // Mark attendance for all students in a timetable slot
-    List<AttendanceDto> markAttendanceForTimetableSlot(Long timetableSlotId, LocalDate date, List<AttendanceDto> attendanceList);
+    AttendanceMarkResult markAttendanceForTimetableSlot(Long timetableSlotId, LocalDate date, List<AttendanceDto> attendanceList);
     
     // Check if teacher can mark attendance for a specific slot today
     boolean canTeacherMarkAttendance(Long teacherId, Long timetableSlotId, LocalDate date);
@@ -71,6 +81,9 @@ public interface AttendanceService {
     // Get teacher's weekly schedule with attendance summary
     Map<String, List<AttendanceDto>> getTeacherWeeklyAttendanceSummary(Long teacherId, LocalDate startOfWeek);
     
+    // Day x status record counts of a teacher's slots over a week, term or any range up to a year
+    AttendanceStatusMatrix getTeacherAttendanceMatrix(Long teacherId, LocalDate startDate, LocalDate endDate);
+    
     // Get absent students list for a teacher's class today
     List<AttendanceDto> getAbsentStudentsForTeacher(Long teacherId, LocalDate date);
     
@@ -86,5 +99,5 @@ public interface AttendanceService {
     TeacherAttendanceClassView getTeacherAttendanceClass(Long teacherId, Long classId, Long courseId);
     
     // Mark attendance for all students in a class
-    List<AttendanceDto> markAttendanceForClass(Long classId, LocalDate date, List<AttendanceDto> attendanceList);
+    AttendanceMarkResult markAttendanceForClass(Long classId, LocalDate date, List<AttendanceDto> attendanceList);
 } 
\ No newline at end of file
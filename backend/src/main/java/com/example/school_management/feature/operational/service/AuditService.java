@@ -1,9 +1,11 @@
 package com.example.school_management.feature.operational.service;
 
+import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
 import com.example.school_management.feature.operational.entity.AuditEvent;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
 import com.example.school_management.feature.auth.entity.BaseUser;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AuditService {
@@ -28,6 +30,11 @@ public interface AuditService {
      */
     void createAuditEvent(AuditEventType eventType, String entityType, Long entityId, String summary, String details, BaseUser actedBy, String ipAddress, String userAgent);
     
+    /**
+     * Create GRADE_APPROVED events for every enhanced grade stamped by one approval, as a single insert
+     */
+    int createGradeApprovalAuditEvents(CreateEnhancedGradeRequest.Semester semester, String approvedBy, LocalDateTime approvedAt, BaseUser actedBy);
+    
     /**
      * Get audit history for a specific grade
      */
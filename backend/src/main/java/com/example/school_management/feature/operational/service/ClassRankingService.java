@@ -0,0 +1,12 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.dto.ClassRanking;
+import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
+
+public interface ClassRankingService {
+
+    /** Positions of every student of the class for the semester, computed in one query and cached. */
+    ClassRanking getClassRanking(Long classId, CreateEnhancedGradeRequest.Semester semester);
+
+    void evict(Long classId, CreateEnhancedGradeRequest.Semester semester);
+}
@@ -0,0 +1,21 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.domain.ClassRoster;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cached class rosters for the attendance screens. A roster is every student who is a member
+ * of the class or holds an ACTIVE enrollment in it.
+ */
+public interface ClassRosterService {
+
+    ClassRoster getRoster(Long classId);
+
+    /** Rosters of the given classes, loading every uncached one in a single round. */
+    Map<Long, ClassRoster> getRosters(Collection<Long> classIds);
+
+    /** Drops the cached roster; a null classId drops all of them. */
+    void evict(Long classId);
+}
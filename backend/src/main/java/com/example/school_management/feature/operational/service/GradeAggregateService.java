@@ -0,0 +1,23 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.dto.GradeAggregateDriftReport;
+import com.example.school_management.feature.operational.entity.GradeAggregate;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface GradeAggregateService {
+
+    // Maintenance, called inside the grade write transaction
+    void addGrades(Collection<Long> gradeIds);
+    void refresh(Long studentId, Long classId);
+
+    // O(1) reads
+    Optional<GradeAggregate> getStudentClassAggregate(Long studentId, Long classId);
+    Optional<GradeAggregate> getClassAggregate(Long classId);
+    Optional<GradeAggregate> getStudentAggregate(Long studentId);
+
+    // Rebuild / verify
+    void rebuild();
+    GradeAggregateDriftReport verify(boolean repair);
+}
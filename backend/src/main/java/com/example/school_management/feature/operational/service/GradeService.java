@@ -1,10 +1,13 @@
 package com.example.school_management.feature.operational.service;
 
+import com.example.school_management.commons.dtos.CursorPageDto;
 import com.example.school_management.feature.operational.dto.*;
 import com.example.school_management.feature.operational.entity.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -13,9 +16,10 @@ public interface GradeService {
     
     // General grade listing
     Page<GradeResponse> getAllGrades(Pageable pageable, String search, Long courseId);
+    CursorPageDto<GradeResponse> getGradesByCursor(GradeListFilter filter, String cursor, int size);
     
     // Core grade operations
-    void enterBulkGrades(BulkGradeEntryRequest request);
+    BulkGradeEntryResult enterBulkGrades(BulkGradeEntryRequest request);
     void updateGrade(Long gradeId, UpdateGradeRequest request);
     void deleteGrade(Long gradeId, DeleteGradeRequest request);
     
@@ -36,6 +40,7 @@ public interface GradeService {
     GradeStatistics getStudentGradeStatisticsForClass(Long studentId, Long classId);
     GradeStatistics getClassGradeStatistics(Long classId);
     GradeStatistics getGradeStatisticsForDateRange(Long studentId, LocalDateTime startDate, LocalDateTime endDate);
+    GradeStatistics getGradeRangeStatistics(GradeRangeStatisticsRequest request);
     
     // Audit and history
     List<AuditEvent> getGradeAuditHistory(Long gradeId);
@@ -58,9 +63,14 @@ public interface GradeService {
     
     // Staff Grade Review
     List<StaffGradeReview> getStaffGradeReviews(Long classId, CreateEnhancedGradeRequest.Semester semester);
-    void approveGrades(ApproveGradesRequest request);
+    GradeApprovalResult approveGrades(ApproveGradesRequest request);
     
     // Student Grade Sheet
     StudentGradeSheet getStudentGradeSheet(Long studentId, CreateEnhancedGradeRequest.Semester semester);
+    List<StudentGradeSheet> getClassGradeSheets(Long classId, CreateEnhancedGradeRequest.Semester semester);
     byte[] exportStudentGradeSheet(Long studentId, CreateEnhancedGradeRequest.Semester semester);
+    
+    // Class/level-wide grade sheet export, one worksheet per class, written straight to the output
+    List<Long> getLevelClassIds(Integer yearOfStudy);
+    void exportClassGradeSheets(List<Long> classIds, CreateEnhancedGradeRequest.Semester semester, OutputStream out) throws IOException;
 } 
\ No newline at end of file
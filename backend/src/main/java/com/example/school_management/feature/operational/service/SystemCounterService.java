@@ -0,0 +1,19 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.auth.entity.UserRole;
+import com.example.school_management.feature.operational.dto.SystemCounterDriftReport;
+import com.example.school_management.feature.operational.entity.SystemCounters;
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+
+public interface SystemCounterService {
+
+    // Maintenance, called inside the write transaction
+    void add(SystemCounter counter, long delta);
+    void addUsers(UserRole role, long delta);
+
+    // Read from the local copy
+    SystemCounters getCounters();
+
+    // Reconciliation
+    SystemCounterDriftReport verify(boolean repair);
+}
@@ -18,8 +18,11 @@ public interface TeacherAttendanceService {
     // Get attendance records for a specific date
     List<TeacherAttendanceResponse> getAttendanceByDate(LocalDate date);
     
-    // Get teacher attendance statistics
-    TeacherAttendanceStatistics getTeacherAttendanceStatistics(Long teacherId);
+    // Get teacher attendance statistics; null dates default to the last twelve months
+    TeacherAttendanceStatistics getTeacherAttendanceStatistics(Long teacherId, LocalDate startDate, LocalDate endDate);
+    
+    // Get attendance statistics of every teacher with records in the period (no monthly breakdown)
+    List<TeacherAttendanceStatistics> getAllTeacherAttendanceStatistics(LocalDate startDate, LocalDate endDate);
     
     // Update teacher attendance record
     TeacherAttendanceResponse updateTeacherAttendance(Long attendanceId, TeacherAttendanceRequest request);
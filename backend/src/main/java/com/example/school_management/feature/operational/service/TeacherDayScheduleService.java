@@ -0,0 +1,17 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.operational.dto.AttendanceDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A teacher's timetable for one day with the roll call of each slot, loaded in a fixed
+ * number of queries and cached per (teacher, date) for a short time.
+ */
+public interface TeacherDayScheduleService {
+
+    List<AttendanceDto> getDaySchedule(Long teacherId, LocalDate date);
+
+    void evict(Long teacherId, LocalDate date);
+}
@@ -2,6 +2,7 @@ package com.example.school_management.feature.operational.service;
 
 import com.example.school_management.feature.operational.dto.CreateTimetableRequest;
 import com.example.school_management.feature.operational.dto.TimetableDto;
+import com.example.school_management.feature.operational.dto.TimetableSlotResponseDto;
 import com.example.school_management.feature.operational.dto.UpdateTimetableRequest;
 import com.example.school_management.feature.operational.entity.Timetable;
 import com.example.school_management.feature.operational.entity.TimetableSlot;
@@ -23,6 +24,7 @@ public interface TimetableService {
     
     // TimetableSlot operations
     List<TimetableSlot> getSlotsByClassId(Long classId);
+    List<TimetableSlotResponseDto> getSlotDtosByClassId(Long classId);
     List<TimetableSlot> getSlotsByTeacherId(Long teacherId);
     TimetableSlot updateSlot(Long slotId, TimetableSlot updatedSlot);
     TimetableSlot createSlot(TimetableSlot newSlot);
@@ -0,0 +1,408 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.auth.entity.BaseUser;
+import com.example.school_management.feature.auth.entity.Parent;
+import com.example.school_management.feature.auth.entity.Student;
+import com.example.school_management.feature.auth.repository.BaseUserRepository;
+import com.example.school_management.feature.auth.repository.ParentRepository;
+import com.example.school_management.feature.operational.entity.AbsenceNotificationOutbox;
+import com.example.school_management.feature.operational.entity.Attendance;
+import com.example.school_management.feature.operational.entity.Notification;
+import com.example.school_management.feature.operational.entity.enums.NotificationType;
+import com.example.school_management.feature.operational.entity.enums.OutboxStatus;
+import com.example.school_management.feature.operational.repository.AbsenceNotificationOutboxRepository;
+import com.example.school_management.feature.operational.repository.NotificationRepository;
+import com.example.school_management.feature.operational.service.AbsenceNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for absence alerts. Attendance writes only insert outbox rows;
+ * a scheduled poller claims due rows with {@code FOR UPDATE SKIP LOCKED} (safe across
+ * instances), resolves every parent of the claimed students in one query and hands
+ * per-recipient deliveries to the worker pool, so a parent with several absent children
+ * gets one notification per batch. Each notification is saved together with a record of
+ * the alerts it covers, so an alert whose delivery failed for some recipients is retried
+ * with exponential backoff for the missing recipients only, and parked as FAILED after the
+ * last attempt. A batch that fails as a whole is rescheduled at once instead of waiting for
+ * the stale-claim release.
+ */
+@Slf4j
+@Service
+public class AbsenceNotificationServiceImpl implements AbsenceNotificationService {
+
+    private static final String TITLE = "Absence Notification";
+    private static final String PRIORITY = "HIGH";
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final AbsenceNotificationOutboxRepository outboxRepository;
+    private final ParentRepository parentRepository;
+    private final BaseUserRepository<BaseUser> userRepository;
+    private final NotificationRepository notificationRepository;
+    private final RealTimeNotificationService realTimeNotificationService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter enqueuedCounter;
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLagTimer;
+    private final AtomicLong pendingGauge = new AtomicLong();
+    private final AtomicLong oldestPendingAgeGauge = new AtomicLong();
+
+    @Value("${app.attendance.absence-outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.attendance.absence-outbox.recipients-per-task:50}")
+    private int recipientsPerTask;
+
+    @Value("${app.attendance.absence-outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.attendance.absence-outbox.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    @Value("${app.attendance.absence-outbox.stale-claim-minutes:10}")
+    private long staleClaimMinutes;
+
+    public AbsenceNotificationServiceImpl(AbsenceNotificationOutboxRepository outboxRepository,
+                                          ParentRepository parentRepository,
+                                          BaseUserRepository<BaseUser> userRepository,
+                                          NotificationRepository notificationRepository,
+                                          RealTimeNotificationService realTimeNotificationService,
+                                          @Qualifier("absenceNotificationExecutor") ThreadPoolTaskExecutor executor,
+                                          PlatformTransactionManager transactionManager,
+                                          MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.parentRepository = parentRepository;
+        this.userRepository = userRepository;
+        this.notificationRepository = notificationRepository;
+        this.realTimeNotificationService = realTimeNotificationService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.enqueuedCounter = Counter.builder("attendance.absence.outbox.enqueued")
+                .description("Absence alerts written to the outbox")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("attendance.absence.outbox.delivered")
+                .description("Absence alerts delivered to the student and their parents")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("attendance.absence.outbox.retried")
+                .description("Absence alerts rescheduled after a failed delivery")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("attendance.absence.outbox.failed")
+                .description("Absence alerts given up on after the last attempt")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("attendance.absence.outbox.batch")
+                .description("Time to deliver one claimed outbox batch")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("attendance.absence.outbox.lag")
+                .description("Time from enqueue to delivery")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("attendance.absence.outbox.pending", pendingGauge, AtomicLong::get)
+                .description("Absence alerts waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("attendance.absence.outbox.oldest.age", oldestPendingAgeGauge, AtomicLong::get)
+                .description("Age in seconds of the oldest undelivered absence alert")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Collection<Attendance> absences) {
+        if (absences.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AbsenceNotificationOutbox> rows = new ArrayList<>(absences.size());
+        for (Attendance attendance : absences) {
+            if (!(attendance.getUser() instanceof Student student)) continue;
+            AbsenceNotificationOutbox row = new AbsenceNotificationOutbox();
+            row.setAttendanceId(attendance.getId());
+            row.setStudentId(student.getId());
+            row.setStudentName(student.getFirstName() + " " + student.getLastName());
+            row.setClassName(attendance.getClassEntity() != null ? attendance.getClassEntity().getName() : "Unknown Class");
+            row.setCourseName(attendance.getCourse() != null ? attendance.getCourse().getName() : "General");
+            row.setAttendanceDate(attendance.getDate());
+            row.setNextAttemptAt(now);
+            row.setCreatedAt(now);
+            rows.add(row);
+        }
+        outboxRepository.saveAll(rows);
+        enqueuedCounter.increment(rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.attendance.absence-outbox.poll-delay-ms:2000}")
+    public void scheduledDispatch() {
+        dispatchDue();
+    }
+
+    @Override
+    public int dispatchDue() {
+        Integer released = transactionTemplate.execute(status ->
+                outboxRepository.releaseStaleClaims(LocalDateTime.now().minusMinutes(staleClaimMinutes)));
+        if (released != null && released > 0) {
+            log.warn("Released {} stale absence outbox claims", released);
+        }
+
+        int delivered = 0;
+        while (true) {
+            List<Long> claimed = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = outboxRepository.lockDueIds(now, batchSize);
+                if (!ids.isEmpty()) {
+                    outboxRepository.markProcessing(ids, now);
+                }
+                return ids;
+            });
+            if (claimed == null || claimed.isEmpty()) break;
+            delivered += batchTimer.record(() -> deliverBatch(claimed));
+            if (claimed.size() < batchSize) break;
+        }
+
+        refreshBacklogGauges();
+        return delivered;
+    }
+
+    private int deliverBatch(List<Long> ids) {
+        try {
+            return deliverClaimed(ids);
+        } catch (RuntimeException e) {
+            log.error("Absence outbox batch of {} alerts failed, rescheduling it: {}", ids.size(), e.getMessage(), e);
+            reschedule(ids, describe(e));
+            return 0;
+        }
+    }
+
+    private int deliverClaimed(List<Long> ids) {
+        List<AbsenceNotificationOutbox> rows = outboxRepository.findAllById(ids);
+        Set<Long> studentIds = rows.stream().map(AbsenceNotificationOutbox::getStudentId).collect(Collectors.toSet());
+        Map<Long, Set<Long>> notified = new HashMap<>();
+        for (Object[] delivery : outboxRepository.findDeliveries(ids)) {
+            notified.computeIfAbsent(((Number) delivery[0]).longValue(), id -> new HashSet<>())
+                    .add(((Number) delivery[1]).longValue());
+        }
+
+        // Every recipient's share of the batch: the student's own alerts, a parent's children's alerts,
+        // less what an earlier attempt already delivered to them
+        Map<Long, Recipient> recipients = new LinkedHashMap<>();
+        for (AbsenceNotificationOutbox row : rows) {
+            addAlert(recipients, row.getStudentId(), false, row, notified);
+        }
+        Map<Long, List<AbsenceNotificationOutbox>> rowsByStudent = rows.stream()
+                .collect(Collectors.groupingBy(AbsenceNotificationOutbox::getStudentId));
+        for (Object[] link : parentRepository.findParentLinksByStudentIds(studentIds)) {
+            Parent parent = (Parent) link[0];
+            Long studentId = (Long) link[1];
+            for (AbsenceNotificationOutbox row : rowsByStudent.get(studentId)) {
+                addAlert(recipients, parent.getId(), true, row, notified);
+            }
+        }
+
+        List<Recipient> all = new ArrayList<>(recipients.values());
+        List<CompletableFuture<Map<Long, String>>> tasks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += recipientsPerTask) {
+            List<Recipient> chunk = all.subList(from, Math.min(from + recipientsPerTask, all.size()));
+            tasks.add(CompletableFuture.supplyAsync(() -> deliverTo(chunk), executor));
+        }
+
+        // A row counts as delivered only when every recipient of it was notified
+        Map<Long, String> failures = new HashMap<>();
+        for (CompletableFuture<Map<Long, String>> task : tasks) {
+            task.join().forEach(failures::putIfAbsent);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        List<AbsenceNotificationOutbox> failedRows = new ArrayList<>();
+        for (AbsenceNotificationOutbox row : rows) {
+            if (failures.containsKey(row.getId())) {
+                failedRows.add(row);
+            } else {
+                sentIds.add(row.getId());
+                deliveryLagTimer.record(Duration.between(row.getCreatedAt(), now));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, now);
+            }
+            if (!failedRows.isEmpty()) {
+                scheduleRetries(failedRows, failures, now);
+            }
+        });
+        deliveredCounter.increment(sentIds.size());
+        log.debug("Absence outbox batch: {} delivered to {} recipients, {} failed", sentIds.size(), all.size(), failedRows.size());
+        return sentIds.size();
+    }
+
+    private static void addAlert(Map<Long, Recipient> recipients, Long userId, boolean parent,
+                                 AbsenceNotificationOutbox alert, Map<Long, Set<Long>> notified) {
+        if (notified.getOrDefault(alert.getId(), Set.of()).contains(userId)) return;
+        recipients.computeIfAbsent(userId, id -> new Recipient(id, parent)).alerts.add(alert);
+    }
+
+    /**
+     * Runs on the worker pool. Saves one notification per recipient, with the record of the
+     * alerts it covers, in a single transaction, then pushes them over WebSocket. If the chunk
+     * fails, each recipient is retried on its own so one bad recipient does not fail the rest.
+     * Returns the outbox ids that could not be delivered to every recipient, with the error.
+     */
+    private Map<Long, String> deliverTo(List<Recipient> chunk) {
+        List<Notification> notifications;
+        try {
+            notifications = transactionTemplate.execute(status -> {
+                List<Notification> created = new ArrayList<>(chunk.size());
+                for (Recipient recipient : chunk) {
+                    created.add(buildNotification(recipient));
+                    outboxRepository.recordDeliveries(
+                            recipient.alerts.stream().map(AbsenceNotificationOutbox::getId).toList(), recipient.userId);
+                }
+                return notificationRepository.saveAll(created);
+            });
+        } catch (Exception e) {
+            if (chunk.size() > 1) {
+                log.warn("Failed to deliver absence alerts to {} recipients together, trying each: {}", chunk.size(), e.getMessage());
+                Map<Long, String> failed = new HashMap<>();
+                for (Recipient recipient : chunk) {
+                    deliverTo(List.of(recipient)).forEach(failed::putIfAbsent);
+                }
+                return failed;
+            }
+            Recipient recipient = chunk.get(0);
+            log.error("Failed to deliver absence alerts to user {}: {}", recipient.userId, e.getMessage(), e);
+            String error = describe(e);
+            Map<Long, String> failed = new HashMap<>();
+            for (AbsenceNotificationOutbox alert : recipient.alerts) {
+                failed.put(alert.getId(), error);
+            }
+            return failed;
+        }
+        // Saved notifications count as delivered; a missed push shows on the next load
+        for (Notification notification : notifications) {
+            try {
+                realTimeNotificationService.notifySpecificUsers(
+                        notification.getTitle(), notification.getMessage(), PRIORITY, Set.of(notification.getUser().getId()));
+            } catch (Exception e) {
+                log.warn("Could not push absence notification {} to user {}: {}",
+                        notification.getId(), notification.getUser().getId(), e.getMessage());
+            }
+        }
+        return Map.of();
+    }
+
+    private Notification buildNotification(Recipient recipient) {
+        List<AbsenceNotificationOutbox> alerts = recipient.alerts;
+        AbsenceNotificationOutbox first = alerts.get(0);
+        String message;
+        if (alerts.size() == 1) {
+            message = recipient.parent
+                    ? String.format("Your child %s was marked absent from %s (%s) on %s",
+                        first.getStudentName(), first.getCourseName(), first.getClassName(), first.getAttendanceDate())
+                    : String.format("%s was marked absent from %s on %s",
+                        first.getStudentName(), first.getCourseName(), first.getAttendanceDate());
+        } else {
+            message = alerts.size() + " absences were recorded: " + alerts.stream()
+                    .map(alert -> String.format("%s from %s (%s) on %s",
+                        alert.getStudentName(), alert.getCourseName(), alert.getClassName(), alert.getAttendanceDate()))
+                    .collect(Collectors.joining("; "));
+        }
+
+        Notification notification = new Notification();
+        notification.setUser(userRepository.getReferenceById(recipient.userId));
+        notification.setTitle(TITLE);
+        notification.setMessage(message);
+        notification.setType(NotificationType.ATTENDANCE_MARKED);
+        notification.setEntityType("ATTENDANCE");
+        if (alerts.size() == 1) {
+            notification.setEntityId(first.getAttendanceId());
+            notification.setActionUrl("/attendance/" + first.getAttendanceId());
+        } else {
+            notification.setActionUrl("/attendance");
+        }
+        notification.setReadStatus(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        return notification;
+    }
+
+    private void scheduleRetries(List<AbsenceNotificationOutbox> failedRows, Map<Long, String> errors, LocalDateTime now) {
+        for (AbsenceNotificationOutbox row : failedRows) {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setClaimedAt(null);
+            String error = errors.get(row.getId());
+            row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (attempts >= maxAttempts) {
+                row.setStatus(OutboxStatus.FAILED);
+                row.setProcessedAt(now);
+                failedCounter.increment();
+                log.error("Giving up on absence alert {} for student {} after {} attempts",
+                        row.getId(), row.getStudentId(), attempts);
+            } else {
+                row.setStatus(OutboxStatus.PENDING);
+                row.setNextAttemptAt(now.plusSeconds(backoffSeconds << Math.min(attempts - 1, 16)));
+                retriedCounter.increment();
+            }
+        }
+        outboxRepository.saveAll(failedRows);
+    }
+
+    // Puts a claimed batch back in the queue with backoff; if that fails too, the stale-claim release does it
+    private void reschedule(List<Long> ids, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AbsenceNotificationOutbox> rows = outboxRepository.findAllById(ids);
+                Map<Long, String> errors = new HashMap<>();
+                rows.forEach(row -> errors.put(row.getId(), error));
+                scheduleRetries(rows, errors, LocalDateTime.now());
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not reschedule {} claimed absence alerts, they are released after {} min: {}",
+                    ids.size(), staleClaimMinutes, e.getMessage());
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private void refreshBacklogGauges() {
+        pendingGauge.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+        oldestPendingAgeGauge.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).getSeconds() : 0);
+    }
+
+    private static final class Recipient {
+        private final Long userId;
+        private final boolean parent;
+        private final List<AbsenceNotificationOutbox> alerts = new ArrayList<>();
+
+        private Recipient(Long userId, boolean parent) {
+            this.userId = userId;
+            this.parent = parent;
+        }
+    }
+}
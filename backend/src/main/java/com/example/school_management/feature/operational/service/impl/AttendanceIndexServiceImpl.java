@@ -0,0 +1,320 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.operational.domain.AttendanceBitmapIndex;
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.dto.AttendanceIndexInfo;
+import com.example.school_management.feature.operational.dto.AttendanceRecentSummary;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.event.AttendanceChangedEvent;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.service.AttendanceIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the {@link AttendanceBitmapIndex} for the current academic year. The index is
+ * loaded on first read (one streamed query over the year), reloaded when the year rolls
+ * over, and kept current from {@link AttendanceChangedEvent}s: each committed write re-reads
+ * the affected (user, day) pairs. Writes that commit while a load is streaming are queued
+ * and replayed against the new index. If a refresh fails the index is dropped and reloaded
+ * on the next read rather than served stale.
+ * <p>
+ * Each instance holds its own index, so the changed pairs are also announced on the
+ * {@value #CHANNEL} Redis channel and every other instance re-reads them. An index older than
+ * the maximum age is reloaded by the next read, while other reads keep using it; this bounds
+ * the staleness left by a lost message.
+ */
+@Slf4j
+@Service
+public class AttendanceIndexServiceImpl implements AttendanceIndexService {
+
+    public static final String CHANNEL = "attendance-index";
+
+    private final AttendanceRepository attendanceRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    // Tells this instance's own announcements apart from those of other instances
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Object loadLock = new Object();
+    private final Queue<AttendanceChangedEvent> changesDuringLoad = new ConcurrentLinkedQueue<>();
+    private volatile AttendanceBitmapIndex index;
+    private volatile boolean loading;
+    private volatile LocalDateTime loadedAt;
+    private volatile long loadedAtMillis;
+    private volatile long loadMillis;
+    private volatile long recordsLoaded;
+
+    @Value("${app.attendance.index.enabled:true}")
+    private boolean enabled;
+
+    // MM-dd of the first day of the academic year
+    @Value("${app.attendance.index.academic-year-start:09-01}")
+    private String academicYearStart;
+
+    @Value("${app.attendance.index.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    public AttendanceIndexServiceImpl(AttendanceRepository attendanceRepository,
+                                      RedisTemplate<String, Object> redisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      PlatformTransactionManager transactionManager) {
+        this.attendanceRepository = attendanceRepository;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        return coveringIndex(startDate, endDate).isPresent();
+    }
+
+    @Override
+    public Optional<AttendanceDayCounts> getUserDayCounts(Long userId, LocalDate startDate, LocalDate endDate) {
+        return coveringIndex(startDate, endDate)
+                .map(current -> AttendanceDayCounts.of(current.counts(userId, startDate, endDate)));
+    }
+
+    @Override
+    public AttendanceDayCounts getYearToDateCounts(Long userId) {
+        if (!enabled) {
+            return AttendanceDayCounts.of(new long[AttendanceStatus.values().length]);
+        }
+        AttendanceBitmapIndex current = index();
+        return AttendanceDayCounts.of(current.counts(userId, current.firstDay(), LocalDate.now()));
+    }
+
+    @Override
+    public AttendanceDayCounts getSchoolYearToDateCounts() {
+        if (!enabled) {
+            return AttendanceDayCounts.of(new long[AttendanceStatus.values().length]);
+        }
+        AttendanceBitmapIndex current = index();
+        return AttendanceDayCounts.of(current.aggregateAll(current.firstDay(), LocalDate.now()));
+    }
+
+    @Override
+    public AttendanceRecentSummary getRecentSummary(Long userId, AttendanceStatus status, int schoolDays, LocalDate asOf) {
+        if (schoolDays <= 0) {
+            throw new IllegalArgumentException("Number of school days must be positive");
+        }
+        AttendanceRecentSummary.AttendanceRecentSummaryBuilder summary = AttendanceRecentSummary.builder()
+                .userId(userId)
+                .status(status)
+                .asOf(asOf)
+                .windowSchoolDays(schoolDays);
+        if (!enabled) {
+            return summary.build();
+        }
+        AttendanceBitmapIndex current = index();
+        return summary
+                .matchingDays(current.countInLastSchoolDays(userId, status, schoolDays, asOf))
+                .currentStreak(current.streak(userId, status, asOf))
+                .lastRecordedDate(current.lastRecordedDay(userId))
+                .build();
+    }
+
+    @Override
+    public Optional<LocalDate> getLastRecordedDay(Long userId) {
+        return enabled ? Optional.ofNullable(index().lastRecordedDay(userId)) : Optional.empty();
+    }
+
+    @Override
+    public AttendanceIndexInfo getInfo() {
+        AttendanceBitmapIndex current = index;
+        if (current == null) {
+            LocalDate firstDay = yearStartFor(LocalDate.now());
+            return AttendanceIndexInfo.builder()
+                    .loaded(false)
+                    .firstDay(firstDay)
+                    .lastDay(firstDay.plusYears(1).minusDays(1))
+                    .build();
+        }
+        long bytes = current.estimatedBytes();
+        int users = current.userCount();
+        return AttendanceIndexInfo.builder()
+                .loaded(true)
+                .firstDay(current.firstDay())
+                .lastDay(current.lastDay())
+                .users(users)
+                .schoolDays(current.schoolDaysBetween(current.firstDay(), current.lastDay()))
+                .estimatedBytes(bytes)
+                .bytesPerUser(users > 0 ? bytes / users : 0)
+                .loadedAt(loadedAt)
+                .loadMillis(loadMillis)
+                .recordsLoaded(recordsLoaded)
+                .build();
+    }
+
+    @Override
+    public AttendanceIndexInfo rebuild() {
+        synchronized (loadLock) {
+            load(LocalDate.now());
+        }
+        return getInfo();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        apply(event);
+        if (event.userIds().isEmpty() || event.dates().isEmpty()) return;
+        try {
+            redisTemplate.convertAndSend(CHANNEL, encode(event));
+        } catch (RuntimeException e) {
+            log.warn("Could not announce attendance change, other instances catch up within {} min: {}",
+                    maxAgeMinutes, e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(payload instanceof String text) || text.startsWith(instanceId + ";")) return;
+        AttendanceChangedEvent event = decode(text);
+        readOnlyTransaction.executeWithoutResult(status -> apply(event));
+    }
+
+    private void apply(AttendanceChangedEvent event) {
+        if (loading) {
+            changesDuringLoad.add(event);
+        }
+        AttendanceBitmapIndex current = index;
+        if (current == null) return;
+        try {
+            refresh(current, event);
+        } catch (RuntimeException e) {
+            log.warn("Attendance index refresh failed, dropping the index until the next read: {}", e.getMessage());
+            index = null;
+        }
+    }
+
+    // "instanceId;userId,userId;date,date" - plain text whatever the template's value serializer
+    private String encode(AttendanceChangedEvent event) {
+        return instanceId + ";"
+                + event.userIds().stream().map(String::valueOf).collect(Collectors.joining(",")) + ";"
+                + event.dates().stream().filter(Objects::nonNull).map(LocalDate::toString).collect(Collectors.joining(","));
+    }
+
+    private static AttendanceChangedEvent decode(String payload) {
+        String[] parts = payload.split(";", -1);
+        Set<Long> userIds = Arrays.stream(parts[1].split(",")).filter(id -> !id.isEmpty())
+                .map(Long::valueOf).collect(Collectors.toSet());
+        Set<LocalDate> dates = Arrays.stream(parts[2].split(",")).filter(date -> !date.isEmpty())
+                .map(LocalDate::parse).collect(Collectors.toSet());
+        return new AttendanceChangedEvent(userIds, dates);
+    }
+
+    private Optional<AttendanceBitmapIndex> coveringIndex(LocalDate startDate, LocalDate endDate) {
+        if (!enabled || startDate == null || endDate == null) {
+            return Optional.empty();
+        }
+        AttendanceBitmapIndex current = index();
+        return current.covers(startDate, endDate) ? Optional.of(current) : Optional.empty();
+    }
+
+    private AttendanceBitmapIndex index() {
+        AttendanceBitmapIndex current = index;
+        LocalDate today = LocalDate.now();
+        // While an expired index is being reloaded, other readers keep using it
+        if (current != null && !today.isAfter(current.lastDay()) && (!expired() || loading)) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = index;
+            if (current == null || today.isAfter(current.lastDay()) || expired()) {
+                current = load(today);
+            }
+            return current;
+        }
+    }
+
+    private boolean expired() {
+        return System.currentTimeMillis() - loadedAtMillis > TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+
+    // Caller holds loadLock
+    private AttendanceBitmapIndex load(LocalDate today) {
+        LocalDate firstDay = yearStartFor(today);
+        LocalDate lastDay = firstDay.plusYears(1).minusDays(1);
+        long started = System.currentTimeMillis();
+        changesDuringLoad.clear();
+        loading = true;
+        try {
+            AttendanceBitmapIndex fresh = new AttendanceBitmapIndex(firstDay, lastDay);
+            long[] records = {0};
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = attendanceRepository.streamDayStatuses(firstDay, lastDay)) {
+                    rows.forEach(row -> {
+                        fresh.mergeDay((Long) row[0], (LocalDate) row[1], (AttendanceStatus) row[2]);
+                        records[0]++;
+                    });
+                }
+            });
+            index = fresh;
+            loading = false;
+            AttendanceChangedEvent change;
+            while ((change = changesDuringLoad.poll()) != null) {
+                refresh(fresh, change);
+            }
+
+            loadedAt = LocalDateTime.now();
+            loadedAtMillis = started;
+            loadMillis = System.currentTimeMillis() - started;
+            recordsLoaded = records[0];
+            log.info("Loaded attendance index {}..{}: {} records, {} users, ~{} KB in {} ms",
+                    firstDay, lastDay, records[0], fresh.userCount(), fresh.estimatedBytes() / 1024, loadMillis);
+            return fresh;
+        } finally {
+            loading = false;
+        }
+    }
+
+    private void refresh(AttendanceBitmapIndex target, AttendanceChangedEvent event) {
+        Set<LocalDate> dates = event.dates().stream()
+                .filter(date -> date != null && target.covers(date, date))
+                .collect(Collectors.toSet());
+        if (dates.isEmpty() || event.userIds().isEmpty()) return;
+
+        Map<Long, Map<LocalDate, List<AttendanceStatus>>> statuses = new HashMap<>();
+        for (Object[] row : attendanceRepository.findDayStatuses(event.userIds(), dates)) {
+            statuses.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .computeIfAbsent((LocalDate) row[1], date -> new ArrayList<>())
+                    .add((AttendanceStatus) row[2]);
+        }
+        // Pairs without rows are cleared, which covers deletions
+        for (Long userId : event.userIds()) {
+            Map<LocalDate, List<AttendanceStatus>> byDate = statuses.getOrDefault(userId, Map.of());
+            for (LocalDate date : dates) {
+                target.setDay(userId, date, AttendanceBitmapIndex.resolve(byDate.getOrDefault(date, List.of())));
+            }
+        }
+    }
+
+    private LocalDate yearStartFor(LocalDate date) {
+        MonthDay start = MonthDay.parse("--" + academicYearStart);
+        LocalDate thisYear = start.atYear(date.getYear());
+        return date.isBefore(thisYear) ? start.atYear(date.getYear() - 1) : thisYear;
+    }
+}
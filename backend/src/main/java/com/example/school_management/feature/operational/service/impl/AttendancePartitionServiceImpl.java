@@ -0,0 +1,132 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.operational.dto.AttendanceArchiveResult;
+import com.example.school_management.feature.operational.dto.AttendancePartitionInfo;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.service.AttendancePartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partitions are plain monthly ranges named attendance_pYYYY_MM. Upcoming months are created
+ * at startup and daily, so inserts never hit a missing partition; archiving detaches whole
+ * months, which takes a brief exclusive lock on attendance instead of a long DELETE. Detached
+ * months drop out of attendance queries but keep their daily rollup counts, so statistics over
+ * archived years still answer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendancePartitionServiceImpl implements AttendancePartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("attendance_p(\\d{4})_(\\d{2})");
+    // pg advisory lock key for partition creation, shared by every instance
+    private static final long CREATE_LOCK_KEY = 0x617474706172746eL; // "attpartn"
+
+    private final AttendanceRepository attendanceRepository;
+
+    @Value("${app.attendance.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${app.attendance.index.academic-year-start:09-01}")
+    private String academicYearStart;
+
+    @Override
+    @Transactional
+    public int createUpcomingPartitions() {
+        // Instances starting together would race between the existence check and CREATE TABLE;
+        // the one that waits finds the months already created
+        attendanceRepository.advisoryXactLock(CREATE_LOCK_KEY);
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        int created = attendanceRepository.createMonthlyPartitions(thisMonth, thisMonth.plusMonths(monthsAhead));
+        if (created > 0) {
+            log.info("Created {} attendance partitions through {}", created, thisMonth.plusMonths(monthsAhead));
+        }
+        return created;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttendancePartitionInfo> getPartitions() {
+        List<AttendancePartitionInfo> partitions = new ArrayList<>();
+        for (Object[] row : attendanceRepository.findPartitions()) {
+            String name = (String) row[0];
+            partitions.add(AttendancePartitionInfo.builder()
+                    .name(name)
+                    .monthStart(monthOf(name))
+                    .approximateRows(((Number) row[1]).longValue())
+                    .totalBytes(((Number) row[2]).longValue())
+                    .build());
+        }
+        return partitions;
+    }
+
+    @Override
+    @Transactional
+    public AttendanceArchiveResult archive(int academicYears, boolean dryRun) {
+        if (academicYears < 1) {
+            throw new IllegalArgumentException("At least the current academic year must be kept");
+        }
+        LocalDate cutoff = academicYearStartFor(LocalDate.now()).minusYears(academicYears - 1L);
+        AttendanceArchiveResult result = AttendanceArchiveResult.builder()
+                .keptAcademicYears(academicYears)
+                .cutoff(cutoff)
+                .dryRun(dryRun)
+                .build();
+
+        long rows = 0;
+        for (AttendancePartitionInfo partition : getPartitions()) {
+            // Only whole months before the cutoff; anything unrecognised is left alone
+            if (partition.getMonthStart() == null || partition.getMonthStart().plusMonths(1).isAfter(cutoff)) {
+                continue;
+            }
+            result.getPartitions().add(partition.getName());
+            rows += partition.getApproximateRows();
+            if (!dryRun) {
+                result.getArchivedTables().add(attendanceRepository.detachPartition(partition.getName()));
+            }
+        }
+        result.setApproximateRows(rows);
+
+        log.info("Attendance archive before {}: {} partitions, ~{} rows (dry run: {})",
+                cutoff, result.getPartitions().size(), rows, dryRun);
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createPartitionsOnStartup() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${app.attendance.partitions.maintain-cron:0 15 3 * * *}")
+    @Transactional
+    public void scheduledCreatePartitions() {
+        createUpcomingPartitions();
+    }
+
+    private static LocalDate monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) return null;
+        return LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+    }
+
+    private LocalDate academicYearStartFor(LocalDate date) {
+        MonthDay start = MonthDay.parse("--" + academicYearStart);
+        LocalDate thisYear = start.atYear(date.getYear());
+        return date.isBefore(thisYear) ? start.atYear(date.getYear() - 1) : thisYear;
+    }
+}
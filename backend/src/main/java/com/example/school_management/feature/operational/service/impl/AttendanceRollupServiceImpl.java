@@ -0,0 +1,165 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.dto.AttendanceRollupDriftReport;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.repository.AttendanceDailyRollupRepository;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.service.AttendanceRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The rollup is kept current by statement-level triggers on attendance (V61), so this
+ * service only reads it and re-derives ranges of it. A backfill replaces one calendar month
+ * per transaction while holding a SHARE lock on attendance: writers wait for that month to
+ * finish instead of racing the trigger against the recount, and no single transaction holds
+ * the lock for the whole history.
+ */
+@Slf4j
+@Service
+public class AttendanceRollupServiceImpl implements AttendanceRollupService {
+
+    // pg advisory lock key for the scheduled verify, shared by every instance
+    private static final long VERIFY_LOCK_KEY = 0x61747472726f6c6cL; // "attrroll"
+
+    private final AttendanceDailyRollupRepository rollupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Trailing window re-checked by the nightly verification, in days
+    @Value("${app.attendance.rollup.verify-days:35}")
+    private int verifyDays;
+
+    public AttendanceRollupServiceImpl(AttendanceDailyRollupRepository rollupRepository,
+                                       AttendanceRepository attendanceRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each chunk commits on its own, also under the scheduled verify's lock-holding transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttendanceDayCounts getCounts(LocalDate startDate, LocalDate endDate) {
+        return toCounts(rollupRepository.sumByStatus(startDate, endDate));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttendanceDayCounts getClassCounts(Long classId, LocalDate startDate, LocalDate endDate) {
+        return toCounts(rollupRepository.sumByStatusForClass(classId, startDate, endDate));
+    }
+
+    @Override
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : attendanceRepository.findEarliestDate().orElse(null);
+        LocalDate to = endDate != null ? endDate : attendanceRepository.findLatestDate().orElse(null);
+        if (from == null || to == null) {
+            log.info("No attendance recorded, nothing to backfill");
+            return 0;
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        long started = System.currentTimeMillis();
+        int rows = 0;
+        for (LocalDate monthStart = from; !monthStart.isAfter(to);
+             monthStart = monthStart.withDayOfMonth(1).plusMonths(1)) {
+            LocalDate chunkStart = monthStart;
+            LocalDate chunkEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            LocalDate chunkTo = chunkEnd.isAfter(to) ? to : chunkEnd;
+            rows += replace(chunkStart, chunkTo);
+        }
+        log.info("Backfilled attendance rollup {}..{}: {} rows in {} ms",
+                from, to, rows, System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    @Override
+    public AttendanceRollupDriftReport verify(LocalDate startDate, LocalDate endDate, boolean repair) {
+        LocalDate to = endDate != null ? endDate : LocalDate.now();
+        LocalDate from = startDate != null ? startDate : to.minusDays(verifyDays);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        AttendanceRollupDriftReport report = AttendanceRollupDriftReport.builder()
+                .checkedAt(LocalDateTime.now())
+                .startDate(from)
+                .endDate(to)
+                .build();
+        List<Object[]> drift = transactionTemplate.execute(status -> rollupRepository.findDrift(from, to));
+        drift.forEach(row -> report.getEntries().add(toDriftEntry(row)));
+        report.setDriftedKeys(report.getEntries().size());
+
+        if (repair && !report.getEntries().isEmpty()) {
+            SortedSet<LocalDate> dates = new TreeSet<>();
+            report.getEntries().forEach(entry -> dates.add(entry.getDate()));
+            dates.forEach(date -> replace(date, date));
+            report.setRepaired(true);
+        }
+
+        if (report.getEntries().isEmpty()) {
+            log.debug("Attendance rollup verified {}..{}: no drift", from, to);
+        } else {
+            log.warn("Attendance rollup drift {}..{}: {} keys (repaired: {})",
+                    from, to, report.getDriftedKeys(), report.isRepaired());
+        }
+        return report;
+    }
+
+    // Every instance fires the schedule; the lock lets one of them verify and the others skip
+    @Scheduled(cron = "${app.attendance.rollup.verify-cron:0 45 2 * * *}")
+    @Transactional
+    public void scheduledVerify() {
+        if (!rollupRepository.tryAdvisoryXactLock(VERIFY_LOCK_KEY)) {
+            log.debug("Attendance rollup verify already running on another instance, skipping");
+            return;
+        }
+        verify(null, null, true);
+    }
+
+    private int replace(LocalDate startDate, LocalDate endDate) {
+        Integer rows = transactionTemplate.execute(status -> {
+            rollupRepository.lockAttendanceAgainstWrites();
+            rollupRepository.deleteRange(startDate, endDate);
+            return rollupRepository.insertRange(startDate, endDate);
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private static AttendanceDayCounts toCounts(List<Object[]> rows) {
+        long[] byStatus = new long[AttendanceStatus.values().length];
+        for (Object[] row : rows) {
+            byStatus[((AttendanceStatus) row[0]).ordinal()] += ((Number) row[1]).longValue();
+        }
+        return AttendanceDayCounts.of(byStatus);
+    }
+
+    private static AttendanceRollupDriftReport.DriftEntry toDriftEntry(Object[] row) {
+        return new AttendanceRollupDriftReport.DriftEntry(
+                row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0],
+                row[1] != null ? ((Number) row[1]).longValue() : null,
+                (String) row[2],
+                (String) row[3],
+                ((Number) row[5]).longValue(),
+                ((Number) row[4]).longValue());
+    }
+}
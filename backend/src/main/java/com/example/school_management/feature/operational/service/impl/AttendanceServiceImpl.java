@@ -10,7 +10,10 @@ import com.example.school_management.feature.academic.repository.ClassRepository
 import com.example.school_management.feature.academic.repository.CourseRepository;
 import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
 import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.dto.AttendanceMarkResult;
+import com.example.school_management.feature.operational.dto.AttendanceRecentSummary;
 import com.example.school_management.feature.operational.dto.AttendanceStatisticsDto;
+import com.example.school_management.feature.operational.dto.AttendanceStatusMatrix;
 import com.example.school_management.feature.operational.dto.TeacherAttendanceClassView;
 import com.example.school_management.feature.operational.entity.Attendance;
 import com.example.school_management.feature.operational.entity.TimetableSlot;
@@ -19,20 +22,24 @@ import com.example.school_management.feature.operational.entity.enums.UserType;
 import com.example.school_management.feature.operational.mapper.OperationalMapper;
 import com.example.school_management.feature.operational.repository.AttendanceRepository;
 import com.example.school_management.feature.operational.repository.TimetableSlotRepository;
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.domain.ClassRoster;
+import com.example.school_management.feature.operational.event.AttendanceChangedEvent;
+import com.example.school_management.feature.operational.service.AbsenceNotificationService;
+import com.example.school_management.feature.operational.service.AttendanceIndexService;
+import com.example.school_management.feature.operational.service.AttendanceRollupService;
 import com.example.school_management.feature.operational.service.AttendanceService;
+import com.example.school_management.feature.operational.service.ClassRosterService;
+import com.example.school_management.feature.operational.service.TeacherDayScheduleService;
 import com.example.school_management.feature.auth.entity.Student;
 import com.example.school_management.feature.auth.entity.Teacher;
-import com.example.school_management.feature.auth.entity.Parent;
-import com.example.school_management.feature.auth.repository.StudentRepository;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
-import com.example.school_management.feature.auth.repository.ParentRepository;
-import com.example.school_management.feature.operational.entity.Notification;
-import com.example.school_management.feature.operational.entity.enums.NotificationType;
-import com.example.school_management.feature.operational.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -41,6 +48,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import com.example.school_management.feature.operational.entity.Enrollment;
 import com.example.school_management.feature.operational.repository.EnrollmentRepository;
@@ -62,12 +70,14 @@ public class AttendanceServiceImpl implements AttendanceService {
     private final ClassRepository classRepository;
     private final TeachingAssignmentRepository teachingAssignmentRepository;
     private final TimetableSlotRepository timetableSlotRepository;
-    private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
-    private final ParentRepository parentRepository;
-    private final NotificationRepository notificationRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final RealTimeNotificationService realTimeNotificationService;
+    private final AbsenceNotificationService absenceNotificationService;
+    private final AttendanceIndexService attendanceIndexService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final TeacherDayScheduleService teacherDayScheduleService;
+    private final ClassRosterService classRosterService;
+    private final ApplicationEventPublisher eventPublisher;
     private final OperationalMapper mapper;
 
     private BaseUser getCurrentUser() {
@@ -129,23 +139,123 @@ public class AttendanceServiceImpl implements AttendanceService {
         
         Attendance savedAttendance = attendanceRepository.save(attendance);
         log.info("Attendance recorded for user {} on date {}", user.getId(), attendanceDto.getDate());
+        publishChange(savedAttendance);
         
-        // Send absence notifications if student is marked absent
+        // Queue absence alerts in this transaction; the outbox dispatcher delivers them
         if (user instanceof Student && savedAttendance.getStatus() == AttendanceStatus.ABSENT) {
-            sendAbsenceNotifications((Student) user, savedAttendance);
+            absenceNotificationService.enqueue(List.of(savedAttendance));
         }
         
         return mapper.toAttendanceDto(savedAttendance);
     }
 
+    /**
+     * Set-based equivalent of calling {@link #recordAttendance} for each record. Users, courses,
+     * classes, slots and the existing records are each fetched in one query, the recorder is
+     * resolved once and new rows are inserted through JDBC batches (pooled sequence ids).
+     */
     @Override
     public List<AttendanceDto> recordBatchAttendance(List<AttendanceDto> attendanceDtos) {
         log.debug("Recording batch attendance for {} records", attendanceDtos.size());
+        if (attendanceDtos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<Long, BaseUser> users = prefetch(userRepository, attendanceDtos, AttendanceDto::getUserId, BaseUser::getId, "User not found");
+        Map<Long, Course> courses = prefetch(courseRepository, attendanceDtos, AttendanceDto::getCourseId, Course::getId, "Course not found");
+        Map<Long, ClassEntity> classes = prefetch(classRepository, attendanceDtos, AttendanceDto::getClassId, ClassEntity::getId, "Class not found");
+        Map<Long, TimetableSlot> slots = prefetch(timetableSlotRepository, attendanceDtos, AttendanceDto::getTimetableSlotId, TimetableSlot::getId, "Timetable slot not found");
         
-        return attendanceDtos.stream()
-                .map(this::recordAttendance)
+        // Same duplicate rule as findExistingAttendance: by class when given, otherwise by course
+        Set<LocalDate> dates = attendanceDtos.stream().map(AttendanceDto::getDate).collect(Collectors.toSet());
+        Map<AttendanceKey, Attendance> recorded = new HashMap<>();
+        for (Attendance attendance : attendanceRepository.findByUserIdInAndDateIn(users.keySet(), dates)) {
+            indexAttendance(recorded, attendance);
+        }
+        
+        BaseUser currentUser = getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        List<Attendance> results = new ArrayList<>(attendanceDtos.size());
+        List<Attendance> created = new ArrayList<>();
+        for (AttendanceDto attendanceDto : attendanceDtos) {
+            AttendanceKey key = AttendanceKey.of(attendanceDto);
+            Attendance attendance = key != null ? recorded.get(key) : null;
+            if (attendance == null) {
+                attendance = new Attendance();
+                attendance.setUser(users.get(attendanceDto.getUserId()));
+                attendance.setDate(attendanceDto.getDate());
+                attendance.setStatus(attendanceDto.getStatus());
+                attendance.setRemarks(attendanceDto.getRemarks());
+                attendance.setExcuse(attendanceDto.getExcuse());
+                attendance.setMedicalNote(attendanceDto.getMedicalNote());
+                attendance.setRecordedAt(now);
+                attendance.setCourse(courses.get(attendanceDto.getCourseId()));
+                attendance.setClassEntity(classes.get(attendanceDto.getClassId()));
+                attendance.setTimetableSlot(slots.get(attendanceDto.getTimetableSlotId()));
+                attendance.setRecordedBy(currentUser);
+                created.add(attendance);
+                // Later records in the batch see this one, as they would after a save
+                indexAttendance(recorded, attendance);
+            }
+            results.add(attendance);
+        }
+        
+        attendanceRepository.saveAll(created);
+        log.info("Batch attendance: {} recorded, {} already existed", created.size(), attendanceDtos.size() - created.size());
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new AttendanceChangedEvent(
+                    created.stream().map(a -> a.getUser().getId()).collect(Collectors.toSet()),
+                    created.stream().map(Attendance::getDate).collect(Collectors.toSet()),
+                    created.stream().map(AttendanceServiceImpl::slotTeacherId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                    created.stream().map(AttendanceServiceImpl::classIdOf).filter(Objects::nonNull).collect(Collectors.toSet())));
+        }
+        
+        absenceNotificationService.enqueue(created.stream()
+                .filter(attendance -> attendance.getUser() instanceof Student && attendance.getStatus() == AttendanceStatus.ABSENT)
+                .collect(Collectors.toList()));
+        
+        return results.stream()
+                .map(mapper::toAttendanceDto)
                 .collect(Collectors.toList());
     }
+    
+    // Duplicate-check key: (user, class, date), the unique key of the table, or (user, course, date) for
+    // records without a class; the other id is null
+    private record AttendanceKey(Long userId, Long courseId, Long classId, LocalDate date) {
+        static AttendanceKey of(AttendanceDto dto) {
+            if (dto.getClassId() != null) return new AttendanceKey(dto.getUserId(), null, dto.getClassId(), dto.getDate());
+            if (dto.getCourseId() != null) return new AttendanceKey(dto.getUserId(), dto.getCourseId(), null, dto.getDate());
+            return null;
+        }
+    }
+    
+    private static void indexAttendance(Map<AttendanceKey, Attendance> index, Attendance attendance) {
+        Long userId = attendance.getUser().getId();
+        if (attendance.getCourse() != null) {
+            index.putIfAbsent(new AttendanceKey(userId, attendance.getCourse().getId(), null, attendance.getDate()), attendance);
+        }
+        Long classId = attendance.getClassEntity() != null ? attendance.getClassEntity().getId() : attendance.getClassId();
+        if (classId != null) {
+            index.putIfAbsent(new AttendanceKey(userId, null, classId, attendance.getDate()), attendance);
+        }
+    }
+    
+    private static <T> Map<Long, T> prefetch(JpaRepository<T, Long> repository, List<AttendanceDto> attendanceDtos,
+                                             Function<AttendanceDto, Long> reference, Function<T, Long> idOf, String notFound) {
+        Set<Long> ids = attendanceDtos.stream()
+                .map(reference)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, T> found = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        if (found.size() < ids.size()) {
+            throw new ResourceNotFoundException(notFound);
+        }
+        return found;
+    }
 
     @Override
     public List<AttendanceDto> getUserAttendance(Long userId, LocalDate startDate, LocalDate endDate) {
@@ -189,37 +299,21 @@ public class AttendanceServiceImpl implements AttendanceService {
             endDate = LocalDate.now();
         }
         
-        List<Attendance> attendances = attendanceRepository.findByDateBetween(startDate, endDate);
-        
-        long totalRecords = attendances.size();
-        long presentCount = attendances.stream().filter(Attendance::isPresent).count();
-        long absentCount = attendances.stream().filter(Attendance::isAbsent).count();
-        long lateCount = attendances.stream().filter(Attendance::isLate).count();
-        long excusedCount = attendances.stream().filter(Attendance::isExcused).count();
-        
-        double attendancePercentage = totalRecords > 0 ? (double) presentCount / totalRecords * 100 : 0;
-        double absencePercentage = totalRecords > 0 ? (double) absentCount / totalRecords * 100 : 0;
-        
-        return new AttendanceStatisticsDto(
-                null,
-                "Overall Statistics",
-                "GENERAL",
-                startDate,
-                endDate,
-                totalRecords,
-                presentCount,
-                absentCount,
-                lateCount,
-                excusedCount,
-                attendancePercentage,
-                absencePercentage
-        );
+        AttendanceDayCounts counts = attendanceRollupService.getCounts(startDate, endDate);
+        return toStatistics(null, "Overall Statistics", "GENERAL", startDate, endDate, counts);
     }
 
     @Override
     public AttendanceStatisticsDto getUserAttendanceStatistics(Long userId, LocalDate startDate, LocalDate endDate) {
         log.debug("Getting attendance statistics for user {} from {} to {}", userId, startDate, endDate);
         
+        Optional<AttendanceDayCounts> indexed = attendanceIndexService.getUserDayCounts(userId, startDate, endDate);
+        if (indexed.isPresent()) {
+            BaseUser user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            return toUserStatistics(user, startDate, endDate, indexed.get());
+        }
+        
         List<Attendance> attendances = attendanceRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
         
         long totalDays = attendances.size();
@@ -254,6 +348,18 @@ public class AttendanceServiceImpl implements AttendanceService {
     public List<AttendanceStatisticsDto> getClassAttendanceStatistics(Long classId, LocalDate startDate, LocalDate endDate) {
         log.debug("Getting class attendance statistics for class {} from {} to {}", classId, startDate, endDate);
         
+        // Every student on the roster, each read from the index without further queries
+        if (attendanceIndexService.covers(startDate, endDate)) {
+            ClassEntity classEntity = classRepository.findById(classId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+            return classEntity.getStudents().stream()
+                    .sorted(Comparator.comparing(Student::getLastName, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(Student::getFirstName, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .map(student -> toUserStatistics(student, startDate, endDate,
+                            attendanceIndexService.getUserDayCounts(student.getId(), startDate, endDate).orElseThrow()))
+                    .collect(Collectors.toList());
+        }
+        
         List<Attendance> attendances = attendanceRepository.findByClassIdAndDate(classId, startDate);
         
         return attendances.stream()
@@ -267,6 +373,50 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public AttendanceStatisticsDto getClassAttendanceSummary(Long classId, LocalDate startDate, LocalDate endDate) {
+        log.debug("Getting attendance summary for class {} from {} to {}", classId, startDate, endDate);
+        
+        ClassEntity classEntity = classRepository.findById(classId)
+                .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+        AttendanceDayCounts counts = attendanceRollupService.getClassCounts(classId, startDate, endDate);
+        return toStatistics(classId, classEntity.getName(), "CLASS", startDate, endDate, counts);
+    }
+    
+    @Override
+    public AttendanceRecentSummary getRecentAttendanceSummary(Long userId, AttendanceStatus status, int schoolDays, LocalDate asOf) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return attendanceIndexService.getRecentSummary(userId, status, schoolDays, asOf != null ? asOf : LocalDate.now());
+    }
+    
+    private AttendanceStatisticsDto toUserStatistics(BaseUser user, LocalDate startDate, LocalDate endDate, AttendanceDayCounts counts) {
+        String userType = counts.recordedDays() == 0 ? "UNKNOWN"
+                : user instanceof Student ? UserType.STUDENT.name()
+                : user instanceof Teacher ? UserType.TEACHER.name()
+                : UserType.STAFF.name();
+        return toStatistics(user.getId(), user.getFirstName() + " " + user.getLastName(), userType, startDate, endDate, counts);
+    }
+    
+    private static AttendanceStatisticsDto toStatistics(Long id, String name, String type, LocalDate startDate, LocalDate endDate,
+                                                        AttendanceDayCounts counts) {
+        return new AttendanceStatisticsDto(
+                id,
+                name,
+                type,
+                startDate,
+                endDate,
+                counts.recordedDays(),
+                counts.presentDays(),
+                counts.absentDays(),
+                counts.lateDays(),
+                counts.excusedDays(),
+                counts.attendancePercentage(),
+                counts.absencePercentage()
+        );
+    }
+
     @Override
     public AttendanceDto updateAttendance(Long attendanceId, AttendanceDto attendanceDto) {
         log.debug("Updating attendance {}", attendanceId);
@@ -280,6 +430,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setMedicalNote(attendanceDto.getMedicalNote());
         
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        publishChange(updatedAttendance);
         return mapper.toAttendanceDto(updatedAttendance);
     }
 
@@ -287,11 +438,11 @@ public class AttendanceServiceImpl implements AttendanceService {
     public void deleteAttendance(Long attendanceId) {
         log.debug("Deleting attendance {}", attendanceId);
         
-        if (!attendanceRepository.existsById(attendanceId)) {
-            throw new ResourceNotFoundException("Attendance not found");
-        }
+        Attendance attendance = attendanceRepository.findById(attendanceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attendance not found"));
         
-        attendanceRepository.deleteById(attendanceId);
+        attendanceRepository.delete(attendance);
+        publishChange(attendance);
     }
 
     @Override
@@ -313,6 +464,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setExcuse(excuse);
         
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        publishChange(updatedAttendance);
         return mapper.toAttendanceDto(updatedAttendance);
     }
 
@@ -327,6 +479,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setRemarks(remarks);
         
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        publishChange(updatedAttendance);
         return mapper.toAttendanceDto(updatedAttendance);
     }
 
@@ -347,13 +500,15 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendances.map(mapper::toAttendanceDto);
     }
 
+    // By class first: (user_id, class_id, date) is unique, so a record for another course of the same
+    // class and day is the same record, not a new one
     private Attendance findExistingAttendance(AttendanceDto attendanceDto) {
-        if (attendanceDto.getCourseId() != null) {
-            return attendanceRepository.findByUserIdAndCourseIdAndDate(
-                    attendanceDto.getUserId(), attendanceDto.getCourseId(), attendanceDto.getDate()).orElse(null);
-        } else if (attendanceDto.getClassId() != null) {
+        if (attendanceDto.getClassId() != null) {
             return attendanceRepository.findByUserIdAndClassIdAndDate(
                     attendanceDto.getUserId(), attendanceDto.getClassId(), attendanceDto.getDate()).orElse(null);
+        } else if (attendanceDto.getCourseId() != null) {
+            return attendanceRepository.findByUserIdAndCourseIdAndDate(
+                    attendanceDto.getUserId(), attendanceDto.getCourseId(), attendanceDto.getDate()).orElse(null);
         }
         return null;
     }
@@ -363,93 +518,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public List<AttendanceDto> getTeacherTodayScheduleWithAttendance(Long teacherId, LocalDate date) {
         log.debug("Getting today's schedule with attendance for teacher {} on date {}", teacherId, date);
-        
-        // Verify teacher exists
-        Teacher teacher = teacherRepository.findById(teacherId)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
-        
-        // Get teacher's timetable slots for today
-        com.example.school_management.feature.operational.entity.enums.DayOfWeek dayOfWeek = convertToDayOfWeek(date.getDayOfWeek());
-        List<TimetableSlot> allSlots = timetableSlotRepository.findByTeacherId(teacherId);
-        log.info("Found {} total timetable slots for teacher {}", allSlots.size(), teacherId);
-        
-        // Log all slots for debugging
-        for (TimetableSlot slot : allSlots) {
-            log.info("Slot {}: day={}, class={}, course={}", slot.getId(), slot.getDayOfWeek(), 
-                    slot.getForClass() != null ? slot.getForClass().getName() : "null",
-                    slot.getForCourse() != null ? slot.getForCourse().getName() : "null");
-        }
-        
-        List<TimetableSlot> todaySlots = allSlots.stream()
-                .filter(slot -> slot.getDayOfWeek() == dayOfWeek)
-                .collect(Collectors.toList());
-        
-        log.info("Found {} timetable slots for teacher {} on {} (day: {})", todaySlots.size(), teacherId, date, dayOfWeek);
-        
-        List<AttendanceDto> result = new ArrayList<>();
-        
-        // If no timetable slots exist, create virtual slots from teacher's assigned classes
-        if (todaySlots.isEmpty()) {
-            log.info("No timetable slots found for teacher {} on {}, creating virtual slots from assigned classes", teacherId, date);
-            
-            // Get teacher's assigned classes through teaching assignments
-            List<TeachingAssignment> assignments = teachingAssignmentRepository.findByTeacherId(teacherId);
-            log.debug("Found {} teaching assignments for teacher {}", assignments.size(), teacherId);
-            
-            // Group assignments by class to avoid duplicates
-            Map<Long, TeachingAssignment> classAssignments = assignments.stream()
-                    .collect(Collectors.toMap(
-                            ta -> ta.getClazz().getId(),
-                            ta -> ta,
-                            (existing, replacement) -> existing // Keep first if duplicate
-                    ));
-            
-            for (TeachingAssignment assignment : classAssignments.values()) {
-                // Create a virtual timetable slot for attendance marking
-                AttendanceDto virtualSlot = new AttendanceDto();
-                virtualSlot.setTimetableSlotId(-1L); // Use -1 to indicate virtual slot
-                virtualSlot.setDate(date);
-                virtualSlot.setStatus(AttendanceStatus.PRESENT); // Default status
-                virtualSlot.setClassId(assignment.getClazz().getId());
-                virtualSlot.setCourseId(assignment.getCourse().getId());
-                virtualSlot.setClassName(assignment.getClazz().getName());
-                virtualSlot.setCourseName(assignment.getCourse().getName());
-                virtualSlot.setTeacherId(teacherId);
-                virtualSlot.setTeacherName(teacher.getFirstName() + " " + teacher.getLastName());
-                result.add(virtualSlot);
-                log.debug("Created virtual slot for class {} and course {}", assignment.getClazz().getName(), assignment.getCourse().getName());
-            }
-            
-            log.info("Created {} virtual slots for teacher {} on {}", result.size(), teacherId, date);
-        } else {
-            // Process existing timetable slots
-            for (TimetableSlot slot : todaySlots) {
-                // Get existing attendance records for this slot
-                List<Attendance> existingAttendance = attendanceRepository.findStudentAttendanceBySlotAndDate(slot.getId(), date);
-                
-                if (existingAttendance.isEmpty()) {
-                    // Create placeholder attendance record for the slot
-                    AttendanceDto slotDto = new AttendanceDto();
-                    slotDto.setTimetableSlotId(slot.getId());
-                    slotDto.setDate(date);
-                    slotDto.setStatus(AttendanceStatus.PRESENT); // Default status
-                    slotDto.setClassId(slot.getForClass() != null ? slot.getForClass().getId() : null);
-                    slotDto.setCourseId(slot.getForCourse() != null ? slot.getForCourse().getId() : null);
-                    slotDto.setClassName(slot.getForClass() != null ? slot.getForClass().getName() : null);
-                    slotDto.setCourseName(slot.getForCourse() != null ? slot.getForCourse().getName() : null);
-                    slotDto.setTeacherId(teacherId);
-                    slotDto.setTeacherName(teacher.getFirstName() + " " + teacher.getLastName());
-                    result.add(slotDto);
-                } else {
-                    // Add existing attendance records
-                    result.addAll(existingAttendance.stream()
-                            .map(mapper::toAttendanceDto)
-                            .collect(Collectors.toList()));
-                }
-            }
-        }
-        
-        return result;
+        return teacherDayScheduleService.getDaySchedule(teacherId, date);
     }
 
     @Override
@@ -473,23 +542,20 @@ public class AttendanceServiceImpl implements AttendanceService {
             throw new IllegalArgumentException("Timetable slot must have an associated class");
         }
         
-        // Get all students in the class
-        List<Student> students = new ArrayList<>(slot.getForClass().getStudents());
+        ClassRoster roster = classRosterService.getRoster(slot.getForClass().getId());
+        Map<Long, Attendance> attendanceMap = marksByStudent(
+                attendanceRepository.findStudentAttendanceBySlotAndDate(timetableSlotId, date));
         
-        // Check for existing attendance records
-        List<Attendance> existingAttendance = attendanceRepository.findStudentAttendanceBySlotAndDate(timetableSlotId, date);
-        Map<Long, Attendance> attendanceMap = existingAttendance.stream()
-                .collect(Collectors.toMap(a -> a.getUser().getId(), a -> a));
-        
-        for (Student student : students) {
+        for (int student : roster.displayOrder()) {
+            Attendance existing = attendanceMap.get(roster.studentId(student));
             AttendanceDto dto;
-            if (attendanceMap.containsKey(student.getId())) {
+            if (existing != null) {
                 // Use existing attendance record
-                dto = mapper.toAttendanceDto(attendanceMap.get(student.getId()));
+                dto = mapper.toAttendanceDto(existing);
             } else {
                 // Create new attendance record with default status
                 dto = new AttendanceDto();
-                dto.setUserId(student.getId());
+                dto.setUserId(roster.studentId(student));
                 dto.setTimetableSlotId(timetableSlotId);
                 dto.setDate(date);
                 dto.setStatus(AttendanceStatus.PRESENT); // Default to present
@@ -498,7 +564,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 dto.setCourseId(slot.getForCourse() != null ? slot.getForCourse().getId() : null);
                 dto.setClassName(slot.getForClass().getName());
                 dto.setCourseName(slot.getForCourse() != null ? slot.getForCourse().getName() : null);
-                dto.setUserName(student.getFirstName() + " " + student.getLastName());
+                dto.setUserName(roster.fullName(student));
             }
             result.add(dto);
         }
@@ -507,55 +573,19 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    public List<AttendanceDto> markAttendanceForTimetableSlot(Long timetableSlotId, LocalDate date, List<AttendanceDto> attendanceList) {
+    public AttendanceMarkResult markAttendanceForTimetableSlot(Long timetableSlotId, LocalDate date, List<AttendanceDto> attendanceList) {
         log.debug("Marking attendance for timetable slot {} on date {} for {} students", 
                 timetableSlotId, date, attendanceList.size());
         
         TimetableSlot slot = timetableSlotRepository.findById(timetableSlotId)
                 .orElseThrow(() -> new ResourceNotFoundException("Timetable slot not found"));
-        
-        BaseUser currentUser = getCurrentUser();
-        List<AttendanceDto> result = new ArrayList<>();
-        
-        for (AttendanceDto attendanceDto : attendanceList) {
-            // Validate student exists
-            BaseUser student = userRepository.findById(attendanceDto.getUserId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
-            
-            // Check for existing attendance record
-            Optional<Attendance> existingAttendance = attendanceRepository
-                    .findByUserIdAndClassIdAndDate(attendanceDto.getUserId(), slot.getForClass().getId(), date);
-            
-            Attendance attendance;
-            if (existingAttendance.isPresent()) {
-                // Update existing record
-                attendance = existingAttendance.get();
-                attendance.setStatus(attendanceDto.getStatus());
-                attendance.setRemarks(attendanceDto.getRemarks());
-                attendance.setExcuse(attendanceDto.getExcuse());
-                attendance.setMedicalNote(attendanceDto.getMedicalNote());
-            } else {
-                // Create new record
-                attendance = new Attendance();
-                attendance.setUser(student);
-                attendance.setTimetableSlot(slot);
-                attendance.setDate(date);
-                attendance.setStatus(attendanceDto.getStatus());
-                attendance.setUserType(UserType.STUDENT);
-                attendance.setClassEntity(slot.getForClass());
-                attendance.setCourse(slot.getForCourse());
-                attendance.setRemarks(attendanceDto.getRemarks());
-                attendance.setExcuse(attendanceDto.getExcuse());
-                attendance.setMedicalNote(attendanceDto.getMedicalNote());
-                attendance.setRecordedBy(currentUser);
-                attendance.setRecordedAt(LocalDateTime.now());
-            }
-            
-            Attendance savedAttendance = attendanceRepository.save(attendance);
-            result.add(mapper.toAttendanceDto(savedAttendance));
+        if (slot.getForClass() == null) {
+            throw new IllegalArgumentException("Timetable slot must have an associated class");
         }
         
-        log.info("Marked attendance for {} students in slot {} on date {}", result.size(), timetableSlotId, date);
+        AttendanceMarkResult result = markStudentAttendance(slot.getForClass(), slot.getForCourse(), slot, date, attendanceList);
+        log.info("Marked attendance in slot {} on date {}: {} created, {} updated, {} unchanged",
+                timetableSlotId, date, result.getCreated(), result.getUpdated(), result.getUnchanged());
         return result;
     }
 
@@ -587,23 +617,56 @@ public class AttendanceServiceImpl implements AttendanceService {
     public Map<String, List<AttendanceDto>> getTeacherWeeklyAttendanceSummary(Long teacherId, LocalDate startOfWeek) {
         log.debug("Getting weekly attendance summary for teacher {} starting from {}", teacherId, startOfWeek);
         
-        List<Attendance> weeklyAttendance = attendanceRepository.findStudentAttendanceByTeacherAndDate(teacherId, startOfWeek);
+        // The whole week in one query, already ordered by day
+        LocalDate endOfWeek = startOfWeek.plusDays(6);
+        Map<LocalDate, List<AttendanceDto>> byDate = attendanceRepository
+                .findStudentAttendanceByTeacherAndDateBetween(teacherId, startOfWeek, endOfWeek).stream()
+                .collect(Collectors.groupingBy(Attendance::getDate,
+                        Collectors.mapping(mapper::toAttendanceDto, Collectors.toList())));
         
-        Map<String, List<AttendanceDto>> summary = new HashMap<>();
+        Map<String, List<AttendanceDto>> summary = new LinkedHashMap<>();
+        for (LocalDate day = startOfWeek; !day.isAfter(endOfWeek); day = day.plusDays(1)) {
+            summary.put(day.getDayOfWeek().name(), byDate.getOrDefault(day, List.of()));
+        }
+        return summary;
+    }
+    
+    @Override
+    public AttendanceStatusMatrix getTeacherAttendanceMatrix(Long teacherId, LocalDate startDate, LocalDate endDate) {
+        log.debug("Getting attendance matrix for teacher {} from {} to {}", teacherId, startDate, endDate);
         
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDate = startOfWeek.plusDays(i);
-            String dayKey = currentDate.getDayOfWeek().name();
-            
-            List<AttendanceDto> dayAttendance = weeklyAttendance.stream()
-                    .filter(a -> a.getDate().equals(currentDate))
-                    .map(mapper::toAttendanceDto)
-                    .collect(Collectors.toList());
-            
-            summary.put(dayKey, dayAttendance);
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (endDate.isAfter(startDate.plusYears(1))) {
+            throw new IllegalArgumentException("Attendance matrix range must not exceed one year");
         }
         
-        return summary;
+        List<AttendanceStatus> statuses = List.of(AttendanceStatus.values());
+        AttendanceStatusMatrix matrix = AttendanceStatusMatrix.builder()
+                .teacherId(teacherId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .statuses(statuses)
+                .totals(new long[statuses.size()])
+                .build();
+        
+        // Rows arrive ordered by date, so each new date opens the next row
+        long[] row = null;
+        for (Object[] cell : attendanceRepository.countStudentAttendanceByTeacherPerDay(teacherId, startDate, endDate)) {
+            LocalDate date = (LocalDate) cell[0];
+            if (matrix.getDays().isEmpty() || !matrix.getDays().get(matrix.getDays().size() - 1).equals(date)) {
+                row = new long[statuses.size()];
+                matrix.getDays().add(date);
+                matrix.getCounts().add(row);
+            }
+            int column = ((AttendanceStatus) cell[1]).ordinal();
+            long count = ((Number) cell[2]).longValue();
+            row[column] += count;
+            matrix.getTotals()[column] += count;
+            matrix.setTotalRecords(matrix.getTotalRecords() + count);
+        }
+        return matrix;
     }
 
     @Override
@@ -617,6 +680,15 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .collect(Collectors.toList());
     }
 
+    // Stored marks keyed by student for constant-time lookup while walking a roster
+    private static Map<Long, Attendance> marksByStudent(List<Attendance> records) {
+        Map<Long, Attendance> marks = new HashMap<>(records.size() * 2);
+        for (Attendance record : records) {
+            marks.putIfAbsent(record.getUser().getId(), record);
+        }
+        return marks;
+    }
+
     // Helper method to convert Java DayOfWeek to our custom enum
     private com.example.school_management.feature.operational.entity.enums.DayOfWeek convertToDayOfWeek(java.time.DayOfWeek javaDayOfWeek) {
         switch (javaDayOfWeek) {
@@ -631,73 +703,6 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
     }
     
-    /**
-     * Send absence notifications to student and their parents
-     */
-    private void sendAbsenceNotifications(Student student, Attendance attendance) {
-        try {
-            String studentName = student.getFirstName() + " " + student.getLastName();
-            String className = attendance.getClassEntity() != null ? attendance.getClassEntity().getName() : "Unknown Class";
-            String courseName = attendance.getCourse() != null ? attendance.getCourse().getName() : "General";
-            String dateStr = attendance.getDate().toString();
-            
-            // Create notification title and message
-            String title = "Absence Notification";
-            String message = String.format("%s was marked absent from %s on %s", 
-                studentName, courseName, dateStr);
-            
-            // Send notification to the student
-            createNotificationForUser(student, title, message, attendance);
-            
-            // Find and notify all parents of this student
-            List<Parent> parents = parentRepository.findByStudentId(student.getId());
-            for (Parent parent : parents) {
-                String parentMessage = String.format("Your child %s was marked absent from %s (%s) on %s", 
-                    studentName, courseName, className, dateStr);
-                createNotificationForUser(parent, title, parentMessage, attendance);
-            }
-            
-            // Send real-time notifications
-            if (!parents.isEmpty()) {
-                Set<Long> parentIds = parents.stream().map(Parent::getId).collect(java.util.stream.Collectors.toSet());
-                Set<Long> allUserIds = new java.util.HashSet<>(parentIds);
-                allUserIds.add(student.getId());
-                
-                realTimeNotificationService.notifySpecificUsers(
-                    title,
-                    message,
-                    "HIGH", // Absence notifications are high priority
-                    allUserIds
-                );
-            }
-            
-            log.info("Sent absence notifications for student {} to {} parents", 
-                studentName, parents.size());
-                
-        } catch (Exception e) {
-            log.error("Failed to send absence notifications for student {}: {}", 
-                student.getId(), e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * Create a database notification for a user
-     */
-    private void createNotificationForUser(BaseUser user, String title, String message, Attendance attendance) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setType(NotificationType.ATTENDANCE_MARKED);
-        notification.setEntityType("ATTENDANCE");
-        notification.setEntityId(attendance.getId());
-        notification.setActionUrl("/attendance/" + attendance.getId());
-        notification.setReadStatus(false);
-        notification.setCreatedAt(java.time.LocalDateTime.now());
-        
-        notificationRepository.save(notification);
-    }
-    
     // Class-based attendance methods (for virtual slots)
     
     @Override
@@ -708,32 +713,28 @@ public class AttendanceServiceImpl implements AttendanceService {
         ClassEntity classEntity = classRepository.findById(classId)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
         
-        // Get all students in the class through enrollments (the correct way)
-        List<Student> students = studentRepository.findByClassIds(List.of(classId));
+        ClassRoster roster = classRosterService.getRoster(classId);
+        Map<Long, Attendance> attendanceMap = marksByStudent(attendanceRepository.findByClassIdAndDate(classId, date));
         
-        // Check for existing attendance records for this class on this date
-        List<Attendance> existingAttendance = attendanceRepository.findByClassIdAndDate(classId, date);
-        Map<Long, Attendance> attendanceMap = existingAttendance.stream()
-                .collect(Collectors.toMap(a -> a.getUser().getId(), a -> a));
+        List<AttendanceDto> result = new ArrayList<>(roster.size());
         
-        List<AttendanceDto> result = new ArrayList<>();
-        
-        for (Student student : students) {
+        for (int student : roster.displayOrder()) {
+            Attendance existing = attendanceMap.get(roster.studentId(student));
             AttendanceDto dto;
-            if (attendanceMap.containsKey(student.getId())) {
+            if (existing != null) {
                 // Use existing attendance record
-                dto = mapper.toAttendanceDto(attendanceMap.get(student.getId()));
+                dto = mapper.toAttendanceDto(existing);
             } else {
                 // Create new attendance record with default status
                 dto = new AttendanceDto();
-                dto.setUserId(student.getId());
+                dto.setUserId(roster.studentId(student));
                 dto.setTimetableSlotId(-1L); // Virtual slot
                 dto.setDate(date);
                 dto.setStatus(AttendanceStatus.PRESENT); // Default to present
                 dto.setUserType(UserType.STUDENT);
                 dto.setClassId(classId);
                 dto.setClassName(classEntity.getName());
-                dto.setUserName(student.getFirstName() + " " + student.getLastName());
+                dto.setUserName(roster.fullName(student));
             }
             result.add(dto);
         }
@@ -748,38 +749,25 @@ public class AttendanceServiceImpl implements AttendanceService {
         ClassEntity classEntity = classRepository.findById(classId)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
         
-        log.info("🔍 Class found: {} (ID: {})", classEntity.getName(), classId);
-        
-        // Get all students in the class through enrollments (the correct way)
-        List<Student> students = studentRepository.findByClassIds(List.of(classId));
-        log.info("🔍 Found {} students for class {} through enrollments", students.size(), classId);
-        
-        // Also check direct relationship for comparison
-        List<Student> directStudents = new ArrayList<>(classEntity.getStudents());
-        log.info("🔍 Direct class.students relationship has {} students", directStudents.size());
-        
-        // Check enrollments directly
-        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatus(classId, EnrollmentStatus.ACTIVE);
-        log.info("🔍 Found {} active enrollments for class {}", enrollments.size(), classId);
+        ClassRoster roster = classRosterService.getRoster(classId);
         
         // Convert to AttendanceDto format for consistency
-        List<AttendanceDto> result = new ArrayList<>();
+        List<AttendanceDto> result = new ArrayList<>(roster.size());
         
-        for (Student student : students) {
-            log.debug("🔍 Processing student: {} {} (ID: {})", student.getFirstName(), student.getLastName(), student.getId());
+        for (int student : roster.displayOrder()) {
             AttendanceDto dto = new AttendanceDto();
-            dto.setUserId(student.getId());
+            dto.setUserId(roster.studentId(student));
             dto.setTimetableSlotId(-1L); // Virtual slot
             dto.setDate(LocalDate.now()); // Default to today
             dto.setStatus(AttendanceStatus.PRESENT); // Default to present
             dto.setUserType(UserType.STUDENT);
             dto.setClassId(classId);
             dto.setClassName(classEntity.getName());
-            dto.setUserName(student.getFirstName() + " " + student.getLastName());
+            dto.setUserName(roster.fullName(student));
             result.add(dto);
         }
         
-        log.info("🔍 Returning {} attendance records for class {}", result.size(), classId);
+        log.debug("Returning {} attendance records for class {}", result.size(), classId);
         return result;
     }
 
@@ -836,74 +824,152 @@ public class AttendanceServiceImpl implements AttendanceService {
     
     @Override
     @Transactional
-    public List<AttendanceDto> markAttendanceForClass(Long classId, LocalDate date, List<AttendanceDto> attendanceList) {
+    public AttendanceMarkResult markAttendanceForClass(Long classId, LocalDate date, List<AttendanceDto> attendanceList) {
         log.debug("Marking attendance for class {} on date {} for {} students", classId, date, attendanceList.size());
         
         // Verify class exists
         ClassEntity classEntity = classRepository.findById(classId)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
         
-        BaseUser currentUser = getCurrentUser();
-        List<AttendanceDto> result = new ArrayList<>();
+        AttendanceMarkResult result = markStudentAttendance(classEntity, null, null, date, attendanceList);
+        log.info("Marked attendance for class {} on date {}: {} created, {} updated, {} unchanged",
+                classId, date, result.getCreated(), result.getUpdated(), result.getUnchanged());
+        return result;
+    }
+    
+    /**
+     * Bulk roll call for one class day. The roster and the day's existing records are read once,
+     * the diff is worked out in memory and only new or changed rows are sent, in a single
+     * INSERT ... ON CONFLICT statement, so concurrent submissions for the class cannot duplicate rows.
+     */
+    private AttendanceMarkResult markStudentAttendance(ClassEntity classEntity, Course course, TimetableSlot slot,
+                                                       LocalDate date, List<AttendanceDto> attendanceList) {
+        Long classId = classEntity.getId();
+        ClassRoster roster = classRosterService.getRoster(classId);
+        Map<Long, Attendance> existing = attendanceRepository.findByClassIdAndDateWithAssociations(classId, date).stream()
+                .collect(Collectors.toMap(a -> a.getUser().getId(), a -> a));
         
+        // A student submitted twice keeps the last entry
+        Map<Long, AttendanceDto> submitted = new LinkedHashMap<>();
         for (AttendanceDto attendanceDto : attendanceList) {
-            // Verify student is in the class
-            Student student = studentRepository.findById(attendanceDto.getUserId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
-            
-            if (!classEntity.getStudents().contains(student)) {
-                throw new IllegalArgumentException("Student " + student.getId() + " is not enrolled in class " + classId);
+            if (attendanceDto.getUserId() == null || !roster.contains(attendanceDto.getUserId())) {
+                throw new IllegalArgumentException("Student " + attendanceDto.getUserId() + " is not enrolled in class " + classId);
             }
-            
-            // Check if attendance record already exists
-            Attendance existingAttendance = attendanceRepository.findByUserIdAndClassIdAndDate(
-                    attendanceDto.getUserId(), classId, date).orElse(null);
-            
-            Attendance attendance;
-            if (existingAttendance != null) {
-                // Update existing record
-                attendance = existingAttendance;
-                attendance.setStatus(attendanceDto.getStatus());
-                attendance.setRemarks(attendanceDto.getRemarks());
-                attendance.setExcuse(attendanceDto.getExcuse());
-                attendance.setUpdatedAt(LocalDateTime.now());
+            submitted.put(attendanceDto.getUserId(), attendanceDto);
+        }
+        
+        List<AttendanceDto> writes = new ArrayList<>();
+        Set<Long> newlyAbsent = new HashSet<>();
+        int created = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (AttendanceDto attendanceDto : submitted.values()) {
+            Attendance current = existing.get(attendanceDto.getUserId());
+            if (current == null) {
+                created++;
+            } else if (isUnchanged(current, attendanceDto)) {
+                unchanged++;
+                continue;
             } else {
-                // Create new record
-                attendance = new Attendance();
-                attendance.setUser(student);
-                attendance.setDate(date);
-                attendance.setStatus(attendanceDto.getStatus());
-                attendance.setUserType(UserType.STUDENT);
-                attendance.setClassEntity(classEntity);
-                attendance.setRemarks(attendanceDto.getRemarks());
-                attendance.setExcuse(attendanceDto.getExcuse());
-                attendance.setRecordedAt(LocalDateTime.now());
-                attendance.setRecordedBy(currentUser);
+                updated++;
             }
+            writes.add(attendanceDto);
+            if (attendanceDto.getStatus() == AttendanceStatus.ABSENT
+                    && (current == null || current.getStatus() != AttendanceStatus.ABSENT)) {
+                newlyAbsent.add(attendanceDto.getUserId());
+            }
+        }
+        
+        Map<Long, Attendance> records = existing;
+        if (!writes.isEmpty()) {
+            int size = writes.size();
+            Long[] userIds = new Long[size];
+            String[] statuses = new String[size];
+            String[] remarks = new String[size];
+            String[] excuses = new String[size];
+            String[] medicalNotes = new String[size];
+            for (int i = 0; i < size; i++) {
+                AttendanceDto attendanceDto = writes.get(i);
+                userIds[i] = attendanceDto.getUserId();
+                statuses[i] = attendanceDto.getStatus().name();
+                remarks[i] = attendanceDto.getRemarks();
+                excuses[i] = attendanceDto.getExcuse();
+                medicalNotes[i] = attendanceDto.getMedicalNote();
+            }
+            attendanceRepository.upsertStudentAttendance(classId,
+                    course != null ? course.getId() : null,
+                    slot != null ? slot.getId() : null,
+                    date, getCurrentUser().getId(), LocalDateTime.now(),
+                    userIds, statuses, remarks, excuses, medicalNotes);
             
-            Attendance savedAttendance = attendanceRepository.save(attendance);
-            AttendanceDto savedDto = mapper.toAttendanceDto(savedAttendance);
-            result.add(savedDto);
-            
-            // Send notifications for absent students
-            if (savedAttendance.getStatus() == AttendanceStatus.ABSENT) {
-                sendAbsenceNotifications(student, savedAttendance);
+            // Re-read once for the ids and display fields of the written rows
+            records = attendanceRepository.findByClassIdAndDateWithAssociations(classId, date).stream()
+                    .collect(Collectors.toMap(a -> a.getUser().getId(), a -> a));
+            eventPublisher.publishEvent(new AttendanceChangedEvent(Set.of(userIds), Set.of(date),
+                    slot != null && slot.getTeacher() != null ? Set.of(slot.getTeacher().getId()) : Set.of(),
+                    Set.of(classId)));
+        }
+        
+        List<AttendanceDto> result = new ArrayList<>(submitted.size());
+        List<Attendance> absences = new ArrayList<>();
+        for (Long userId : submitted.keySet()) {
+            Attendance attendance = records.get(userId);
+            if (attendance == null) continue;
+            result.add(mapper.toAttendanceDto(attendance));
+            // Only students who just became absent are notified, not every resubmission
+            if (newlyAbsent.contains(userId) && attendance.getUser() instanceof Student) {
+                absences.add(attendance);
             }
         }
+        absenceNotificationService.enqueue(absences);
         
-        return result;
+        return AttendanceMarkResult.builder()
+                .classId(classId)
+                .timetableSlotId(slot != null ? slot.getId() : null)
+                .date(date)
+                .created(created)
+                .updated(updated)
+                .unchanged(unchanged)
+                .records(result)
+                .build();
+    }
+    
+    // A missing medical note keeps the stored one (the upsert COALESCEs it)
+    private static boolean isUnchanged(Attendance current, AttendanceDto submitted) {
+        return current.getStatus() == submitted.getStatus()
+                && Objects.equals(current.getRemarks(), submitted.getRemarks())
+                && Objects.equals(current.getExcuse(), submitted.getExcuse())
+                && (submitted.getMedicalNote() == null || submitted.getMedicalNote().equals(current.getMedicalNote()));
     }
     
-    // Helper methods for attendance class view
+    // Helper methods for attendance class view (academic year to date, from the attendance index)
     private Double calculateStudentAttendanceRate(Long studentId) {
-        // For now, return a default rate since we don't have the specific query
-        // TODO: Implement proper attendance rate calculation when needed
-        return 85.0; // Default attendance rate
+        AttendanceDayCounts counts = attendanceIndexService.getYearToDateCounts(studentId);
+        return counts.recordedDays() > 0 ? counts.attendancePercentage() : null;
     }
     
     private String getLastAttendanceDate(Long studentId) {
-        // For now, return today's date as default
-        // TODO: Implement proper last attendance date lookup when needed
-        return LocalDate.now().toString();
+        return attendanceIndexService.getLastRecordedDay(studentId)
+                .map(LocalDate::toString)
+                .orElse(null);
+    }
+    
+    private void publishChange(Attendance attendance) {
+        Long teacherId = slotTeacherId(attendance);
+        Long classId = classIdOf(attendance);
+        eventPublisher.publishEvent(new AttendanceChangedEvent(
+                Set.of(attendance.getUser().getId()), Set.of(attendance.getDate()),
+                teacherId != null ? Set.of(teacherId) : Set.of(),
+                classId != null ? Set.of(classId) : Set.of()));
+    }
+    
+    private static Long slotTeacherId(Attendance attendance) {
+        TimetableSlot slot = attendance.getTimetableSlot();
+        return slot != null && slot.getTeacher() != null ? slot.getTeacher().getId() : null;
+    }
+
+    // classId is read-only on the entity and stays unset until the record is re-read
+    private static Long classIdOf(Attendance attendance) {
+        return attendance.getClassEntity() != null ? attendance.getClassEntity().getId() : attendance.getClassId();
     }
-} 
\ No newline at end of file
+}
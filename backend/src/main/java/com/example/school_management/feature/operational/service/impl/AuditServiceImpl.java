@@ -1,5 +1,6 @@
 package com.example.school_management.feature.operational.service.impl;
 
+import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
 import com.example.school_management.feature.operational.entity.AuditEvent;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
 import com.example.school_management.feature.operational.repository.AuditEventRepository;
@@ -74,6 +75,27 @@ public class AuditServiceImpl implements AuditService {
         }
     }
     
+    @Override
+    @Transactional
+    public int createGradeApprovalAuditEvents(CreateEnhancedGradeRequest.Semester semester, String approvedBy, LocalDateTime approvedAt, BaseUser actedBy) {
+        int created = auditEventRepository.insertGradeApprovalEvents(semester.name(), approvedBy, approvedAt, actedBy.getId());
+        
+        // One admin feed notification for the whole batch
+        try {
+            realTimeNotificationService.broadcastAdminFeed(
+                AuditEventType.GRADE_APPROVED,
+                created + " grades approved",
+                "Semester " + semester + " approved by " + approvedBy,
+                actedBy.getFirstName() + " " + actedBy.getLastName(), "EnhancedGrade", null
+            );
+        } catch (Exception notificationError) {
+            log.warn("Failed to broadcast real-time notification for grade approval: {}", notificationError.getMessage());
+        }
+        
+        log.info("Audit events created: {} x {} by user {}", created, AuditEventType.GRADE_APPROVED, actedBy.getEmail());
+        return created;
+    }
+    
     @Override
     public List<AuditEvent> getGradeAuditHistory(Long gradeId) {
         return auditEventRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDesc("Grade", gradeId);
@@ -0,0 +1,68 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.operational.dto.ClassRanking;
+import com.example.school_management.feature.operational.dto.CreateEnhancedGradeRequest;
+import com.example.school_management.feature.operational.event.EnhancedGradesChangedEvent;
+import com.example.school_management.feature.operational.repository.EnhancedGradeRepository;
+import com.example.school_management.feature.operational.service.ClassRankingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassRankingServiceImpl implements ClassRankingService {
+
+    public static final String CACHE_NAME = "classRankings";
+
+    private final EnhancedGradeRepository enhancedGradeRepository;
+    private final CacheManager cacheManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "#classId + '_' + #semester")
+    public ClassRanking getClassRanking(Long classId, CreateEnhancedGradeRequest.Semester semester) {
+        List<Object[]> rows = enhancedGradeRepository.findClassRanking(classId, semester.name());
+        List<ClassRanking.Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new ClassRanking.Entry(
+                    ((Number) row[0]).longValue(),
+                    row[1] != null ? ((Number) row[1]).doubleValue() : null,
+                    ((Number) row[2]).intValue()));
+        }
+        log.debug("Computed ranking for class {} semester {}: {} students", classId, semester, entries.size());
+        return ClassRanking.builder()
+                .classId(classId)
+                .semester(semester)
+                .totalStudents(entries.size())
+                .entries(entries)
+                .build();
+    }
+
+    @Override
+    public void evict(Long classId, CreateEnhancedGradeRequest.Semester semester) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) return;
+        if (classId == null || semester == null) {
+            cache.clear();
+        } else {
+            cache.evict(classId + "_" + semester);
+        }
+    }
+
+    // Evict only once the grade change is visible to other transactions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnhancedGradesChanged(EnhancedGradesChangedEvent event) {
+        evict(event.classId(), event.semester());
+    }
+}
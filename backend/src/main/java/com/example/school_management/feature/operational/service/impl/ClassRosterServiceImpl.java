@@ -0,0 +1,129 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.operational.domain.ClassRoster;
+import com.example.school_management.feature.operational.entity.enums.EnrollmentStatus;
+import com.example.school_management.feature.operational.event.ClassRosterChangedEvent;
+import com.example.school_management.feature.operational.repository.EnrollmentRepository;
+import com.example.school_management.feature.operational.service.ClassRosterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps class rosters in memory. Misses are loaded together: one query over class membership
+ * and one over active enrollments, whatever the number of classes. Each class has a version
+ * that {@link ClassRosterChangedEvent}s bump once the change commits; a load only stores its
+ * snapshot if the version it started from is still current, so a load racing a roster change
+ * cannot put the old roster back. Snapshots also expire after a maximum age, which bounds
+ * staleness from writes on other instances and from student renames.
+ */
+@Slf4j
+@Service
+public class ClassRosterServiceImpl implements ClassRosterService {
+
+    private final ClassRepository classRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<Long, ClassRoster> rosters = new ConcurrentHashMap<>();
+    private final Map<Long, Long> classVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    @Value("${app.attendance.roster.max-age-minutes:10}")
+    private long maxAgeMinutes;
+
+    public ClassRosterServiceImpl(ClassRepository classRepository,
+                                  EnrollmentRepository enrollmentRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.classRepository = classRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ClassRoster getRoster(Long classId) {
+        return getRosters(List.of(classId)).get(classId);
+    }
+
+    @Override
+    public Map<Long, ClassRoster> getRosters(Collection<Long> classIds) {
+        Map<Long, ClassRoster> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+        for (Long classId : new LinkedHashSet<>(classIds)) {
+            ClassRoster cached = rosters.get(classId);
+            if (cached != null && now - cached.loadedAtMillis() < maxAgeMillis) {
+                result.put(classId, cached);
+            } else {
+                missing.add(classId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Versions are read before the queries so a change committed meanwhile invalidates the load
+        Map<Long, Long> loadVersions = new HashMap<>();
+        Map<Long, ClassRoster.Builder> builders = new HashMap<>();
+        for (Long classId : missing) {
+            loadVersions.put(classId, version(classId));
+            builders.put(classId, ClassRoster.builder(classId));
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Object[] row : classRepository.findRosters(missing)) {
+                builders.get((Long) row[0]).add((Long) row[1], (String) row[2], (String) row[3]);
+            }
+            for (Object[] row : enrollmentRepository.findRosters(missing, EnrollmentStatus.ACTIVE)) {
+                builders.get((Long) row[0]).add((Long) row[1], (String) row[2], (String) row[3]);
+            }
+        });
+
+        for (Long classId : missing) {
+            ClassRoster roster = builders.get(classId).build(loadVersions.get(classId), now);
+            rosters.compute(classId, (id, existing) -> version(id) == roster.version() ? roster : existing);
+            result.put(classId, roster);
+        }
+        log.debug("Loaded {} class rosters ({} cached)", missing.size(), result.size() - missing.size());
+        return result;
+    }
+
+    @Override
+    public void evict(Long classId) {
+        if (classId == null) {
+            globalVersion.incrementAndGet();
+            rosters.clear();
+        } else {
+            classVersions.merge(classId, 1L, Long::sum);
+            rosters.remove(classId);
+        }
+    }
+
+    // Evict only once the roster change is visible to the loads that follow
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClassRosterChanged(ClassRosterChangedEvent event) {
+        if (event.classIds() == null) {
+            evict(null);
+            return;
+        }
+        for (Long classId : event.classIds()) {
+            evict(classId);
+        }
+    }
+
+    // Both counters only grow, so any eviction changes the sum
+    private long version(Long classId) {
+        return globalVersion.get() + classVersions.getOrDefault(classId, 0L);
+    }
+}
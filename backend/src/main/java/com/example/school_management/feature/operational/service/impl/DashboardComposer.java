@@ -0,0 +1,143 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the sections of a dashboard concurrently on the dashboard executor, so a dashboard takes
+ * about as long as its slowest section instead of the sum. Each section gets its own read-only
+ * transaction and the same deadline. A section that fails or misses the deadline contributes its
+ * fallback value instead, and the dashboard lists it under {@code degradedSections} with
+ * {@code FAILED} or {@code TIMEOUT}. Timings are exported per section as
+ * {@code dashboard.section} (tags dashboard, section, outcome) and per dashboard as
+ * {@code dashboard.compose}.
+ */
+@Slf4j
+@Component
+public class DashboardComposer {
+
+    public static final String DEGRADED_SECTIONS = "degradedSections";
+
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final long sectionTimeoutMillis;
+
+    public DashboardComposer(@Qualifier("dashboardExecutor") AsyncTaskExecutor executor,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Sections never join the caller's transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Queries still running after the deadline are cancelled by the driver
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMillis) + 1));
+    }
+
+    public Composition compose(String dashboard) {
+        return new Composition(dashboard);
+    }
+
+    public final class Composition {
+
+        private final String dashboard;
+        private final Map<String, Object> result = new LinkedHashMap<>();
+        private final Map<String, CompletableFuture<Object>> pending = new LinkedHashMap<>();
+        private final Map<String, Object> fallbacks = new HashMap<>();
+        private final long startedAt = System.nanoTime();
+
+        private Composition(String dashboard) {
+            this.dashboard = dashboard;
+        }
+
+        /** A value computed on the calling thread, such as static content. */
+        public Composition put(String name, Object value) {
+            result.put(name, value);
+            return this;
+        }
+
+        /** A section loaded concurrently; {@code fallback} is used if it fails or times out. */
+        public <T> Composition section(String name, Supplier<T> loader, T fallback) {
+            result.put(name, null); // keeps declaration order
+            fallbacks.put(name, fallback);
+            long submittedAt = System.nanoTime();
+            pending.put(name, CompletableFuture
+                    .supplyAsync(() -> timed(name, loader, submittedAt), executor)
+                    .orTimeout(sectionTimeoutMillis, TimeUnit.MILLISECONDS));
+            return this;
+        }
+
+        public Map<String, Object> join() {
+            Map<String, String> degraded = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<Object>> entry : pending.entrySet()) {
+                String name = entry.getKey();
+                try {
+                    result.put(name, entry.getValue().join());
+                } catch (CompletionException e) {
+                    boolean timedOut = e.getCause() instanceof TimeoutException;
+                    if (timedOut) {
+                        log.warn("Dashboard {} section {} timed out after {} ms", dashboard, name, sectionTimeoutMillis);
+                    } else {
+                        log.warn("Dashboard {} section {} failed: {}", dashboard, name, e.getCause().getMessage());
+                    }
+                    degraded.put(name, timedOut ? "TIMEOUT" : "FAILED");
+                    result.put(name, fallbacks.get(name));
+                }
+            }
+            if (!degraded.isEmpty()) {
+                result.put(DEGRADED_SECTIONS, degraded);
+            }
+            Timer.builder("dashboard.compose")
+                    .description("Time to compose a dashboard from its sections")
+                    .tag("dashboard", dashboard)
+                    .tag("outcome", degraded.isEmpty() ? "complete" : "partial")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        // Recorded when the section ends, so sections that missed the deadline still report their real time
+        private Object timed(String name, Supplier<?> loader, long submittedAt) {
+            long started = System.nanoTime();
+            try {
+                Object value = readOnlyTransaction.execute(status -> loader.get());
+                long finished = System.nanoTime();
+                boolean late = finished - submittedAt > TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+                record(name, late ? "timeout" : "success", finished - started);
+                return value;
+            } catch (RuntimeException e) {
+                record(name, "failure", System.nanoTime() - started);
+                throw e;
+            }
+        }
+
+        private void record(String name, String outcome, long nanos) {
+            Timer.builder("dashboard.section")
+                    .description("Time to load one dashboard section")
+                    .tag("dashboard", dashboard)
+                    .tag("section", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
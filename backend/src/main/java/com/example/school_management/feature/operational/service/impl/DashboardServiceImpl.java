@@ -1,6 +1,7 @@
 package com.example.school_management.feature.operational.service.impl;
 
 import com.example.school_management.commons.exceptions.ResourceNotFoundException;
+import com.example.school_management.commons.service.SingleFlightService;
 import com.example.school_management.feature.auth.entity.BaseUser;
 import com.example.school_management.feature.auth.entity.Student;
 import com.example.school_management.feature.auth.entity.Teacher;
@@ -10,13 +11,16 @@ import com.example.school_management.feature.auth.repository.StudentRepository;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.feature.auth.repository.ParentRepository;
 import com.example.school_management.feature.academic.repository.ClassRepository;
-import com.example.school_management.feature.academic.repository.CourseRepository;
 import com.example.school_management.feature.operational.dto.DashboardDto;
+import com.example.school_management.feature.operational.domain.AttendanceDayCounts;
+import com.example.school_management.feature.operational.entity.SystemCounters;
 import com.example.school_management.feature.operational.repository.AttendanceRepository;
 import com.example.school_management.feature.operational.repository.EnrollmentRepository;
 import com.example.school_management.feature.operational.repository.GradeRepository;
 import com.example.school_management.feature.operational.repository.NotificationRepository;
+import com.example.school_management.feature.operational.service.AttendanceIndexService;
 import com.example.school_management.feature.operational.service.DashboardService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -25,15 +29,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.function.Supplier;
+
+/**
+ * Role dashboards. Sections that read the database are loaded concurrently by
+ * {@link DashboardComposer}, each in its own read-only transaction, so the request thread holds
+ * no transaction (or connection) while it waits. Static sections are filled in directly.
+ * Role dashboards are served from {@link DashboardSnapshotCache} and only rebuilt once a change
+ * they show has been committed; concurrent requests for the same dashboard share one snapshot
+ * read or rebuild through {@link SingleFlightService}.
+ */
 @Slf4j
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
@@ -42,11 +55,15 @@ public class DashboardServiceImpl implements DashboardService {
     private final TeacherRepository teacherRepository;
     private final ParentRepository parentRepository;
     private final ClassRepository classRepository;
-    private final CourseRepository courseRepository;
     private final AttendanceRepository attendanceRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final GradeRepository gradeRepository;
     private final NotificationRepository notificationRepository;
+    private final AttendanceIndexService attendanceIndexService;
+    private final SystemCounterService systemCounterService;
+    private final DashboardComposer dashboardComposer;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final SingleFlightService singleFlightService;
 
     private BaseUser getCurrentUser() {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -54,123 +71,119 @@ public class DashboardServiceImpl implements DashboardService {
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
     }
 
+    private Object dashboard(String role, Long userId, Supplier<Object> builder) {
+        return singleFlightService.execute("DashboardService.dashboard",
+                () -> dashboardSnapshotCache.get(role, userId, builder), role, userId);
+    }
+
     @Override
     public Object getStudentDashboard(Long studentId) {
+        return dashboard("STUDENT", studentId, () -> buildStudentDashboard(studentId));
+    }
+
+    private Object buildStudentDashboard(Long studentId) {
         log.debug("Getting student dashboard for student: {}", studentId);
         
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
         
-        // Create basic dashboard info
-        DashboardDto baseInfo = createBaseDashboard(student);
-        
-        // Create student-specific data
-        Map<String, Object> studentDashboard = new HashMap<>();
-        studentDashboard.put("baseInfo", baseInfo);
-        studentDashboard.put("type", "STUDENT");
-        studentDashboard.put("stats", createStudentStats(studentId));
-        studentDashboard.put("recentGrades", createRecentGrades(studentId));
-        studentDashboard.put("upcomingEvents", createUpcomingEvents(studentId));
-        studentDashboard.put("enrolledClasses", createEnrolledClasses(studentId));
-        
-        return studentDashboard;
+        return dashboardComposer.compose("STUDENT")
+                .section("baseInfo", () -> createBaseDashboard(student), fallbackBaseDashboard(student))
+                .put("type", "STUDENT")
+                .section("stats", () -> createStudentStats(studentId), Map.<String, Object>of("totalEnrollments", 0))
+                .section("recentGrades", () -> createRecentGrades(studentId), List.of())
+                .put("upcomingEvents", createUpcomingEvents(studentId))
+                .section("enrolledClasses", () -> createEnrolledClasses(studentId), List.of())
+                .join();
     }
 
     @Override
     public Object getTeacherDashboard(Long teacherId) {
+        return dashboard("TEACHER", teacherId, () -> buildTeacherDashboard(teacherId));
+    }
+
+    private Object buildTeacherDashboard(Long teacherId) {
         log.debug("Getting teacher dashboard for teacher: {}", teacherId);
         
         Teacher teacher = teacherRepository.findById(teacherId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
         
-        // Create basic dashboard info
-        DashboardDto baseInfo = createBaseDashboard(teacher);
-        
-        // Create teacher-specific data
-        Map<String, Object> teacherDashboard = new HashMap<>();
-        teacherDashboard.put("baseInfo", baseInfo);
-        teacherDashboard.put("type", "TEACHER");
-        teacherDashboard.put("stats", createTeacherStats(teacherId));
-        teacherDashboard.put("classes", createTeacherClasses(teacherId));
-        teacherDashboard.put("pendingTasks", createPendingTasks(teacherId));
-        teacherDashboard.put("studentAlerts", createStudentAlerts(teacherId));
-        
-        return teacherDashboard;
+        Map<String, Object> dashboard = dashboardComposer.compose("TEACHER")
+                .section("baseInfo", () -> createBaseDashboard(teacher), fallbackBaseDashboard(teacher))
+                .put("type", "TEACHER")
+                .section("stats", () -> createTeacherStats(teacherId), Map.<String, Object>of("totalClasses", 0))
+                .section("classes", () -> createTeacherClasses(teacherId), List.<Map<String, Object>>of())
+                .put("pendingTasks", List.of()) // derived from the classes below
+                .put("studentAlerts", createStudentAlerts(teacherId))
+                .join();
+        dashboard.put("pendingTasks", createPendingTasks(dashboard.get("classes")));
+        return dashboard;
     }
 
     @Override
     public Object getParentDashboard(Long parentId) {
+        return dashboard("PARENT", parentId, () -> buildParentDashboard(parentId));
+    }
+
+    private Object buildParentDashboard(Long parentId) {
         log.debug("Getting parent dashboard for parent: {}", parentId);
         
         Parent parent = parentRepository.findById(parentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Parent not found"));
         
-        // Create basic dashboard info
-        DashboardDto baseInfo = createBaseDashboard(parent);
-        
-        // Create parent-specific data
-        Map<String, Object> parentDashboard = new HashMap<>();
-        parentDashboard.put("baseInfo", baseInfo);
-        parentDashboard.put("type", "PARENT");
-        parentDashboard.put("children", createParentChildrenInfo(parentId));
-        parentDashboard.put("schoolUpdates", createSchoolUpdates());
-        parentDashboard.put("upcomingEvents", createParentUpcomingEvents(parentId));
-        
-        return parentDashboard;
+        return dashboardComposer.compose("PARENT")
+                .section("baseInfo", () -> createBaseDashboard(parent), fallbackBaseDashboard(parent))
+                .put("type", "PARENT")
+                .section("children", () -> createParentChildrenInfo(parentId), List.of())
+                .put("schoolUpdates", createSchoolUpdates())
+                .put("upcomingEvents", createParentUpcomingEvents(parentId))
+                .join();
     }
 
     @Override
     public Object getAdminDashboard(Long adminId) {
+        // Resolved here: rebuilds may run without the security context
+        Long userId = adminId != null ? adminId : getCurrentUser().getId();
+        return dashboard("ADMIN", userId, () -> buildAdminDashboard(userId));
+    }
+
+    private Object buildAdminDashboard(Long adminId) {
         log.debug("Getting admin dashboard for admin: {}", adminId);
         
-        BaseUser admin = null;
-        if (adminId != null) {
-            admin = userRepository.findById(adminId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
-        } else {
-            admin = getCurrentUser();
-        }
-        
-        // Create basic dashboard info
-        DashboardDto baseInfo = createBaseDashboard(admin);
-        
-        // Create admin-specific data
-        Map<String, Object> adminDashboard = new HashMap<>();
-        adminDashboard.put("baseInfo", baseInfo);
-        adminDashboard.put("type", "ADMIN");
-        adminDashboard.put("systemStats", createSystemStats());
-        adminDashboard.put("systemAlerts", createSystemAlerts());
-        adminDashboard.put("enrollmentTrends", createEnrollmentTrends());
-        adminDashboard.put("performanceMetrics", createPerformanceMetrics());
-        adminDashboard.put("recentSystemActivities", createRecentSystemActivities());
-        
-        return adminDashboard;
+        BaseUser user = userRepository.findById(adminId)
+                .orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
+        
+        return dashboardComposer.compose("ADMIN")
+                .section("baseInfo", () -> createBaseDashboard(user), fallbackBaseDashboard(user))
+                .put("type", "ADMIN")
+                .put("systemStats", createSystemStats())
+                .put("systemAlerts", createSystemAlerts())
+                .put("enrollmentTrends", createEnrollmentTrends())
+                .section("performanceMetrics", this::createPerformanceMetrics, Map.<String, Double>of())
+                .put("recentSystemActivities", createRecentSystemActivities())
+                .join();
     }
 
     @Override
     public Object getStaffDashboard(Long staffId) {
+        // Resolved here: rebuilds may run without the security context
+        Long userId = staffId != null ? staffId : getCurrentUser().getId();
+        return dashboard("STAFF", userId, () -> buildStaffDashboard(userId));
+    }
+
+    private Object buildStaffDashboard(Long staffId) {
         log.debug("Getting staff dashboard for staff: {}", staffId);
         
-        BaseUser staff = null;
-        if (staffId != null) {
-            staff = userRepository.findById(staffId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
-        } else {
-            staff = getCurrentUser();
-        }
-        
-        // Create basic dashboard info
-        DashboardDto baseInfo = createBaseDashboard(staff);
+        BaseUser user = userRepository.findById(staffId)
+                .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
         
-        // Create staff-specific data
-        Map<String, Object> staffDashboard = new HashMap<>();
-        staffDashboard.put("baseInfo", baseInfo);
-        staffDashboard.put("type", "STAFF");
-        staffDashboard.put("assignedTasks", createStaffTasks(staffId));
-        staffDashboard.put("maintenanceAlerts", createMaintenanceAlerts());
-        staffDashboard.put("recentActivities", createRecentActivities(staffId));
-        
-        return staffDashboard;
+        return dashboardComposer.compose("STAFF")
+                .section("baseInfo", () -> createBaseDashboard(user), fallbackBaseDashboard(user))
+                .put("type", "STAFF")
+                .put("assignedTasks", createStaffTasks(staffId))
+                .put("maintenanceAlerts", createMaintenanceAlerts())
+                .put("recentActivities", createRecentActivities(staffId))
+                .join();
     }
 
     @Override
@@ -191,6 +204,7 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardDto getBaseDashboardInfo(Long userId) {
         log.debug("Getting base dashboard info for user: {}", userId);
         
@@ -203,25 +217,37 @@ public class DashboardServiceImpl implements DashboardService {
     // Helper methods for creating dashboard components
 
     private DashboardDto createBaseDashboard(BaseUser user) {
-        DashboardDto.UserInfo userInfo = new DashboardDto.UserInfo(
-                user.getId(),
-                user.getFirstName() + " " + user.getLastName(),
-                user.getEmail(),
-                user.getRole().name(),
-                null // avatarUrl - can be added later
-        );
-
         List<DashboardDto.RecentActivity> recentActivities = createRecentActivities(user.getId());
         List<DashboardDto.Notification> notifications = createNotifications(user.getId());
         
         return new DashboardDto(
-                userInfo,
+                createUserInfo(user),
                 recentActivities,
                 notifications,
                 LocalDateTime.now().minusDays(1) // Mock last login
         );
     }
 
+    // Base info without notifications, for when they cannot be loaded
+    private DashboardDto fallbackBaseDashboard(BaseUser user) {
+        return new DashboardDto(
+                createUserInfo(user),
+                createRecentActivities(user.getId()),
+                List.of(),
+                LocalDateTime.now().minusDays(1) // Mock last login
+        );
+    }
+
+    private DashboardDto.UserInfo createUserInfo(BaseUser user) {
+        return new DashboardDto.UserInfo(
+                user.getId(),
+                user.getFirstName() + " " + user.getLastName(),
+                user.getEmail(),
+                user.getRole().name(),
+                null // avatarUrl - can be added later
+        );
+    }
+
     private List<DashboardDto.RecentActivity> createRecentActivities(Long userId) {
         // Mock recent activities - can be enhanced with real data
         List<DashboardDto.RecentActivity> activities = new ArrayList<>();
@@ -234,32 +260,29 @@ public class DashboardServiceImpl implements DashboardService {
         return activities;
     }
 
+    // A failure here fails the baseInfo section, which then falls back to fallbackBaseDashboard
     private List<DashboardDto.Notification> createNotifications(Long userId) {
         // Get real notifications from repository
         List<DashboardDto.Notification> notifications = new ArrayList<>();
         
-        try {
-            // Get recent unread notifications
-            var dbNotificationsPage = notificationRepository.findByUserIdOrderByCreatedAtDesc(
-                    userId, PageRequest.of(0, 5));
-            var dbNotifications = dbNotificationsPage.getContent().stream()
-                    .filter(n -> !n.getReadStatus())
-                    .limit(5)
-                    .toList();
-            
-            for (var notification : dbNotifications) {
-                notifications.add(new DashboardDto.Notification(
-                        notification.getId(),
-                        notification.getTitle(),
-                        notification.getMessage(),
-                        notification.getType().name(),
-                        notification.getReadStatus(),
-                        notification.getCreatedAt(),
-                        notification.getActionUrl()
-                ));
-            }
-        } catch (Exception e) {
-            log.warn("Could not load notifications for user {}: {}", userId, e.getMessage());
+        // Get recent unread notifications
+        var dbNotificationsPage = notificationRepository.findByUserIdOrderByCreatedAtDesc(
+                userId, PageRequest.of(0, 5));
+        var dbNotifications = dbNotificationsPage.getContent().stream()
+                .filter(n -> !n.getReadStatus())
+                .limit(5)
+                .toList();
+        
+        for (var notification : dbNotifications) {
+            notifications.add(new DashboardDto.Notification(
+                    notification.getId(),
+                    notification.getTitle(),
+                    notification.getMessage(),
+                    notification.getType().name(),
+                    notification.getReadStatus(),
+                    notification.getCreatedAt(),
+                    notification.getActionUrl()
+            ));
         }
         
         return notifications;
@@ -268,18 +291,13 @@ public class DashboardServiceImpl implements DashboardService {
     private Map<String, Object> createStudentStats(Long studentId) {
         Map<String, Object> stats = new HashMap<>();
         
-        try {
-            long totalEnrollments = enrollmentRepository.countByStudentId(studentId);
-            stats.put("totalEnrollments", totalEnrollments);
-            stats.put("averageGrade", 85.5); // Mock data
-            stats.put("completedCourses", 12);
-            stats.put("totalAssignments", 45);
-            stats.put("currentGPA", "3.7");
-            stats.put("academicStanding", "Good Standing");
-        } catch (Exception e) {
-            log.warn("Error creating student stats: {}", e.getMessage());
-            stats.put("totalEnrollments", 0);
-        }
+        long totalEnrollments = enrollmentRepository.countByStudentId(studentId);
+        stats.put("totalEnrollments", totalEnrollments);
+        stats.put("averageGrade", 85.5); // Mock data
+        stats.put("completedCourses", 12);
+        stats.put("totalAssignments", 45);
+        stats.put("currentGPA", "3.7");
+        stats.put("academicStanding", "Good Standing");
         
         return stats;
     }
@@ -287,20 +305,16 @@ public class DashboardServiceImpl implements DashboardService {
     private List<Map<String, Object>> createRecentGrades(Long studentId) {
         List<Map<String, Object>> grades = new ArrayList<>();
         
-        try {
-            var recentGradesPage = gradeRepository.findByStudentIdOrderByGradedAtDesc(studentId, PageRequest.of(0, 5));
-            var recentGrades = recentGradesPage.getContent();
-            
-            for (var grade : recentGrades) {
-                Map<String, Object> gradeData = new HashMap<>();
-                gradeData.put("courseName", grade.getEnrollment().getClassEntity().getName());
-                gradeData.put("score", grade.getScore());
-                gradeData.put("content", grade.getContent());
-                gradeData.put("gradedAt", grade.getGradedAt());
-                grades.add(gradeData);
-            }
-        } catch (Exception e) {
-            log.warn("Error loading recent grades: {}", e.getMessage());
+        var recentGradesPage = gradeRepository.findByStudentIdOrderByGradedAtDesc(studentId, PageRequest.of(0, 5));
+        var recentGrades = recentGradesPage.getContent();
+        
+        for (var grade : recentGrades) {
+            Map<String, Object> gradeData = new HashMap<>();
+            gradeData.put("courseName", grade.getEnrollment().getClassEntity().getName());
+            gradeData.put("score", grade.getScore());
+            gradeData.put("content", grade.getContent());
+            gradeData.put("gradedAt", grade.getGradedAt());
+            grades.add(gradeData);
         }
         
         return grades;
@@ -324,20 +338,16 @@ public class DashboardServiceImpl implements DashboardService {
     private List<Map<String, Object>> createEnrolledClasses(Long studentId) {
         List<Map<String, Object>> classes = new ArrayList<>();
         
-        try {
-            var enrollments = enrollmentRepository.findByStudentId(studentId);
-            
-            for (var enrollment : enrollments) {
-                Map<String, Object> classData = new HashMap<>();
-                classData.put("classId", enrollment.getClassEntity().getId());
-                classData.put("className", enrollment.getClassEntity().getName());
-                classData.put("teacherName", "Teacher Name"); // Would need to get from class
-                classData.put("totalStudents", 25); // Mock data
-                classData.put("schedule", "Mon, Wed, Fri");
-                classes.add(classData);
-            }
-        } catch (Exception e) {
-            log.warn("Error loading enrolled classes: {}", e.getMessage());
+        var enrollments = enrollmentRepository.findByStudentId(studentId);
+        
+        for (var enrollment : enrollments) {
+            Map<String, Object> classData = new HashMap<>();
+            classData.put("classId", enrollment.getClassEntity().getId());
+            classData.put("className", enrollment.getClassEntity().getName());
+            classData.put("teacherName", "Teacher Name"); // Would need to get from class
+            classData.put("totalStudents", 25); // Mock data
+            classData.put("schedule", "Mon, Wed, Fri");
+            classes.add(classData);
         }
         
         return classes;
@@ -346,57 +356,79 @@ public class DashboardServiceImpl implements DashboardService {
     private Map<String, Object> createTeacherStats(Long teacherId) {
         Map<String, Object> stats = new HashMap<>();
         
-        try {
-            long totalClasses = classRepository.countByTeacherId(teacherId);
-            stats.put("totalClasses", totalClasses);
-            stats.put("totalStudents", 120); // Mock data
-            stats.put("totalCourses", 5);
-            stats.put("pendingGrades", 15);
-            stats.put("averageClassGrade", 82.3);
-            stats.put("activeCourses", 3);
-        } catch (Exception e) {
-            log.warn("Error creating teacher stats: {}", e.getMessage());
-            stats.put("totalClasses", 0);
-        }
+        long totalClasses = classRepository.countByTeacherId(teacherId);
+        stats.put("totalClasses", totalClasses);
+        stats.put("totalStudents", 120); // Mock data
+        stats.put("totalCourses", 5);
+        stats.put("pendingGrades", 15);
+        stats.put("averageClassGrade", 82.3);
+        stats.put("activeCourses", 3);
         
         return stats;
     }
 
+    // Every figure of every class comes from one grouped query, whatever the number of classes
     private List<Map<String, Object>> createTeacherClasses(Long teacherId) {
         List<Map<String, Object>> classes = new ArrayList<>();
         
-        try {
-            var teacherClasses = classRepository.findByTeacherId(teacherId);
-            
-            for (var classEntity : teacherClasses) {
-                Map<String, Object> classData = new HashMap<>();
-                classData.put("classId", classEntity.getId());
-                classData.put("className", classEntity.getName());
-                classData.put("enrolledStudents", 25); // Would need to count enrollments
-                classData.put("totalAssignments", 10);
-                classData.put("pendingGrades", 5);
-                classData.put("averageGrade", 85.0);
-                classData.put("lastActivity", LocalDateTime.now().minusDays(1));
-                classes.add(classData);
-            }
-        } catch (Exception e) {
-            log.warn("Error loading teacher classes: {}", e.getMessage());
+        for (Object[] row : classRepository.findTeacherClassSummaries(teacherId, LocalDate.now())) {
+            long enrolled = ((Number) row[2]).longValue();
+            long attendanceTaken = ((Number) row[5]).longValue();
+            Map<String, Object> classData = new HashMap<>();
+            classData.put("classId", ((Number) row[0]).longValue());
+            classData.put("className", row[1]);
+            classData.put("enrolledStudents", enrolled);
+            classData.put("totalAssignments", ((Number) row[4]).longValue());
+            classData.put("pendingGrades", ((Number) row[3]).longValue());
+            classData.put("attendanceTakenToday", attendanceTaken);
+            classData.put("attendanceCompletion", enrolled > 0
+                    ? Math.round(Math.min(attendanceTaken, enrolled) * 1000.0 / enrolled) / 10.0 : 0.0);
+            classData.put("averageGrade", row[6] != null ? Math.round(((Number) row[6]).doubleValue() * 100) / 100.0 : null);
+            classData.put("lastActivity", row[7] instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : row[7]);
+            classes.add(classData);
         }
         
         return classes;
     }
 
-    private List<Map<String, Object>> createPendingTasks(Long teacherId) {
+    // Grading and attendance still to do, summed over the classes section
+    private List<Map<String, Object>> createPendingTasks(Object classes) {
         List<Map<String, Object>> tasks = new ArrayList<>();
+        if (!(classes instanceof List<?> rows)) {
+            return tasks;
+        }
         
-        // Mock pending tasks
-        Map<String, Object> task = new HashMap<>();
-        task.put("type", "GRADE_ASSIGNMENT");
-        task.put("description", "Grade Mathematics Assignment #3");
-        task.put("count", 15);
-        task.put("priority", "HIGH");
-        task.put("dueDate", LocalDateTime.now().plusDays(2));
-        tasks.add(task);
+        long pendingGrades = 0;
+        long missingAttendance = 0;
+        int classesWithoutAttendance = 0;
+        for (Object row : rows) {
+            Map<?, ?> classData = (Map<?, ?>) row;
+            pendingGrades += ((Number) classData.get("pendingGrades")).longValue();
+            long missing = ((Number) classData.get("enrolledStudents")).longValue()
+                    - ((Number) classData.get("attendanceTakenToday")).longValue();
+            if (missing > 0) {
+                missingAttendance += missing;
+                classesWithoutAttendance++;
+            }
+        }
+        
+        if (pendingGrades > 0) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("type", "GRADE_ASSIGNMENT");
+            task.put("description", "Enter grades for students without any grade yet");
+            task.put("count", pendingGrades);
+            task.put("priority", "HIGH");
+            tasks.add(task);
+        }
+        if (missingAttendance > 0) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("type", "TAKE_ATTENDANCE");
+            task.put("description", "Take today's attendance in " + classesWithoutAttendance + " class(es)");
+            task.put("count", missingAttendance);
+            task.put("priority", "MEDIUM");
+            task.put("dueDate", LocalDate.now());
+            tasks.add(task);
+        }
         
         return tasks;
     }
@@ -420,21 +452,17 @@ public class DashboardServiceImpl implements DashboardService {
     private List<Map<String, Object>> createParentChildrenInfo(Long parentId) {
         List<Map<String, Object>> children = new ArrayList<>();
         
-        try {
-            var parentChildren = studentRepository.findByParentId(parentId);
-            
-            for (var child : parentChildren) {
-                Map<String, Object> childData = new HashMap<>();
-                childData.put("studentId", child.getId());
-                childData.put("name", child.getFirstName() + " " + child.getLastName());
-                childData.put("currentClass", "Grade 10A"); // Mock data
-                childData.put("averageGrade", 88.5);
-                childData.put("totalAbsences", 3);
-                childData.put("academicStanding", "Good Standing");
-                children.add(childData);
-            }
-        } catch (Exception e) {
-            log.warn("Error loading parent children info: {}", e.getMessage());
+        var parentChildren = studentRepository.findByParentId(parentId);
+        
+        for (var child : parentChildren) {
+            Map<String, Object> childData = new HashMap<>();
+            childData.put("studentId", child.getId());
+            childData.put("name", child.getFirstName() + " " + child.getLastName());
+            childData.put("currentClass", "Grade 10A"); // Mock data
+            childData.put("averageGrade", 88.5);
+            childData.put("totalAbsences", 3);
+            childData.put("academicStanding", "Good Standing");
+            children.add(childData);
         }
         
         return children;
@@ -473,27 +501,16 @@ public class DashboardServiceImpl implements DashboardService {
     private Map<String, Object> createSystemStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        try {
-            long totalStudents = studentRepository.count();
-            long totalTeachers = teacherRepository.count();
-            long totalClasses = classRepository.count();
-            long totalCourses = courseRepository.count();
-            
-            stats.put("totalStudents", totalStudents);
-            stats.put("totalTeachers", totalTeachers);
-            stats.put("totalParents", parentRepository.count());
-            stats.put("totalClasses", totalClasses);
-            stats.put("totalCourses", totalCourses);
-            stats.put("activeEnrollments", enrollmentRepository.count());
-            stats.put("systemHealth", 98.5);
-            stats.put("serverStatus", "ONLINE");
-        } catch (Exception e) {
-            log.warn("Error creating system stats: {}", e.getMessage());
-            stats.put("totalStudents", 0);
-            stats.put("totalTeachers", 0);
-            stats.put("totalClasses", 0);
-            stats.put("totalCourses", 0);
-        }
+        // Maintained totals, from the local copy of the counters row
+        SystemCounters counters = systemCounterService.getCounters();
+        stats.put("totalStudents", counters.getStudents());
+        stats.put("totalTeachers", counters.getTeachers());
+        stats.put("totalParents", counters.getParents());
+        stats.put("totalClasses", counters.getClasses());
+        stats.put("totalCourses", counters.getCourses());
+        stats.put("activeEnrollments", counters.getEnrollments());
+        stats.put("systemHealth", 98.5);
+        stats.put("serverStatus", "ONLINE");
         
         return stats;
     }
@@ -528,7 +545,9 @@ public class DashboardServiceImpl implements DashboardService {
     private Map<String, Double> createPerformanceMetrics() {
         Map<String, Double> metrics = new HashMap<>();
         metrics.put("averageGPA", 3.2);
-        metrics.put("attendanceRate", 92.5);
+        // Student and staff days, academic year to date
+        AttendanceDayCounts attendance = attendanceIndexService.getSchoolYearToDateCounts();
+        metrics.put("attendanceRate", Math.round(attendance.attendancePercentage() * 10) / 10.0);
         metrics.put("graduationRate", 85.0);
         metrics.put("satisfactionScore", 4.2);
         return metrics;
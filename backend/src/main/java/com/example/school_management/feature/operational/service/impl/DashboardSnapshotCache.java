@@ -0,0 +1,314 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.auth.dto.UserProfileChangedEvent;
+import com.example.school_management.feature.operational.domain.DashboardSnapshot;
+import com.example.school_management.feature.operational.event.AttendanceChangedEvent;
+import com.example.school_management.feature.operational.event.ClassRosterChangedEvent;
+import com.example.school_management.feature.operational.event.GradesChangedEvent;
+import com.example.school_management.feature.operational.event.NotificationsChangedEvent;
+import com.example.school_management.feature.operational.event.SystemCountersChangedEvent;
+import com.example.school_management.feature.operational.event.TeacherAttendanceChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard snapshots per role and user in the {@value #CACHE_NAME} Redis cache. Snapshots are
+ * invalidated by domain events rather than by age: every user has a token, admin dashboards
+ * (school-wide figures) also depend on a school token, and the listeners below replace those
+ * tokens once a change commits. A user's token is also replaced when their profile changes, and
+ * teachers' tokens when grades, today's attendance or the rosters of their classes change. A snapshot built against older tokens, or on an earlier
+ * day (dashboards show today's figures), is stale. With
+ * stale-while-revalidate on, a stale snapshot is served as is while a single background rebuild
+ * per key replaces it; otherwise the request rebuilds it. Dashboards with degraded sections are
+ * never stored, and the Redis TTL only clears snapshots nobody asks for.
+ * Metrics: {@code dashboard.snapshot.requests} (role, outcome hit/stale/miss),
+ * {@code dashboard.snapshot.hit.ratio} and {@code dashboard.snapshot.rebuild} (role, mode).
+ */
+@Slf4j
+@Component
+public class DashboardSnapshotCache {
+
+    public static final String CACHE_NAME = "dashboardSnapshots";
+
+    // Dashboards with school-wide counts and rates
+    private static final Set<String> SCHOOL_WIDE_ROLES = Set.of("ADMIN");
+    private static final String SCHOOL_TOKEN_KEY = "token_school";
+
+    private final CacheManager cacheManager;
+    private final ClassRepository classRepository;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean staleWhileRevalidate;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder servedFromSnapshot = new LongAdder();
+
+    public DashboardSnapshotCache(CacheManager cacheManager,
+                                  ClassRepository classRepository,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("dashboardRefreshExecutor") AsyncTaskExecutor refreshExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dashboard.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${app.dashboard.snapshot.stale-while-revalidate:true}") boolean staleWhileRevalidate) {
+        this.cacheManager = cacheManager;
+        this.classRepository = classRepository;
+        this.objectMapper = objectMapper;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        Gauge.builder("dashboard.snapshot.hit.ratio", this, DashboardSnapshotCache::hitRatio)
+                .description("Share of dashboard requests served from a snapshot, fresh or stale")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The dashboard of the user, from its snapshot when there is one. {@code builder} computes
+     * it from scratch; it may run on a background thread, so it must not rely on the security
+     * context or the caller's transaction.
+     */
+    public Object get(String role, Long userId, Supplier<Object> builder) {
+        if (!enabled || userId == null) {
+            return builder.get();
+        }
+        String key = role + "_" + userId;
+        DashboardSnapshot snapshot = read(key, DashboardSnapshot.class);
+        if (snapshot != null) {
+            boolean fresh = builtToday(snapshot)
+                    && Objects.equals(snapshot.getUserToken(), userToken(userId))
+                    && Objects.equals(snapshot.getSchoolToken(), schoolToken(role));
+            Object dashboard = fresh || staleWhileRevalidate ? parse(key, snapshot) : null;
+            if (dashboard != null) {
+                record(role, fresh ? "hit" : "stale");
+                if (!fresh) {
+                    refreshInBackground(key, role, userId, builder);
+                }
+                return dashboard;
+            }
+        }
+        record(role, "miss");
+        return rebuild(key, role, userId, builder, "sync");
+    }
+
+    /** Marks the snapshots of the given users stale. */
+    public void invalidateUsers(Collection<Long> userIds) {
+        if (userIds == null) {
+            return;
+        }
+        for (Long userId : userIds) {
+            write(userTokenKey(userId), newToken());
+        }
+    }
+
+    /** Marks the snapshots of the teachers of the given classes stale. */
+    public void invalidateClassTeachers(Collection<Long> classIds) {
+        if (classIds == null || classIds.isEmpty()) {
+            return;
+        }
+        try {
+            invalidateUsers(classRepository.findTeacherIdsByClassIds(classIds));
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve the teachers of classes {}: {}", classIds, e.getMessage());
+        }
+    }
+
+    /** Marks every dashboard with school-wide figures stale. */
+    public void invalidateSchoolWide() {
+        write(SCHOOL_TOKEN_KEY, newToken());
+    }
+
+    // Recent grades on the student dashboard, pending grades and averages on the teacher dashboard
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        invalidateUsers(event.studentIds());
+        invalidateClassTeachers(event.classIds());
+    }
+
+    // School-wide attendance rate, and today's attendance on the teacher dashboard
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        invalidateSchoolWide();
+        if (event.dates() != null && event.dates().contains(LocalDate.now())) {
+            invalidateClassTeachers(event.classIds());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTeacherAttendanceChanged(TeacherAttendanceChangedEvent event) {
+        invalidateSchoolWide();
+    }
+
+    // Enrolled classes of the students, class sizes of their teachers, and the school-wide enrollment count
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClassRosterChanged(ClassRosterChangedEvent event) {
+        invalidateSchoolWide();
+        invalidateUsers(event.studentIds());
+        invalidateClassTeachers(event.classIds());
+    }
+
+    // School-wide totals, also once another instance's change has reached this instance's copy
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSystemCountersChanged(SystemCountersChangedEvent event) {
+        invalidateSchoolWide();
+    }
+
+    // Name, e-mail and role in the baseInfo section of every dashboard
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        invalidateUsers(List.of(event.userId()));
+    }
+
+    // Unread notifications, shown on every dashboard
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        invalidateUsers(List.of(event.userId()));
+    }
+
+    private Object rebuild(String key, String role, Long userId, Supplier<Object> builder, String mode) {
+        // Tokens are read first, so a change committed during the build leaves the snapshot stale
+        String userToken = userToken(userId);
+        String schoolToken = schoolToken(role);
+        long started = System.nanoTime();
+        Object dashboard = builder.get();
+        Timer.builder("dashboard.snapshot.rebuild")
+                .description("Time to rebuild a dashboard snapshot")
+                .tag("role", role)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        if (dashboard instanceof Map<?, ?> sections && sections.containsKey(DashboardComposer.DEGRADED_SECTIONS)) {
+            log.debug("Dashboard {} has degraded sections, not stored", key);
+            return dashboard;
+        }
+        try {
+            write(key, new DashboardSnapshot(objectMapper.writeValueAsString(dashboard),
+                    System.currentTimeMillis(), userToken, schoolToken));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize dashboard {}: {}", key, e.getMessage());
+        }
+        return dashboard;
+    }
+
+    private void refreshInBackground(String key, String role, Long userId, Supplier<Object> builder) {
+        if (!refreshing.add(key)) {
+            return; // a rebuild of this dashboard is already running
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    rebuild(key, role, userId, builder, "async");
+                } catch (RuntimeException e) {
+                    log.warn("Background rebuild of dashboard {} failed: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            refreshing.remove(key);
+            log.debug("Dashboard refresh queue full, {} stays stale until the next request", key);
+        }
+    }
+
+    private Object parse(String key, DashboardSnapshot snapshot) {
+        try {
+            return objectMapper.readTree(snapshot.getPayload());
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable dashboard snapshot {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean builtToday(DashboardSnapshot snapshot) {
+        return Instant.ofEpochMilli(snapshot.getBuiltAtMillis()).atZone(ZoneId.systemDefault()).toLocalDate()
+                .equals(LocalDate.now());
+    }
+
+    private String userToken(Long userId) {
+        return read(userTokenKey(userId), String.class);
+    }
+
+    private String schoolToken(String role) {
+        return SCHOOL_WIDE_ROLES.contains(role) ? read(SCHOOL_TOKEN_KEY, String.class) : null;
+    }
+
+    private static String userTokenKey(Long userId) {
+        return "token_" + userId;
+    }
+
+    // Unique across instances, so two invalidations never write the same token
+    private static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    // Redis being unavailable degrades to building every dashboard, never to failing the request
+    private <T> T read(String key, Class<T> type) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.get(key, type);
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} from {}: {}", key, CACHE_NAME, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, Object value) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} to {}: {}", key, CACHE_NAME, e.getMessage());
+        }
+    }
+
+    private void record(String role, String outcome) {
+        requests.increment();
+        if (!"miss".equals(outcome)) {
+            servedFromSnapshot.increment();
+        }
+        Counter.builder("dashboard.snapshot.requests")
+                .description("Dashboard requests by snapshot outcome")
+                .tag("role", role)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private double hitRatio() {
+        long total = requests.sum();
+        return total == 0 ? 0.0 : (double) servedFromSnapshot.sum() / total;
+    }
+}
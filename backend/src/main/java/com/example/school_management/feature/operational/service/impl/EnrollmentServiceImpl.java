@@ -15,12 +15,16 @@ import com.example.school_management.feature.auth.entity.enums.GradeLevel;
 import com.example.school_management.feature.operational.entity.Enrollment;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
 import com.example.school_management.feature.operational.entity.enums.EnrollmentStatus;
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+import com.example.school_management.feature.operational.event.ClassRosterChangedEvent;
 import com.example.school_management.feature.operational.repository.EnrollmentRepository;
 import com.example.school_management.feature.operational.service.AuditService;
 import com.example.school_management.feature.operational.service.EnrollmentService;
+import com.example.school_management.feature.operational.service.SystemCounterService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,6 +35,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
@@ -46,6 +51,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final AuditService auditService;
     private final BaseUserRepository<BaseUser> userRepo;
     private final RealTimeNotificationService realTimeNotificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SystemCounterService systemCounterService;
 
     @Override
     public EnrollmentDto enrollStudent(Long studentId, Long classId) {
@@ -75,6 +82,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         enrollment.setEnrolledAt(LocalDateTime.now());
         
         Enrollment savedEnrollment = enrollmentRepo.save(enrollment);
+        systemCounterService.add(SystemCounter.ENROLLMENTS, 1);
+        eventPublisher.publishEvent(new ClassRosterChangedEvent(Set.of(classId), Set.of(studentId)));
         log.info("Student {} enrolled in class {} with enrollment id {}", studentId, classId, savedEnrollment.getId());
         
         // Create audit event
@@ -127,6 +136,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         
         enrollment.setClassEntity(newClass);
         Enrollment updatedEnrollment = enrollmentRepo.save(enrollment);
+        eventPublisher.publishEvent(new ClassRosterChangedEvent(Set.of(oldClass.getId(), newClassId),
+                Set.of(enrollment.getStudent().getId())));
         
         // Create audit event
         try {
@@ -161,6 +172,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         EnrollmentStatus oldStatus = enrollment.getStatus();
         enrollment.setStatus(status);
         Enrollment updatedEnrollment = enrollmentRepo.save(enrollment);
+        eventPublisher.publishEvent(new ClassRosterChangedEvent(Set.of(enrollment.getClassEntity().getId()),
+                Set.of(enrollment.getStudent().getId())));
         
         // Create audit event
         try {
@@ -200,6 +213,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         
         enrollment.setStatus(EnrollmentStatus.DROPPED);
         enrollmentRepo.save(enrollment);
+        eventPublisher.publishEvent(new ClassRosterChangedEvent(Set.of(enrollment.getClassEntity().getId()),
+                Set.of(enrollment.getStudent().getId())));
         
         // Create audit event
         try {
@@ -432,9 +447,11 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 List<ClassEntity> availableClasses = findOrCreateClassesForGradeLevel(gradeLevel, studentsInGrade.size(), isPreview);
                 
                 if (!isPreview) {
-                    classesCreated += (int) availableClasses.stream()
+                    int newClasses = (int) availableClasses.stream()
                         .filter(cls -> cls.getId() == null)
                         .count();
+                    classesCreated += newClasses;
+                    systemCounterService.add(SystemCounter.CLASSES, newClasses);
                     
                     classesUsed += availableClasses.size();
                     
@@ -451,6 +468,15 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 
                 // Enroll students in classes
                 int enrolledInGrade = enrollStudentsInClasses(studentsInGrade, availableClasses, isPreview);
+                if (!isPreview && enrolledInGrade > 0) {
+                    systemCounterService.add(SystemCounter.ENROLLMENTS, enrolledInGrade);
+                    eventPublisher.publishEvent(new ClassRosterChangedEvent(availableClasses.stream()
+                            .map(ClassEntity::getId)
+                            .collect(Collectors.toSet()),
+                            studentsInGrade.stream()
+                            .map(Student::getId)
+                            .collect(Collectors.toSet())));
+                }
                 studentsEnrolled += enrolledInGrade;
                 enrollmentsByGradeLevel.put(gradeLevel.name(), enrolledInGrade);
             }
@@ -0,0 +1,155 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.operational.dto.GradeAggregateDriftReport;
+import com.example.school_management.feature.operational.entity.GradeAggregate;
+import com.example.school_management.feature.operational.repository.GradeAggregateRepository;
+import com.example.school_management.feature.operational.service.GradeAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeAggregateServiceImpl implements GradeAggregateService {
+
+    // pg advisory lock key for the scheduled verify, shared by every instance
+    private static final long VERIFY_LOCK_KEY = 0x6772616465616767L; // "gradeagg"
+
+    private final GradeAggregateRepository gradeAggregateRepository;
+
+    @Override
+    @Transactional
+    public void addGrades(Collection<Long> gradeIds) {
+        if (gradeIds.isEmpty()) return;
+        gradeAggregateRepository.addStudentClassGrades(gradeIds);
+        gradeAggregateRepository.addClassGrades(gradeIds);
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Long studentId, Long classId) {
+        gradeAggregateRepository.recomputeStudentClass(studentId, classId);
+        gradeAggregateRepository.recomputeClass(classId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GradeAggregate> getStudentClassAggregate(Long studentId, Long classId) {
+        return gradeAggregateRepository.findByStudentIdAndClassId(studentId, classId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GradeAggregate> getClassAggregate(Long classId) {
+        return gradeAggregateRepository.findClassAggregate(classId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GradeAggregate> getStudentAggregate(Long studentId) {
+        // A student has one row per class; combine them into a single transient aggregate
+        List<GradeAggregate> rows = gradeAggregateRepository.findByStudentId(studentId);
+        if (rows.isEmpty()) return Optional.empty();
+
+        GradeAggregate total = new GradeAggregate();
+        total.setStudentId(studentId);
+        for (GradeAggregate row : rows) {
+            total.setGradeCount(total.getGradeCount() + row.getGradeCount());
+            total.setScoreSum(total.getScoreSum() + row.getScoreSum());
+            total.setWeightedSum(total.getWeightedSum() + row.getWeightedSum());
+            total.setWeightTotal(total.getWeightTotal() + row.getWeightTotal());
+            total.setMinScore(min(total.getMinScore(), row.getMinScore()));
+            total.setMaxScore(max(total.getMaxScore(), row.getMaxScore()));
+            total.setExcellentCount(total.getExcellentCount() + row.getExcellentCount());
+            total.setGoodCount(total.getGoodCount() + row.getGoodCount());
+            total.setSatisfactoryCount(total.getSatisfactoryCount() + row.getSatisfactoryCount());
+            total.setNeedsImprovementCount(total.getNeedsImprovementCount() + row.getNeedsImprovementCount());
+        }
+        return Optional.of(total);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        int deleted = gradeAggregateRepository.deleteAllAggregates();
+        int studentRows = gradeAggregateRepository.rebuildStudentClassAggregates();
+        int classRows = gradeAggregateRepository.rebuildClassAggregates();
+        log.info("Rebuilt grade aggregates: {} removed, {} student/class rows, {} class rows", deleted, studentRows, classRows);
+    }
+
+    @Override
+    @Transactional
+    public GradeAggregateDriftReport verify(boolean repair) {
+        GradeAggregateDriftReport report = GradeAggregateDriftReport.builder()
+                .checkedAt(LocalDateTime.now())
+                .build();
+
+        List<Object[]> studentDrift = gradeAggregateRepository.findStudentClassDrift();
+        List<Object[]> classDrift = gradeAggregateRepository.findClassDrift();
+        report.setStudentClassDrift(studentDrift.size());
+        report.setClassDrift(classDrift.size());
+        studentDrift.forEach(row -> report.getEntries().add(toDriftEntry(row)));
+        classDrift.forEach(row -> report.getEntries().add(toDriftEntry(row)));
+
+        if (repair && !report.getEntries().isEmpty()) {
+            Set<Long> classIds = new HashSet<>();
+            for (GradeAggregateDriftReport.DriftEntry entry : report.getEntries()) {
+                if (entry.getStudentId() != null) {
+                    gradeAggregateRepository.recomputeStudentClass(entry.getStudentId(), entry.getClassId());
+                }
+                classIds.add(entry.getClassId());
+            }
+            classIds.forEach(gradeAggregateRepository::recomputeClass);
+            report.setRepaired(true);
+        }
+
+        if (report.getEntries().isEmpty()) {
+            log.debug("Grade aggregates verified: no drift");
+        } else {
+            log.warn("Grade aggregate drift: {} student/class keys, {} class keys (repaired: {})",
+                    report.getStudentClassDrift(), report.getClassDrift(), report.isRepaired());
+        }
+        return report;
+    }
+
+    // Every instance fires the schedule; the lock lets one of them verify and the others skip
+    @Scheduled(cron = "${app.grades.aggregates.verify-cron:0 30 2 * * *}")
+    @Transactional
+    public void scheduledVerify() {
+        if (!gradeAggregateRepository.tryAdvisoryXactLock(VERIFY_LOCK_KEY)) {
+            log.debug("Grade aggregate verify already running on another instance, skipping");
+            return;
+        }
+        verify(true);
+    }
+
+    private GradeAggregateDriftReport.DriftEntry toDriftEntry(Object[] row) {
+        return new GradeAggregateDriftReport.DriftEntry(
+                row[0] != null ? ((Number) row[0]).longValue() : null,
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue());
+    }
+
+    private static Double min(Double a, Double b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.min(a, b);
+    }
+
+    private static Double max(Double a, Double b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.max(a, b);
+    }
+}
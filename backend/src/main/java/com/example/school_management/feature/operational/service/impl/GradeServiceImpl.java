@@ -1,12 +1,18 @@
 package com.example.school_management.feature.operational.service.impl;
 
 import com.example.school_management.feature.operational.dto.*;
+import com.example.school_management.feature.operational.domain.GradeStatisticsAccumulator;
 import com.example.school_management.feature.operational.entity.Grade;
+import com.example.school_management.feature.operational.entity.GradeAggregate;
 import com.example.school_management.feature.operational.entity.AuditEvent;
 import com.example.school_management.feature.operational.entity.enums.AuditEventType;
 import com.example.school_management.feature.operational.repository.GradeRepository;
 import com.example.school_management.feature.operational.service.GradeService;
 import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.GradeAggregateService;
+import com.example.school_management.feature.operational.service.ClassRankingService;
+import com.example.school_management.feature.operational.event.EnhancedGradesChangedEvent;
+import com.example.school_management.feature.operational.event.GradesChangedEvent;
 import com.example.school_management.feature.operational.mapper.OperationalMapper;
 import com.example.school_management.commons.dto.FilterCriteria;
 import com.example.school_management.commons.utils.DynamicSpecificationBuilder;
@@ -17,7 +23,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import com.example.school_management.commons.dtos.CursorPageDto;
 import com.example.school_management.feature.operational.entity.Enrollment;
 import com.example.school_management.feature.operational.entity.EnhancedGrade;
 import com.example.school_management.feature.operational.entity.enums.EnrollmentStatus;
@@ -28,16 +37,36 @@ import com.example.school_management.feature.auth.entity.BaseUser;
 import com.example.school_management.feature.auth.entity.Student;
 import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.feature.auth.repository.StudentRepository;
+import com.example.school_management.feature.auth.repository.UserRepository;
 import com.example.school_management.feature.academic.entity.TeachingAssignment;
 import com.example.school_management.feature.academic.entity.Course;
 import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
 import com.example.school_management.feature.academic.repository.CourseRepository;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.academic.entity.ClassEntity;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
+import jakarta.persistence.EntityManager;
 import com.example.school_management.commons.exceptions.ResourceNotFoundException;
+import com.example.school_management.commons.service.SingleFlightService;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -48,41 +77,144 @@ public class GradeServiceImpl implements GradeService {
     private final EnhancedGradeRepository enhancedGradeRepository;
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
     private final TeachingAssignmentRepository teachingAssignmentRepository;
     private final CourseRepository courseRepository;
+    private final ClassRepository classRepository;
 
     private final AuditService auditService;
+    private final GradeAggregateService gradeAggregateService;
+    private final ClassRankingService classRankingService;
+    private final ApplicationEventPublisher eventPublisher;
     private final OperationalMapper mapper;
+    private final EntityManager entityManager;
+    private final SingleFlightService singleFlightService;
+
+    // Rows written per flush during bulk grade entry (a multiple of hibernate.jdbc.batch_size)
+    private static final int BULK_GRADE_FLUSH_SIZE = 500;
+    private static final Pageable RECENT_GRADES = PageRequest.of(0, 5);
+    // Lower bound used when a range query has no start date
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Minimum change in average (between buckets, or over TREND_PERIOD_DAYS of slope) to report a trend
+    private static final double TREND_THRESHOLD = 0.5;
+    private static final int TREND_PERIOD_DAYS = 30;
+    // The trend slope is fitted over the grades of this many days up to the end of the period
+    private static final int TREND_WINDOW_DAYS = 90;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Rows per worksheet kept in memory by the streaming grade sheet export
+    private static final int EXPORT_ROW_WINDOW = 200;
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+    private static final String[] EXPORT_HEADERS = {
+            "Student ID", "Last Name", "First Name", "Course Code", "Course", "Coefficient",
+            "First Exam", "Second Exam", "Final Exam", "Quizzes", "Assignments", "Average (%)",
+            "Letter", "Teacher", "Remarks", "Rank"
+    };
+    // Student ids per approval UPDATE, well below the JDBC bind parameter limit
+    private static final int APPROVAL_CHUNK_SIZE = 1000;
+    // Student ids per enrollment lookup in bulk grade entry, also below the 65,535 bind parameter limit
+    private static final int ENROLLMENT_LOOKUP_CHUNK_SIZE = 10_000;
 
     @Override
     @Transactional
-    public void enterBulkGrades(BulkGradeEntryRequest request) {
-        Set<Long> seen = new HashSet<>();
+    public BulkGradeEntryResult enterBulkGrades(BulkGradeEntryRequest request) {
+        List<BulkGradeEntryRequest.StudentGradeEntry> entries =
+            request.getGrades() != null ? request.getGrades() : Collections.emptyList();
+        BulkGradeEntryResult result = BulkGradeEntryResult.builder()
+            .classId(request.getClassId())
+            .submitted(entries.size())
+            .build();
+        long start = System.nanoTime();
+
         // Get current teacher from security context
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         Teacher teacher = teacherRepository.findByEmail(email)
             .orElseThrow(() -> new IllegalArgumentException("Teacher not found"));
-        for (BulkGradeEntryRequest.StudentGradeEntry entry : request.getGrades()) {
-            if (entry.getStudentId() == null || entry.getValue() == null) {
-                throw new IllegalArgumentException("Student ID and grade value are required");
-            }
-            if (entry.getValue() < 0 || entry.getValue() > 20) {
-                throw new IllegalArgumentException("Grade value must be between 0 and 20");
+
+        // Resolve the class's enrollments a chunk of students per query, whatever the submission size
+        Set<Long> studentIdSet = new LinkedHashSet<>();
+        for (BulkGradeEntryRequest.StudentGradeEntry entry : entries) {
+            if (entry.getStudentId() != null) studentIdSet.add(entry.getStudentId());
+        }
+        List<Long> studentIds = new ArrayList<>(studentIdSet);
+        Map<Long, Enrollment> enrollmentsByStudent = new HashMap<>();
+        for (int from = 0; from < studentIds.size(); from += ENROLLMENT_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = studentIds.subList(from, Math.min(from + ENROLLMENT_LOOKUP_CHUNK_SIZE, studentIds.size()));
+            for (Enrollment enrollment : enrollmentRepository.findByClassIdAndStudentIdIn(request.getClassId(), chunk)) {
+                enrollmentsByStudent.put(enrollment.getStudent().getId(), enrollment);
             }
-            if (!seen.add(entry.getStudentId())) {
-                throw new IllegalArgumentException("Duplicate grade for student ID: " + entry.getStudentId());
+        }
+
+        // Validate in memory; invalid rows are reported, valid rows are written
+        String contentPrefix = request.getAssessmentType() + (request.getTerm() != null ? (" - " + request.getTerm()) : "");
+        LocalDateTime gradedAt = LocalDateTime.now();
+        Set<Long> seen = new HashSet<>();
+        List<Grade> batch = new ArrayList<>(Math.min(entries.size(), BULK_GRADE_FLUSH_SIZE));
+        Set<Long> gradedStudentIds = new HashSet<>();
+        int accepted = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            BulkGradeEntryRequest.StudentGradeEntry entry = entries.get(i);
+            String error = validateBulkGradeEntry(entry, seen, enrollmentsByStudent);
+            if (error != null) {
+                result.getErrors().add(new BulkGradeEntryResult.RowError(i, entry.getStudentId(), error));
+                continue;
             }
-            Enrollment enrollment = enrollmentRepository.findByStudentIdAndClassId(entry.getStudentId(), request.getClassId())
-                .orElseThrow(() -> new IllegalArgumentException("Enrollment not found for student " + entry.getStudentId()));
+
             Grade grade = new Grade();
-            grade.setEnrollment(enrollment);
+            grade.setEnrollment(enrollmentsByStudent.get(entry.getStudentId()));
             grade.setScore(entry.getValue().floatValue());
-            grade.setContent(request.getAssessmentType() + (request.getTerm() != null ? (" - " + request.getTerm()) : "") + (entry.getComment() != null ? (" - " + entry.getComment()) : ""));
-            grade.setGradedAt(java.time.LocalDateTime.now());
+            grade.setContent(contentPrefix + (entry.getComment() != null ? (" - " + entry.getComment()) : ""));
+            grade.setGradedAt(gradedAt);
             grade.setWeight(entry.getWeight() != null ? entry.getWeight() : 1.0f);
             grade.setAssignedBy(teacher);
-            gradeRepository.save(grade);
+            batch.add(grade);
+            gradedStudentIds.add(entry.getStudentId());
+            accepted++;
+
+            // Write in JDBC batches and keep the persistence context small for very large submissions
+            if (batch.size() == BULK_GRADE_FLUSH_SIZE) {
+                flushGradeBatch(batch);
+            }
         }
+        flushGradeBatch(batch);
+        if (!gradedStudentIds.isEmpty()) {
+            eventPublisher.publishEvent(new GradesChangedEvent(gradedStudentIds, Set.of(request.getClassId())));
+        }
+
+        result.setAccepted(accepted);
+        result.setRejected(result.getErrors().size());
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Bulk grade entry for class {}: {} accepted, {} rejected in {} ms ({} grades/s)",
+            request.getClassId(), accepted, result.getRejected(), Math.round(seconds * 1000),
+            seconds > 0 ? Math.round(accepted / seconds) : accepted);
+        return result;
+    }
+
+    private String validateBulkGradeEntry(BulkGradeEntryRequest.StudentGradeEntry entry, Set<Long> seen,
+                                          Map<Long, Enrollment> enrollmentsByStudent) {
+        if (entry.getStudentId() == null || entry.getValue() == null) {
+            return "Student ID and grade value are required";
+        }
+        if (entry.getValue() < 0 || entry.getValue() > 20) {
+            return "Grade value must be between 0 and 20";
+        }
+        if (!seen.add(entry.getStudentId())) {
+            return "Duplicate grade for student ID: " + entry.getStudentId();
+        }
+        if (!enrollmentsByStudent.containsKey(entry.getStudentId())) {
+            return "Enrollment not found for student " + entry.getStudentId();
+        }
+        return null;
+    }
+
+    private void flushGradeBatch(List<Grade> batch) {
+        if (batch.isEmpty()) return;
+        gradeRepository.saveAll(batch);
+        entityManager.flush();
+        gradeAggregateService.addGrades(batch.stream().map(Grade::getId).collect(Collectors.toList()));
+        entityManager.clear();
+        batch.clear();
     }
 
     @Override
@@ -102,7 +234,10 @@ public class GradeServiceImpl implements GradeService {
         String newValues = String.format("Score: %.2f, Weight: %.2f, Content: %s", 
             grade.getScore(), grade.getWeight(), grade.getContent());
         
-        gradeRepository.save(grade);
+        gradeRepository.saveAndFlush(grade);
+        gradeAggregateService.refresh(grade.getEnrollment().getStudent().getId(), grade.getEnrollment().getClassEntity().getId());
+        eventPublisher.publishEvent(new GradesChangedEvent(Set.of(grade.getEnrollment().getStudent().getId()),
+                Set.of(grade.getEnrollment().getClassEntity().getId())));
         
         // Create audit event
         BaseUser currentUser = getCurrentUser();
@@ -131,7 +266,12 @@ public class GradeServiceImpl implements GradeService {
         auditService.createGradeAuditEvent(AuditEventType.GRADE_DELETED, gradeId, 
             "Grade deleted", auditDetails, currentUser);
         
+        Long studentId = grade.getEnrollment().getStudent().getId();
+        Long classId = grade.getEnrollment().getClassEntity().getId();
         gradeRepository.delete(grade);
+        gradeRepository.flush();
+        gradeAggregateService.refresh(studentId, classId);
+        eventPublisher.publishEvent(new GradesChangedEvent(Set.of(studentId), Set.of(classId)));
         
         log.info("Grade {} deleted by user {} for reason: {}", gradeId, currentUser.getEmail(), request.getReason());
     }
@@ -141,89 +281,160 @@ public class GradeServiceImpl implements GradeService {
         Grade grade = gradeRepository.findById(gradeId)
             .orElseThrow(() -> new ResourceNotFoundException("Grade not found with id: " + gradeId));
         
-        GradeResponse response = mapper.toGradeResponse(grade);
-        BaseUser currentUser = getCurrentUser();
-        response.setCanEdit(canEditGrade(gradeId, currentUser.getId()));
-        response.setCanDelete(canDeleteGrade(gradeId, currentUser.getId()));
-        
-        return response;
+        return toGradeView(grade, currentGradeViewer());
     }
 
     @Override
     public List<GradeResponse> getGradesByStudentId(Long studentId) {
         List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        return grades.stream()
-            .map(this::mapGradeToResponse)
-            .collect(Collectors.toList());
+        return toGradeViews(grades);
     }
 
     @Override
     public List<GradeResponse> getGradesByClassId(Long classId) {
         List<Grade> grades = gradeRepository.findByClassId(classId);
-        return grades.stream()
-            .map(this::mapGradeToResponse)
-            .collect(Collectors.toList());
+        return toGradeViews(grades);
     }
 
     @Override
     public List<GradeResponse> getGradesByTeacherId(Long teacherId) {
         List<Grade> grades = gradeRepository.findByTeacherId(teacherId);
-        return grades.stream()
-            .map(this::mapGradeToResponse)
-            .collect(Collectors.toList());
+        return toGradeViews(grades);
     }
 
     @Override
     public List<GradeResponse> getGradesByEnrollmentId(Long enrollmentId) {
         List<Grade> grades = gradeRepository.findByEnrollmentId(enrollmentId);
-        return grades.stream()
-            .map(this::mapGradeToResponse)
-            .collect(Collectors.toList());
+        return toGradeViews(grades);
     }
 
     @Override
     public Page<GradeResponse> getGradesByStudentId(Long studentId, Pageable pageable) {
         Page<Grade> grades = gradeRepository.findByStudentIdOrderByGradedAtDesc(studentId, pageable);
-        return grades.map(this::mapGradeToResponse);
+        return toGradeViews(grades);
     }
 
     @Override
     public Page<GradeResponse> getGradesByClassId(Long classId, Pageable pageable) {
         Page<Grade> grades = gradeRepository.findByClassIdOrderByGradedAtDesc(classId, pageable);
-        return grades.map(this::mapGradeToResponse);
+        return toGradeViews(grades);
     }
 
     @Override
     public Page<GradeResponse> getGradesByEnrollmentId(Long enrollmentId, Pageable pageable) {
         Page<Grade> grades = gradeRepository.findByEnrollmentIdOrderByGradedAtDesc(enrollmentId, pageable);
-        return grades.map(this::mapGradeToResponse);
+        return toGradeViews(grades);
     }
 
     @Override
     public GradeStatistics getStudentGradeStatistics(Long studentId) {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        return calculateGradeStatistics(grades, studentId, null, null);
+        GradeAggregate aggregate = gradeAggregateService.getStudentAggregate(studentId).orElse(null);
+        List<Grade> recent = gradeRepository.findByStudentIdOrderByGradedAtDesc(studentId, RECENT_GRADES).getContent();
+        LocalDateTime now = LocalDateTime.now();
+        double slope = trendSlope(studentId, null, null, null, now.minusDays(TREND_WINDOW_DAYS), now);
+        return buildGradeStatistics(aggregate, toGradeViews(recent), slope, studentId, null, null);
     }
 
     @Override
     public GradeStatistics getStudentGradeStatisticsForClass(Long studentId, Long classId) {
-        List<Grade> grades = gradeRepository.findByStudentIdAndClassId(studentId, classId);
-        return calculateGradeStatistics(grades, studentId, classId, null);
+        // A student's grades in one class are few, so spread and percentiles are taken over all of them
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> scores = gradeRepository.findRangeScores(studentId, classId, null, null, RANGE_START, now);
+        return calculateGradeStatistics(scores, now, studentId, classId, null);
     }
 
     @Override
     public GradeStatistics getClassGradeStatistics(Long classId) {
-        List<Grade> grades = gradeRepository.findByClassId(classId);
-        return calculateGradeStatistics(grades, null, classId, null);
+        // Concurrent callers share statistics without permission flags; each sets its own below
+        GradeStatistics shared = singleFlightService.execute("GradeService.getClassGradeStatistics", () -> {
+            GradeAggregate aggregate = gradeAggregateService.getClassAggregate(classId).orElse(null);
+            List<GradeResponse> recent = gradeRepository.findByClassIdOrderByGradedAtDesc(classId, RECENT_GRADES)
+                .map(mapper::toGradeResponse)
+                .getContent();
+            LocalDateTime now = LocalDateTime.now();
+            double slope = trendSlope(null, classId, null, null, now.minusDays(TREND_WINDOW_DAYS), now);
+            return buildGradeStatistics(aggregate, recent, slope, null, classId, null);
+        }, classId);
+        return forCurrentViewer(shared);
     }
 
     @Override
     public GradeStatistics getGradeStatisticsForDateRange(Long studentId, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Grade> grades = gradeRepository.findByGradedAtBetween(startDate, endDate)
+        return getGradeRangeStatistics(GradeRangeStatisticsRequest.builder()
+            .studentId(studentId)
+            .startDate(startDate)
+            .endDate(endDate)
+            .build());
+    }
+
+    @Override
+    public GradeStatistics getGradeRangeStatistics(GradeRangeStatisticsRequest request) {
+        LocalDateTime startDate = request.getStartDate() != null ? request.getStartDate() : RANGE_START;
+        LocalDateTime endDate = request.getEndDate() != null ? request.getEndDate() : LocalDateTime.now();
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        GradeRangeStatisticsRequest.Bucket bucket = request.getBucket() != null
+            ? request.getBucket() : GradeRangeStatisticsRequest.Bucket.WEEK;
+
+        Object[] summary = gradeRepository.findRangeStatistics(request.getStudentId(), request.getClassId(),
+            request.getCourseId(), request.getTeacherId(), startDate, endDate).get(0);
+        List<GradeTrendPoint> series = gradeRepository.findRangeSeries(bucket.getTruncUnit(), request.getStudentId(),
+                request.getClassId(), request.getCourseId(), request.getTeacherId(), startDate, endDate)
             .stream()
-            .filter(grade -> grade.getEnrollment().getStudent().getId().equals(studentId))
+            .map(this::toTrendPoint)
             .collect(Collectors.toList());
-        return calculateGradeStatistics(grades, studentId, null, null);
+        List<Grade> recent = gradeRepository.findRecentInRange(request.getStudentId(), request.getClassId(),
+            request.getCourseId(), request.getTeacherId(), startDate, endDate, RECENT_GRADES);
+
+        LocalDateTime trendStart = endDate.minusDays(TREND_WINDOW_DAYS);
+        double slope = trendSlope(request.getStudentId(), request.getClassId(), request.getCourseId(),
+            request.getTeacherId(), startDate.isAfter(trendStart) ? startDate : trendStart, endDate);
+
+        GradeStatistics statistics = buildGradeStatistics(toRangeAggregate(summary), toGradeViews(recent), slope,
+            request.getStudentId(), request.getClassId(), request.getCourseId());
+        statistics.setTeacherId(request.getTeacherId());
+        statistics.setFromDate(startDate);
+        statistics.setToDate(endDate);
+        statistics.setBucket(bucket);
+        statistics.setSeries(series);
+
+        // Compare the last two buckets of the series
+        if (series.size() >= 2) {
+            double previous = series.get(series.size() - 2).getWeightedAverage();
+            double latest = series.get(series.size() - 1).getWeightedAverage();
+            statistics.setPreviousPeriodAverage(previous);
+            statistics.setTrend(latest - previous > TREND_THRESHOLD ? "IMPROVING"
+                : previous - latest > TREND_THRESHOLD ? "DECLINING" : "STABLE");
+        }
+        return statistics;
+    }
+
+    private GradeAggregate toRangeAggregate(Object[] row) {
+        GradeAggregate aggregate = new GradeAggregate();
+        aggregate.setGradeCount(((Number) row[0]).longValue());
+        aggregate.setScoreSum(((Number) row[1]).doubleValue());
+        aggregate.setWeightedSum(((Number) row[2]).doubleValue());
+        aggregate.setWeightTotal(((Number) row[3]).doubleValue());
+        aggregate.setMinScore(row[4] != null ? ((Number) row[4]).doubleValue() : null);
+        aggregate.setMaxScore(row[5] != null ? ((Number) row[5]).doubleValue() : null);
+        aggregate.setExcellentCount(((Number) row[6]).longValue());
+        aggregate.setGoodCount(((Number) row[7]).longValue());
+        aggregate.setSatisfactoryCount(((Number) row[8]).longValue());
+        aggregate.setNeedsImprovementCount(((Number) row[9]).longValue());
+        return aggregate;
+    }
+
+    private GradeTrendPoint toTrendPoint(Object[] row) {
+        double average = ((Number) row[2]).doubleValue();
+        return GradeTrendPoint.builder()
+            .periodStart(row[0] instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[0])
+            .gradeCount(((Number) row[1]).longValue())
+            .averageGrade(average)
+            .weightedAverage(row[3] != null ? ((Number) row[3]).doubleValue() : average)
+            .minimumGrade(((Number) row[4]).floatValue())
+            .maximumGrade(((Number) row[5]).floatValue())
+            .build();
     }
 
     @Override
@@ -233,25 +444,16 @@ public class GradeServiceImpl implements GradeService {
 
     @Override
     public boolean canEditGrade(Long gradeId, Long userId) {
-        Grade grade = gradeRepository.findById(gradeId).orElse(null);
-        if (grade == null) return false;
-        
-        // Teachers can edit their own grades
-        return grade.getAssignedBy().getId().equals(userId);
+        return gradeRepository.findById(gradeId)
+            .map(grade -> isEditableBy(grade, userId))
+            .orElse(false);
     }
 
     @Override
     public boolean canDeleteGrade(Long gradeId, Long userId) {
-        Grade grade = gradeRepository.findById(gradeId).orElse(null);
-        if (grade == null) return false;
-        
-        // Only the teacher who assigned it can delete within 24 hours
-        if (grade.getAssignedBy().getId().equals(userId)) {
-            LocalDateTime cutoff = grade.getGradedAt().plusHours(24);
-            return LocalDateTime.now().isBefore(cutoff);
-        }
-        
-        return false;
+        return gradeRepository.findById(gradeId)
+            .map(grade -> isDeletableBy(grade, userId, LocalDateTime.now()))
+            .orElse(false);
     }
 
     @Override
@@ -264,7 +466,7 @@ public class GradeServiceImpl implements GradeService {
         FilterCriteria criteria = FilterCriteriaParser.parseRequestParams(parameterMap);
         Specification<Grade> spec = DynamicSpecificationBuilder.build(criteria);
         Page<Grade> grades = gradeRepository.findAll(spec, pageable);
-        return grades.map(this::mapGradeToResponse);
+        return toGradeViews(grades);
     }
 
     @Override
@@ -285,17 +487,93 @@ public class GradeServiceImpl implements GradeService {
             grades = gradeRepository.findAll(pageable);
         }
         
-        return grades.map(this::mapGradeToResponse);
+        return toGradeViews(grades);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<GradeResponse> getGradesByCursor(GradeListFilter filter, String cursor, int size) {
+        GradeCursor after = cursor != null && !cursor.isBlank() ? GradeCursor.decode(cursor) : GradeCursor.FIRST;
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        String search = filter.getSearch() != null && !filter.getSearch().trim().isEmpty() ? filter.getSearch().trim() : null;
+        
+        Slice<Grade> grades = gradeRepository.findKeysetPage(after.gradedAt(), after.id(),
+                filter.getStudentId(), filter.getClassId(), filter.getEnrollmentId(), filter.getCourseId(), search,
+                PageRequest.of(0, pageSize));
+        
+        List<Grade> content = grades.getContent();
+        String nextCursor = grades.hasNext() ? GradeCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageDto<>(toGradeViews(content), pageSize, nextCursor, grades.hasNext());
     }
     
     // Helper methods
-    private GradeResponse mapGradeToResponse(Grade grade) {
+
+    /**
+     * Viewer resolved once per request; permissions for every grade in a list are
+     * computed from the already-loaded grade instead of re-querying it.
+     */
+    private record GradeViewer(Long userId, LocalDateTime now) {}
+
+    private GradeViewer currentGradeViewer() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = teacherRepository.findByEmail(email).map(Teacher::getId).orElse(null);
+        return new GradeViewer(userId, LocalDateTime.now());
+    }
+
+    private List<GradeResponse> toGradeViews(List<Grade> grades) {
+        if (grades.isEmpty()) return new ArrayList<>();
+        GradeViewer viewer = currentGradeViewer();
+        List<GradeResponse> responses = new ArrayList<>(grades.size());
+        for (Grade grade : grades) {
+            responses.add(toGradeView(grade, viewer));
+        }
+        return responses;
+    }
+
+    private Page<GradeResponse> toGradeViews(Page<Grade> grades) {
+        if (grades.isEmpty()) return grades.map(mapper::toGradeResponse);
+        GradeViewer viewer = currentGradeViewer();
+        return grades.map(grade -> toGradeView(grade, viewer));
+    }
+
+    private GradeResponse toGradeView(Grade grade, GradeViewer viewer) {
         GradeResponse response = mapper.toGradeResponse(grade);
-        BaseUser currentUser = getCurrentUser();
-        response.setCanEdit(canEditGrade(grade.getId(), currentUser.getId()));
-        response.setCanDelete(canDeleteGrade(grade.getId(), currentUser.getId()));
+        response.setCanEdit(isEditableBy(grade, viewer.userId()));
+        response.setCanDelete(isDeletableBy(grade, viewer.userId(), viewer.now()));
         return response;
     }
+
+    /**
+     * A copy of statistics shared between callers, with the recent grades' permissions set for the
+     * current user from the mapped teacher and grading time. The shared instance is left untouched.
+     */
+    private GradeStatistics forCurrentViewer(GradeStatistics shared) {
+        if (shared.getRecentGrades() == null || shared.getRecentGrades().isEmpty()) {
+            return shared.toBuilder().build();
+        }
+        GradeViewer viewer = currentGradeViewer();
+        List<GradeResponse> recent = new ArrayList<>(shared.getRecentGrades().size());
+        for (GradeResponse grade : shared.getRecentGrades()) {
+            boolean own = viewer.userId() != null && viewer.userId().equals(grade.getTeacherId());
+            recent.add(grade.toBuilder()
+                .canEdit(own)
+                .canDelete(own && grade.getGradedAt() != null && viewer.now().isBefore(grade.getGradedAt().plusHours(24)))
+                .build());
+        }
+        return shared.toBuilder().recentGrades(recent).build();
+    }
+
+    // Teachers can edit their own grades
+    private static boolean isEditableBy(Grade grade, Long userId) {
+        return userId != null && grade.getAssignedBy() != null && userId.equals(grade.getAssignedBy().getId());
+    }
+
+    // Only the teacher who assigned it can delete within 24 hours
+    private static boolean isDeletableBy(Grade grade, Long userId, LocalDateTime now) {
+        return isEditableBy(grade, userId)
+            && grade.getGradedAt() != null
+            && now.isBefore(grade.getGradedAt().plusHours(24));
+    }
     
     private BaseUser getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -304,70 +582,141 @@ public class GradeServiceImpl implements GradeService {
         return teacher; // Teacher extends BaseUser
     }
     
-    private GradeStatistics calculateGradeStatistics(List<Grade> grades, Long studentId, Long classId, Long courseId) {
-        if (grades.isEmpty()) {
-            return GradeStatistics.builder()
-                .averageGrade(0.0)
-                .minimumGrade(0.0f)
-                .maximumGrade(0.0f)
-                .totalGrades(0L)
-                .excellentCount(0L)
-                .goodCount(0L)
-                .satisfactoryCount(0L)
-                .needsImprovementCount(0L)
-                .studentId(studentId)
-                .classId(classId)
-                .courseId(courseId)
-                .weightedAverage(0.0)
-                .letterGrade("N/A")
-                .passStatus("PENDING")
-                .trend("STABLE")
-                .build();
+    // Any authenticated user (approvals are made by staff and admins)
+    private BaseUser getCurrentActor() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+            .orElseThrow(() -> new IllegalStateException("Current user not found"));
+    }
+    
+    private GradeStatistics emptyStatistics(Long studentId, Long classId, Long courseId) {
+        return GradeStatistics.builder()
+            .averageGrade(0.0)
+            .minimumGrade(0.0f)
+            .maximumGrade(0.0f)
+            .totalGrades(0L)
+            .excellentCount(0L)
+            .goodCount(0L)
+            .satisfactoryCount(0L)
+            .needsImprovementCount(0L)
+            .studentId(studentId)
+            .classId(classId)
+            .courseId(courseId)
+            .weightedAverage(0.0)
+            .letterGrade("N/A")
+            .passStatus("PENDING")
+            .trend("STABLE")
+            .build();
+    }
+    
+    // Full statistics from individual scores ([score, weight, graded_at, id] rows), spread included
+    private GradeStatistics calculateGradeStatistics(List<Object[]> scores, LocalDateTime now,
+                                                     Long studentId, Long classId, Long courseId) {
+        if (scores.isEmpty()) {
+            return emptyStatistics(studentId, classId, courseId);
         }
         
-        // Calculate basic statistics
-        double sum = grades.stream().mapToDouble(Grade::getScore).sum();
-        double weightedSum = grades.stream().mapToDouble(grade -> grade.getScore() * grade.getWeight()).sum();
-        double totalWeight = grades.stream().mapToDouble(Grade::getWeight).sum();
-        
-        float min = grades.stream().map(Grade::getScore).min(Float::compareTo).orElse(0.0f);
-        float max = grades.stream().map(Grade::getScore).max(Float::compareTo).orElse(0.0f);
-        
-        double average = sum / grades.size();
-        double weightedAverage = totalWeight > 0 ? weightedSum / totalWeight : average;
-        
-        // Calculate distribution
-        long excellent = grades.stream().mapToLong(grade -> grade.getScore() >= 18 ? 1 : 0).sum();
-        long good = grades.stream().mapToLong(grade -> grade.getScore() >= 14 && grade.getScore() < 18 ? 1 : 0).sum();
-        long satisfactory = grades.stream().mapToLong(grade -> grade.getScore() >= 10 && grade.getScore() < 14 ? 1 : 0).sum();
-        long needsImprovement = grades.stream().mapToLong(grade -> grade.getScore() < 10 ? 1 : 0).sum();
-        
-        // Get recent grades for context (last 5)
-        List<GradeResponse> recentGrades = grades.stream()
-            .sorted((g1, g2) -> g2.getGradedAt().compareTo(g1.getGradedAt()))
-            .limit(5)
-            .map(this::mapGradeToResponse)
-            .collect(Collectors.toList());
+        GradeStatisticsAccumulator stats = accumulate(scores, null);
+        double slope = accumulate(scores, now.minusDays(TREND_WINDOW_DAYS)).slopePerDay();
+        double weightedAverage = stats.weightedMean();
         
+        return GradeStatistics.builder()
+            .averageGrade(stats.mean())
+            .minimumGrade(stats.min())
+            .maximumGrade(stats.max())
+            .totalGrades((long) stats.count())
+            .excellentCount(stats.excellentCount())
+            .goodCount(stats.goodCount())
+            .satisfactoryCount(stats.satisfactoryCount())
+            .needsImprovementCount(stats.needsImprovementCount())
+            .studentId(studentId)
+            .classId(classId)
+            .courseId(courseId)
+            .weightedAverage(weightedAverage)
+            .letterGrade(calculateLetterGrade(weightedAverage))
+            .passStatus(weightedAverage >= 10 ? "PASS" : "FAIL")
+            .variance(stats.variance())
+            .standardDeviation(stats.standardDeviation())
+            .median(stats.median())
+            .percentile25(stats.percentile(0.25))
+            .percentile75(stats.percentile(0.75))
+            .trendSlope(slope * TREND_PERIOD_DAYS)
+            .trend(trendOf(slope))
+            .recentGrades(toGradeViews(recentGrades(scores, stats.recentPositions())))
+            .build();
+    }
+    
+    // Aggregate-backed statistics: no spread, as aggregates keep no individual scores
+    private GradeStatistics buildGradeStatistics(GradeAggregate aggregate, List<GradeResponse> recent, double slope,
+                                                 Long studentId, Long classId, Long courseId) {
+        if (aggregate == null || aggregate.getGradeCount() == 0) {
+            return emptyStatistics(studentId, classId, courseId);
+        }
+
+        double average = aggregate.getScoreSum() / aggregate.getGradeCount();
+        double weightedAverage = aggregate.getWeightTotal() > 0 ? aggregate.getWeightedSum() / aggregate.getWeightTotal() : average;
+
         return GradeStatistics.builder()
             .averageGrade(average)
-            .minimumGrade(min)
-            .maximumGrade(max)
-            .totalGrades((long) grades.size())
-            .excellentCount(excellent)
-            .goodCount(good)
-            .satisfactoryCount(satisfactory)
-            .needsImprovementCount(needsImprovement)
+            .minimumGrade(aggregate.getMinScore() != null ? aggregate.getMinScore().floatValue() : 0.0f)
+            .maximumGrade(aggregate.getMaxScore() != null ? aggregate.getMaxScore().floatValue() : 0.0f)
+            .totalGrades(aggregate.getGradeCount())
+            .excellentCount(aggregate.getExcellentCount())
+            .goodCount(aggregate.getGoodCount())
+            .satisfactoryCount(aggregate.getSatisfactoryCount())
+            .needsImprovementCount(aggregate.getNeedsImprovementCount())
             .studentId(studentId)
             .classId(classId)
             .courseId(courseId)
             .weightedAverage(weightedAverage)
             .letterGrade(calculateLetterGrade(weightedAverage))
             .passStatus(weightedAverage >= 10 ? "PASS" : "FAIL")
-            .trend("STABLE") // TODO: Implement trend calculation
-            .recentGrades(recentGrades)
+            .trendSlope(slope * TREND_PERIOD_DAYS)
+            .trend(trendOf(slope))
+            .recentGrades(recent)
             .build();
     }
+
+    // Least-squares slope in points per day over the grades of [from, to]
+    private double trendSlope(Long studentId, Long classId, Long courseId, Long teacherId,
+                              LocalDateTime from, LocalDateTime to) {
+        return accumulate(gradeRepository.findRangeScores(studentId, classId, courseId, teacherId, from, to), null)
+            .slopePerDay();
+    }
+
+    // Scores graded at or after since (all when null)
+    private GradeStatisticsAccumulator accumulate(List<Object[]> scores, LocalDateTime since) {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(scores.size(), RECENT_GRADES.getPageSize());
+        for (Object[] row : scores) {
+            LocalDateTime gradedAt = toLocalDateTime(row[2]);
+            if (since != null && (gradedAt == null || gradedAt.isBefore(since))) continue;
+            stats.add(((Number) row[0]).floatValue(), row[1] != null ? ((Number) row[1]).floatValue() : null, gradedAt);
+        }
+        return stats;
+    }
+
+    // The grades at the given positions of the score rows, loaded in one query and kept in that order
+    private List<Grade> recentGrades(List<Object[]> scores, int[] positions) {
+        List<Long> ids = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            ids.add(((Number) scores.get(position)[3]).longValue());
+        }
+        Map<Long, Grade> byId = gradeRepository.findWithDetailsByIdIn(ids).stream()
+            .collect(Collectors.toMap(Grade::getId, grade -> grade));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    // Slope is in points per day; compare the change it implies over TREND_PERIOD_DAYS
+    private static String trendOf(double slopePerDay) {
+        double change = slopePerDay * TREND_PERIOD_DAYS;
+        if (change > TREND_THRESHOLD) return "IMPROVING";
+        if (change < -TREND_THRESHOLD) return "DECLINING";
+        return "STABLE";
+    }
     
     private String calculateLetterGrade(double average) {
         if (average >= 18) return "A";
@@ -419,20 +768,19 @@ public class GradeServiceImpl implements GradeService {
         log.debug("Getting grade class view for teacher: {}, class: {}, course: {}", teacherId, classId, courseId);
         
         // Verify teaching assignment exists
-        List<TeachingAssignment> assignments = teachingAssignmentRepository.findByTeacherId(teacherId);
-        TeachingAssignment assignment = assignments.stream()
-                .filter(ta -> ta.getClazz().getId().equals(classId) && ta.getCourse().getId().equals(courseId))
-                .findFirst()
+        TeachingAssignment assignment = teachingAssignmentRepository.findByTeacherIdAndClassIdAndCourseId(teacherId, classId, courseId)
                 .orElseThrow(() -> new IllegalArgumentException("Teaching assignment not found for teacher " + teacherId + ", class " + classId + ", course " + courseId));
         
-        // Get all students enrolled in this class
-        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatus(classId, EnrollmentStatus.ACTIVE);
+        // Get all students enrolled in this class and every grade of the class for this course
+        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatusWithStudent(classId, EnrollmentStatus.ACTIVE);
+        Map<Long, List<EnhancedGrade>> gradesByStudent = groupByStudent(
+                enhancedGradeRepository.findByClassIdAndCourseId(classId, courseId), enrollments.size());
         
-        List<TeacherGradeClassView.TeacherGradeStudent> students = new ArrayList<>();
+        List<TeacherGradeClassView.TeacherGradeStudent> students = new ArrayList<>(enrollments.size());
         
         for (Enrollment enrollment : enrollments) {
-            // Get existing grades for this student in this course
-            List<EnhancedGrade> existingGrades = enhancedGradeRepository.findByStudentIdAndCourseId(enrollment.getStudent().getId(), courseId);
+            // Existing grades for this student in this course
+            List<EnhancedGrade> existingGrades = gradesByStudent.getOrDefault(enrollment.getStudent().getId(), Collections.emptyList());
             
             // Calculate attendance rate (simplified - you might want to integrate with actual attendance system)
             Double attendanceRate = calculateStudentAttendanceRate(enrollment.getStudent().getId());
@@ -534,6 +882,7 @@ public class GradeServiceImpl implements GradeService {
             responses.add(mapToEnhancedGradeResponse(savedGrade));
         }
         
+        eventPublisher.publishEvent(new EnhancedGradesChangedEvent(request.getClassId(), request.getSemester()));
         log.info("Created/updated {} enhanced grades", responses.size());
         return responses;
     }
@@ -589,6 +938,7 @@ public class GradeServiceImpl implements GradeService {
         }
         
         EnhancedGrade savedGrade = enhancedGradeRepository.save(grade);
+        eventPublisher.publishEvent(new EnhancedGradesChangedEvent(request.getClassId(), request.getSemester()));
         log.info("Created enhanced grade with ID: {}", savedGrade.getId());
         
         return mapToEnhancedGradeResponse(savedGrade);
@@ -599,13 +949,16 @@ public class GradeServiceImpl implements GradeService {
     public List<StaffGradeReview> getStaffGradeReviews(Long classId, CreateEnhancedGradeRequest.Semester semester) {
         log.debug("Getting staff grade reviews for class: {}, semester: {}", classId, semester);
         
-        // Get all students in the class
-        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatus(classId, EnrollmentStatus.ACTIVE);
-        List<StaffGradeReview> reviews = new ArrayList<>();
+        // Get all students in the class and every grade of the class for this semester
+        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatusWithStudent(classId, EnrollmentStatus.ACTIVE);
+        Map<Long, List<EnhancedGrade>> gradesByStudent = groupByStudent(
+                enhancedGradeRepository.findByClassIdAndSemester(classId, semester), enrollments.size());
+        ClassRanking ranking = classRankingService.getClassRanking(classId, semester);
+        List<StaffGradeReview> reviews = new ArrayList<>(enrollments.size());
         
         for (Enrollment enrollment : enrollments) {
-            // Get all grades for this student in this semester
-            List<EnhancedGrade> studentGrades = enhancedGradeRepository.findByStudentIdAndSemester(enrollment.getStudent().getId(), semester);
+            // All grades for this student in this semester
+            List<EnhancedGrade> studentGrades = gradesByStudent.getOrDefault(enrollment.getStudent().getId(), Collections.emptyList());
             
             // Group grades by course
             Map<Long, List<EnhancedGrade>> gradesByCourse = studentGrades.stream()
@@ -654,8 +1007,7 @@ public class GradeServiceImpl implements GradeService {
             // Calculate overall average
             double overallAverage = totalCoefficients > 0 ? totalWeightedScore / totalCoefficients : 0.0;
             
-            // Calculate class rank (simplified - you might want a more sophisticated ranking)
-            Integer classRank = calculateClassRank(enrollment.getStudent().getId(), classId, semester);
+            Integer classRank = ranking.rankOf(enrollment.getStudent().getId());
             
             // Calculate attendance rate
             Double attendanceRate = calculateStudentAttendanceRate(enrollment.getStudent().getId());
@@ -687,22 +1039,39 @@ public class GradeServiceImpl implements GradeService {
     
     @Override
     @Transactional
-    public void approveGrades(ApproveGradesRequest request) {
-        log.debug("Approving grades for {} students in semester {}", request.getStudentIds().size(), request.getSemester());
-        
-        for (Long studentId : request.getStudentIds()) {
-            List<EnhancedGrade> studentGrades = enhancedGradeRepository.findByStudentIdAndSemester(studentId, request.getSemester());
-            
-            for (EnhancedGrade grade : studentGrades) {
-                grade.setIsApproved(true);
-                grade.setApprovedAt(LocalDateTime.now());
-                grade.setApprovedBy(request.getApprovedBy());
+    public GradeApprovalResult approveGrades(ApproveGradesRequest request) {
+        List<Long> studentIds = request.getStudentIds() != null ? request.getStudentIds() : Collections.emptyList();
+        log.debug("Approving grades for class {} / {} students in semester {}", request.getClassId(), studentIds.size(), request.getSemester());
+        
+        // Truncated to the column precision so the audit insert can find exactly the rows stamped here
+        LocalDateTime approvedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int approved = 0;
+        if (studentIds.isEmpty()) {
+            approved = enhancedGradeRepository.approveByClassIdAndSemester(
+                    request.getClassId(), request.getSemester(), request.getApprovedBy(), approvedAt);
+        } else {
+            for (int from = 0; from < studentIds.size(); from += APPROVAL_CHUNK_SIZE) {
+                List<Long> chunk = studentIds.subList(from, Math.min(from + APPROVAL_CHUNK_SIZE, studentIds.size()));
+                approved += enhancedGradeRepository.approveByStudentIdsAndSemester(
+                        chunk, request.getClassId(), request.getSemester(), request.getApprovedBy(), approvedAt);
             }
-            
-            enhancedGradeRepository.saveAll(studentGrades);
         }
         
-        log.info("Approved grades for {} students", request.getStudentIds().size());
+        if (approved > 0) {
+            auditService.createGradeApprovalAuditEvents(request.getSemester(), request.getApprovedBy(), approvedAt, getCurrentActor());
+            // Without a class scope the students may span several classes
+            eventPublisher.publishEvent(new EnhancedGradesChangedEvent(request.getClassId(), request.getSemester()));
+        }
+        
+        log.info("Approved {} grades (class {}, {} students, semester {})", approved, request.getClassId(), studentIds.size(), request.getSemester());
+        return GradeApprovalResult.builder()
+                .classId(request.getClassId())
+                .semester(request.getSemester())
+                .requestedStudents(studentIds.size())
+                .approvedGrades(approved)
+                .approvedBy(request.getApprovedBy())
+                .approvedAt(approvedAt)
+                .build();
     }
     
     @Override
@@ -724,6 +1093,34 @@ public class GradeServiceImpl implements GradeService {
         
         // Get all grades for this student in this semester
         List<EnhancedGrade> studentGrades = enhancedGradeRepository.findByStudentIdAndSemester(studentId, semester);
+        ClassRanking ranking = classRankingService.getClassRanking(enrollment.getClassEntity().getId(), semester);
+        
+        return buildStudentGradeSheet(student, enrollment, studentGrades, ranking, semester);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGradeSheet> getClassGradeSheets(Long classId, CreateEnhancedGradeRequest.Semester semester) {
+        log.debug("Generating grade sheets for class: {}, semester: {}", classId, semester);
+        
+        // One query each for the roster, the class grades and the (cached) ranking
+        List<Enrollment> enrollments = enrollmentRepository.findByClassIdAndStatusWithStudent(classId, EnrollmentStatus.ACTIVE);
+        Map<Long, List<EnhancedGrade>> gradesByStudent = groupByStudent(
+                enhancedGradeRepository.findByClassIdAndSemester(classId, semester), enrollments.size());
+        ClassRanking ranking = classRankingService.getClassRanking(classId, semester);
+        
+        List<StudentGradeSheet> sheets = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            Student student = enrollment.getStudent();
+            sheets.add(buildStudentGradeSheet(student, enrollment,
+                    gradesByStudent.getOrDefault(student.getId(), Collections.emptyList()), ranking, semester));
+        }
+        return sheets;
+    }
+    
+    private StudentGradeSheet buildStudentGradeSheet(Student student, Enrollment enrollment, List<EnhancedGrade> studentGrades,
+                                                     ClassRanking ranking, CreateEnhancedGradeRequest.Semester semester) {
+        Long studentId = student.getId();
         
         // Group grades by course
         Map<Long, List<EnhancedGrade>> gradesByCourse = studentGrades.stream()
@@ -782,9 +1179,9 @@ public class GradeServiceImpl implements GradeService {
         // Calculate weighted average
         double weightedAverage = totalCoefficients > 0 ? totalWeightedScore / totalCoefficients : 0.0;
         
-        // Calculate class rank and total students
-        Integer classRank = calculateClassRank(studentId, enrollment.getClassEntity().getId(), semester);
-        Long totalStudents = enhancedGradeRepository.countDistinctStudentsByClassIdAndSemester(enrollment.getClassEntity().getId(), semester);
+        // Class rank and total students from the precomputed ranking
+        Integer classRank = ranking.rankOf(studentId);
+        int totalStudents = ranking.getTotalStudents();
         
         // Calculate attendance
         Double attendanceRate = calculateStudentAttendanceRate(studentId);
@@ -818,7 +1215,7 @@ public class GradeServiceImpl implements GradeService {
                 .totalMaxScore(totalMaxScore)
                 .weightedAverage(weightedAverage)
                 .classRank(classRank)
-                .totalStudents(totalStudents.intValue())
+                .totalStudents(totalStudents)
                 .attendanceRate(attendanceRate)
                 .totalAbsences(totalAbsences)
                 .generatedAt(LocalDateTime.now().toString())
@@ -840,8 +1237,224 @@ public class GradeServiceImpl implements GradeService {
         return pdfContent.getBytes();
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getLevelClassIds(Integer yearOfStudy) {
+        List<Long> classIds = classRepository.findByYearOfStudyOrderByNameAsc(yearOfStudy).stream()
+                .map(ClassEntity::getId)
+                .collect(Collectors.toList());
+        if (classIds.isEmpty()) {
+            throw new ResourceNotFoundException("No classes found for year of study: " + yearOfStudy);
+        }
+        return classIds;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportClassGradeSheets(List<Long> classIds, CreateEnhancedGradeRequest.Semester semester, OutputStream out) throws IOException {
+        Map<Long, ClassEntity> classes = classRepository.findAllById(classIds).stream()
+                .collect(Collectors.toMap(ClassEntity::getId, clazz -> clazz));
+        for (Long classId : classIds) {
+            if (!classes.containsKey(classId)) {
+                throw new ResourceNotFoundException("Class not found: " + classId);
+            }
+        }
+        
+        long started = System.nanoTime();
+        int students = 0;
+        // Only EXPORT_ROW_WINDOW rows per sheet stay in memory; older rows go to compressed temp files
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            ExportStyles styles = createExportStyles(workbook);
+            for (Long classId : classIds) {
+                students += writeClassGradeSheet(workbook, styles, classes.get(classId), semester);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+        
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Exported grade sheets for {} class(es), {} students, semester {} in {} ms ({} ms per 1,000 students)",
+                classIds.size(), students, semester, elapsedMs, students > 0 ? elapsedMs * 1000 / students : 0);
+    }
+    
+    private record ExportStyles(CellStyle header, CellStyle number, CellStyle total, CellStyle totalNumber) {}
+    
+    private ExportStyles createExportStyles(Workbook workbook) {
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        short decimal = workbook.createDataFormat().getFormat("0.00");
+        
+        CellStyle header = workbook.createCellStyle();
+        header.setFont(bold);
+        header.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        
+        CellStyle number = workbook.createCellStyle();
+        number.setDataFormat(decimal);
+        
+        CellStyle total = workbook.createCellStyle();
+        total.setFont(bold);
+        
+        CellStyle totalNumber = workbook.createCellStyle();
+        totalNumber.setFont(bold);
+        totalNumber.setDataFormat(decimal);
+        return new ExportStyles(header, number, total, totalNumber);
+    }
+    
+    /**
+     * Writes one class worksheet and returns the number of students on it. Grades are read
+     * through a cursor ordered by student, so only the current student's grades are held.
+     */
+    private int writeClassGradeSheet(SXSSFWorkbook workbook, ExportStyles styles, ClassEntity clazz,
+                                     CreateEnhancedGradeRequest.Semester semester) {
+        Sheet sheet = workbook.createSheet(exportSheetName(clazz));
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(EXPORT_HEADERS[i]);
+            cell.setCellStyle(styles.header());
+            sheet.setColumnWidth(i, (i == 4 || i == 14 ? 30 : 14) * 256);
+        }
+        sheet.createFreezePane(0, 1);
+        
+        ClassRanking ranking = classRankingService.getClassRanking(clazz.getId(), semester);
+        // The roster is small; students left in it after the cursor is drained have no grades
+        Map<Long, Student> ungraded = new LinkedHashMap<>();
+        for (Enrollment enrollment : enrollmentRepository.findByClassIdAndStatusWithStudent(clazz.getId(), EnrollmentStatus.ACTIVE)) {
+            ungraded.put(enrollment.getStudent().getId(), enrollment.getStudent());
+        }
+        
+        int rowIndex = 1;
+        int students = 0;
+        List<EnhancedGrade> studentGrades = new ArrayList<>();
+        try (Stream<EnhancedGrade> grades = enhancedGradeRepository.streamByClassIdAndSemester(clazz.getId(), semester)) {
+            Iterator<EnhancedGrade> iterator = grades.iterator();
+            while (iterator.hasNext()) {
+                EnhancedGrade grade = iterator.next();
+                entityManager.detach(grade);
+                if (!studentGrades.isEmpty() && !studentGrades.get(0).getStudentId().equals(grade.getStudentId())) {
+                    rowIndex = writeStudentGradeRows(sheet, styles, studentGrades, ranking, rowIndex);
+                    ungraded.remove(studentGrades.get(0).getStudentId());
+                    studentGrades.clear();
+                    students++;
+                }
+                studentGrades.add(grade);
+            }
+        }
+        if (!studentGrades.isEmpty()) {
+            rowIndex = writeStudentGradeRows(sheet, styles, studentGrades, ranking, rowIndex);
+            ungraded.remove(studentGrades.get(0).getStudentId());
+            students++;
+        }
+        
+        for (Student student : ungraded.values()) {
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(student.getId());
+            setExportText(row, 1, student.getLastName(), null);
+            setExportText(row, 2, student.getFirstName(), null);
+            setExportText(row, 4, "No grades", null);
+        }
+        return students + ungraded.size();
+    }
+    
+    // One row per course followed by a total row, computed like buildStudentGradeSheet
+    private int writeStudentGradeRows(Sheet sheet, ExportStyles styles, List<EnhancedGrade> studentGrades,
+                                      ClassRanking ranking, int rowIndex) {
+        EnhancedGrade first = studentGrades.get(0);
+        Map<Long, List<EnhancedGrade>> gradesByCourse = studentGrades.stream()
+                .collect(Collectors.groupingBy(EnhancedGrade::getCourseId, LinkedHashMap::new, Collectors.toList()));
+        
+        double totalWeightedScore = 0.0;
+        double totalCoefficients = 0.0;
+        for (List<EnhancedGrade> courseGrades : gradesByCourse.values()) {
+            EnhancedGrade course = courseGrades.get(0);
+            double courseAverage = calculateCourseAverage(courseGrades);
+            totalWeightedScore += courseAverage * course.getCourseCoefficient();
+            totalCoefficients += course.getCourseCoefficient();
+            
+            Row row = sheet.createRow(rowIndex++);
+            writeStudentCells(row, first, null);
+            setExportText(row, 3, course.getCourseCode(), null);
+            setExportText(row, 4, course.getCourseName(), null);
+            setExportNumber(row, 5, course.getCourseCoefficient(), styles.number());
+            setExportNumber(row, 6, getGradeByExamType(courseGrades, CreateEnhancedGradeRequest.ExamType.FIRST_EXAM), styles.number());
+            setExportNumber(row, 7, getGradeByExamType(courseGrades, CreateEnhancedGradeRequest.ExamType.SECOND_EXAM), styles.number());
+            setExportNumber(row, 8, getGradeByExamType(courseGrades, CreateEnhancedGradeRequest.ExamType.FINAL_EXAM), styles.number());
+            setExportNumber(row, 9, averageOf(getGradesByExamType(courseGrades, CreateEnhancedGradeRequest.ExamType.QUIZ)), styles.number());
+            setExportNumber(row, 10, averageOf(getGradesByExamType(courseGrades, CreateEnhancedGradeRequest.ExamType.ASSIGNMENT)), styles.number());
+            setExportNumber(row, 11, courseAverage, styles.number());
+            setExportText(row, 12, calculateLetterGrade(courseAverage), null);
+            setExportText(row, 13, joinName(course.getTeacherFirstName(), course.getTeacherLastName()), null);
+            setExportText(row, 14, getLatestTeacherRemarks(courseGrades), null);
+        }
+        
+        double weightedAverage = totalCoefficients > 0 ? totalWeightedScore / totalCoefficients : 0.0;
+        Integer rank = ranking.rankOf(first.getStudentId());
+        Row total = sheet.createRow(rowIndex++);
+        writeStudentCells(total, first, styles.total());
+        setExportText(total, 4, "Weighted average", styles.total());
+        setExportNumber(total, 5, totalCoefficients, styles.totalNumber());
+        setExportNumber(total, 11, weightedAverage, styles.totalNumber());
+        setExportText(total, 12, calculateLetterGrade(weightedAverage), styles.total());
+        setExportText(total, 15, rank != null ? rank + "/" + ranking.getTotalStudents() : null, styles.total());
+        return rowIndex;
+    }
+    
+    private void writeStudentCells(Row row, EnhancedGrade grade, CellStyle style) {
+        Cell id = row.createCell(0);
+        id.setCellValue(grade.getStudentId());
+        if (style != null) id.setCellStyle(style);
+        setExportText(row, 1, grade.getStudentLastName(), style);
+        setExportText(row, 2, grade.getStudentFirstName(), style);
+    }
+    
+    private static void setExportText(Row row, int column, String value, CellStyle style) {
+        if (value == null) return;
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) cell.setCellStyle(style);
+    }
+    
+    private static void setExportNumber(Row row, int column, Double value, CellStyle style) {
+        if (value == null) return;
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+    
+    private static Double averageOf(List<Double> values) {
+        return values.isEmpty() ? null : values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+    }
+    
+    private static String joinName(String firstName, String lastName) {
+        if (firstName == null) return lastName;
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+    
+    // Sheet names are capped at 31 characters; the class id keeps truncated names unique
+    private static String exportSheetName(ClassEntity clazz) {
+        String suffix = " #" + clazz.getId();
+        String name = clazz.getName() != null ? clazz.getName() : "Class";
+        if (name.length() > MAX_SHEET_NAME_LENGTH - suffix.length()) {
+            name = name.substring(0, MAX_SHEET_NAME_LENGTH - suffix.length());
+        }
+        return WorkbookUtil.createSafeSheetName(name + suffix);
+    }
+    
     // ===== HELPER METHODS =====
     
+    private Map<Long, List<EnhancedGrade>> groupByStudent(List<EnhancedGrade> grades, int expectedStudents) {
+        Map<Long, List<EnhancedGrade>> byStudent = new HashMap<>(Math.max(16, expectedStudents * 2));
+        for (EnhancedGrade grade : grades) {
+            byStudent.computeIfAbsent(grade.getStudentId(), id -> new ArrayList<>()).add(grade);
+        }
+        return byStudent;
+    }
+    
     private TeacherGradeClassView.TeacherGradeStudent.CurrentGrades buildCurrentGrades(List<EnhancedGrade> grades) {
         TeacherGradeClassView.TeacherGradeStudent.CurrentGrades.CurrentGradesBuilder builder = 
                 TeacherGradeClassView.TeacherGradeStudent.CurrentGrades.builder();
@@ -917,6 +1530,7 @@ public class GradeServiceImpl implements GradeService {
         return totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
     }
     
+    // Mirrored in EnhancedGradeRepository.findClassRanking; change both together
     private double getExamTypeWeight(CreateEnhancedGradeRequest.ExamType examType) {
         switch (examType) {
             case FINAL_EXAM: return 0.4; // 40%
@@ -1013,12 +1627,6 @@ public class GradeServiceImpl implements GradeService {
                 .orElse(null);
     }
     
-    private Integer calculateClassRank(Long studentId, Long classId, CreateEnhancedGradeRequest.Semester semester) {
-        // This is a simplified implementation
-        // In a real system, you would calculate the actual rank based on weighted averages
-        return (int) (Math.random() * 30) + 1; // Random rank between 1-30
-    }
-    
     private String getApprovalDate(List<EnhancedGrade> grades) {
         return grades.stream()
                 .filter(g -> g.getApprovedAt() != null)
@@ -0,0 +1,225 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.feature.auth.entity.UserRole;
+import com.example.school_management.feature.operational.dto.SystemCounterDriftReport;
+import com.example.school_management.feature.operational.entity.SystemCounters;
+import com.example.school_management.feature.operational.entity.enums.SystemCounter;
+import com.example.school_management.feature.operational.event.SystemCountersChangedEvent;
+import com.example.school_management.feature.operational.repository.SystemCounterRepository;
+import com.example.school_management.feature.operational.service.SystemCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * School-wide totals: the single {@code system_counters} row plus the pending rows of
+ * {@code system_counter_deltas}. Write paths append a delta inside their own transaction, so they
+ * never wait on one another; once that commits, this instance reloads its local copy and announces
+ * the change on the {@value #CHANNEL} Redis channel. Every other instance then reloads its own
+ * copy and republishes the event locally with {@code remote} set. Reads never touch the tables:
+ * they get the local copy, reloaded when older than the maximum age in case a message was lost.
+ * Deltas are folded into the row every minute. The row is reconciled with the tables on startup
+ * (data loaders bypass the services) and periodically, on one instance at a time.
+ */
+@Slf4j
+@Service
+public class SystemCounterServiceImpl implements SystemCounterService {
+
+    public static final String CHANNEL = "system-counters";
+    // pg advisory lock key for the scheduled verify, shared by every instance
+    private static final long VERIFY_LOCK_KEY = 0x737973636f756e74L; // "syscount"
+
+    private final SystemCounterRepository systemCounterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    // Tells this instance's own announcements apart from those of other instances
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile SystemCounters local;
+    private volatile long loadedAtMillis;
+
+    @Value("${app.dashboard.counters.local-max-age-seconds:60}")
+    private long localMaxAgeSeconds;
+
+    public SystemCounterServiceImpl(SystemCounterRepository systemCounterRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    RedisTemplate<String, Object> redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    PlatformTransactionManager transactionManager) {
+        this.systemCounterRepository = systemCounterRepository;
+        this.eventPublisher = eventPublisher;
+        this.redisTemplate = redisTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    @Transactional
+    public void add(SystemCounter counter, long delta) {
+        if (delta == 0) return;
+        long[] deltas = new long[SystemCounter.values().length];
+        deltas[counter.ordinal()] = delta;
+        systemCounterRepository.add(deltas[SystemCounter.STUDENTS.ordinal()], deltas[SystemCounter.TEACHERS.ordinal()],
+                deltas[SystemCounter.PARENTS.ordinal()], deltas[SystemCounter.CLASSES.ordinal()],
+                deltas[SystemCounter.COURSES.ordinal()], deltas[SystemCounter.ENROLLMENTS.ordinal()]);
+        eventPublisher.publishEvent(new SystemCountersChangedEvent(counter, false));
+    }
+
+    @Override
+    @Transactional
+    public void addUsers(UserRole role, long delta) {
+        SystemCounter counter = SystemCounter.forRole(role);
+        if (counter != null) {
+            add(counter, delta);
+        }
+    }
+
+    @Override
+    public SystemCounters getCounters() {
+        SystemCounters counters = local;
+        if (counters == null || System.currentTimeMillis() - loadedAtMillis > TimeUnit.SECONDS.toMillis(localMaxAgeSeconds)) {
+            counters = reload();
+        }
+        return counters;
+    }
+
+    @Override
+    @Transactional
+    public SystemCounterDriftReport verify(boolean repair) {
+        SystemCounterDriftReport report = SystemCounterDriftReport.builder()
+                .checkedAt(LocalDateTime.now())
+                .build();
+
+        Object[] actual = systemCounterRepository.countActual().get(0);
+        SystemCounters stored = loadTotals();
+        for (SystemCounter counter : SystemCounter.values()) {
+            long actualCount = ((Number) actual[counter.ordinal()]).longValue();
+            long storedCount = stored != null ? stored.get(counter) : 0;
+            if (stored == null || storedCount != actualCount) {
+                report.getEntries().add(new SystemCounterDriftReport.DriftEntry(counter, storedCount, actualCount));
+            }
+        }
+
+        // A write committing during the repair can leave a difference of its own; the next run fixes it
+        if (repair && !report.getEntries().isEmpty()) {
+            systemCounterRepository.recompute();
+            report.setRepaired(true);
+            eventPublisher.publishEvent(new SystemCountersChangedEvent(null, false));
+        }
+
+        if (report.getEntries().isEmpty()) {
+            log.debug("System counters verified: no drift");
+        } else {
+            log.warn("System counter drift on {} counters (repaired: {}): {}",
+                    report.getEntries().size(), report.isRepaired(), report.getEntries());
+        }
+        return report;
+    }
+
+    @Scheduled(cron = "${app.dashboard.counters.verify-cron:0 20 * * * *}")
+    @Transactional
+    public void scheduledVerify() {
+        if (!systemCounterRepository.tryAdvisoryXactLock(VERIFY_LOCK_KEY)) {
+            log.debug("System counter verify already running on another instance, skipping");
+            return;
+        }
+        verify(true);
+    }
+
+    // Keeps the delta table short; the totals do not change, so nothing is announced
+    @Scheduled(fixedDelayString = "${app.dashboard.counters.fold-delay-ms:60000}")
+    public void scheduledFold() {
+        try {
+            transaction.executeWithoutResult(status -> systemCounterRepository.foldDeltas());
+        } catch (RuntimeException e) {
+            log.warn("Could not fold system counter deltas: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        try {
+            transaction.executeWithoutResult(status -> verify(true));
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile system counters on startup: {}", e.getMessage());
+        }
+    }
+
+    // Reload only once the new values are visible, then tell the other instances. Runs before the
+    // other listeners, so whatever they rebuild already sees the new values
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSystemCountersChanged(SystemCountersChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        reload();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, instanceId);
+        } catch (RuntimeException e) {
+            log.warn("Could not announce system counter change, other instances catch up within {} s: {}",
+                    localMaxAgeSeconds, e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        Object sender = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!instanceId.equals(sender)) {
+            reload();
+            eventPublisher.publishEvent(new SystemCountersChangedEvent(null, true));
+        }
+    }
+
+    private SystemCounters reload() {
+        SystemCounters counters = readOnlyTransaction.execute(status -> loadTotals());
+        if (counters == null) {
+            // No row until the first reconciliation
+            counters = new SystemCounters();
+            counters.setId(SystemCounterRepository.ROW_ID);
+        }
+        local = counters;
+        loadedAtMillis = System.currentTimeMillis();
+        return counters;
+    }
+
+    // The row with the pending deltas added, detached; null while the row does not exist
+    private SystemCounters loadTotals() {
+        Object[] row = systemCounterRepository.findTotals().get(0);
+        if (row[0] == null) {
+            return null;
+        }
+        SystemCounters counters = new SystemCounters();
+        counters.setId(((Number) row[0]).shortValue());
+        counters.setStudents(((Number) row[1]).longValue());
+        counters.setTeachers(((Number) row[2]).longValue());
+        counters.setParents(((Number) row[3]).longValue());
+        counters.setClasses(((Number) row[4]).longValue());
+        counters.setCourses(((Number) row[5]).longValue());
+        counters.setEnrollments(((Number) row[6]).longValue());
+        counters.setUpdatedAt(row[7] instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[7]);
+        return counters;
+    }
+}
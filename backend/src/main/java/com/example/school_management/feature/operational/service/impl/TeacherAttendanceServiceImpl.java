@@ -4,25 +4,44 @@ import com.example.school_management.feature.operational.dto.TeacherAttendanceRe
 import com.example.school_management.feature.operational.dto.TeacherAttendanceResponse;
 import com.example.school_management.feature.operational.dto.TeacherAttendanceStatistics;
 import com.example.school_management.feature.operational.entity.TeacherAttendance;
+import com.example.school_management.feature.operational.event.TeacherAttendanceChangedEvent;
 import com.example.school_management.feature.operational.repository.TeacherAttendanceRepository;
 import com.example.school_management.feature.operational.service.TeacherAttendanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
+/**
+ * Teacher attendance records and statistics. Statistics take one conditional-aggregation
+ * query for the status counts (one per teacher, or one for all teachers) plus one for the
+ * monthly breakdown, and are cached in Redis per teacher and period until the next write
+ * commits.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
     
+    public static final String CACHE_NAME = "teacherAttendanceStats";
+    
     private final TeacherAttendanceRepository teacherAttendanceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
     
     @Override
     public TeacherAttendanceResponse createTeacherAttendance(TeacherAttendanceRequest request) {
@@ -53,6 +72,7 @@ public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
         
         TeacherAttendance savedAttendance = teacherAttendanceRepository.save(attendance);
         log.debug("Teacher attendance record created with ID: {}", savedAttendance.getId());
+        eventPublisher.publishEvent(new TeacherAttendanceChangedEvent(savedAttendance.getTeacherId(), savedAttendance.getDate()));
         
         return mapToResponse(savedAttendance);
     }
@@ -92,67 +112,33 @@ public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
     
     @Override
     @Transactional(readOnly = true)
-    public TeacherAttendanceStatistics getTeacherAttendanceStatistics(Long teacherId) {
-        log.debug("Getting teacher attendance statistics for teacher: {}", teacherId);
-        
-        // Calculate overall statistics
-        Long totalDays = teacherAttendanceRepository.countByTeacherIdAndDateBetween(
-                teacherId, LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Long presentDays = teacherAttendanceRepository.countByTeacherIdAndStatusAndDateBetween(
-                teacherId, TeacherAttendanceRequest.TeacherAttendanceStatus.PRESENT, 
-                LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Long absentDays = teacherAttendanceRepository.countByTeacherIdAndStatusAndDateBetween(
-                teacherId, TeacherAttendanceRequest.TeacherAttendanceStatus.ABSENT, 
-                LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Long lateDays = teacherAttendanceRepository.countByTeacherIdAndStatusAndDateBetween(
-                teacherId, TeacherAttendanceRequest.TeacherAttendanceStatus.LATE, 
-                LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Long sickLeaveDays = teacherAttendanceRepository.countByTeacherIdAndStatusAndDateBetween(
-                teacherId, TeacherAttendanceRequest.TeacherAttendanceStatus.SICK_LEAVE, 
-                LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Long personalLeaveDays = teacherAttendanceRepository.countByTeacherIdAndStatusAndDateBetween(
-                teacherId, TeacherAttendanceRequest.TeacherAttendanceStatus.PERSONAL_LEAVE, 
-                LocalDate.now().minusMonths(12), LocalDate.now());
-        
-        Double attendanceRate = totalDays > 0 ? (presentDays.doubleValue() / totalDays.doubleValue()) * 100 : 0.0;
-        
-        // Get monthly breakdown
-        List<Object[]> monthlyData = teacherAttendanceRepository.getMonthlyStatistics(teacherId);
-        List<TeacherAttendanceStatistics.MonthlyBreakdown> monthlyBreakdown = monthlyData.stream()
-                .map(data -> {
-                    Integer month = ((Number) data[0]).intValue();
-                    Integer year = ((Number) data[1]).intValue();
-                    Long present = ((Number) data[2]).longValue();
-                    Long absent = ((Number) data[3]).longValue();
-                    Long total = present + absent;
-                    Double rate = total > 0 ? (present.doubleValue() / total.doubleValue()) * 100 : 0.0;
-                    
-                    return TeacherAttendanceStatistics.MonthlyBreakdown.builder()
-                            .month(DateTimeFormatter.ofPattern("MMMM yyyy").format(LocalDate.of(year, month, 1)))
-                            .present(present.intValue())
-                            .absent(absent.intValue())
-                            .rate(rate)
-                            .build();
-                })
-                .collect(Collectors.toList());
-        
-        return TeacherAttendanceStatistics.builder()
-                .teacherId(teacherId)
-                .teacherName("Teacher " + teacherId) // This should be fetched from Teacher entity
-                .totalDays(totalDays.intValue())
-                .presentDays(presentDays.intValue())
-                .absentDays(absentDays.intValue())
-                .lateDays(lateDays.intValue())
-                .sickLeaveDays(sickLeaveDays.intValue())
-                .personalLeaveDays(personalLeaveDays.intValue())
-                .attendanceRate(attendanceRate)
-                .monthlyBreakdown(monthlyBreakdown)
-                .build();
+    public TeacherAttendanceStatistics getTeacherAttendanceStatistics(Long teacherId, LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusMonths(12);
+        validatePeriod(start, end);
+        return cached(teacherId + "_" + start + "_" + end, () -> {
+            log.debug("Computing teacher attendance statistics for teacher {} between {} and {}", teacherId, start, end);
+            List<Object[]> rows = teacherAttendanceRepository.countStatusesByTeacher(teacherId, start, end);
+            TeacherAttendanceStatistics statistics = rows.isEmpty()
+                    ? toStatistics(new Object[]{teacherId, null, null, 0L, 0L, 0L, 0L, 0L, 0L})
+                    : toStatistics(rows.get(0));
+            statistics.setMonthlyBreakdown(monthlyBreakdown(teacherId, start, end));
+            return statistics;
+        });
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeacherAttendanceStatistics> getAllTeacherAttendanceStatistics(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusMonths(12);
+        validatePeriod(start, end);
+        return cached("all_" + start + "_" + end, () -> {
+            log.debug("Computing attendance statistics for all teachers between {} and {}", start, end);
+            return teacherAttendanceRepository.countStatusesForAllTeachers(start, end).stream()
+                    .map(this::toStatistics)
+                    .collect(Collectors.toList());
+        });
     }
     
     @Override
@@ -170,6 +156,7 @@ public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
         
         TeacherAttendance updatedAttendance = teacherAttendanceRepository.save(attendance);
         log.debug("Teacher attendance record updated with ID: {}", updatedAttendance.getId());
+        eventPublisher.publishEvent(new TeacherAttendanceChangedEvent(updatedAttendance.getTeacherId(), updatedAttendance.getDate()));
         
         return mapToResponse(updatedAttendance);
     }
@@ -178,11 +165,11 @@ public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
     public void deleteTeacherAttendance(Long attendanceId) {
         log.debug("Deleting teacher attendance record with ID: {}", attendanceId);
         
-        if (!teacherAttendanceRepository.existsById(attendanceId)) {
-            throw new IllegalArgumentException("Teacher attendance record not found with ID: " + attendanceId);
-        }
+        TeacherAttendance attendance = teacherAttendanceRepository.findById(attendanceId)
+                .orElseThrow(() -> new IllegalArgumentException("Teacher attendance record not found with ID: " + attendanceId));
         
-        teacherAttendanceRepository.deleteById(attendanceId);
+        teacherAttendanceRepository.delete(attendance);
+        eventPublisher.publishEvent(new TeacherAttendanceChangedEvent(attendance.getTeacherId(), attendance.getDate()));
         log.debug("Teacher attendance record deleted with ID: {}", attendanceId);
     }
     
@@ -192,6 +179,81 @@ public class TeacherAttendanceServiceImpl implements TeacherAttendanceService {
         return teacherAttendanceRepository.findByTeacherIdAndDate(teacherId, date).isPresent();
     }
     
+    // Periods are part of the key, so a write clears the whole cache rather than guessing which
+    // periods contain its date. Teacher attendance is written a few times a day at most
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onTeacherAttendanceChanged(TeacherAttendanceChangedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+        log.debug("Cleared teacher attendance statistics after change for teacher {} on {}", event.teacherId(), event.date());
+    }
+    
+    private <T> T cached(String key, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            try {
+                return loader.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return cache.get(key, loader);
+    }
+    
+    private void validatePeriod(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+    
+    // Row layout of TeacherAttendanceRepository.STATUS_COUNTS
+    private TeacherAttendanceStatistics toStatistics(Object[] row) {
+        Long teacherId = ((Number) row[0]).longValue();
+        String firstName = (String) row[1];
+        String lastName = (String) row[2];
+        long totalDays = ((Number) row[3]).longValue();
+        long presentDays = ((Number) row[4]).longValue();
+        Double attendanceRate = totalDays > 0 ? ((double) presentDays / totalDays) * 100 : 0.0;
+        
+        return TeacherAttendanceStatistics.builder()
+                .teacherId(teacherId)
+                .teacherName(firstName != null || lastName != null
+                        ? ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim()
+                        : "Teacher " + teacherId)
+                .totalDays((int) totalDays)
+                .presentDays((int) presentDays)
+                .absentDays(((Number) row[5]).intValue())
+                .lateDays(((Number) row[6]).intValue())
+                .sickLeaveDays(((Number) row[7]).intValue())
+                .personalLeaveDays(((Number) row[8]).intValue())
+                .attendanceRate(attendanceRate)
+                .monthlyBreakdown(new ArrayList<>())
+                .build();
+    }
+    
+    private List<TeacherAttendanceStatistics.MonthlyBreakdown> monthlyBreakdown(Long teacherId, LocalDate start, LocalDate end) {
+        return teacherAttendanceRepository.getMonthlyStatistics(teacherId, start, end).stream()
+                .map(data -> {
+                    Integer month = ((Number) data[0]).intValue();
+                    Integer year = ((Number) data[1]).intValue();
+                    Long present = ((Number) data[2]).longValue();
+                    Long absent = ((Number) data[3]).longValue();
+                    Long total = present + absent;
+                    Double rate = total > 0 ? (present.doubleValue() / total.doubleValue()) * 100 : 0.0;
+                    
+                    return TeacherAttendanceStatistics.MonthlyBreakdown.builder()
+                            .month(DateTimeFormatter.ofPattern("MMMM yyyy").format(LocalDate.of(year, month, 1)))
+                            .present(present.intValue())
+                            .absent(absent.intValue())
+                            .rate(rate)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+    
     private TeacherAttendanceResponse mapToResponse(TeacherAttendance attendance) {
         return TeacherAttendanceResponse.builder()
                 .id(attendance.getId())
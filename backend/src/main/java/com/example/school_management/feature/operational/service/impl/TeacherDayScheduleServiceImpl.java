@@ -0,0 +1,192 @@
+package com.example.school_management.feature.operational.service.impl;
+
+import com.example.school_management.commons.exceptions.ResourceNotFoundException;
+import com.example.school_management.feature.academic.entity.TeachingAssignment;
+import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.operational.domain.ClassRoster;
+import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.entity.Attendance;
+import com.example.school_management.feature.operational.entity.TimetableSlot;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.entity.enums.DayOfWeek;
+import com.example.school_management.feature.operational.entity.enums.UserType;
+import com.example.school_management.feature.operational.event.AttendanceChangedEvent;
+import com.example.school_management.feature.operational.event.ClassRosterChangedEvent;
+import com.example.school_management.feature.operational.mapper.OperationalMapper;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.repository.TimetableSlotRepository;
+import com.example.school_management.feature.operational.service.ClassRosterService;
+import com.example.school_management.feature.operational.service.TeacherDayScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a teacher's day in a fixed number of queries whatever the number of slots: the
+ * teacher, the day's slots (filtered by weekday in SQL, eager associations fetched), the
+ * rosters of their classes (from {@link ClassRosterService}, usually without a query), and the
+ * student attendance of all those slots. Each slot contributes one row per
+ * rostered student, the stored record when there is one and a PRESENT default otherwise, so
+ * the home screen needs no per-slot follow-up calls. A slot whose class has no students and
+ * no records keeps a single placeholder row. Without any slots that day, one virtual row per
+ * assigned class is returned, as before.
+ * <p>
+ * Results are cached in Redis for a minute (see RedisConfig) and evicted once an attendance
+ * write for one of the teacher's slots, or any roster change, commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TeacherDayScheduleServiceImpl implements TeacherDayScheduleService {
+
+    public static final String CACHE_NAME = "teacherDaySchedule";
+
+    private final TeacherRepository teacherRepository;
+    private final TimetableSlotRepository timetableSlotRepository;
+    private final ClassRosterService classRosterService;
+    private final AttendanceRepository attendanceRepository;
+    private final TeachingAssignmentRepository teachingAssignmentRepository;
+    private final OperationalMapper mapper;
+    private final CacheManager cacheManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "#teacherId + '_' + #date")
+    public List<AttendanceDto> getDaySchedule(Long teacherId, LocalDate date) {
+        Teacher teacher = teacherRepository.findById(teacherId)
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+        String teacherName = teacher.getFirstName() + " " + teacher.getLastName();
+
+        List<TimetableSlot> slots = timetableSlotRepository.findTeacherDaySlots(
+                teacherId, DayOfWeek.valueOf(date.getDayOfWeek().name()));
+        if (slots.isEmpty()) {
+            List<AttendanceDto> virtualSlots = virtualSlots(teacherId, teacherName, date);
+            log.debug("No timetable slots for teacher {} on {}, returning {} virtual slots", teacherId, date, virtualSlots.size());
+            return virtualSlots;
+        }
+
+        Set<Long> classIds = slots.stream()
+                .filter(slot -> slot.getForClass() != null)
+                .map(slot -> slot.getForClass().getId())
+                .collect(Collectors.toSet());
+        Map<Long, ClassRoster> rosters = classIds.isEmpty() ? Map.of() : classRosterService.getRosters(classIds);
+
+        Map<Long, Map<Long, Attendance>> attendanceBySlot = new HashMap<>();
+        List<Long> slotIds = slots.stream().map(TimetableSlot::getId).collect(Collectors.toList());
+        for (Attendance attendance : attendanceRepository.findStudentAttendanceBySlotIdsAndDate(slotIds, date)) {
+            attendanceBySlot.computeIfAbsent(attendance.getTimetableSlot().getId(), id -> new LinkedHashMap<>())
+                    .put(attendance.getUser().getId(), attendance);
+        }
+
+        List<AttendanceDto> result = new ArrayList<>();
+        for (TimetableSlot slot : slots) {
+            ClassRoster roster = slot.getForClass() != null ? rosters.get(slot.getForClass().getId()) : null;
+            Map<Long, Attendance> records = new LinkedHashMap<>(attendanceBySlot.getOrDefault(slot.getId(), Map.of()));
+            if ((roster == null || roster.isEmpty()) && records.isEmpty()) {
+                result.add(slotRow(slot, date, teacherId, teacherName));
+                continue;
+            }
+            for (int student : roster != null ? roster.displayOrder() : new int[0]) {
+                Attendance attendance = records.remove(roster.studentId(student));
+                AttendanceDto row = attendance != null
+                        ? recordRow(attendance, slot)
+                        : slotRow(slot, date, teacherId, teacherName);
+                row.setUserId(roster.studentId(student));
+                row.setUserName(roster.fullName(student));
+                row.setUserType(UserType.STUDENT);
+                result.add(row);
+            }
+            // Records of students who have since left the class
+            for (Attendance attendance : records.values()) {
+                AttendanceDto row = recordRow(attendance, slot);
+                row.setUserName(attendance.getUser().getFirstName() + " " + attendance.getUser().getLastName());
+                result.add(row);
+            }
+        }
+        log.debug("Loaded day schedule for teacher {} on {}: {} slots, {} rows", teacherId, date, slots.size(), result.size());
+        return result;
+    }
+
+    @Override
+    public void evict(Long teacherId, LocalDate date) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(teacherId + "_" + date);
+        }
+    }
+
+    // Evict only once the attendance change is visible to other transactions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        for (Long teacherId : event.teacherIds()) {
+            for (LocalDate date : event.dates()) {
+                evict(teacherId, date);
+            }
+        }
+    }
+
+    // Rows follow the rosters; roster changes are rare, so clear every cached day
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClassRosterChanged(ClassRosterChangedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private List<AttendanceDto> virtualSlots(Long teacherId, String teacherName, LocalDate date) {
+        // One row per class, whichever of its courses comes first
+        Map<Long, TeachingAssignment> byClass = new LinkedHashMap<>();
+        for (TeachingAssignment assignment : teachingAssignmentRepository.findByTeacherId(teacherId)) {
+            byClass.putIfAbsent(assignment.getClazz().getId(), assignment);
+        }
+        List<AttendanceDto> result = new ArrayList<>(byClass.size());
+        for (TeachingAssignment assignment : byClass.values()) {
+            AttendanceDto virtualSlot = new AttendanceDto();
+            virtualSlot.setTimetableSlotId(-1L); // -1 marks a virtual slot
+            virtualSlot.setDate(date);
+            virtualSlot.setStatus(AttendanceStatus.PRESENT);
+            virtualSlot.setClassId(assignment.getClazz().getId());
+            virtualSlot.setCourseId(assignment.getCourse().getId());
+            virtualSlot.setClassName(assignment.getClazz().getName());
+            virtualSlot.setCourseName(assignment.getCourse().getName());
+            virtualSlot.setTeacherId(teacherId);
+            virtualSlot.setTeacherName(teacherName);
+            result.add(virtualSlot);
+        }
+        return result;
+    }
+
+    private AttendanceDto recordRow(Attendance attendance, TimetableSlot slot) {
+        AttendanceDto row = mapper.toAttendanceDto(attendance);
+        row.setClassName(slot.getForClass() != null ? slot.getForClass().getName() : null);
+        row.setCourseName(slot.getForCourse() != null ? slot.getForCourse().getName() : null);
+        return row;
+    }
+
+    private static AttendanceDto slotRow(TimetableSlot slot, LocalDate date, Long teacherId, String teacherName) {
+        AttendanceDto row = new AttendanceDto();
+        row.setTimetableSlotId(slot.getId());
+        row.setDate(date);
+        row.setStatus(AttendanceStatus.PRESENT); // Default status
+        row.setClassId(slot.getForClass() != null ? slot.getForClass().getId() : null);
+        row.setCourseId(slot.getForCourse() != null ? slot.getForCourse().getId() : null);
+        row.setClassName(slot.getForClass() != null ? slot.getForClass().getName() : null);
+        row.setCourseName(slot.getForCourse() != null ? slot.getForCourse().getName() : null);
+        row.setTeacherId(teacherId);
+        row.setTeacherName(teacherName);
+        return row;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.school_management.feature.operational.service.impl;
 
+import com.example.school_management.commons.service.SingleFlightService;
 import com.example.school_management.feature.academic.entity.ClassEntity;
 import com.example.school_management.feature.academic.entity.Course;
 import com.example.school_management.feature.operational.entity.Room;
@@ -11,6 +12,7 @@ import com.example.school_management.feature.auth.repository.TeacherRepository;
 import com.example.school_management.feature.operational.dto.*;
 import com.example.school_management.feature.operational.entity.*;
 import com.example.school_management.feature.operational.mapper.OperationalMapper;
+import com.example.school_management.feature.operational.mapper.TimetableResponseMapper;
 import com.example.school_management.feature.operational.repository.*;
 import com.example.school_management.feature.operational.service.TimetableService;
 import com.example.school_management.feature.operational.entity.enums.DayOfWeek;
@@ -39,6 +41,8 @@ public class TimetableServiceImpl implements TimetableService {
     private final RoomRepository roomRepository;
     private final CourseRepository courseRepository;
     private final OperationalMapper mapper;
+    private final TimetableResponseMapper timetableResponseMapper;
+    private final SingleFlightService singleFlightService;
     
     @Override
     @Transactional
@@ -186,6 +190,17 @@ public class TimetableServiceImpl implements TimetableService {
         return timetableSlotRepository.findByClassId(classId);
     }
     
+    // Concurrent reads share one query. Slots are mapped inside the flight, so waiting requests get
+    // detached DTOs rather than entities of the leader's persistence context.
+    @Override
+    public List<TimetableSlotResponseDto> getSlotDtosByClassId(Long classId) {
+        log.debug("Getting timetable slot DTOs for class ID: {}", classId);
+        return singleFlightService.execute("TimetableService.getSlotDtosByClassId",
+                () -> timetableSlotRepository.findByClassId(classId).stream()
+                        .map(timetableResponseMapper::toSlotDto)
+                        .toList(), classId);
+    }
+    
     @Override
     public List<TimetableSlot> getSlotsByTeacherId(Long teacherId) {
         log.debug("Getting timetable slots for teacher ID: {}", teacherId);
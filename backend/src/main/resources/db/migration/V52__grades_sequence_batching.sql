@@ -0,0 +1,7 @@
+-- V52: Allow Hibernate to batch grade inserts
+-- Grade ids are now allocated through a pooled sequence (allocationSize = 50),
+-- so the backing sequence must advance by the same step.
+
+ALTER SEQUENCE grades_id_seq INCREMENT BY 50;
+
+COMMENT ON SEQUENCE grades_id_seq IS 'Pooled id sequence for grades (increment must match Grade allocationSize)';
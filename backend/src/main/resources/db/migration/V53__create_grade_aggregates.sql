@@ -0,0 +1,55 @@
+-- V53: Incrementally maintained grade aggregates
+-- One row per (student, class) and one row per class (student_id IS NULL).
+-- Maintained by GradeAggregateService from the grade write paths.
+
+CREATE TABLE IF NOT EXISTS grade_aggregates (
+    id BIGSERIAL PRIMARY KEY,
+    student_id BIGINT,
+    class_id BIGINT NOT NULL,
+    grade_count BIGINT NOT NULL DEFAULT 0,
+    score_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    weighted_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    weight_total DOUBLE PRECISION NOT NULL DEFAULT 0,
+    min_score DOUBLE PRECISION,
+    max_score DOUBLE PRECISION,
+    excellent_count BIGINT NOT NULL DEFAULT 0,
+    good_count BIGINT NOT NULL DEFAULT 0,
+    satisfactory_count BIGINT NOT NULL DEFAULT 0,
+    needs_improvement_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_grade_aggregates_student FOREIGN KEY (student_id) REFERENCES student(id),
+    CONSTRAINT fk_grade_aggregates_class FOREIGN KEY (class_id) REFERENCES classes(id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_grade_aggregates_student_class
+    ON grade_aggregates(student_id, class_id) WHERE student_id IS NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_grade_aggregates_class
+    ON grade_aggregates(class_id) WHERE student_id IS NULL;
+
+-- Backfill from existing grades
+INSERT INTO grade_aggregates (student_id, class_id, grade_count, score_sum, weighted_sum, weight_total,
+                              min_score, max_score, excellent_count, good_count, satisfactory_count, needs_improvement_count)
+SELECT e.student_id, e.class_id, COUNT(*), SUM(g.score), SUM(g.score * COALESCE(g.weight, 1)), SUM(COALESCE(g.weight, 1)),
+       MIN(g.score), MAX(g.score),
+       COUNT(*) FILTER (WHERE g.score >= 18),
+       COUNT(*) FILTER (WHERE g.score >= 14 AND g.score < 18),
+       COUNT(*) FILTER (WHERE g.score >= 10 AND g.score < 14),
+       COUNT(*) FILTER (WHERE g.score < 10)
+FROM grades g
+JOIN enrollments e ON e.id = g.enrollment_id
+GROUP BY e.student_id, e.class_id;
+
+INSERT INTO grade_aggregates (student_id, class_id, grade_count, score_sum, weighted_sum, weight_total,
+                              min_score, max_score, excellent_count, good_count, satisfactory_count, needs_improvement_count)
+SELECT NULL, e.class_id, COUNT(*), SUM(g.score), SUM(g.score * COALESCE(g.weight, 1)), SUM(COALESCE(g.weight, 1)),
+       MIN(g.score), MAX(g.score),
+       COUNT(*) FILTER (WHERE g.score >= 18),
+       COUNT(*) FILTER (WHERE g.score >= 14 AND g.score < 18),
+       COUNT(*) FILTER (WHERE g.score >= 10 AND g.score < 14),
+       COUNT(*) FILTER (WHERE g.score < 10)
+FROM grades g
+JOIN enrollments e ON e.id = g.enrollment_id
+GROUP BY e.class_id;
+
+COMMENT ON TABLE grade_aggregates IS 'Running grade statistics per (student, class) and per class (student_id NULL)';
@@ -0,0 +1,20 @@
+-- Composite indexes backing the range statistics queries on grades.
+-- Each filter (student/class via enrollment, teacher, whole school) can be
+-- answered from an index ordered by graded_at.
+
+-- Student/class filters resolve enrollments first, then range-scan their grades
+CREATE INDEX IF NOT EXISTS idx_enrollments_student_class ON enrollments(student_id, class_id);
+CREATE INDEX IF NOT EXISTS idx_grades_enrollment_graded_at ON grades(enrollment_id, graded_at) INCLUDE (score, weight);
+
+-- Teacher filter
+CREATE INDEX IF NOT EXISTS idx_grades_teacher_graded_at ON grades(assigned_by_id, graded_at);
+
+-- Unfiltered (school-wide) windows
+CREATE INDEX IF NOT EXISTS idx_grades_graded_at ON grades(graded_at);
+
+-- Course filter goes through class_courses
+CREATE INDEX IF NOT EXISTS idx_class_courses_course ON class_courses(course_id, class_id);
+
+-- Superseded by the composite indexes above (same leading column)
+DROP INDEX IF EXISTS idx_grades_enrollment;
+DROP INDEX IF EXISTS idx_grades_teacher;
@@ -0,0 +1,3 @@
+-- Class-wide grade lookup for one course (teacher grade view).
+-- (class_id, semester) is already covered by idx_enhanced_grades_class_semester.
+CREATE INDEX IF NOT EXISTS idx_enhanced_grades_class_course ON enhanced_grades(class_id, course_id);
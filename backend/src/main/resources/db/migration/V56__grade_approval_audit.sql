@@ -0,0 +1,5 @@
+-- Audit event type for enhanced grade approval
+ALTER TYPE audit_event_type ADD VALUE IF NOT EXISTS 'GRADE_APPROVED';
+
+-- Approval audit rows are selected by the approval timestamp
+CREATE INDEX IF NOT EXISTS idx_enhanced_grades_approved_at ON enhanced_grades(approved_at);
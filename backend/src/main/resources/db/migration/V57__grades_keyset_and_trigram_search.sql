@@ -0,0 +1,66 @@
+-- Keyset pagination and trigram search for the admin grade listing.
+-- search_text holds the lower-cased grade content and student name so a single
+-- GIN index answers LIKE '%term%' without joining users on every page.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE grades ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+CREATE OR REPLACE FUNCTION grade_search_text(p_content TEXT, p_enrollment_id BIGINT)
+    RETURNS TEXT AS $$
+SELECT lower(concat_ws(' ', p_content, u.first_name, u.last_name))
+FROM enrollments e
+         JOIN users u ON u.id = e.student_id
+WHERE e.id = p_enrollment_id
+$$ LANGUAGE sql STABLE;
+
+/* ----------------------------------------------------------------------
+   Keep search_text current on grade writes and student renames
+------------------------------------------------------------------------ */
+CREATE OR REPLACE FUNCTION trg_grades_search_text()
+    RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_text := grade_search_text(NEW.content, NEW.enrollment_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS grades_search_text ON grades;
+
+CREATE TRIGGER grades_search_text
+    BEFORE INSERT OR UPDATE OF content, enrollment_id ON grades
+    FOR EACH ROW EXECUTE FUNCTION trg_grades_search_text();
+
+CREATE OR REPLACE FUNCTION trg_users_refresh_grade_search_text()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE grades g
+    SET search_text = lower(concat_ws(' ', g.content, NEW.first_name, NEW.last_name))
+    FROM enrollments e
+    WHERE e.id = g.enrollment_id
+      AND e.student_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_refresh_grade_search_text ON users;
+
+CREATE TRIGGER users_refresh_grade_search_text
+    AFTER UPDATE OF first_name, last_name ON users
+    FOR EACH ROW
+    WHEN (OLD.first_name IS DISTINCT FROM NEW.first_name OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+    EXECUTE FUNCTION trg_users_refresh_grade_search_text();
+
+-- Backfill existing rows
+UPDATE grades g
+SET search_text = lower(concat_ws(' ', g.content, u.first_name, u.last_name))
+FROM enrollments e
+         JOIN users u ON u.id = e.student_id
+WHERE e.id = g.enrollment_id;
+
+CREATE INDEX IF NOT EXISTS idx_grades_search_text_trgm ON grades USING gin (search_text gin_trgm_ops);
+
+-- Keyset order (graded_at DESC, id DESC) is read as a backward scan of this index,
+-- which also covers the school-wide range statistics that used idx_grades_graded_at
+CREATE INDEX IF NOT EXISTS idx_grades_graded_at_id ON grades(graded_at, id);
+DROP INDEX IF EXISTS idx_grades_graded_at;
@@ -0,0 +1,12 @@
+-- One attendance record per student, class and day; backs the
+-- INSERT ... ON CONFLICT (user_id, class_id, date) roll-call upsert.
+
+-- Keep the most recent row where earlier non-atomic writes produced duplicates
+DELETE FROM attendance a
+    USING attendance b
+WHERE a.user_id = b.user_id
+  AND a.class_id = b.class_id
+  AND a.date = b.date
+  AND a.id < b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_attendance_user_class_date ON attendance(user_id, class_id, date);
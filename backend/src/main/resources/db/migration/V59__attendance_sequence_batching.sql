@@ -0,0 +1,8 @@
+-- V59: Allow Hibernate to batch attendance inserts
+-- Attendance ids are now allocated through a pooled sequence (allocationSize = 50),
+-- so the backing sequence must advance by the same step. Native inserts (the roll-call
+-- upsert) still draw from the column default and never overlap a pooled block.
+
+ALTER SEQUENCE attendance_id_seq INCREMENT BY 50;
+
+COMMENT ON SEQUENCE attendance_id_seq IS 'Pooled id sequence for attendance (increment must match Attendance allocationSize)';
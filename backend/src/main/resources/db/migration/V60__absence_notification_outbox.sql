@@ -0,0 +1,34 @@
+-- Transactional outbox for absence alerts. Rows are written in the same transaction
+-- as the attendance record and delivered by AbsenceNotificationServiceImpl, so marking
+-- a class never waits on parent lookups, notification inserts or WebSocket pushes.
+-- Display fields are copied at enqueue time; the worker does not re-read attendance.
+
+CREATE SEQUENCE IF NOT EXISTS absence_notification_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS absence_notification_outbox (
+    id              BIGINT PRIMARY KEY DEFAULT nextval('absence_notification_outbox_id_seq'),
+    attendance_id   BIGINT      NOT NULL,
+    student_id      BIGINT      NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    student_name    VARCHAR(255),
+    class_name      VARCHAR(255),
+    course_name     VARCHAR(255),
+    attendance_date DATE        NOT NULL,
+    status          VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts        INT         NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP   NOT NULL DEFAULT now(),
+    claimed_at      TIMESTAMP,
+    last_error      TEXT,
+    created_at      TIMESTAMP   NOT NULL DEFAULT now(),
+    processed_at    TIMESTAMP,
+    CONSTRAINT chk_absence_outbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'SENT', 'FAILED'))
+);
+
+ALTER SEQUENCE absence_notification_outbox_id_seq OWNED BY absence_notification_outbox.id;
+
+-- Claim query: due PENDING rows in id order
+CREATE INDEX IF NOT EXISTS idx_absence_outbox_due
+    ON absence_notification_outbox(next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Stale-claim recovery
+CREATE INDEX IF NOT EXISTS idx_absence_outbox_claimed
+    ON absence_notification_outbox(claimed_at) WHERE status = 'PROCESSING';
@@ -0,0 +1,81 @@
+-- Per-day attendance counts by class, user type and status. Attendance statistics read
+-- this table instead of hydrating every record in the range; the covering index turns a
+-- month or year of statistics into an index-only scan.
+-- Maintained by statement-level triggers on attendance (so every write path, including the
+-- roll-call upsert, is counted once per statement) and re-derived by AttendanceRollupService.
+
+CREATE TABLE IF NOT EXISTS attendance_daily_rollup (
+    id           BIGSERIAL PRIMARY KEY,
+    date         DATE        NOT NULL,
+    class_id     BIGINT,
+    user_type    VARCHAR(20),
+    status       VARCHAR(20) NOT NULL,
+    record_count BIGINT      NOT NULL DEFAULT 0
+);
+
+-- class_id is NULL for records not tied to a class; those still form one key per day
+CREATE UNIQUE INDEX IF NOT EXISTS uq_attendance_daily_rollup_key
+    ON attendance_daily_rollup(date, class_id, user_type, status)
+    INCLUDE (record_count)
+    NULLS NOT DISTINCT;
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_rollup_class_date
+    ON attendance_daily_rollup(class_id, date)
+    INCLUDE (status, record_count);
+
+/* ----------------------------------------------------------------------
+   Incremental maintenance: one grouped upsert per statement, old rows
+   subtracted and new rows added, so updates that change status move
+   the count between keys. Keys are upserted in a fixed order so
+   concurrent statements lock them in the same order
+------------------------------------------------------------------------ */
+CREATE OR REPLACE FUNCTION trg_attendance_daily_rollup()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO attendance_daily_rollup AS r (date, class_id, user_type, status, record_count)
+        SELECT o.date, o.class_id, o.user_type::text, o.status::text, -COUNT(*)
+        FROM old_rows o
+        GROUP BY o.date, o.class_id, o.user_type::text, o.status::text
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (date, class_id, user_type, status)
+            DO UPDATE SET record_count = r.record_count + EXCLUDED.record_count;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO attendance_daily_rollup AS r (date, class_id, user_type, status, record_count)
+        SELECT n.date, n.class_id, n.user_type::text, n.status::text, COUNT(*)
+        FROM new_rows n
+        GROUP BY n.date, n.class_id, n.user_type::text, n.status::text
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (date, class_id, user_type, status)
+            DO UPDATE SET record_count = r.record_count + EXCLUDED.record_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS attendance_daily_rollup_insert ON attendance;
+DROP TRIGGER IF EXISTS attendance_daily_rollup_update ON attendance;
+DROP TRIGGER IF EXISTS attendance_daily_rollup_delete ON attendance;
+
+CREATE TRIGGER attendance_daily_rollup_insert
+    AFTER INSERT ON attendance
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+CREATE TRIGGER attendance_daily_rollup_update
+    AFTER UPDATE ON attendance
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+CREATE TRIGGER attendance_daily_rollup_delete
+    AFTER DELETE ON attendance
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+-- Initial population; the same statement AttendanceRollupService runs per month
+INSERT INTO attendance_daily_rollup (date, class_id, user_type, status, record_count)
+SELECT a.date, a.class_id, a.user_type::text, a.status::text, COUNT(*)
+FROM attendance a
+GROUP BY a.date, a.class_id, a.user_type::text, a.status::text
+ON CONFLICT (date, class_id, user_type, status) DO UPDATE SET record_count = EXCLUDED.record_count;
@@ -0,0 +1,143 @@
+-- Converts attendance to monthly range partitions on date. Every repository query filters on
+-- date, so the planner prunes to the months in range and past years stop slowing today's
+-- queries. AttendancePartitionService creates months ahead of time and detaches old ones.
+--
+-- The primary key becomes (id, date): unique constraints on a partitioned table must contain
+-- the partition key. Ids still come from attendance_id_seq and remain unique on their own.
+
+/* ----------------------------------------------------------------------
+   1. Set the existing table aside; its sequence must outlive it
+------------------------------------------------------------------------ */
+ALTER SEQUENCE attendance_id_seq OWNED BY NONE;
+
+DROP TRIGGER IF EXISTS attendance_daily_rollup_insert ON attendance;
+DROP TRIGGER IF EXISTS attendance_daily_rollup_update ON attendance;
+DROP TRIGGER IF EXISTS attendance_daily_rollup_delete ON attendance;
+
+ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+
+/* ----------------------------------------------------------------------
+   2. Partitioned parent with the same columns, types, defaults and comments
+------------------------------------------------------------------------ */
+CREATE TABLE attendance (
+    LIKE attendance_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS
+) PARTITION BY RANGE (date);
+
+ALTER TABLE attendance ALTER COLUMN date SET NOT NULL;
+
+-- One partition per calendar month in [from_month, to_month], named attendance_pYYYY_MM.
+-- Existing partitions are skipped, so callers may pass overlapping ranges
+CREATE OR REPLACE FUNCTION create_attendance_partitions(from_month DATE, to_month DATE)
+    RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    last_month  DATE := date_trunc('month', to_month)::date;
+    part_name   TEXT;
+    created     INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        part_name := 'attendance_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+                           part_name, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches one monthly partition and renames it attendance_archived_pYYYY_MM. The table keeps
+-- its rows until an operator dumps and drops it; the daily rollup keeps its counts
+CREATE OR REPLACE FUNCTION detach_attendance_partition(part_name TEXT)
+    RETURNS TEXT AS $$
+DECLARE
+    archived_name TEXT := replace(part_name, 'attendance_p', 'attendance_archived_p');
+BEGIN
+    IF part_name !~ '^attendance_p[0-9]{4}_[0-9]{2}$' THEN
+        RAISE EXCEPTION 'Not an attendance partition: %', part_name;
+    END IF;
+    EXECUTE format('ALTER TABLE attendance DETACH PARTITION %I', part_name);
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', part_name, archived_name);
+    RETURN archived_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month with data and the past twelve (late corrections), through twelve months ahead
+SELECT create_attendance_partitions(
+    LEAST(COALESCE((SELECT MIN(date) FROM attendance_unpartitioned)::date, CURRENT_DATE),
+          (CURRENT_DATE - INTERVAL '12 months')::date),
+    GREATEST(COALESCE((SELECT MAX(date) FROM attendance_unpartitioned)::date, CURRENT_DATE),
+             (CURRENT_DATE + INTERVAL '12 months')::date));
+
+/* ----------------------------------------------------------------------
+   3. Move the rows. Rows without a date cannot be routed to a partition
+      and no query could reach them (all filter on date); keep them aside
+------------------------------------------------------------------------ */
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM attendance_unpartitioned WHERE date IS NULL) THEN
+        CREATE TABLE attendance_undated AS
+            SELECT * FROM attendance_unpartitioned WHERE date IS NULL;
+    END IF;
+END$$;
+
+INSERT INTO attendance
+SELECT * FROM attendance_unpartitioned WHERE date IS NOT NULL;
+
+DROP TABLE attendance_unpartitioned;
+
+ALTER SEQUENCE attendance_id_seq OWNED BY attendance.id;
+
+/* ----------------------------------------------------------------------
+   4. Keys and indexes, declared on the parent and built on every
+      partition (including ones created later)
+------------------------------------------------------------------------ */
+ALTER TABLE attendance ADD CONSTRAINT attendance_pkey PRIMARY KEY (id, date);
+
+ALTER TABLE attendance
+    ADD CONSTRAINT fk_attendance_user FOREIGN KEY (user_id) REFERENCES users(id),
+    ADD CONSTRAINT fk_attendance_course FOREIGN KEY (course_id) REFERENCES courses(id),
+    ADD CONSTRAINT fk_attendance_class FOREIGN KEY (class_id) REFERENCES classes(id) ON DELETE SET NULL,
+    ADD CONSTRAINT fk_attendance_timetable_slot FOREIGN KEY (timetable_slot_id) REFERENCES timetable_slots(id) ON DELETE SET NULL,
+    ADD CONSTRAINT fk_attendance_recorded_by FOREIGN KEY (recorded_by_id) REFERENCES users(id) ON DELETE SET NULL;
+
+-- Roll-call upsert target (V58)
+CREATE UNIQUE INDEX uq_attendance_user_class_date ON attendance(user_id, class_id, date);
+
+-- Date-only range reads (general statistics, index load, weekly views)
+CREATE INDEX idx_attendance_date ON attendance(date);
+
+CREATE INDEX idx_attendance_user_date ON attendance(user_id, date);
+CREATE INDEX idx_attendance_class_date ON attendance(class_id, date);
+CREATE INDEX idx_attendance_course_date ON attendance(course_id, date);
+CREATE INDEX idx_attendance_timetable_slot_date ON attendance(timetable_slot_id, date);
+
+-- Teacher views (V50); idx_attendance_slot_teacher_date duplicated idx_attendance_timetable_slot_date
+-- and the status and user_type indexes were too coarse to be chosen, so they are not recreated
+CREATE INDEX idx_attendance_teacher_date ON attendance(recorded_by_id, date) WHERE user_type = 'STUDENT';
+CREATE INDEX idx_attendance_teacher_slot_date_status ON attendance(timetable_slot_id, date, status) WHERE user_type = 'STUDENT';
+
+/* ----------------------------------------------------------------------
+   5. Rollup triggers (V61); statement triggers with transition tables
+      on the parent see rows routed to any partition
+------------------------------------------------------------------------ */
+CREATE TRIGGER attendance_daily_rollup_insert
+    AFTER INSERT ON attendance
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+CREATE TRIGGER attendance_daily_rollup_update
+    AFTER UPDATE ON attendance
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+CREATE TRIGGER attendance_daily_rollup_delete
+    AFTER DELETE ON attendance
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_attendance_daily_rollup();
+
+COMMENT ON TABLE attendance IS 'Attendance records for students, teachers, and staff, partitioned by month on date (attendance_pYYYY_MM).';
+
+ANALYZE attendance;
@@ -0,0 +1,26 @@
+-- School-wide totals shown on the admin dashboard, kept in a single row (id = 1) so the
+-- dashboard reads one row instead of counting six tables. Adjusted by the create and delete
+-- paths of the user, class, course and enrollment services inside their transactions, and
+-- reconciled against the tables by SystemCounterService. Users count when not soft-deleted.
+
+CREATE TABLE IF NOT EXISTS system_counters (
+    id          SMALLINT  PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    students    BIGINT    NOT NULL DEFAULT 0,
+    teachers    BIGINT    NOT NULL DEFAULT 0,
+    parents     BIGINT    NOT NULL DEFAULT 0,
+    classes     BIGINT    NOT NULL DEFAULT 0,
+    courses     BIGINT    NOT NULL DEFAULT 0,
+    enrollments BIGINT    NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMP NOT NULL DEFAULT now()
+);
+
+INSERT INTO system_counters (id, students, teachers, parents, classes, courses, enrollments, updated_at)
+SELECT 1,
+       (SELECT COUNT(*) FROM student s JOIN users u ON u.id = s.id WHERE u.status <> 'DELETED'),
+       (SELECT COUNT(*) FROM teacher t JOIN users u ON u.id = t.id WHERE u.status <> 'DELETED'),
+       (SELECT COUNT(*) FROM parent p JOIN users u ON u.id = p.id WHERE u.status <> 'DELETED'),
+       (SELECT COUNT(*) FROM classes),
+       (SELECT COUNT(*) FROM courses),
+       (SELECT COUNT(*) FROM enrollments),
+       now()
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,10 @@
+-- Recipients already notified of each absence alert, written in the same transaction as
+-- their notification. A retried alert only goes to the recipients missing here, so a
+-- parent notified before a partial failure is not notified again.
+
+CREATE TABLE IF NOT EXISTS absence_notification_deliveries (
+    outbox_id    BIGINT    NOT NULL REFERENCES absence_notification_outbox(id) ON DELETE CASCADE,
+    recipient_id BIGINT    NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    delivered_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (outbox_id, recipient_id)
+);
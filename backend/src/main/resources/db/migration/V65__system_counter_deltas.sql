@@ -0,0 +1,16 @@
+-- Counter changes appended by write transactions. Concurrent inserts never wait on each other,
+-- whereas updating the single system_counters row held its lock until each writer committed,
+-- serializing every user, class, course and enrollment create or delete school-wide. Readers
+-- add the pending deltas to the row; SystemCounterService folds them into it periodically and
+-- clears them when it recomputes the row from the tables.
+
+CREATE TABLE IF NOT EXISTS system_counter_deltas (
+    id          BIGSERIAL PRIMARY KEY,
+    students    BIGINT    NOT NULL DEFAULT 0,
+    teachers    BIGINT    NOT NULL DEFAULT 0,
+    parents     BIGINT    NOT NULL DEFAULT 0,
+    classes     BIGINT    NOT NULL DEFAULT 0,
+    courses     BIGINT    NOT NULL DEFAULT 0,
+    enrollments BIGINT    NOT NULL DEFAULT 0,
+    created_at  TIMESTAMP NOT NULL DEFAULT now()
+);
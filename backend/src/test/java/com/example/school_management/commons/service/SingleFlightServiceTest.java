@@ -0,0 +1,92 @@
+package com.example.school_management.commons.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightService singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlightService(meterRegistry, true, 1000, 5000);
+    }
+
+    @Test
+    void concurrentIdenticalCalls_computeOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("op", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "result";
+                }, 1L)));
+            }
+            // Let every caller join the computation before it finishes
+            while (collapsed() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+            assertThat(computations).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentArguments_computeSeparately() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("op", computations::incrementAndGet, 1L);
+        singleFlight.execute("op", computations::incrementAndGet, 2L);
+        singleFlight.execute("other", computations::incrementAndGet, 1L);
+
+        assertThat(computations).hasValue(3);
+    }
+
+    @Test
+    void failure_propagatesAndIsNotKept() {
+        assertThatThrownBy(() -> singleFlight.execute("op", () -> {
+            throw new IllegalArgumentException("boom");
+        }, 1L)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(singleFlight.execute("op", () -> "recovered", 1L)).isEqualTo("recovered");
+    }
+
+    private double collapsed() {
+        var counter = meterRegistry.find("singleflight.calls").tag("outcome", "collapsed").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.school_management.feature.integration.operational;
+
+import com.example.school_management.feature.auth.entity.Student;
+import com.example.school_management.feature.operational.entity.Attendance;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.service.AbsenceNotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the absence outbox against a real database: enqueue, claim, delivery to the student and
+ * their parents, and what happens when some of it fails. A recipient's notification insert is made
+ * to fail with a trigger, so the failure goes through the same transaction the worker uses.
+ * The scheduled poller is pushed out of the way; each test calls {@code dispatchDue} itself.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class AbsenceNotificationOutboxIntegrationTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_SECONDS = 30;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Container
+    @SuppressWarnings("resource")
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("app.attendance.absence-outbox.poll-delay-ms", () -> "3600000");
+        registry.add("app.attendance.absence-outbox.max-attempts", () -> Integer.toString(MAX_ATTEMPTS));
+        registry.add("app.attendance.absence-outbox.backoff-seconds", () -> Long.toString(BACKOFF_SECONDS));
+    }
+
+    @Autowired
+    private AbsenceNotificationService absenceNotificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_test_notification ON user_notifications");
+        jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_test_notification()");
+        jdbcTemplate.update("DELETE FROM absence_notification_outbox");
+    }
+
+    @Test
+    void partialFailure_retriesOnlyTheMissingRecipients() {
+        // given: two absent students with a parent each, and the second parent's inserts failing
+        long firstStudent = insertUser("STUDENT");
+        long secondStudent = insertUser("STUDENT");
+        long firstParent = insertParentOf(firstStudent);
+        long secondParent = insertParentOf(secondStudent);
+        enqueueAbsences(firstStudent, secondStudent);
+        rejectNotificationsFor(secondParent);
+
+        // when
+        int delivered = absenceNotificationService.dispatchDue();
+
+        // then: everyone else is notified; the second alert waits out its backoff for the one parent
+        assertThat(delivered).isEqualTo(1);
+        assertThat(outboxRow(firstStudent).get("status")).isEqualTo("SENT");
+        Map<String, Object> retried = outboxRow(secondStudent);
+        assertThat(retried.get("status")).isEqualTo("PENDING");
+        assertThat(retried.get("attempts")).isEqualTo(1);
+        assertThat(retried.get("claimed_at")).isNull();
+        assertThat((String) retried.get("last_error")).isNotBlank();
+        assertThat(((Timestamp) retried.get("next_attempt_at")).toLocalDateTime())
+                .isAfter(LocalDateTime.now().plusSeconds(BACKOFF_SECONDS - 5));
+        assertThat(notificationsOf(firstStudent)).isEqualTo(1);
+        assertThat(notificationsOf(firstParent)).isEqualTo(1);
+        assertThat(notificationsOf(secondStudent)).isEqualTo(1);
+        assertThat(notificationsOf(secondParent)).isZero();
+
+        // when: the parent accepts notifications again and the retry is due
+        acceptNotifications();
+        makeDue();
+        delivered = absenceNotificationService.dispatchDue();
+
+        // then: only the missing parent is notified, nobody twice
+        assertThat(delivered).isEqualTo(1);
+        assertThat(outboxRow(secondStudent).get("status")).isEqualTo("SENT");
+        assertThat(notificationsOf(firstStudent)).isEqualTo(1);
+        assertThat(notificationsOf(firstParent)).isEqualTo(1);
+        assertThat(notificationsOf(secondStudent)).isEqualTo(1);
+        assertThat(notificationsOf(secondParent)).isEqualTo(1);
+    }
+
+    @Test
+    void recipientFailingEveryAttempt_isParkedAsFailed() {
+        // given
+        long student = insertUser("STUDENT");
+        long parent = insertParentOf(student);
+        enqueueAbsences(student);
+        rejectNotificationsFor(parent);
+
+        // when
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            makeDue();
+            absenceNotificationService.dispatchDue();
+        }
+
+        // then: given up on after the last attempt, and no longer claimed
+        Map<String, Object> failed = outboxRow(student);
+        assertThat(failed.get("status")).isEqualTo("FAILED");
+        assertThat(failed.get("attempts")).isEqualTo(MAX_ATTEMPTS);
+        assertThat(failed.get("processed_at")).isNotNull();
+        makeDue();
+        assertThat(absenceNotificationService.dispatchDue()).isZero();
+        assertThat(notificationsOf(student)).isEqualTo(1);
+        assertThat(notificationsOf(parent)).isZero();
+    }
+
+    @Test
+    void rowLockedElsewhere_isSkippedNotWaitedFor() throws Exception {
+        // given: another instance holds the first alert
+        long locked = insertUser("STUDENT");
+        long free = insertUser("STUDENT");
+        enqueueAbsences(locked, free);
+        long lockedId = ((Number) outboxRow(locked).get("id")).longValue();
+
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement lock = other.prepareStatement(
+                    "SELECT id FROM absence_notification_outbox WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, lockedId);
+                lock.executeQuery().close();
+            }
+
+            // when
+            int delivered = absenceNotificationService.dispatchDue();
+
+            // then: the free alert is delivered and the held one left alone
+            assertThat(delivered).isEqualTo(1);
+            assertThat(outboxRow(free).get("status")).isEqualTo("SENT");
+            assertThat(notificationsOf(locked)).isZero();
+            other.rollback();
+        }
+        Map<String, Object> untouched = outboxRow(locked);
+        assertThat(untouched.get("status")).isEqualTo("PENDING");
+        assertThat(untouched.get("attempts")).isEqualTo(0);
+
+        // when: the lock is released
+        int delivered = absenceNotificationService.dispatchDue();
+
+        // then
+        assertThat(delivered).isEqualTo(1);
+        assertThat(notificationsOf(locked)).isEqualTo(1);
+    }
+
+    @Test
+    void batchFailingAsAWhole_isRescheduledAtOnce() {
+        // given: the delivery log cannot be read, which fails the batch before any recipient
+        long first = insertUser("STUDENT");
+        long second = insertUser("STUDENT");
+        enqueueAbsences(first, second);
+        jdbcTemplate.execute("ALTER TABLE absence_notification_deliveries RENAME TO absence_notification_deliveries_off");
+        try {
+            // when
+            int delivered = absenceNotificationService.dispatchDue();
+
+            // then: both alerts are back in the queue with backoff, not left claimed until the stale release
+            assertThat(delivered).isZero();
+            for (long student : new long[]{first, second}) {
+                Map<String, Object> row = outboxRow(student);
+                assertThat(row.get("status")).isEqualTo("PENDING");
+                assertThat(row.get("attempts")).isEqualTo(1);
+                assertThat(row.get("claimed_at")).isNull();
+                assertThat((String) row.get("last_error")).isNotBlank();
+                assertThat(notificationsOf(student)).isZero();
+            }
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE absence_notification_deliveries_off RENAME TO absence_notification_deliveries");
+        }
+
+        // when: the next attempt is due
+        makeDue();
+        assertThat(absenceNotificationService.dispatchDue()).isEqualTo(2);
+
+        // then
+        assertThat(notificationsOf(first)).isEqualTo(1);
+        assertThat(notificationsOf(second)).isEqualTo(1);
+    }
+
+    // Enqueued in a transaction of its own, as attendance recording does
+    private void enqueueAbsences(long... studentIds) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Attendance> absences = new ArrayList<>();
+            for (long studentId : studentIds) {
+                Student student = new Student();
+                student.setId(studentId);
+                student.setFirstName("Absent");
+                student.setLastName("Student " + studentId);
+                Attendance attendance = new Attendance();
+                attendance.setId(studentId);
+                attendance.setUser(student);
+                attendance.setDate(LocalDate.now());
+                attendance.setStatus(AttendanceStatus.ABSENT);
+                absences.add(attendance);
+            }
+            absenceNotificationService.enqueue(absences);
+        });
+    }
+
+    private long insertUser(String role) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (first_name, last_name, email, role, status) " +
+                "VALUES ('Outbox', ?, ?, CAST(? AS user_role), 'ACTIVE') RETURNING id",
+                Long.class, role, "outbox-" + System.nanoTime() + "@outbox.local", role);
+        jdbcTemplate.update("INSERT INTO " + role.toLowerCase() + " (id) VALUES (?)", id);
+        return id;
+    }
+
+    private long insertParentOf(long studentId) {
+        long parentId = insertUser("PARENT");
+        jdbcTemplate.update("INSERT INTO parent_students (parent_id, student_id) VALUES (?, ?)", parentId, studentId);
+        return parentId;
+    }
+
+    private void rejectNotificationsFor(long userId) {
+        jdbcTemplate.execute(
+                "CREATE FUNCTION reject_test_notification() RETURNS trigger AS $$ BEGIN " +
+                "IF NEW.user_id = " + userId + " THEN RAISE EXCEPTION 'notifications rejected for user %', NEW.user_id; END IF; " +
+                "RETURN NEW; END $$ LANGUAGE plpgsql");
+        jdbcTemplate.execute(
+                "CREATE TRIGGER reject_test_notification BEFORE INSERT ON user_notifications " +
+                "FOR EACH ROW EXECUTE FUNCTION reject_test_notification()");
+    }
+
+    private void acceptNotifications() {
+        jdbcTemplate.execute("DROP TRIGGER reject_test_notification ON user_notifications");
+    }
+
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE absence_notification_outbox SET next_attempt_at = now() - interval '1 second' " +
+                "WHERE status = 'PENDING'");
+    }
+
+    private Map<String, Object> outboxRow(long studentId) {
+        return jdbcTemplate.queryForMap("SELECT * FROM absence_notification_outbox WHERE student_id = ?", studentId);
+    }
+
+    private int notificationsOf(long userId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_notifications WHERE user_id = ?", Integer.class, userId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.school_management.feature.integration.operational;
+
+import com.example.school_management.feature.academic.entity.ClassEntity;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.operational.dto.GradeResponse;
+import com.example.school_management.feature.operational.service.GradeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements Hibernate actually prepares for a grade page, so eager associations
+ * loaded row by row show up here even when the repository is called once. Each page is read in
+ * its own transaction, like a request, so no persistence context is shared between sizes.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class GradeQueryCountIntegrationTest {
+
+    private static final int GRADES = 500;
+    // spring.jpa.properties.hibernate.default_batch_fetch_size
+    private static final int BATCH_FETCH_SIZE = 100;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Container
+    @SuppressWarnings("resource")
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private ClassEntity gradedClass;
+    private Teacher teacher;
+
+    @BeforeEach
+    void setUp() {
+        List<ClassEntity> classes = classRepository.findAll();
+        assertThat(classes).as("classes seeded on startup").isNotEmpty();
+        gradedClass = classes.get(0);
+        List<Teacher> teachers = teacherRepository.findAll();
+        assertThat(teachers).as("teachers seeded on startup").isNotEmpty();
+        teacher = teachers.get(0);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(teacher.getEmail(), null, Collections.emptyList()));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getGradesByClassIdPaged_statementCountDoesNotGrowWithPageSize() {
+        // given: one grade for each of 500 distinct students in the class
+        seedGradedStudents(GRADES);
+
+        // when
+        Map<Integer, Long> statements = new LinkedHashMap<>();
+        for (int pageSize : new int[]{1, 50, BATCH_FETCH_SIZE, GRADES}) {
+            statements.put(pageSize, statementsFor(pageSize));
+        }
+
+        // then: the same statements for any page that fits one fetch batch, and at most one more
+        // per further batch of rows beyond it - never one per row
+        long single = statements.get(1);
+        assertThat(statements.get(50)).as("statements per page size %s", statements).isEqualTo(single);
+        assertThat(statements.get(BATCH_FETCH_SIZE)).as("statements per page size %s", statements).isEqualTo(single);
+        assertThat(statements.get(GRADES)).as("statements per page size %s", statements)
+                .isLessThanOrEqualTo(single + GRADES / BATCH_FETCH_SIZE - 1);
+    }
+
+    private long statementsFor(int pageSize) {
+        TransactionTemplate request = new TransactionTemplate(transactionManager);
+        request.setReadOnly(true);
+        statistics.clear();
+        Page<GradeResponse> page = request.execute(status ->
+                gradeService.getGradesByClassId(gradedClass.getId(), PageRequest.of(0, pageSize)));
+        assertThat(page.getContent()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Users, students, active enrollments and one grade each, in one set-based statement
+    private void seedGradedStudents(int count) {
+        String runId = Long.toString(System.nanoTime());
+        jdbcTemplate.update(
+                "WITH u AS (" +
+                "  INSERT INTO users (first_name, last_name, email, role, status) " +
+                "  SELECT 'Count', 'Student ' || g, 'count-' || ? || '-' || g || '@count.local', 'STUDENT', 'ACTIVE' " +
+                "  FROM generate_series(1, ?) g RETURNING id" +
+                "), s AS (" +
+                "  INSERT INTO student (id) SELECT id FROM u RETURNING id" +
+                "), e AS (" +
+                "  INSERT INTO enrollments (status, student_id, class_id) " +
+                "  SELECT 'ACTIVE', id, ? FROM s RETURNING id" +
+                ") " +
+                "INSERT INTO grades (content, score, weight, graded_at, enrollment_id, assigned_by_id) " +
+                "SELECT 'Quiz', 10 + (id % 10), 1, now() - (id % 500) * interval '1 minute', id, ? FROM e",
+                runId, count, gradedClass.getId(), teacher.getId());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.school_management.feature.operational.domain;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency of {@link AttendanceBitmapIndex} over a full academic year of weekday records
+ * (about 10% absences, a few late days). Class aggregates sum a 30-student roster.
+ * Not picked up by surefire; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.school_management.feature.operational.domain.AttendanceBitmapIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceBitmapIndexBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 9, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 8, 31);
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 20);
+
+    @Param({"1000", "10000"})
+    private int students;
+
+    private AttendanceBitmapIndex index;
+    private List<Long> classRoster;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new AttendanceBitmapIndex(FIRST_DAY, LAST_DAY);
+        for (long student = 1; student <= students; student++) {
+            for (LocalDate day = FIRST_DAY; !day.isAfter(AS_OF); day = day.plusDays(1)) {
+                if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) continue;
+                int roll = random.nextInt(100);
+                AttendanceStatus status = roll < 10 ? AttendanceStatus.ABSENT
+                        : roll < 13 ? AttendanceStatus.LATE
+                        : AttendanceStatus.PRESENT;
+                index.mergeDay(student, day, status);
+            }
+        }
+        classRoster = new ArrayList<>();
+        for (long student = 1; student <= 30; student++) {
+            classRoster.add(student);
+        }
+        userId = students / 2;
+        System.out.printf("%n%d students: ~%d bytes, %d bytes/student%n",
+                students, index.estimatedBytes(), index.estimatedBytes() / index.userCount());
+    }
+
+    @Benchmark
+    public void yearRate(Blackhole blackhole) {
+        blackhole.consume(AttendanceDayCounts.of(index.counts(userId, FIRST_DAY, AS_OF)).attendancePercentage());
+    }
+
+    @Benchmark
+    public int absenceStreak() {
+        return index.streak(userId, AttendanceStatus.ABSENT, AS_OF);
+    }
+
+    @Benchmark
+    public int absentInLastTwentySchoolDays() {
+        return index.countInLastSchoolDays(userId, AttendanceStatus.ABSENT, 20, AS_OF);
+    }
+
+    @Benchmark
+    public void classAggregate(Blackhole blackhole) {
+        blackhole.consume(index.aggregate(classRoster, FIRST_DAY, AS_OF));
+    }
+
+    @Benchmark
+    public void schoolAggregate(Blackhole blackhole) {
+        blackhole.consume(index.aggregateAll(FIRST_DAY, AS_OF));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AttendanceBitmapIndexBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
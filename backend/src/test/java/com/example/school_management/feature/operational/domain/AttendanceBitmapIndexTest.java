@@ -0,0 +1,229 @@
+package com.example.school_management.feature.operational.domain;
+
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the bitmap arithmetic against a naive recount over the same records: weekdays of an
+ * academic year with a winter break, several records per day, users missing some school days,
+ * and queries that start before or end after the indexed year.
+ */
+class AttendanceBitmapIndexTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 9, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2026, 6, 30);
+    private static final LocalDate BREAK_START = LocalDate.of(2025, 12, 20);
+    private static final LocalDate BREAK_END = LocalDate.of(2026, 1, 4);
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    private static final int USERS = 12;
+    // Always present, so streaks run across several 64-day words
+    private static final long PRESENT_USER = 0L;
+    private static final List<AttendanceStatus> SEVERITY = Arrays.asList(AttendanceBitmapIndex.SEVERITY);
+
+    private AttendanceBitmapIndex index;
+    private Map<Long, Map<LocalDate, List<AttendanceStatus>>> records;
+    // Days of the indexed year on which anyone has a record
+    private TreeSet<LocalDate> schoolDays;
+
+    @BeforeEach
+    void setUp() {
+        index = new AttendanceBitmapIndex(FIRST_DAY, LAST_DAY);
+        records = new HashMap<>();
+        Random random = new Random(7);
+        for (LocalDate day = FIRST_DAY.minusDays(3); !day.isAfter(LAST_DAY.plusDays(3)); day = day.plusDays(1)) {
+            if (!isTeachingDay(day)) continue;
+            for (long user = 0; user < USERS; user++) {
+                if (user == PRESENT_USER) {
+                    record(user, day, AttendanceStatus.PRESENT);
+                    continue;
+                }
+                // Some school days have no record for the user
+                if (random.nextInt(10) == 0) continue;
+                int count = 1 + random.nextInt(3);
+                for (int i = 0; i < count; i++) {
+                    record(user, day, random.nextInt(4) == 0
+                            ? STATUSES[random.nextInt(STATUSES.length)] : AttendanceStatus.PRESENT);
+                }
+            }
+        }
+        schoolDays = new TreeSet<>();
+        for (Map<LocalDate, List<AttendanceStatus>> byDay : records.values()) {
+            for (LocalDate day : byDay.keySet()) {
+                if (inYear(day)) schoolDays.add(day);
+            }
+        }
+    }
+
+    @Test
+    void mergeDay_keepsTheMostSevereStatusInAnyOrder() {
+        AttendanceBitmapIndex day = new AttendanceBitmapIndex(FIRST_DAY, LAST_DAY);
+        LocalDate date = FIRST_DAY.plusDays(10);
+
+        day.mergeDay(1L, date, AttendanceStatus.PRESENT);
+        day.mergeDay(1L, date, AttendanceStatus.ABSENT);
+        day.mergeDay(1L, date, AttendanceStatus.LATE);
+        day.mergeDay(2L, date, AttendanceStatus.LATE);
+        day.mergeDay(2L, date, AttendanceStatus.EXCUSED);
+        day.mergeDay(2L, date, AttendanceStatus.PRESENT);
+
+        assertThat(day.counts(1L, date, date)).containsExactly(onlyStatus(AttendanceStatus.ABSENT));
+        assertThat(day.counts(2L, date, date)).containsExactly(onlyStatus(AttendanceStatus.EXCUSED));
+        assertThat(AttendanceBitmapIndex.resolve(Arrays.asList(AttendanceStatus.PRESENT, null, AttendanceStatus.SICK_LEAVE,
+                AttendanceStatus.MEDICAL_LEAVE))).isEqualTo(AttendanceStatus.MEDICAL_LEAVE);
+    }
+
+    @Test
+    void setDay_replacesTheDayAndNullClearsIt() {
+        LocalDate date = schoolDays.first();
+
+        index.setDay(5L, date, AttendanceStatus.LATE);
+        assertThat(index.counts(5L, date, date)).containsExactly(onlyStatus(AttendanceStatus.LATE));
+
+        index.setDay(5L, date, null);
+        assertThat(index.counts(5L, date, date)).containsExactly(new long[STATUSES.length]);
+        assertThat(index.schoolDaysBetween(date, date)).isEqualTo(1);
+    }
+
+    @Test
+    void counts_matchNaiveRecount() {
+        LocalDate[][] ranges = {
+                {FIRST_DAY, LAST_DAY},
+                {FIRST_DAY.minusDays(30), FIRST_DAY.plusDays(63)},
+                {FIRST_DAY.plusDays(63), FIRST_DAY.plusDays(64)},
+                {BREAK_START.minusDays(3), BREAK_END.plusDays(3)},
+                {BREAK_START, BREAK_END},
+                {LAST_DAY.minusDays(70), LAST_DAY.plusDays(30)},
+                {LAST_DAY.plusDays(1), LAST_DAY.plusDays(10)},
+                {FIRST_DAY.minusDays(10), FIRST_DAY.minusDays(1)},
+        };
+        for (LocalDate[] range : ranges) {
+            long[] all = new long[STATUSES.length];
+            for (long user = 0; user < USERS; user++) {
+                long[] expected = naiveCounts(user, range[0], range[1]);
+                assertThat(index.counts(user, range[0], range[1])).as("user %d in %s..%s", user, range[0], range[1])
+                        .containsExactly(expected);
+                for (int i = 0; i < all.length; i++) all[i] += expected[i];
+            }
+            assertThat(index.aggregateAll(range[0], range[1])).as("all users in %s..%s", range[0], range[1])
+                    .containsExactly(all);
+            assertThat(index.schoolDaysBetween(range[0], range[1])).as("school days in %s..%s", range[0], range[1])
+                    .isEqualTo(schoolDays.subSet(range[0], true, range[1], true).size());
+        }
+    }
+
+    @Test
+    void streak_matchesNaiveRecount() {
+        for (LocalDate asOf = FIRST_DAY.minusDays(2); !asOf.isAfter(LAST_DAY.plusDays(2)); asOf = asOf.plusDays(1)) {
+            for (long user = 0; user < USERS; user++) {
+                for (AttendanceStatus status : STATUSES) {
+                    assertThat(index.streak(user, status, asOf)).as("%s streak of user %d as of %s", status, user, asOf)
+                            .isEqualTo(naiveStreak(user, status, asOf));
+                }
+            }
+        }
+        // The always-present user's streak spans the whole year, across words and the break
+        assertThat(index.streak(PRESENT_USER, AttendanceStatus.PRESENT, LAST_DAY)).isEqualTo(schoolDays.size());
+    }
+
+    @Test
+    void countInLastSchoolDays_matchesNaiveRecount() {
+        int[] windows = {1, 5, 20, 63, 64, 65, 130, 1000};
+        for (LocalDate asOf = FIRST_DAY.minusDays(2); !asOf.isAfter(LAST_DAY.plusDays(2)); asOf = asOf.plusDays(1)) {
+            for (int window : windows) {
+                for (long user = 0; user < USERS; user++) {
+                    for (AttendanceStatus status : STATUSES) {
+                        assertThat(index.countInLastSchoolDays(user, status, window, asOf))
+                                .as("%s in last %d school days of user %d as of %s", status, window, user, asOf)
+                                .isEqualTo(naiveCountInLastSchoolDays(user, status, window, asOf));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void lastRecordedDay_isTheLatestDayInTheYear() {
+        for (long user = 0; user < USERS; user++) {
+            LocalDate expected = null;
+            for (LocalDate day : records.get(user).keySet()) {
+                if (inYear(day) && (expected == null || day.isAfter(expected))) expected = day;
+            }
+            assertThat(index.lastRecordedDay(user)).as("user %d", user).isEqualTo(expected);
+        }
+        assertThat(index.lastRecordedDay(USERS + 1L)).isNull();
+    }
+
+    // ---------------------------------------------------------------- naive model
+
+    private void record(long user, LocalDate day, AttendanceStatus status) {
+        records.computeIfAbsent(user, id -> new HashMap<>()).computeIfAbsent(day, d -> new ArrayList<>()).add(status);
+        index.mergeDay(user, day, status);
+    }
+
+    private static boolean isTeachingDay(LocalDate day) {
+        return day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY
+                && (day.isBefore(BREAK_START) || day.isAfter(BREAK_END));
+    }
+
+    private static boolean inYear(LocalDate day) {
+        return !day.isBefore(FIRST_DAY) && !day.isAfter(LAST_DAY);
+    }
+
+    // The most severe of the user's records on the day, by position in SEVERITY
+    private AttendanceStatus dayStatus(long user, LocalDate day) {
+        List<AttendanceStatus> statuses = records.getOrDefault(user, Map.of()).get(day);
+        if (statuses == null || !inYear(day)) return null;
+        AttendanceStatus worst = null;
+        for (AttendanceStatus status : statuses) {
+            if (worst == null || SEVERITY.indexOf(status) < SEVERITY.indexOf(worst)) worst = status;
+        }
+        return worst;
+    }
+
+    private long[] naiveCounts(long user, LocalDate from, LocalDate to) {
+        long[] counts = new long[STATUSES.length];
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            AttendanceStatus status = dayStatus(user, day);
+            if (status != null) counts[status.ordinal()]++;
+        }
+        return counts;
+    }
+
+    private int naiveStreak(long user, AttendanceStatus status, LocalDate asOf) {
+        int streak = 0;
+        for (LocalDate day : schoolDays.headSet(asOf, true).descendingSet()) {
+            if (dayStatus(user, day) != status) break;
+            streak++;
+        }
+        return streak;
+    }
+
+    private int naiveCountInLastSchoolDays(long user, AttendanceStatus status, int window, LocalDate asOf) {
+        int count = 0;
+        int seen = 0;
+        for (LocalDate day : schoolDays.headSet(asOf, true).descendingSet()) {
+            if (seen++ == window) break;
+            if (dayStatus(user, day) == status) count++;
+        }
+        return count;
+    }
+
+    private static long[] onlyStatus(AttendanceStatus status) {
+        long[] counts = new long[STATUSES.length];
+        counts[status.ordinal()] = 1;
+        return counts;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.school_management.feature.operational.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GradeStatisticsAccumulatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 8, 0);
+
+    @Test
+    void empty_reportsZeros() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(0, 5);
+
+        assertThat(stats.count()).isZero();
+        assertThat(stats.mean()).isZero();
+        assertThat(stats.variance()).isZero();
+        assertThat(stats.median()).isZero();
+        assertThat(stats.slopePerDay()).isZero();
+        assertThat(stats.recentPositions()).isEmpty();
+    }
+
+    @Test
+    void welfordVariance_matchesTwoPassVariance() {
+        float[] scores = {12.5f, 8f, 19f, 15.25f, 10f, 10f, 17.5f, 3f};
+        GradeStatisticsAccumulator stats = accumulate(scores);
+
+        double mean = 0;
+        for (float score : scores) mean += score;
+        mean /= scores.length;
+        double squares = 0;
+        for (float score : scores) squares += (score - mean) * (score - mean);
+
+        assertThat(stats.mean()).isCloseTo(mean, within(1e-9));
+        assertThat(stats.variance()).isCloseTo(squares / scores.length, within(1e-9));
+        assertThat(stats.standardDeviation()).isCloseTo(Math.sqrt(squares / scores.length), within(1e-9));
+    }
+
+    @Test
+    void welfordVariance_staysStableForLargeNearlyEqualScores() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(10_000, 5);
+        for (int i = 0; i < 10_000; i++) {
+            stats.add(i % 2 == 0 ? 19.99f : 20f, 1f, null);
+        }
+
+        assertThat(stats.variance()).isCloseTo(0.000025, within(1e-7));
+    }
+
+    @Test
+    void quickselectPercentiles_matchSortedInterpolation() {
+        Random random = new Random(42);
+        float[] scores = new float[501];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(2001) / 100f;
+        }
+        GradeStatisticsAccumulator stats = accumulate(scores);
+        float[] sorted = scores.clone();
+        Arrays.sort(sorted);
+
+        for (double p : new double[]{0, 0.1, 0.25, 0.5, 0.75, 0.9, 1}) {
+            assertThat(stats.percentile(p)).as("p=%s", p).isCloseTo(sortedPercentile(sorted, p), within(1e-4));
+        }
+        assertThat(stats.median()).isEqualTo(sorted[250]);
+    }
+
+    @Test
+    void percentiles_interpolateAndSurviveLaterAdds() {
+        GradeStatisticsAccumulator stats = accumulate(new float[]{10f, 20f, 0f, 30f});
+
+        assertThat(stats.median()).isEqualTo(15.0);
+        assertThat(stats.percentile(0.25)).isCloseTo(7.5, within(1e-9));
+
+        stats.add(40f, 1f, null);
+        assertThat(stats.median()).isEqualTo(20.0);
+        assertThatThrownBy(() -> stats.percentile(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void topK_keepsMostRecentNewestFirst() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(10, 3);
+        int[] dayOffsets = {4, 9, 1, 7, 3, 8, 0};
+        for (int offset : dayOffsets) {
+            stats.add(10f, 1f, START.plusDays(offset));
+        }
+        stats.add(10f, 1f, null); // undated grades rank oldest
+
+        // days 9, 8, 7 were added at positions 1, 5, 3
+        assertThat(stats.recentPositions()).containsExactly(1, 5, 3);
+    }
+
+    @Test
+    void topK_breaksTiesByLatestAdded() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(4, 2);
+        for (int i = 0; i < 4; i++) {
+            stats.add(10f, 1f, START);
+        }
+
+        assertThat(stats.recentPositions()).containsExactly(3, 2);
+    }
+
+    @Test
+    void slope_fitsLinearTrendInPointsPerDay() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(5, 5);
+        for (int day = 0; day < 5; day++) {
+            stats.add(10f + 0.5f * day, 1f, START.plusDays(day));
+        }
+        stats.add(2f, 1f, null); // undated grades are left out of the fit
+
+        assertThat(stats.slopePerDay()).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void slope_isZeroWhenUndetermined() {
+        GradeStatisticsAccumulator single = new GradeStatisticsAccumulator(1, 5);
+        single.add(12f, 1f, START);
+        GradeStatisticsAccumulator sameInstant = new GradeStatisticsAccumulator(2, 5);
+        sameInstant.add(8f, 1f, START);
+        sameInstant.add(16f, 1f, START);
+
+        assertThat(single.slopePerDay()).isZero();
+        assertThat(sameInstant.slopePerDay()).isZero();
+    }
+
+    @Test
+    void weightsAndBuckets() {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(4, 5);
+        stats.add(18f, 2f, null);
+        stats.add(14f, null, null);
+        stats.add(10f, 1f, null);
+        stats.add(9.99f, 1f, null);
+
+        assertThat(stats.weightedMean()).isCloseTo((36 + 14 + 10 + 9.99) / 5, within(1e-5));
+        assertThat(stats.min()).isEqualTo(9.99f);
+        assertThat(stats.max()).isEqualTo(18f);
+        assertThat(new long[]{stats.excellentCount(), stats.goodCount(), stats.satisfactoryCount(),
+                stats.needsImprovementCount()}).containsExactly(1, 1, 1, 1);
+    }
+
+    private static GradeStatisticsAccumulator accumulate(float[] scores) {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(scores.length, 5);
+        for (float score : scores) {
+            stats.add(score, 1f, null);
+        }
+        return stats;
+    }
+
+    private static double sortedPercentile(float[] sorted, double p) {
+        double rank = p * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.school_management.feature.operational.domain;
+
+import com.example.school_management.feature.operational.entity.Grade;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH comparison of the stream-based grade statistics that GradeServiceImpl used to compute
+ * and {@link GradeStatisticsAccumulator}. The accumulator path also computes variance,
+ * median/percentiles and the trend slope, which the legacy path never did.
+ * Not picked up by surefire; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.school_management.feature.operational.domain.GradeStatisticsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeStatisticsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<Grade> grades;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 9, 1, 8, 0);
+        grades = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Grade grade = new Grade();
+            grade.setScore(random.nextInt(201) / 10.0f);
+            grade.setWeight(random.nextBoolean() ? 1.0f : 2.0f);
+            grade.setGradedAt(start.plusMinutes(random.nextInt(60 * 24 * 270)));
+            grades.add(grade);
+        }
+    }
+
+    @Benchmark
+    public void legacyStreams(Blackhole blackhole) {
+        double sum = grades.stream().mapToDouble(Grade::getScore).sum();
+        double weightedSum = grades.stream().mapToDouble(grade -> grade.getScore() * grade.getWeight()).sum();
+        double totalWeight = grades.stream().mapToDouble(Grade::getWeight).sum();
+
+        float min = grades.stream().map(Grade::getScore).min(Float::compareTo).orElse(0.0f);
+        float max = grades.stream().map(Grade::getScore).max(Float::compareTo).orElse(0.0f);
+
+        double average = sum / grades.size();
+        double weightedAverage = totalWeight > 0 ? weightedSum / totalWeight : average;
+
+        long excellent = grades.stream().mapToLong(grade -> grade.getScore() >= 18 ? 1 : 0).sum();
+        long good = grades.stream().mapToLong(grade -> grade.getScore() >= 14 && grade.getScore() < 18 ? 1 : 0).sum();
+        long satisfactory = grades.stream().mapToLong(grade -> grade.getScore() >= 10 && grade.getScore() < 14 ? 1 : 0).sum();
+        long needsImprovement = grades.stream().mapToLong(grade -> grade.getScore() < 10 ? 1 : 0).sum();
+
+        List<Grade> recent = grades.stream()
+            .sorted((g1, g2) -> g2.getGradedAt().compareTo(g1.getGradedAt()))
+            .limit(5)
+            .collect(Collectors.toList());
+
+        blackhole.consume(weightedAverage);
+        blackhole.consume(min + max);
+        blackhole.consume(excellent + good + satisfactory + needsImprovement);
+        blackhole.consume(recent);
+    }
+
+    @Benchmark
+    public void singlePassAccumulator(Blackhole blackhole) {
+        GradeStatisticsAccumulator stats = new GradeStatisticsAccumulator(grades.size(), 5);
+        for (Grade grade : grades) {
+            stats.add(grade.getScore(), grade.getWeight(), grade.getGradedAt());
+        }
+
+        blackhole.consume(stats.weightedMean());
+        blackhole.consume(stats.min() + stats.max());
+        blackhole.consume(stats.excellentCount() + stats.goodCount() + stats.satisfactoryCount() + stats.needsImprovementCount());
+        blackhole.consume(stats.variance());
+        blackhole.consume(stats.median());
+        blackhole.consume(stats.percentile(0.25) + stats.percentile(0.75));
+        blackhole.consume(stats.slopePerDay());
+        blackhole.consume(stats.recentPositions());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(GradeStatisticsBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
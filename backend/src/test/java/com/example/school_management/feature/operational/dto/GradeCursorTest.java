@@ -0,0 +1,47 @@
+package com.example.school_management.feature.operational.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradeCursorTest {
+
+    @Test
+    void encode_roundTrips() {
+        GradeCursor cursor = new GradeCursor(LocalDateTime.of(2025, 10, 6, 9, 30, 15, 123_000_000), 42L);
+
+        assertThat(GradeCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(GradeCursor.decode(GradeCursor.FIRST.encode())).isEqualTo(GradeCursor.FIRST);
+    }
+
+    @Test
+    void decode_malformedToken_isBadRequest() {
+        String[] tokens = {
+                "not base64!",
+                urlEncode("no separator"),
+                urlEncode("2025-10-06T09:30|"),
+                urlEncode("yesterday|42"),
+        };
+        for (String token : tokens) {
+            assertThatThrownBy(() -> GradeCursor.decode(token))
+                    .as("token %s", token)
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(ex -> {
+                        ResponseStatusException rse = (ResponseStatusException) ex;
+                        assertThat(rse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                        assertThat(rse.getReason()).isEqualTo("Invalid cursor");
+                    });
+        }
+    }
+
+    private static String urlEncode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.academic.entity.ClassEntity;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.academic.repository.CourseRepository;
+import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
+import com.example.school_management.feature.auth.entity.BaseUser;
+import com.example.school_management.feature.auth.entity.Student;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.BaseUserRepository;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.entity.Attendance;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.entity.enums.UserType;
+import com.example.school_management.feature.operational.mapper.OperationalMapper;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.repository.EnrollmentRepository;
+import com.example.school_management.feature.operational.repository.TimetableSlotRepository;
+import com.example.school_management.feature.operational.service.impl.AttendanceServiceImpl;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Records/second of {@code recordAttendance} called per record versus {@code recordBatchAttendance}
+ * for 100, 1k and 10k record batches. Repositories are mocks that park for {@code roundTripMicros}
+ * per database round trip (saveAll: one per JDBC batch of 50), so the score reflects round trips
+ * saved rather than PostgreSQL itself. The "records" secondary metric is the records/second figure.
+ * Not picked up by surefire; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.school_management.feature.operational.service.AttendanceBatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AttendanceBatchBenchmark {
+
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    @Param({"200"})
+    private long roundTripMicros;
+
+    private AttendanceServiceImpl attendanceService;
+    private List<AttendanceDto> batch;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Records {
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+        BaseUserRepository<BaseUser> userRepository = mock(BaseUserRepository.class);
+        ClassRepository classRepository = mock(ClassRepository.class);
+
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(1L);
+        Teacher recorder = new Teacher();
+        recorder.setId(0L);
+
+        when(userRepository.findById(anyLong())).thenAnswer(roundTrip(invocation -> Optional.of(student(invocation.getArgument(0)))));
+        when(userRepository.findAllById(anyIterable())).thenAnswer(roundTrip(invocation -> {
+            List<BaseUser> students = new ArrayList<>();
+            for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+                students.add(student(id));
+            }
+            return students;
+        }));
+        when(userRepository.findByEmail(anyString())).thenAnswer(roundTrip(invocation -> Optional.of(recorder)));
+        when(classRepository.findById(anyLong())).thenAnswer(roundTrip(invocation -> Optional.of(classEntity)));
+        when(classRepository.findAllById(anyIterable())).thenAnswer(roundTrip(invocation -> List.of(classEntity)));
+        when(attendanceRepository.findByUserIdAndClassIdAndDate(anyLong(), anyLong(), any())).thenAnswer(roundTrip(invocation -> Optional.empty()));
+        when(attendanceRepository.findByUserIdInAndDateIn(anyCollection(), anyCollection())).thenAnswer(roundTrip(invocation -> List.of()));
+        when(attendanceRepository.save(any(Attendance.class))).thenAnswer(roundTrip(invocation -> invocation.getArgument(0)));
+        when(attendanceRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Collection<Attendance> rows = invocation.getArgument(0);
+            pause((rows.size() + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE);
+            return new ArrayList<>(rows);
+        });
+
+        attendanceService = new AttendanceServiceImpl(
+                attendanceRepository,
+                userRepository,
+                mock(CourseRepository.class),
+                classRepository,
+                mock(TeachingAssignmentRepository.class),
+                mock(TimetableSlotRepository.class),
+                mock(TeacherRepository.class),
+                mock(EnrollmentRepository.class),
+                mock(AbsenceNotificationService.class),
+                mock(AttendanceIndexService.class),
+                mock(AttendanceRollupService.class),
+                mock(TeacherDayScheduleService.class),
+                mock(ClassRosterService.class),
+                mock(ApplicationEventPublisher.class),
+                mock(OperationalMapper.class));
+
+        // Everyone present, so neither path queues absence alerts
+        LocalDate today = LocalDate.of(2024, 9, 2);
+        batch = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            AttendanceDto dto = new AttendanceDto();
+            dto.setUserId(i);
+            dto.setClassId(1L);
+            dto.setDate(today);
+            dto.setStatus(AttendanceStatus.PRESENT);
+            dto.setUserType(UserType.STUDENT);
+            batch.add(dto);
+        }
+
+        User principal = new User("teacher@school.test", "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public void perRecord(Records counter) {
+        for (AttendanceDto dto : batch) {
+            attendanceService.recordAttendance(dto);
+        }
+        counter.records += size;
+    }
+
+    @Benchmark
+    public void batch(Records counter) {
+        attendanceService.recordBatchAttendance(batch);
+        counter.records += size;
+    }
+
+    private Answer<Object> roundTrip(Answer<Object> answer) {
+        return invocation -> {
+            pause(1);
+            return answer.answer(invocation);
+        };
+    }
+
+    private void pause(int roundTrips) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros * roundTrips));
+    }
+
+    private static Student student(Long id) {
+        Student student = new Student();
+        student.setId(id);
+        return student;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AttendanceBatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.commons.configs.AsyncExecutorConfig;
+import com.example.school_management.feature.operational.service.impl.DashboardComposer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency of an admin-shaped dashboard (base info, system stats, performance metrics) built
+ * section after section versus through {@link DashboardComposer}. Sections park for
+ * {@code sectionMillis} each in place of their queries, and the transaction manager is a mock,
+ * so the figures show the fan-out and not PostgreSQL. The composed score should sit near one
+ * section, the sequential one near their sum.
+ * Not picked up by surefire; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.school_management.feature.operational.service.DashboardCompositionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class DashboardCompositionBenchmark {
+
+    private static final String[] SECTIONS = {"baseInfo", "systemStats", "performanceMetrics"};
+
+    @Param({"5", "20"})
+    private long sectionMillis;
+
+    private DashboardComposer composer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        composer = new DashboardComposer(
+                new AsyncExecutorConfig().dashboardExecutor(8, true),
+                mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(),
+                2000);
+    }
+
+    @Benchmark
+    public Map<String, Object> sequential() {
+        Map<String, Object> dashboard = new HashMap<>();
+        for (String section : SECTIONS) {
+            dashboard.put(section, load(section));
+        }
+        return dashboard;
+    }
+
+    @Benchmark
+    public Map<String, Object> composed() {
+        DashboardComposer.Composition composition = composer.compose("ADMIN");
+        for (String section : SECTIONS) {
+            composition.section(section, () -> load(section), "");
+        }
+        return composition.join();
+    }
+
+    private String load(String section) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(sectionMillis));
+        return section;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DashboardCompositionBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.school_management.feature.operational.service;
+
+import com.example.school_management.feature.academic.entity.ClassEntity;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.operational.dto.BulkGradeEntryRequest;
+import com.example.school_management.feature.operational.dto.BulkGradeEntryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for {@link GradeService#enterBulkGrades}.
+ * Not picked up by the default surefire includes; run explicitly with
+ * {@code mvn test -Dtest=GradeBulkIngestionBenchmark} against a database holding at least one class and teacher.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class GradeBulkIngestionBenchmark {
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ClassEntity benchClass;
+
+    @BeforeEach
+    void setUp() {
+        List<ClassEntity> classes = classRepository.findAll();
+        assertFalse(classes.isEmpty(), "No classes found in database");
+        benchClass = classes.get(0);
+
+        List<Teacher> teachers = teacherRepository.findAll();
+        assertFalse(teachers.isEmpty(), "No teachers found in database");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(teachers.get(0).getEmail(), null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    public void benchmarkBulkGradeEntry(int rows) {
+        List<Long> studentIds = seedEnrolledStudents(rows);
+
+        BulkGradeEntryRequest request = new BulkGradeEntryRequest();
+        request.setClassId(benchClass.getId());
+        request.setAssessmentType("EXAM");
+        request.setTerm("BENCH");
+        List<BulkGradeEntryRequest.StudentGradeEntry> grades = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            BulkGradeEntryRequest.StudentGradeEntry entry = new BulkGradeEntryRequest.StudentGradeEntry();
+            entry.setStudentId(studentIds.get(i));
+            entry.setValue((double) (i % 21));
+            grades.add(entry);
+        }
+        request.setGrades(grades);
+
+        long start = System.nanoTime();
+        BulkGradeEntryResult result = gradeService.enterBulkGrades(request);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(rows, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        System.out.printf("Bulk grade entry: %d rows in %.3f s -> %.0f grades/s%n", rows, seconds, rows / seconds);
+    }
+
+    // Insert users, students and active enrollments for the benchmark class in three set-based statements
+    private List<Long> seedEnrolledStudents(int count) {
+        String runId = Long.toString(System.nanoTime());
+        return jdbcTemplate.queryForList(
+                "WITH u AS (" +
+                "  INSERT INTO users (first_name, last_name, email, role, status) " +
+                "  SELECT 'Bench', 'Student ' || g, 'bench-' || ? || '-' || g || '@bench.local', 'STUDENT', 'ACTIVE' " +
+                "  FROM generate_series(1, ?) g RETURNING id" +
+                "), s AS (" +
+                "  INSERT INTO student (id) SELECT id FROM u RETURNING id" +
+                ") " +
+                "INSERT INTO enrollments (status, student_id, class_id) " +
+                "SELECT 'ACTIVE', id, ? FROM s RETURNING student_id",
+                Long.class, runId, count, benchClass.getId());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.school_management.feature.unit.operational.services;
+
+import com.example.school_management.feature.academic.entity.ClassEntity;
+import com.example.school_management.feature.academic.entity.Course;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.academic.repository.CourseRepository;
+import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
+import com.example.school_management.feature.auth.entity.BaseUser;
+import com.example.school_management.feature.auth.entity.Student;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.BaseUserRepository;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.operational.dto.AttendanceDto;
+import com.example.school_management.feature.operational.entity.Attendance;
+import com.example.school_management.feature.operational.entity.enums.AttendanceStatus;
+import com.example.school_management.feature.operational.mapper.OperationalMapper;
+import com.example.school_management.feature.operational.repository.AttendanceRepository;
+import com.example.school_management.feature.operational.repository.EnrollmentRepository;
+import com.example.school_management.feature.operational.repository.TimetableSlotRepository;
+import com.example.school_management.feature.operational.service.AbsenceNotificationService;
+import com.example.school_management.feature.operational.service.AttendanceIndexService;
+import com.example.school_management.feature.operational.service.AttendanceRollupService;
+import com.example.school_management.feature.operational.service.ClassRosterService;
+import com.example.school_management.feature.operational.service.TeacherDayScheduleService;
+import com.example.school_management.feature.operational.service.impl.AttendanceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Attendance is unique per (student, class, day): recording it again for another course of the
+ * same class and day, one record or a batch, must return the existing record, never insert a
+ * second row.
+ */
+@ExtendWith(MockitoExtension.class)
+class AttendanceDuplicateCheckTest {
+
+    private static final String TEACHER_EMAIL = "teacher@school.test";
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 6);
+    private static final long STUDENT_ID = 1L;
+    private static final long CLASS_ID = 3L;
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+    @Mock
+    private BaseUserRepository<BaseUser> userRepository;
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private ClassRepository classRepository;
+    @Mock
+    private TeachingAssignmentRepository teachingAssignmentRepository;
+    @Mock
+    private TimetableSlotRepository timetableSlotRepository;
+    @Mock
+    private TeacherRepository teacherRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private AbsenceNotificationService absenceNotificationService;
+    @Mock
+    private AttendanceIndexService attendanceIndexService;
+    @Mock
+    private AttendanceRollupService attendanceRollupService;
+    @Mock
+    private TeacherDayScheduleService teacherDayScheduleService;
+    @Mock
+    private ClassRosterService classRosterService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OperationalMapper mapper;
+
+    @InjectMocks
+    private AttendanceServiceImpl attendanceService;
+
+    private Student student;
+    private ClassEntity classEntity;
+
+    @BeforeEach
+    void setUp() {
+        UserDetails principal = User.withUsername(TEACHER_EMAIL).password("secret").roles("TEACHER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        student = new Student();
+        student.setId(STUDENT_ID);
+        classEntity = new ClassEntity();
+        classEntity.setId(CLASS_ID);
+        when(mapper.toAttendanceDto(any(Attendance.class))).thenAnswer(invocation -> {
+            AttendanceDto dto = new AttendanceDto();
+            dto.setId(invocation.<Attendance>getArgument(0).getId());
+            return dto;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordBatchAttendance_sameClassAndDayForAnotherCourse_returnsExistingRecord() {
+        // given: the student is already marked in the class today, for course 10
+        Attendance existing = attendance(100L, course(10L));
+        Course otherCourse = course(11L);
+        Teacher teacher = new Teacher();
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(student));
+        when(courseRepository.findAllById(anyCollection())).thenReturn(List.of(otherCourse));
+        when(classRepository.findAllById(anyCollection())).thenReturn(List.of(classEntity));
+        when(attendanceRepository.findByUserIdInAndDateIn(anyCollection(), anyCollection())).thenReturn(List.of(existing));
+        when(userRepository.findByEmail(TEACHER_EMAIL)).thenReturn(Optional.of(teacher));
+
+        // when: the batch records the same student, class and day for course 11
+        List<AttendanceDto> results = attendanceService.recordBatchAttendance(List.of(dto(otherCourse.getId())));
+
+        // then: the existing row is returned and nothing is inserted
+        assertThat(results).extracting(AttendanceDto::getId).containsExactly(100L);
+        ArgumentCaptor<List<Attendance>> saved = ArgumentCaptor.forClass(List.class);
+        verify(attendanceRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordBatchAttendance_sameClassAndDayTwiceInOneBatch_insertsOnce() {
+        // given: nothing recorded yet
+        Course first = course(10L);
+        Course second = course(11L);
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(student));
+        when(courseRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(classRepository.findAllById(anyCollection())).thenReturn(List.of(classEntity));
+        when(attendanceRepository.findByUserIdInAndDateIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(userRepository.findByEmail(TEACHER_EMAIL)).thenReturn(Optional.of(new Teacher()));
+
+        // when: two courses of the same class and day arrive in the same batch
+        List<AttendanceDto> results = attendanceService.recordBatchAttendance(List.of(dto(first.getId()), dto(second.getId())));
+
+        // then: one row is inserted and both entries resolve to it
+        assertThat(results).hasSize(2);
+        ArgumentCaptor<List<Attendance>> saved = ArgumentCaptor.forClass(List.class);
+        verify(attendanceRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(1);
+        assertThat(saved.getValue().get(0).getCourse()).isSameAs(first);
+    }
+
+    @Test
+    void recordAttendance_sameClassAndDayForAnotherCourse_returnsExistingRecord() {
+        // given: the student is already marked in the class today, for course 10
+        Attendance existing = attendance(100L, course(10L));
+        when(userRepository.findById(STUDENT_ID)).thenReturn(Optional.of(student));
+        when(attendanceRepository.findByUserIdAndClassIdAndDate(STUDENT_ID, CLASS_ID, DAY)).thenReturn(Optional.of(existing));
+
+        // when: the same student, class and day is recorded for course 11
+        AttendanceDto result = attendanceService.recordAttendance(dto(11L));
+
+        // then: the existing row is returned instead of hitting the unique index
+        assertThat(result.getId()).isEqualTo(100L);
+        verify(attendanceRepository, never()).save(any(Attendance.class));
+        verify(attendanceRepository, never()).findByUserIdAndCourseIdAndDate(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void recordAttendance_withoutClass_looksUpByCourse() {
+        // given: a course-only record for the day
+        Attendance existing = attendance(100L, course(10L));
+        existing.setClassEntity(null);
+        AttendanceDto dto = dto(10L);
+        dto.setClassId(null);
+        when(userRepository.findById(STUDENT_ID)).thenReturn(Optional.of(student));
+        when(attendanceRepository.findByUserIdAndCourseIdAndDate(STUDENT_ID, 10L, DAY)).thenReturn(Optional.of(existing));
+
+        // when
+        AttendanceDto result = attendanceService.recordAttendance(dto);
+
+        // then
+        assertThat(result.getId()).isEqualTo(100L);
+        verify(attendanceRepository, never()).save(any(Attendance.class));
+    }
+
+    private AttendanceDto dto(Long courseId) {
+        AttendanceDto dto = new AttendanceDto();
+        dto.setUserId(STUDENT_ID);
+        dto.setClassId(CLASS_ID);
+        dto.setCourseId(courseId);
+        dto.setDate(DAY);
+        dto.setStatus(AttendanceStatus.PRESENT);
+        return dto;
+    }
+
+    private Attendance attendance(Long id, Course course) {
+        Attendance attendance = new Attendance();
+        attendance.setId(id);
+        attendance.setUser(student);
+        attendance.setClassEntity(classEntity);
+        attendance.setCourse(course);
+        attendance.setDate(DAY);
+        attendance.setStatus(AttendanceStatus.PRESENT);
+        return attendance;
+    }
+
+    private static Course course(Long id) {
+        Course course = new Course();
+        course.setId(id);
+        return course;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.school_management.feature.unit.operational.services;
+
+import com.example.school_management.feature.operational.service.impl.DashboardComposer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A dashboard is composed from whatever its sections produce within the deadline: a section that
+ * throws or runs past {@code section-timeout-ms} is replaced by its fallback and listed under
+ * {@code degradedSections}, and the other sections are unaffected.
+ */
+class DashboardComposerTest {
+
+    private static final long SECTION_TIMEOUT_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Holds the slow section past the deadline; released after each test
+    private final CountDownLatch slowSection = new CountDownLatch(1);
+    private DashboardComposer composer;
+
+    @BeforeEach
+    void setUp() {
+        composer = new DashboardComposer(new SimpleAsyncTaskExecutor(), mock(PlatformTransactionManager.class),
+                meterRegistry, SECTION_TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowSection.countDown();
+    }
+
+    @Test
+    void failingAndSlowSections_useTheirFallbacks() {
+        // when
+        long started = System.nanoTime();
+        Map<String, Object> dashboard = composer.compose("ADMIN")
+                .put("title", "Admin")
+                .section("baseInfo", () -> "base", "no base")
+                .section("systemStats", () -> {
+                    throw new IllegalStateException("stats unavailable");
+                }, "no stats")
+                .section("performanceMetrics", () -> {
+                    awaitQuietly(slowSection);
+                    return "metrics";
+                }, "no metrics")
+                .section("recentActivity", () -> List.of("login"), List.of())
+                .join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // then: fallbacks replace the degraded sections, the others arrive, declaration order is kept
+        assertThat(dashboard.get("title")).isEqualTo("Admin");
+        assertThat(dashboard.get("baseInfo")).isEqualTo("base");
+        assertThat(dashboard.get("systemStats")).isEqualTo("no stats");
+        assertThat(dashboard.get("performanceMetrics")).isEqualTo("no metrics");
+        assertThat(dashboard.get("recentActivity")).isEqualTo(List.of("login"));
+        assertThat(dashboard.get(DashboardComposer.DEGRADED_SECTIONS))
+                .isEqualTo(Map.of("systemStats", "FAILED", "performanceMetrics", "TIMEOUT"));
+        assertThat(List.copyOf(dashboard.keySet())).containsExactly("title", "baseInfo", "systemStats",
+                "performanceMetrics", "recentActivity", DashboardComposer.DEGRADED_SECTIONS);
+        // and the dashboard does not wait for the slow section
+        assertThat(slowSection.getCount()).isEqualTo(1);
+        assertThat(elapsedMs).isLessThan(5_000);
+        assertThat(composeCount("partial")).isEqualTo(1);
+        assertThat(sectionCount("systemStats", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void allSectionsInTime_noDegradedSections() {
+        // when
+        Map<String, Object> dashboard = composer.compose("STUDENT")
+                .section("baseInfo", () -> "base", "no base")
+                .section("grades", () -> List.of(15), List.of())
+                .join();
+
+        // then
+        assertThat(dashboard.get("baseInfo")).isEqualTo("base");
+        assertThat(dashboard.get("grades")).isEqualTo(List.of(15));
+        assertThat(dashboard.containsKey(DashboardComposer.DEGRADED_SECTIONS)).isFalse();
+        assertThat(composeCount("complete")).isEqualTo(1);
+        assertThat(sectionCount("grades", "success")).isEqualTo(1);
+    }
+
+    private long composeCount(String outcome) {
+        var timer = meterRegistry.find("dashboard.compose").tag("outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private long sectionCount(String section, String outcome) {
+        var timer = meterRegistry.find("dashboard.section").tag("section", section).tag("outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
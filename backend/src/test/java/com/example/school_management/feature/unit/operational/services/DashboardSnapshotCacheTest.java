@@ -0,0 +1,107 @@
+package com.example.school_management.feature.unit.operational.services;
+
+import com.example.school_management.feature.auth.dto.UserProfileChangedEvent;
+import com.example.school_management.feature.operational.service.impl.DashboardComposer;
+import com.example.school_management.feature.operational.service.impl.DashboardSnapshotCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshot freshness is decided by tokens, not age: a snapshot counts only when it was built
+ * against the tokens current when it is read. Runs on an in-memory cache with stale snapshots
+ * rebuilt by the request, so every outcome is visible in the builder calls.
+ */
+class DashboardSnapshotCacheTest {
+
+    private static final String ROLE = "STUDENT";
+    private static final long USER_ID = 1L;
+
+    private DashboardSnapshotCache snapshotCache;
+    private AtomicInteger builds;
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache = new DashboardSnapshotCache(new ConcurrentMapCacheManager(DashboardSnapshotCache.CACHE_NAME),
+                null, new ObjectMapper(), new SimpleAsyncTaskExecutor(), new SimpleMeterRegistry(), true, false);
+        builds = new AtomicInteger();
+    }
+
+    @Test
+    void freshSnapshot_isServedWithoutRebuilding() {
+        snapshotCache.get(ROLE, USER_ID, () -> dashboard("first"));
+
+        Object served = snapshotCache.get(ROLE, USER_ID, () -> dashboard("second"));
+
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(((JsonNode) served).get("name").asText()).isEqualTo("first");
+    }
+
+    @Test
+    void changeCommittedDuringRebuild_leavesSnapshotStale() {
+        // given: the user's data changes while their dashboard is being built
+        snapshotCache.get(ROLE, USER_ID, () -> {
+            Map<String, Object> dashboard = dashboard("before change");
+            snapshotCache.invalidateUsers(List.of(USER_ID));
+            return dashboard;
+        });
+
+        // when
+        Object served = snapshotCache.get(ROLE, USER_ID, () -> dashboard("after change"));
+
+        // then: the snapshot built before the change is not served
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(served).isEqualTo(Map.of("name", "after change"));
+    }
+
+    @Test
+    void degradedDashboard_isNotStored() {
+        // given
+        snapshotCache.get(ROLE, USER_ID, () -> {
+            Map<String, Object> dashboard = new HashMap<>(dashboard("fallback"));
+            dashboard.put(DashboardComposer.DEGRADED_SECTIONS, Map.of("baseInfo", "TIMEOUT"));
+            return dashboard;
+        });
+
+        // when
+        Object served = snapshotCache.get(ROLE, USER_ID, () -> dashboard("complete"));
+
+        // then: rebuilt, and the complete dashboard is the one kept
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(served).isEqualTo(Map.of("name", "complete"));
+        snapshotCache.get(ROLE, USER_ID, () -> dashboard("unused"));
+        assertThat(builds.get()).isEqualTo(2);
+    }
+
+    @Test
+    void profileChange_marksTheUsersSnapshotStale() {
+        // given
+        snapshotCache.get(ROLE, USER_ID, () -> dashboard("Old Name"));
+        snapshotCache.get(ROLE, 2L, () -> dashboard("Other User"));
+
+        // when
+        snapshotCache.onUserProfileChanged(new UserProfileChangedEvent(USER_ID));
+
+        // then: only the changed user's dashboard is rebuilt
+        Object served = snapshotCache.get(ROLE, USER_ID, () -> dashboard("New Name"));
+        snapshotCache.get(ROLE, 2L, () -> dashboard("unused"));
+        assertThat(served).isEqualTo(Map.of("name", "New Name"));
+        assertThat(builds.get()).isEqualTo(3);
+    }
+
+    private Map<String, Object> dashboard(String name) {
+        builds.incrementAndGet();
+        return Map.of("name", name);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.school_management.feature.unit.operational.services;
+
+import com.example.school_management.commons.service.SingleFlightService;
+import com.example.school_management.feature.academic.repository.ClassRepository;
+import com.example.school_management.feature.academic.repository.CourseRepository;
+import com.example.school_management.feature.academic.repository.TeachingAssignmentRepository;
+import com.example.school_management.feature.auth.entity.Teacher;
+import com.example.school_management.feature.auth.repository.StudentRepository;
+import com.example.school_management.feature.auth.repository.TeacherRepository;
+import com.example.school_management.feature.auth.repository.UserRepository;
+import com.example.school_management.feature.operational.dto.GradeResponse;
+import com.example.school_management.feature.operational.dto.GradeStatistics;
+import com.example.school_management.feature.operational.entity.Grade;
+import com.example.school_management.feature.operational.entity.GradeAggregate;
+import com.example.school_management.feature.operational.mapper.OperationalMapper;
+import com.example.school_management.feature.operational.repository.EnhancedGradeRepository;
+import com.example.school_management.feature.operational.repository.EnrollmentRepository;
+import com.example.school_management.feature.operational.repository.GradeRepository;
+import com.example.school_management.feature.operational.service.AuditService;
+import com.example.school_management.feature.operational.service.ClassRankingService;
+import com.example.school_management.feature.operational.service.GradeAggregateService;
+import com.example.school_management.feature.operational.service.impl.GradeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GradeServiceImplTest {
+
+    private static final String TEACHER_EMAIL = "teacher@school.test";
+    private static final long TEACHER_ID = 7L;
+    private static final String OTHER_TEACHER_EMAIL = "other@school.test";
+    private static final long OTHER_TEACHER_ID = 8L;
+
+    @Mock
+    private GradeRepository gradeRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private EnhancedGradeRepository enhancedGradeRepository;
+    @Mock
+    private TeacherRepository teacherRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TeachingAssignmentRepository teachingAssignmentRepository;
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private ClassRepository classRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private GradeAggregateService gradeAggregateService;
+    @Mock
+    private ClassRankingService classRankingService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OperationalMapper mapper;
+    @Mock
+    private EntityManager entityManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService(meterRegistry, true, 1000, 5000);
+
+    @InjectMocks
+    private GradeServiceImpl gradeService;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(TEACHER_EMAIL, null, Collections.emptyList()));
+        Teacher teacher = teacher(TEACHER_ID);
+        when(teacherRepository.findByEmail(TEACHER_EMAIL)).thenReturn(Optional.of(teacher));
+        when(mapper.toGradeResponse(any(Grade.class))).thenAnswer(invocation -> {
+            Grade grade = invocation.getArgument(0);
+            GradeResponse response = new GradeResponse();
+            response.setId(grade.getId());
+            response.setTeacherId(grade.getAssignedBy().getId());
+            response.setGradedAt(grade.getGradedAt());
+            return response;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 500})
+    void getGradesByClassIdPaged_issuesConstantQueriesRegardlessOfPageSize(int pageSize) {
+        // given
+        Pageable pageable = PageRequest.of(0, pageSize);
+        List<Grade> grades = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            grades.add(grade((long) i, TEACHER_ID, LocalDateTime.now()));
+        }
+        when(gradeRepository.findByClassIdOrderByGradedAtDesc(1L, pageable))
+                .thenReturn(new PageImpl<>(grades, pageable, pageSize));
+
+        // when
+        Page<GradeResponse> page = gradeService.getGradesByClassId(1L, pageable);
+
+        // then: one page query and one viewer lookup, never a per-row grade reload
+        assertThat(page.getContent()).hasSize(pageSize);
+        verify(gradeRepository, times(1)).findByClassIdOrderByGradedAtDesc(1L, pageable);
+        verify(teacherRepository, times(1)).findByEmail(TEACHER_EMAIL);
+        verify(gradeRepository, never()).findById(anyLong());
+        verifyNoMoreInteractions(gradeRepository, teacherRepository);
+    }
+
+    @Test
+    void getGradesByClassId_computesPermissionsFromLoadedGrade() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        Grade ownRecent = grade(1L, TEACHER_ID, now.minusHours(1));
+        Grade ownOld = grade(2L, TEACHER_ID, now.minusDays(2));
+        Grade otherTeacher = grade(3L, 99L, now.minusHours(1));
+        when(gradeRepository.findByClassId(1L)).thenReturn(List.of(ownRecent, ownOld, otherTeacher));
+
+        // when
+        List<GradeResponse> responses = gradeService.getGradesByClassId(1L);
+
+        // then
+        assertThat(responses).extracting(GradeResponse::isCanEdit).containsExactly(true, true, false);
+        assertThat(responses).extracting(GradeResponse::isCanDelete).containsExactly(true, false, false);
+        verify(gradeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getClassGradeStatistics_usersJoiningOneComputation_getTheirOwnPermissions() throws Exception {
+        // given: one recent grade by each teacher, and a computation held open until both callers are in
+        LocalDateTime now = LocalDateTime.now();
+        Grade own = grade(1L, TEACHER_ID, now.minusHours(1));
+        Grade other = grade(2L, OTHER_TEACHER_ID, now.minusHours(1));
+        when(gradeRepository.findByClassIdOrderByGradedAtDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(own, other)));
+        when(teacherRepository.findByEmail(OTHER_TEACHER_EMAIL)).thenReturn(Optional.of(teacher(OTHER_TEACHER_ID)));
+        CountDownLatch release = new CountDownLatch(1);
+        when(gradeAggregateService.getClassAggregate(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(classAggregate());
+        });
+
+        // when
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<GradeStatistics> first = pool.submit(() -> statisticsAs(TEACHER_EMAIL));
+            while (inFlight() < 1) {
+                Thread.sleep(5);
+            }
+            Future<GradeStatistics> second = pool.submit(() -> statisticsAs(OTHER_TEACHER_EMAIL));
+            while (collapsed() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // then: computed once, but each caller sees only its own grade as editable
+            GradeStatistics mine = first.get(5, TimeUnit.SECONDS);
+            GradeStatistics theirs = second.get(5, TimeUnit.SECONDS);
+            verify(gradeAggregateService, times(1)).getClassAggregate(1L);
+            assertThat(mine.getRecentGrades()).extracting(GradeResponse::isCanEdit).containsExactly(true, false);
+            assertThat(mine.getRecentGrades()).extracting(GradeResponse::isCanDelete).containsExactly(true, false);
+            assertThat(theirs.getRecentGrades()).extracting(GradeResponse::isCanEdit).containsExactly(false, true);
+            assertThat(theirs.getRecentGrades()).extracting(GradeResponse::isCanDelete).containsExactly(false, true);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private GradeStatistics statisticsAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList()));
+        try {
+            return gradeService.getClassGradeStatistics(1L);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("singleflight.inflight").gauge().value();
+    }
+
+    private double collapsed() {
+        var counter = meterRegistry.find("singleflight.calls").tag("outcome", "collapsed").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static GradeAggregate classAggregate() {
+        GradeAggregate aggregate = new GradeAggregate();
+        aggregate.setClassId(1L);
+        aggregate.setGradeCount(2);
+        aggregate.setScoreSum(30);
+        aggregate.setWeightedSum(30);
+        aggregate.setWeightTotal(2);
+        return aggregate;
+    }
+
+    private static Teacher teacher(long id) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        teacher.setEmail(id == OTHER_TEACHER_ID ? OTHER_TEACHER_EMAIL : TEACHER_EMAIL);
+        return teacher;
+    }
+
+    private static Grade grade(Long id, long teacherId, LocalDateTime gradedAt) {
+        Grade grade = new Grade();
+        grade.setId(id);
+        grade.setScore(15f);
+        grade.setGradedAt(gradedAt);
+        grade.setAssignedBy(teacher(teacherId));
+        return grade;
+    }
+}
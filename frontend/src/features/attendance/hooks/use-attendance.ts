@@ -394,7 +394,8 @@ export function useMarkAttendanceForSlot() {
     }): Promise<Attendance[]> => {
       const targetDate = date || new Date().toISOString().split('T')[0];
       const response = await http.post(`/v1/attendance/slot/${slotId}/mark?date=${targetDate}`, attendanceList);
-      return response.data?.data || [];
+      // data also carries created/updated/unchanged counts
+      return response.data?.data?.records || [];
     },
     onSuccess: (_, variables) => {
       queryClient.invalidateQueries({ queryKey: [ATTENDANCE_KEY] });
@@ -425,7 +426,8 @@ export function useMarkAttendanceForClass() {
     }): Promise<Attendance[]> => {
       const targetDate = date || new Date().toISOString().split('T')[0];
       const response = await http.post(`/v1/attendance/class/${classId}/mark?date=${targetDate}`, attendanceList);
-      return response.data?.data || [];
+      // data also carries created/updated/unchanged counts
+      return response.data?.data?.records || [];
     },
     onSuccess: (_, variables) => {
       queryClient.invalidateQueries({ queryKey: [ATTENDANCE_KEY] });